@@ -0,0 +1,169 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.herasaf.xacml.core.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.herasaf.xacml.core.PolicyRepositoryException;
+import org.herasaf.xacml.core.SyntaxException;
+import org.herasaf.xacml.core.api.PDP;
+import org.herasaf.xacml.core.context.RequestMarshaller;
+import org.herasaf.xacml.core.context.impl.RequestType;
+import org.herasaf.xacml.core.context.impl.ResponseType;
+import org.herasaf.xacml.core.policy.Evaluatable;
+import org.herasaf.xacml.core.policy.PolicyMarshaller;
+import org.herasaf.xacml.core.simplePDP.MapBasedSimplePolicyRepository;
+import org.herasaf.xacml.core.simplePDP.SimplePDPFactory;
+import org.herasaf.xacml.core.simplePDP.initializers.InitializerExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput and the latency of
+ * {@link PDP#evaluate(RequestType)} with the policy/request pairs of the
+ * conformance tests. Each category of the conformance tests (target matching,
+ * function evaluation, combining algorithms and attribute references) is
+ * measured separately. The test cases of a category are evaluated round-robin,
+ * each with its own {@link PDP}. Test cases whose policies cannot be loaded or
+ * deployed (e.g. the syntax error tests) are left out.<br />
+ * <br />
+ * Run with: <code>mvn -Pbenchmark test-compile exec:exec</code>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+public class ConformanceBenchmark {
+	private static final String[] CORPORA = { "/conformanceTests/", "/ownConformanceTests/" };
+	private static final String REQUEST_SUFFIX = "Request.xml";
+
+	@Param({ "targetMatching", "functionEvaluation", "combiningAlgorithms", "attributeReferences" })
+	private String category;
+
+	private List<PDP> pdps;
+	private List<RequestType> requests;
+	private int next;
+
+	/**
+	 * Loads and deploys the test cases of the category.
+	 *
+	 * @throws Exception
+	 *             If the test cases cannot be listed.
+	 */
+	@Setup
+	public void setUp() throws Exception {
+		InitializerExecutor.runInitializers();
+		pdps = new ArrayList<PDP>();
+		requests = new ArrayList<RequestType>();
+		for (String corpus : CORPORA) {
+			URL directory = ConformanceBenchmark.class.getResource(corpus + category);
+			if (directory != null) {
+				loadTestCases(toPath(directory));
+			}
+		}
+		if (pdps.isEmpty()) {
+			throw new IllegalStateException("No test cases found for the category " + category + ".");
+		}
+	}
+
+	/**
+	 * Evaluates the next test case.
+	 *
+	 * @return The response, such that the evaluation is not eliminated.
+	 */
+	@Benchmark
+	public ResponseType evaluate() {
+		int index = next;
+		next = index + 1 < pdps.size() ? index + 1 : 0;
+		return pdps.get(index).evaluate(requests.get(index));
+	}
+
+	/**
+	 * Loads the test cases in the given directory. A test case consists of a
+	 * request <code>&lt;id&gt;Request.xml</code> and of one or more policies
+	 * <code>&lt;id&gt;Policy*.xml</code>.
+	 */
+	private void loadTestCases(Path directory) throws IOException {
+		List<String> testCases = new ArrayList<String>();
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + REQUEST_SUFFIX)) {
+			for (Path file : files) {
+				String name = file.getFileName().toString();
+				testCases.add(name.substring(0, name.length() - REQUEST_SUFFIX.length()));
+			}
+		}
+		Collections.sort(testCases);
+
+		for (String testCase : testCases) {
+			try {
+				MapBasedSimplePolicyRepository repository = new MapBasedSimplePolicyRepository();
+				try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, testCase + "Policy*.xml")) {
+					List<Evaluatable> evaluatables = new ArrayList<Evaluatable>();
+					for (Path file : files) {
+						try (InputStream is = Files.newInputStream(file)) {
+							evaluatables.add(PolicyMarshaller.unmarshal(is));
+						}
+					}
+					repository.deploy(evaluatables);
+				}
+				RequestType request;
+				try (InputStream is = Files.newInputStream(directory.resolve(testCase + REQUEST_SUFFIX))) {
+					request = RequestMarshaller.unmarshal(is);
+				}
+				pdps.add(SimplePDPFactory.getSimplePDP(repository));
+				requests.add(request);
+			} catch (SyntaxException e) {
+				// The test case checks the handling of invalid policies.
+			} catch (PolicyRepositoryException e) {
+				// The test case checks the handling of invalid policies.
+			}
+		}
+	}
+
+	/**
+	 * Converts the URL of a directory on the class path into a {@link Path}.
+	 */
+	private static Path toPath(URL directory) {
+		try {
+			return Paths.get(directory.toURI());
+		} catch (URISyntaxException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
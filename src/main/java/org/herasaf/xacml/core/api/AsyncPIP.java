@@ -0,0 +1,53 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.herasaf.xacml.core.api;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+
+import org.herasaf.xacml.core.context.impl.AttributeValueType;
+import org.herasaf.xacml.core.context.impl.RequestType;
+
+/**
+ * A {@link PIP} that is able to resolve several attributes without blocking the
+ * calling thread. If the configured {@link PIP} implements this interface,
+ * {@link PDP#evaluateAsync(RequestType)} requests the attributes that the
+ * applicable policies may need and that are missing in the request with
+ * {@link #fetchAttributesAsync(RequestType, List)} and evaluates the request
+ * when they arrive. Attributes that are needed later on are still requested
+ * with the (blocking) single-attribute methods of the {@link PIP}.
+ */
+public interface AsyncPIP extends PIP {
+
+	/**
+	 * Starts to fetch the values of the given attributes. The returned
+	 * {@link CompletionStage} is completed when all values are known.
+	 *
+	 * @param request
+	 *            - The actual {@link RequestType} to provide the context of this request. Might be useful to determine
+	 *            the attribute values.
+	 * @param attributes
+	 *            - The descriptors of the requested attributes. They are distinct.
+	 *
+	 * @return The {@link CompletionStage} of the found values of each requested attribute. An attribute that is not
+	 *         contained in the {@link Map} is treated as if the {@link PIP} returned an empty {@link List} for it.
+	 */
+	CompletionStage<Map<AttributeDescriptor, List<AttributeValueType>>> fetchAttributesAsync(RequestType request,
+			List<AttributeDescriptor> attributes);
+}
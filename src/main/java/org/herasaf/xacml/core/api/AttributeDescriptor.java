@@ -0,0 +1,152 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.herasaf.xacml.core.api;
+
+import java.util.Objects;
+
+/**
+ * Describes an attribute that is requested from a {@link PIP}: its category,
+ * attribute id, data type, issuer and, for subject attributes, its subject
+ * category. The parameters correspond to those of the single-attribute
+ * methods of the {@link PIP} (e.g.
+ * {@link PIP#fetchSubjectAttributes(org.herasaf.xacml.core.context.impl.RequestType, String, String, String, String)}
+ * ). Two descriptors are equal if all their parameters are equal.
+ */
+public final class AttributeDescriptor {
+
+	/**
+	 * The categories of the attributes.
+	 */
+	public enum Category {
+		SUBJECT, RESOURCE, ACTION, ENVIRONMENT
+	}
+
+	private final Category category;
+	private final String attributeId;
+	private final String dataType;
+	private final String issuer;
+	private final String subjectCategory;
+
+	/**
+	 * Creates a new {@link AttributeDescriptor}.
+	 *
+	 * @param category
+	 *            The category of the attribute.
+	 * @param attributeId
+	 *            The id of the attribute.
+	 * @param dataType
+	 *            The data type of the attribute.
+	 * @param issuer
+	 *            The issuer of the attribute, may be <code>null</code>.
+	 * @param subjectCategory
+	 *            The subject category of a subject attribute,
+	 *            <code>null</code> for the other categories.
+	 */
+	public AttributeDescriptor(Category category, String attributeId, String dataType, String issuer,
+			String subjectCategory) {
+		if (category == null) {
+			throw new IllegalArgumentException("The category must not be null.");
+		}
+		this.category = category;
+		this.attributeId = attributeId;
+		this.dataType = dataType;
+		this.issuer = issuer;
+		this.subjectCategory = subjectCategory;
+	}
+
+	/**
+	 * @return The category of the attribute.
+	 */
+	public Category getCategory() {
+		return category;
+	}
+
+	/**
+	 * @return The id of the attribute.
+	 */
+	public String getAttributeId() {
+		return attributeId;
+	}
+
+	/**
+	 * @return The data type of the attribute.
+	 */
+	public String getDataType() {
+		return dataType;
+	}
+
+	/**
+	 * @return The issuer of the attribute, may be <code>null</code>.
+	 */
+	public String getIssuer() {
+		return issuer;
+	}
+
+	/**
+	 * @return The subject category of a subject attribute, <code>null</code>
+	 *         for the other categories.
+	 */
+	public String getSubjectCategory() {
+		return subjectCategory;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode() {
+		return Objects.hash(category, attributeId, dataType, issuer, subjectCategory);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof AttributeDescriptor)) {
+			return false;
+		}
+		AttributeDescriptor other = (AttributeDescriptor) obj;
+		return category == other.category && Objects.equals(attributeId, other.attributeId)
+				&& Objects.equals(dataType, other.dataType) && Objects.equals(issuer, other.issuer)
+				&& Objects.equals(subjectCategory, other.subjectCategory);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		StringBuilder stringValue = new StringBuilder("AttributeDescriptor[");
+		stringValue.append("category=");
+		stringValue.append(category);
+		stringValue.append(", attributeId=");
+		stringValue.append(attributeId);
+		stringValue.append(", dataType=");
+		stringValue.append(dataType);
+		stringValue.append(", issuer=");
+		stringValue.append(issuer);
+		stringValue.append(", subjectCategory=");
+		stringValue.append(subjectCategory);
+		stringValue.append("]");
+		return stringValue.toString();
+	}
+}
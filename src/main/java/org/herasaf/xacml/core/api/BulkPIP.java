@@ -0,0 +1,51 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.herasaf.xacml.core.api;
+
+import java.util.List;
+import java.util.Map;
+
+import org.herasaf.xacml.core.context.impl.AttributeValueType;
+import org.herasaf.xacml.core.context.impl.RequestType;
+
+/**
+ * A {@link PIP} that is able to resolve several attributes in one call (e.g.
+ * with a single query to its backend). If the configured {@link PIP} implements
+ * this interface, the PDP requests the attributes that the applicable policies
+ * may need and that are missing in the request with one call of
+ * {@link #fetchAttributes(RequestType, List)} before the evaluation starts.
+ * Attributes that are needed later on are still requested with the
+ * single-attribute methods of the {@link PIP}.
+ */
+public interface BulkPIP extends PIP {
+
+	/**
+	 * Returns the values of the given attributes.
+	 *
+	 * @param request
+	 *            - The actual {@link RequestType} to provide the context of this request. Might be useful to determine
+	 *            the attribute values.
+	 * @param attributes
+	 *            - The descriptors of the requested attributes. They are distinct.
+	 *
+	 * @return The found values of each requested attribute. An attribute that is not contained in the {@link Map} is
+	 *         treated as if the {@link PIP} returned an empty {@link List} for it.
+	 */
+	Map<AttributeDescriptor, List<AttributeValueType>> fetchAttributes(RequestType request,
+			List<AttributeDescriptor> attributes);
+}
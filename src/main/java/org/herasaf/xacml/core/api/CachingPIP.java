@@ -0,0 +1,434 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.herasaf.xacml.core.api;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.herasaf.xacml.core.context.impl.AttributeType;
+import org.herasaf.xacml.core.context.impl.AttributeValueType;
+import org.herasaf.xacml.core.context.impl.RequestType;
+import org.herasaf.xacml.core.context.impl.ResourceType;
+import org.herasaf.xacml.core.context.impl.SubjectType;
+import org.herasaf.xacml.core.utils.ConcurrentLruCache;
+
+/**
+ * <p>
+ * A {@link PIP} that caches the attributes fetched from another {@link PIP}
+ * across requests. It is meant to be put in front of a {@link PIP} that calls
+ * a remote service (e.g. a directory), such that repeated requests for the
+ * same principal do not pay the latency of the service again.
+ * </p>
+ * <p>
+ * An attribute is cached under its category, attribute id, data type, issuer
+ * and subject category together with the identity of the entity it belongs
+ * to (see {@link #createEntityKey(RequestType, String, String)}). An
+ * attribute whose request does not identify the entity is not cached, unless
+ * the attribute is the same for all requests (see
+ * {@link #isShared(String, String)}). An entry expires after the time to live
+ * configured for its attribute id, or after the default time to live. The
+ * least recently used entries are evicted if the cache is full (see
+ * {@link ConcurrentLruCache}).
+ * </p>
+ * <p>
+ * If several threads miss the same entry at the same time, only one of them
+ * fetches the attribute and the others wait for its result. Errors of the
+ * underlying {@link PIP} are passed to all waiting threads and are not
+ * cached.
+ * </p>
+ */
+public class CachingPIP implements PIP {
+	private static final String SUBJECT = "subject";
+	private static final String RESOURCE = "resource";
+	private static final String ACTION = "action";
+	private static final String ENVIRONMENT = "environment";
+	private static final String SUBJECT_ID = "urn:oasis:names:tc:xacml:1.0:subject:subject-id";
+	private static final String RESOURCE_ID = "urn:oasis:names:tc:xacml:1.0:resource:resource-id";
+	private static final String ACTION_ID = "urn:oasis:names:tc:xacml:1.0:action:action-id";
+
+	private final PIP pip;
+	private final long defaultTimeToLive;
+	private final Map<String, Long> timeToLives = new ConcurrentHashMap<String, Long>();
+	private final ConcurrentLruCache<CacheKey, CacheEntry> entries;
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * Creates a new {@link CachingPIP}.
+	 *
+	 * @param pip
+	 *            The {@link PIP} whose attributes are cached.
+	 * @param maximumSize
+	 *            The maximum number of cached attributes.
+	 * @param defaultTimeToLive
+	 *            The time in milliseconds an attribute is cached, if no time
+	 *            to live is set for its attribute id. If it is zero or negative
+	 *            the attributes do not expire.
+	 */
+	public CachingPIP(PIP pip, int maximumSize, long defaultTimeToLive) {
+		if (pip == null) {
+			throw new IllegalArgumentException("The PIP must not be null.");
+		}
+		if (maximumSize <= 0) {
+			throw new IllegalArgumentException("The maximum size must be greater than 0.");
+		}
+		this.pip = pip;
+		this.defaultTimeToLive = defaultTimeToLive;
+		this.entries = new ConcurrentLruCache<CacheKey, CacheEntry>(maximumSize);
+	}
+
+	/**
+	 * Sets the time to live of the attributes with the given id.
+	 *
+	 * @param attributeId
+	 *            The id of the attributes.
+	 * @param timeToLive
+	 *            The time in milliseconds the attributes are cached. If it is
+	 *            zero or negative the attributes do not expire.
+	 */
+	public void setTimeToLive(String attributeId, long timeToLive) {
+		timeToLives.put(attributeId, timeToLive);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<AttributeValueType> fetchSubjectAttributes(final RequestType request, final String attributeId,
+			final String dataType, final String issuer, final String subjectCategory) {
+		CacheKey key = new CacheKey(SUBJECT, attributeId, dataType, issuer, subjectCategory, createEntityKey(request,
+				SUBJECT, subjectCategory));
+		return get(key, new Fetcher() {
+			public List<AttributeValueType> fetch() {
+				return pip.fetchSubjectAttributes(request, attributeId, dataType, issuer, subjectCategory);
+			}
+		});
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<AttributeValueType> fetchResourceAttributes(final RequestType request, final String attributeId,
+			final String dataType, final String issuer) {
+		CacheKey key = new CacheKey(RESOURCE, attributeId, dataType, issuer, null, createEntityKey(request, RESOURCE,
+				null));
+		return get(key, new Fetcher() {
+			public List<AttributeValueType> fetch() {
+				return pip.fetchResourceAttributes(request, attributeId, dataType, issuer);
+			}
+		});
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<AttributeValueType> fetchActionAttributes(final RequestType request, final String attributeId,
+			final String dataType, final String issuer) {
+		CacheKey key = new CacheKey(ACTION, attributeId, dataType, issuer, null, createEntityKey(request, ACTION, null));
+		return get(key, new Fetcher() {
+			public List<AttributeValueType> fetch() {
+				return pip.fetchActionAttributes(request, attributeId, dataType, issuer);
+			}
+		});
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<AttributeValueType> fetchEnvironmentAttributes(final RequestType request, final String attributeId,
+			final String dataType, final String issuer) {
+		CacheKey key = new CacheKey(ENVIRONMENT, attributeId, dataType, issuer, null, createEntityKey(request,
+				ENVIRONMENT, null));
+		return get(key, new Fetcher() {
+			public List<AttributeValueType> fetch() {
+				return pip.fetchEnvironmentAttributes(request, attributeId, dataType, issuer);
+			}
+		});
+	}
+
+	/**
+	 * Returns the number of lookups that were answered from the cache.
+	 *
+	 * @return The number of cache hits.
+	 */
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	/**
+	 * Returns the number of lookups that were passed to the underlying
+	 * {@link PIP}.
+	 *
+	 * @return The number of cache misses.
+	 */
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	/**
+	 * Returns the number of cached attributes.
+	 *
+	 * @return The number of cached attributes.
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Discards all cached attributes.
+	 */
+	public void clear() {
+		entries.clear();
+	}
+
+	/**
+	 * Creates the key of the entity an attribute of the given category belongs
+	 * to. The attributes of different entities are cached separately. By
+	 * default the entity is identified by the values of the subject-id of the
+	 * given subject category (of all subjects if it is <code>null</code>), the
+	 * resource-id or the action-id attribute of the request. Environment
+	 * attributes do not belong to an entity.<br />
+	 * <br />
+	 * Subclasses may override this method if the attributes provided by the
+	 * underlying {@link PIP} depend on other parts of the request. If the key
+	 * is <code>null</code> the attribute is only cached if it is shared by all
+	 * requests (see {@link #isShared(String, String)}).
+	 *
+	 * @param request
+	 *            The request whose attribute is fetched.
+	 * @param category
+	 *            The category of the attribute (<code>subject</code>,
+	 *            <code>resource</code>, <code>action</code> or
+	 *            <code>environment</code>).
+	 * @param subjectCategory
+	 *            The subject category of a subject attribute, otherwise
+	 *            <code>null</code>.
+	 * @return The key of the entity or <code>null</code> if the request does
+	 *         not identify it. It must implement {@link Object#equals(Object)}
+	 *         and {@link Object#hashCode()}.
+	 */
+	protected Object createEntityKey(RequestType request, String category, String subjectCategory) {
+		List<List<Object>> key = new ArrayList<List<Object>>();
+		if (SUBJECT.equals(category)) {
+			for (SubjectType subject : request.getSubjects()) {
+				if (subjectCategory == null || subjectCategory.equals(subject.getSubjectCategory())) {
+					addValues(key, subject.getAttributes(), SUBJECT_ID);
+				}
+			}
+		} else if (RESOURCE.equals(category)) {
+			for (ResourceType resource : request.getResources()) {
+				addValues(key, resource.getAttributes(), RESOURCE_ID);
+			}
+		} else if (ACTION.equals(category) && request.getAction() != null) {
+			addValues(key, request.getAction().getAttributes(), ACTION_ID);
+		}
+		if (key.isEmpty()) {
+			return null;
+		}
+		return key;
+	}
+
+	/**
+	 * Tells whether the attributes with the given category and id are the same
+	 * for all requests (e.g. environment attributes that do not depend on the
+	 * caller). Such attributes are cached even if the request does not
+	 * identify an entity (see
+	 * {@link #createEntityKey(RequestType, String, String)}). By default no
+	 * attribute is shared, subclasses override this method to mark them.
+	 * 
+	 * @param category
+	 *            The category of the attribute (<code>subject</code>,
+	 *            <code>resource</code>, <code>action</code> or
+	 *            <code>environment</code>).
+	 * @param attributeId
+	 *            The id of the attribute.
+	 * @return True if the attribute may be returned to any request.
+	 */
+	protected boolean isShared(String category, String attributeId) {
+		return false;
+	}
+
+	/**
+	 * Adds the contents of the values of the attributes with the given id.
+	 */
+	private static void addValues(List<List<Object>> key, List<AttributeType> attributes, String attributeId) {
+		for (AttributeType attribute : attributes) {
+			if (attributeId.equals(attribute.getAttributeId())) {
+				for (AttributeValueType value : attribute.getAttributeValues()) {
+					key.add(new ArrayList<Object>(value.getContent()));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the cached attribute of the given key. On a miss a pending entry
+	 * is registered, such that other callers wait for the result, and the
+	 * attribute is fetched. An attribute without entity that is not shared is
+	 * fetched without the cache.
+	 */
+	private List<AttributeValueType> get(CacheKey key, Fetcher fetcher) {
+		if (key.entityKey == null && !isShared(key.category, key.attributeId)) {
+			return fetcher.fetch();
+		}
+		while (true) {
+			CacheEntry entry = entries.get(key);
+			if (entry != null && !entry.isExpired()) {
+				hits.incrementAndGet();
+				return await(entry.future);
+			}
+			CacheEntry pending = new CacheEntry();
+			boolean registered;
+			if (entry == null) {
+				registered = entries.putIfAbsent(key, pending) == null;
+			} else {
+				registered = entries.replace(key, entry, pending);
+			}
+			if (registered) {
+				misses.incrementAndGet();
+				return fetch(key, pending, fetcher);
+			}
+		}
+	}
+
+	/**
+	 * Fetches the attribute of the given pending entry and completes it. If
+	 * the fetch fails (also with an {@link Error}) the entry is removed and
+	 * the waiting callers get the failure, such that they do not wait forever.
+	 */
+	private List<AttributeValueType> fetch(CacheKey key, CacheEntry entry, Fetcher fetcher) {
+		List<AttributeValueType> values;
+		try {
+			List<AttributeValueType> fetched = fetcher.fetch();
+			if (fetched == null || fetched.isEmpty()) {
+				values = Collections.emptyList();
+			} else {
+				values = Collections.unmodifiableList(new ArrayList<AttributeValueType>(fetched));
+			}
+		} catch (Throwable t) {
+			entries.remove(key, entry);
+			entry.future.completeExceptionally(t);
+			throw t;
+		}
+		Long timeToLive = timeToLives.get(key.attributeId);
+		long ttl = timeToLive != null ? timeToLive : defaultTimeToLive;
+		entry.expiration = ttl > 0 ? System.currentTimeMillis() + ttl : Long.MAX_VALUE;
+		entry.future.complete(values);
+		return values;
+	}
+
+	/**
+	 * Waits for the result of a fetch started by another thread.
+	 */
+	private static List<AttributeValueType> await(CompletableFuture<List<AttributeValueType>> future) {
+		boolean interrupted = false;
+		try {
+			while (true) {
+				try {
+					return future.get();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				} catch (ExecutionException e) {
+					if (e.getCause() instanceof RuntimeException) {
+						throw (RuntimeException) e.getCause();
+					}
+					if (e.getCause() instanceof Error) {
+						throw (Error) e.getCause();
+					}
+					throw new IllegalStateException(e.getCause());
+				}
+			}
+		} finally {
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Fetches an attribute from the underlying {@link PIP}.
+	 */
+	private interface Fetcher {
+		List<AttributeValueType> fetch();
+	}
+
+	/**
+	 * A cached or pending attribute.
+	 */
+	private static final class CacheEntry {
+		private final CompletableFuture<List<AttributeValueType>> future = new CompletableFuture<List<AttributeValueType>>();
+		// Long.MAX_VALUE while pending, set once before the future completes.
+		private volatile long expiration = Long.MAX_VALUE;
+
+		private boolean isExpired() {
+			return System.currentTimeMillis() >= expiration;
+		}
+	}
+
+	/**
+	 * The key of a cached attribute.
+	 */
+	private static final class CacheKey {
+		private final String category;
+		private final String attributeId;
+		private final String dataType;
+		private final String issuer;
+		private final String subjectCategory;
+		private final Object entityKey;
+
+		private CacheKey(String category, String attributeId, String dataType, String issuer, String subjectCategory,
+				Object entityKey) {
+			this.category = category;
+			this.attributeId = attributeId;
+			this.dataType = dataType;
+			this.issuer = issuer;
+			this.subjectCategory = subjectCategory;
+			this.entityKey = entityKey;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(category, attributeId, dataType, issuer, subjectCategory, entityKey);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof CacheKey)) {
+				return false;
+			}
+			CacheKey other = (CacheKey) obj;
+			return category.equals(other.category) && Objects.equals(attributeId, other.attributeId)
+					&& Objects.equals(dataType, other.dataType) && Objects.equals(issuer, other.issuer)
+					&& Objects.equals(subjectCategory, other.subjectCategory)
+					&& Objects.equals(entityKey, other.entityKey);
+		}
+	}
+}
@@ -17,8 +17,14 @@
 
 package org.herasaf.xacml.core.api;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 import org.herasaf.xacml.core.combiningAlgorithm.CombiningAlgorithm;
 import org.herasaf.xacml.core.combiningAlgorithm.policy.PolicyCombiningAlgorithm;
+import org.herasaf.xacml.core.context.Decision;
 import org.herasaf.xacml.core.context.impl.RequestType;
 import org.herasaf.xacml.core.context.impl.ResponseType;
 
@@ -57,6 +63,53 @@ public interface PDP {
      */
     ResponseType evaluate(RequestType request);
 
+    /**
+     * Evaluates an XACML access control request like {@link #evaluate(RequestType)} but without blocking the calling
+     * thread while attributes are fetched from an {@link AsyncPIP}. The returned {@link CompletionStage} is completed
+     * with the {@link ResponseType} when the evaluation is finished.<br />
+     * The default implementation evaluates the request on the calling thread.
+     * 
+     * @param request
+     *            The {@link RequestType} that shall be evaluated.
+     * @return The {@link CompletionStage} of the {@link ResponseType} containing the result of the evaluation.
+     */
+    default CompletionStage<ResponseType> evaluateAsync(RequestType request) {
+        return CompletableFuture.completedFuture(evaluate(request));
+    }
+
+    /**
+     * Evaluates an XACML access control request like {@link #evaluate(RequestType)} but returns a lightweight
+     * {@link Decision} instead of a {@link ResponseType}. The {@link ResponseType} can be created on demand with
+     * {@link Decision#toResponse()}.<br />
+     * The default implementation creates the {@link Decision} from the {@link ResponseType} returned by
+     * {@link #evaluate(RequestType)}.
+     * 
+     * @param request
+     *            The {@link RequestType} that shall be evaluated. It must contain at most one resource.
+     * @return The {@link Decision} containing the result of the evaluation.
+     */
+    default Decision evaluateDecision(RequestType request) {
+        return Decision.fromResponse(request, evaluate(request));
+    }
+
+    /**
+     * Evaluates several XACML access control requests. An implementation may evaluate the requests in parallel and
+     * share the work that is common to several requests (e.g. the attributes of a subject that is contained in all
+     * requests).<br />
+     * The default implementation evaluates the requests one after the other with {@link #evaluate(RequestType)}.
+     * 
+     * @param requests
+     *            The {@link RequestType}s that shall be evaluated.
+     * @return The {@link ResponseType}s containing the results of the evaluations in the order of the requests.
+     */
+    default List<ResponseType> evaluateBatch(List<RequestType> requests) {
+        List<ResponseType> responses = new ArrayList<ResponseType>(requests.size());
+        for (RequestType request : requests) {
+            responses.add(evaluate(request));
+        }
+        return responses;
+    }
+
     /**
      * Returns the {@link PolicyRetrievalPoint} that this PDP uses for evaluation. <br />
      * If the used implementation is an OrderedPolicyRepository a cast must be done manually.
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.herasaf.xacml.core.api;
+
+/**
+ * A {@link PIP} that resolves an attribute from the section of the request of
+ * its category only (e.g. the role of a subject from the subject attributes,
+ * but not from the resource). When the requests of a batch are evaluated (see
+ * {@link PDP#evaluateBatch(java.util.List)}), the attributes fetched from such
+ * a {@link PIP} and the results of the target matches that depend on them are
+ * shared between the requests that contain the same section. The attributes
+ * of any other {@link PIP} are fetched for each request.<br />
+ * <br />
+ * This is a marker interface, it does not add any methods.
+ */
+public interface SectionScopedPIP extends PIP {
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.herasaf.xacml.core.api;
+
+/**
+ * A {@link PolicyRetrievalPoint} that is able to provide a consistent,
+ * immutable view of its current deployment. A PDP uses the snapshot for the
+ * whole evaluation of a request, such that (un-)deployments that happen during
+ * the evaluation do not affect the request.
+ */
+public interface SnapshotPolicyRetrievalPoint extends PolicyRetrievalPoint {
+
+	/**
+	 * Returns a {@link PolicyRetrievalPoint} that contains the
+	 * {@link org.herasaf.xacml.core.policy.Evaluatable}s deployed at the time
+	 * of the call. The returned {@link PolicyRetrievalPoint} does not change
+	 * anymore.
+	 *
+	 * @return The snapshot of the current deployment.
+	 */
+	PolicyRetrievalPoint getSnapshot();
+}
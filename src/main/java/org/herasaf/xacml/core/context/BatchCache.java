@@ -0,0 +1,202 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.herasaf.xacml.core.context;
+
+import java.time.Clock;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.herasaf.xacml.core.api.AttributeDescriptor;
+import org.herasaf.xacml.core.api.SectionScopedPIP;
+import org.herasaf.xacml.core.context.impl.AttributeValueType;
+import org.herasaf.xacml.core.types.Bag;
+
+/**
+ * <p>
+ * Holds the work that the evaluations of a batch of requests share. A result
+ * that depends on one section (subjects, resource, action or environment) of a
+ * request is shared between all requests of the batch whose section has the
+ * same canonical key (see {@link RequestSectionKeys}). The following results
+ * are shared:
+ * </p>
+ * <ul>
+ * <li>The values of the request attributes converted by the designators (see
+ * {@link RequestAttributeIndex}).</li>
+ * <li>The attribute values fetched from the PIP, if it is a
+ * {@link SectionScopedPIP} that resolves an attribute from the section of its
+ * category only (e.g. the role of a subject from the subject attributes). A
+ * failed fetch is not shared.</li>
+ * <li>The results of matching a section of a target (e.g. a
+ * <code>&lt;Subjects&gt;</code> element) against the request, if there is no
+ * PIP or it is a {@link SectionScopedPIP}.</li>
+ * <li>The current time of requests that do not contain it (see
+ * {@link EvaluationContext#getCurrentDateTime()}). All requests of the batch
+ * are evaluated at the same time.</li>
+ * </ul>
+ * <p>
+ * A {@link BatchCache} must only be used for requests that are evaluated
+ * against the same deployment. This class is thread-safe.
+ * </p>
+ */
+public final class BatchCache {
+	private final ConcurrentMap<List<Object>, Bag<Object>> values;
+	private final ConcurrentMap<List<Object>, CompletableFuture<List<AttributeValueType>>> pipAttributes;
+	private final ConcurrentMap<String, Map<Object, Boolean>> targetMatches;
+	private final AtomicReference<OffsetDateTime> currentDateTime;
+
+	/**
+	 * Creates an empty {@link BatchCache}.
+	 */
+	public BatchCache() {
+		values = new ConcurrentHashMap<List<Object>, Bag<Object>>();
+		pipAttributes = new ConcurrentHashMap<List<Object>, CompletableFuture<List<AttributeValueType>>>();
+		targetMatches = new ConcurrentHashMap<String, Map<Object, Boolean>>();
+		currentDateTime = new AtomicReference<OffsetDateTime>();
+	}
+
+	/**
+	 * Returns the current time of the batch. The given {@link Clock} is read
+	 * by the first request that needs the current time.
+	 */
+	OffsetDateTime getCurrentDateTime(Clock clock) {
+		OffsetDateTime dateTime = currentDateTime.get();
+		if (dateTime == null) {
+			currentDateTime.compareAndSet(null, OffsetDateTime.now(clock));
+			dateTime = currentDateTime.get();
+		}
+		return dateTime;
+	}
+
+	/**
+	 * Returns the shared result of matching the given section of a target
+	 * against a request section with the given key.
+	 *
+	 * @param targetSection
+	 *            The section of the target (e.g. a
+	 *            <code>&lt;Subjects&gt;</code> element).
+	 * @param sectionKey
+	 *            The key of the request section.
+	 * @return The result or <code>null</code> if it is not known yet.
+	 */
+	public Boolean getTargetMatch(Object targetSection, String sectionKey) {
+		Map<Object, Boolean> matches = targetMatches.get(sectionKey);
+		if (matches == null) {
+			return null;
+		}
+		return matches.get(targetSection);
+	}
+
+	/**
+	 * Shares the result of matching the given section of a target against a
+	 * request section with the given key.
+	 *
+	 * @param targetSection
+	 *            The section of the target (e.g. a
+	 *            <code>&lt;Subjects&gt;</code> element).
+	 * @param sectionKey
+	 *            The key of the request section.
+	 * @param matches
+	 *            The result of the match.
+	 */
+	public void putTargetMatch(Object targetSection, String sectionKey, boolean matches) {
+		targetMatches.computeIfAbsent(sectionKey, new Function<String, Map<Object, Boolean>>() {
+			public Map<Object, Boolean> apply(String key) {
+				return Collections.synchronizedMap(new IdentityHashMap<Object, Boolean>());
+			}
+		}).put(targetSection, matches);
+	}
+
+	/**
+	 * Returns the shared converted values of the given key.
+	 */
+	Bag<Object> getValues(String sectionKey, Object valuesKey) {
+		return values.get(Arrays.asList(sectionKey, valuesKey));
+	}
+
+	/**
+	 * Shares the converted values of the given key.
+	 */
+	void putValues(String sectionKey, Object valuesKey, Bag<Object> convertedValues) {
+		values.putIfAbsent(Arrays.<Object> asList(sectionKey, valuesKey), convertedValues);
+	}
+
+	/**
+	 * Returns the shared values of the given attribute if they are fetched
+	 * already.
+	 *
+	 * @return The values or <code>null</code> if they are not known yet.
+	 */
+	List<AttributeValueType> getFetchedAttributes(String sectionKey, AttributeDescriptor descriptor) {
+		CompletableFuture<List<AttributeValueType>> fetch = pipAttributes.get(Arrays.asList(sectionKey, descriptor));
+		if (fetch == null || !fetch.isDone() || fetch.isCompletedExceptionally()) {
+			return null;
+		}
+		return fetch.join();
+	}
+
+	/**
+	 * Shares the fetched values of the given attribute.
+	 */
+	void putFetchedAttributes(String sectionKey, AttributeDescriptor descriptor, List<AttributeValueType> attributes) {
+		pipAttributes.putIfAbsent(Arrays.<Object> asList(sectionKey, descriptor),
+				CompletableFuture.completedFuture(attributes));
+	}
+
+	/**
+	 * Returns the shared values of the given attribute. If they are not known
+	 * yet, they are fetched with the given {@link Supplier}. Concurrent
+	 * requests of the same attribute wait for the first fetch. If it fails,
+	 * each of them fetches the attribute itself.
+	 */
+	List<AttributeValueType> fetchAttributes(String sectionKey, AttributeDescriptor descriptor,
+			Supplier<List<AttributeValueType>> fetcher) {
+		List<Object> key = Arrays.<Object> asList(sectionKey, descriptor);
+		CompletableFuture<List<AttributeValueType>> fetch = new CompletableFuture<List<AttributeValueType>>();
+		CompletableFuture<List<AttributeValueType>> pending = pipAttributes.putIfAbsent(key, fetch);
+		if (pending != null) {
+			try {
+				return pending.join();
+			} catch (CompletionException e) {
+				return fetcher.get();
+			} catch (CancellationException e) {
+				return fetcher.get();
+			}
+		}
+		try {
+			List<AttributeValueType> attributes = fetcher.get();
+			fetch.complete(attributes);
+			return attributes;
+		} catch (RuntimeException e) {
+			pipAttributes.remove(key, fetch);
+			fetch.completeExceptionally(e);
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.herasaf.xacml.core.context;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import jakarta.xml.bind.JAXBElement;
+
+import org.herasaf.xacml.core.context.impl.DecisionType;
+import org.herasaf.xacml.core.context.impl.MissingAttributeDetailType;
+import org.herasaf.xacml.core.context.impl.RequestType;
+import org.herasaf.xacml.core.context.impl.ResponseType;
+import org.herasaf.xacml.core.context.impl.ResultType;
+import org.herasaf.xacml.core.policy.impl.ObligationType;
+import org.herasaf.xacml.core.policy.impl.ObligationsType;
+
+/**
+ * The result of the evaluation of a request with a single resource: the
+ * decision, the status code, the obligations and the missing attributes. In
+ * contrast to a {@link ResponseType} no JAXB objects are created for it. The
+ * {@link ResponseType} is only created if {@link #toResponse()} is called.<br />
+ * <br />
+ * A {@link Decision} is immutable.
+ */
+public final class Decision {
+	private final RequestType request;
+	private final DecisionType decision;
+	private final StatusCode statusCode;
+	private final List<MissingAttributeDetailType> missingAttributes;
+	private final ObligationsType obligations;
+	private final ResponseType response;
+
+	/**
+	 * Creates the {@link Decision} of an evaluation. The
+	 * {@link EvaluationContext} must not be modified afterwards.
+	 * 
+	 * @param request
+	 *            The evaluated request.
+	 * @param decision
+	 *            The decision of the evaluation.
+	 * @param evaluationContext
+	 *            The {@link EvaluationContext} of the evaluation. It contains
+	 *            the status, the missing attributes and the obligations.
+	 */
+	public Decision(RequestType request, DecisionType decision, EvaluationContext evaluationContext) {
+		this.request = request;
+		this.decision = decision;
+		this.statusCode = evaluationContext.getStatusCode();
+		this.missingAttributes = Collections.unmodifiableList(evaluationContext.getMissingAttributes());
+		this.obligations = evaluationContext.getObligations();
+		this.response = null;
+	}
+
+	/**
+	 * Creates the {@link Decision} of the first result of the given
+	 * {@link ResponseType}.
+	 */
+	private Decision(RequestType request, ResponseType response) {
+		ResultType result = response.getResults().get(0);
+		this.request = request;
+		this.decision = result.getDecision();
+		this.statusCode = toStatusCode(result.getStatus().getStatusCode().getValue());
+		List<MissingAttributeDetailType> missing = new ArrayList<MissingAttributeDetailType>();
+		if (result.getStatus().getStatusDetail() != null) {
+			for (Object detail : result.getStatus().getStatusDetail().getContent()) {
+				if (detail instanceof JAXBElement<?>
+						&& ((JAXBElement<?>) detail).getValue() instanceof MissingAttributeDetailType) {
+					missing.add((MissingAttributeDetailType) ((JAXBElement<?>) detail).getValue());
+				}
+			}
+		}
+		this.missingAttributes = Collections.unmodifiableList(missing);
+		this.obligations = result.getObligations() != null ? result.getObligations() : new ObligationsType();
+		this.response = response;
+	}
+
+	/**
+	 * Creates the {@link Decision} of the given {@link ResponseType}. It is
+	 * used by PDPs that create the {@link ResponseType} anyway.
+	 * 
+	 * @param request
+	 *            The evaluated request.
+	 * @param response
+	 *            The {@link ResponseType} of the request. Only its first
+	 *            result is considered.
+	 * @return The {@link Decision}.
+	 */
+	public static Decision fromResponse(RequestType request, ResponseType response) {
+		return new Decision(request, response);
+	}
+
+	/**
+	 * @return The decision.
+	 */
+	public DecisionType getDecision() {
+		return decision;
+	}
+
+	/**
+	 * @return The status code of the decision.
+	 */
+	public StatusCode getStatusCode() {
+		return statusCode;
+	}
+
+	/**
+	 * @return The unmodifiable list of the obligations to fulfill.
+	 */
+	public List<ObligationType> getObligations() {
+		return Collections.unmodifiableList(obligations.getObligations());
+	}
+
+	/**
+	 * @return The unmodifiable list of the missing attributes.
+	 */
+	public List<MissingAttributeDetailType> getMissingAttributes() {
+		return missingAttributes;
+	}
+
+	/**
+	 * Returns the {@link ResponseType} of this {@link Decision}. A new
+	 * {@link ResponseType} is created on each call, unless the
+	 * {@link Decision} was created from a {@link ResponseType}.
+	 * 
+	 * @return The {@link ResponseType}.
+	 */
+	public ResponseType toResponse() {
+		if (response != null) {
+			return response;
+		}
+		return ResponseMarshaller.create(request, decision, statusCode, missingAttributes, obligations);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		StringBuilder stringValue = new StringBuilder("Decision[");
+		stringValue.append("decision=");
+		stringValue.append(decision);
+		stringValue.append(", statusCode=");
+		stringValue.append(statusCode != null ? statusCode.getValue() : null);
+		stringValue.append(", obligations=");
+		stringValue.append(obligations.getObligations().size());
+		stringValue.append("]");
+		return stringValue.toString();
+	}
+
+	/**
+	 * Returns the {@link StatusCode} of the given value.
+	 */
+	private static StatusCode toStatusCode(final String value) {
+		StatusCode statusCode = XACMLDefaultStatusCode.getStatusCode(value);
+		if (statusCode != null) {
+			return statusCode;
+		}
+		return new StatusCode() {
+			public String getValue() {
+				return value;
+			}
+		};
+	}
+}
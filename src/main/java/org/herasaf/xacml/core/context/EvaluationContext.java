@@ -17,21 +17,49 @@
 
 package org.herasaf.xacml.core.context;
 
+import java.time.Clock;
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+import org.herasaf.xacml.core.api.AsyncPIP;
+import org.herasaf.xacml.core.api.AttributeDescriptor;
+import org.herasaf.xacml.core.api.AttributeDescriptor.Category;
+import org.herasaf.xacml.core.api.BulkPIP;
 import org.herasaf.xacml.core.api.PIP;
 import org.herasaf.xacml.core.api.PolicyRetrievalPoint;
+import org.herasaf.xacml.core.api.SectionScopedPIP;
+import org.herasaf.xacml.core.context.impl.AttributeValueType;
 import org.herasaf.xacml.core.context.impl.MissingAttributeDetailType;
+import org.herasaf.xacml.core.context.impl.RequestType;
+import org.herasaf.xacml.core.policy.impl.ActionAttributeDesignatorType;
+import org.herasaf.xacml.core.policy.impl.AttributeDesignatorType;
 import org.herasaf.xacml.core.policy.impl.EffectType;
+import org.herasaf.xacml.core.policy.impl.EnvironmentAttributeDesignatorType;
 import org.herasaf.xacml.core.policy.impl.ObjectFactory;
 import org.herasaf.xacml.core.policy.impl.ObligationType;
 import org.herasaf.xacml.core.policy.impl.ObligationsType;
+import org.herasaf.xacml.core.policy.impl.ResourceAttributeDesignatorType;
+import org.herasaf.xacml.core.policy.impl.SubjectAttributeDesignatorType;
 import org.herasaf.xacml.core.policy.impl.Variable;
 import org.herasaf.xacml.core.targetMatcher.TargetMatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * This class is the container containing the context of a request evaluation.
@@ -48,12 +76,16 @@ import org.herasaf.xacml.core.targetMatcher.TargetMatcher;
  * <li>The {@link StatusCodeComparator} to be used.</li>
  * <li>The {@link PolicyRetrievalPoint} to be used for resolving policy
  * references during evaluation.</li>
+ * <li>The {@link RequestAttributeIndex} of the request, if there is one.</li>
+ * <li>The attributes already fetched from the PIP during the evaluation.</li>
+ * <li>The {@link Clock} and the current time of the request.</li>
  * </ul>
  * 
  * @author Florian Huonder
  * @author René Eggenschwiler
  */
 public class EvaluationContext {
+	private static final Logger logger = LoggerFactory.getLogger(EvaluationContext.class);
 	private PIP pip;
 	private StatusCode statusCode;
 	private List<MissingAttributeDetailType> missingAttributes;
@@ -66,6 +98,14 @@ public class EvaluationContext {
 	private Map<Object, Object> customValues;
 	private Comparator<StatusCode> statusCodeComparator;
 	private PolicyRetrievalPoint policyRetrievalPoint;
+	private RequestAttributeIndex requestAttributeIndex;
+	private RequestType pipRequest;
+	private Map<AttributeDescriptor, List<AttributeValueType>> pipAttributes;
+	private Clock clock;
+	private boolean zuluUtcRepresentation;
+	private OffsetDateTime currentDateTime;
+	private RequestType subexpressionRequest;
+	private Map<Object, Object> subexpressionValues;
 
 	/**
 	 * Initializes the JAXB object factory.
@@ -161,6 +201,7 @@ public class EvaluationContext {
 		customValues = new HashMap<Object, Object>();
 		this.statusCodeComparator = statusCodeComparator;
 		this.policyRetrievalPoint = policyRetrievalPoint;
+		clock = Clock.systemDefaultZone();
 	}
 
 	/**
@@ -321,6 +362,499 @@ public class EvaluationContext {
 		return pip;
 	}
 
+	/**
+	 * Fetches the given <b>subject</b> attribute from the {@link PIP}. The
+	 * result is remembered, such that the {@link PIP} is asked at most once per
+	 * request for the same attribute.
+	 * 
+	 * @param request
+	 *            The evaluated request.
+	 * @param attributeId
+	 *            The id of the requested attribute(s).
+	 * @param dataType
+	 *            The data type of the requested attribute(s).
+	 * @param issuer
+	 *            The issuer of the requested attribute(s).
+	 * @param subjectCategory
+	 *            The subject category of the requested attribute(s).
+	 * @return The unmodifiable {@link List} of the found attribute values.
+	 *         Empty if there is no {@link PIP} or if it does not know the
+	 *         attribute.
+	 */
+	public List<AttributeValueType> fetchSubjectAttributes(RequestType request, String attributeId, String dataType,
+			String issuer, String subjectCategory) {
+		return fetchAttributes(request, new AttributeDescriptor(Category.SUBJECT, attributeId, dataType, issuer,
+				subjectCategory));
+	}
+
+	/**
+	 * Fetches the given <b>resource</b> attribute from the {@link PIP}. The
+	 * result is remembered, such that the {@link PIP} is asked at most once per
+	 * request for the same attribute.
+	 * 
+	 * @param request
+	 *            The evaluated request.
+	 * @param attributeId
+	 *            The id of the requested attribute(s).
+	 * @param dataType
+	 *            The data type of the requested attribute(s).
+	 * @param issuer
+	 *            The issuer of the requested attribute(s).
+	 * @return The unmodifiable {@link List} of the found attribute values.
+	 *         Empty if there is no {@link PIP} or if it does not know the
+	 *         attribute.
+	 */
+	public List<AttributeValueType> fetchResourceAttributes(RequestType request, String attributeId, String dataType,
+			String issuer) {
+		return fetchAttributes(request, new AttributeDescriptor(Category.RESOURCE, attributeId, dataType, issuer,
+				null));
+	}
+
+	/**
+	 * Fetches the given <b>action</b> attribute from the {@link PIP}. The
+	 * result is remembered, such that the {@link PIP} is asked at most once per
+	 * request for the same attribute.
+	 * 
+	 * @param request
+	 *            The evaluated request.
+	 * @param attributeId
+	 *            The id of the requested attribute(s).
+	 * @param dataType
+	 *            The data type of the requested attribute(s).
+	 * @param issuer
+	 *            The issuer of the requested attribute(s).
+	 * @return The unmodifiable {@link List} of the found attribute values.
+	 *         Empty if there is no {@link PIP} or if it does not know the
+	 *         attribute.
+	 */
+	public List<AttributeValueType> fetchActionAttributes(RequestType request, String attributeId, String dataType,
+			String issuer) {
+		return fetchAttributes(request, new AttributeDescriptor(Category.ACTION, attributeId, dataType, issuer,
+				null));
+	}
+
+	/**
+	 * Fetches the given <b>environment</b> attribute from the {@link PIP}. The
+	 * result is remembered, such that the {@link PIP} is asked at most once per
+	 * request for the same attribute.
+	 * 
+	 * @param request
+	 *            The evaluated request.
+	 * @param attributeId
+	 *            The id of the requested attribute(s).
+	 * @param dataType
+	 *            The data type of the requested attribute(s).
+	 * @param issuer
+	 *            The issuer of the requested attribute(s).
+	 * @return The unmodifiable {@link List} of the found attribute values.
+	 *         Empty if there is no {@link PIP} or if it does not know the
+	 *         attribute.
+	 */
+	public List<AttributeValueType> fetchEnvironmentAttributes(RequestType request, String attributeId,
+			String dataType, String issuer) {
+		return fetchAttributes(request, new AttributeDescriptor(Category.ENVIRONMENT, attributeId, dataType, issuer,
+				null));
+	}
+
+	/**
+	 * Fetches the attributes needed by the given designators from the
+	 * {@link PIP}, such that the designators find them when they are
+	 * evaluated. Designators of attributes that were already fetched are
+	 * skipped. If the {@link PIP} is a {@link BulkPIP} or an {@link AsyncPIP}
+	 * all attributes are fetched with a single call, otherwise they are fetched
+	 * concurrently with the given {@link Executor}. If the {@link PIP} fails for
+	 * an attribute, the
+	 * attribute is not remembered and fetched again (and the error reported) if
+	 * it is needed during the evaluation.<br />
+	 * <br />
+	 * The {@link PIP} must be thread-safe if the executor uses several
+	 * threads.
+	 * 
+	 * @param request
+	 *            The evaluated request.
+	 * @param designators
+	 *            The designators whose attributes shall be fetched.
+	 * @param executor
+	 *            The {@link Executor} that runs the calls of the {@link PIP}.
+	 *            May be <code>null</code> if the {@link PIP} is a
+	 *            {@link BulkPIP} or an {@link AsyncPIP}.
+	 */
+	public void prefetchAttributes(RequestType request, Collection<AttributeDesignatorType> designators,
+			Executor executor) {
+		if (pip instanceof AsyncPIP && !(pip instanceof BulkPIP)) {
+			prefetchAttributesAsync(request, designators, executor).toCompletableFuture().join();
+			return;
+		}
+		List<AttributeDescriptor> missing = getMissingAttributes(request, designators);
+		if (missing.isEmpty()) {
+			return;
+		}
+		if (pip instanceof BulkPIP) {
+			fetchInBulk(request, missing);
+		} else if (executor != null) {
+			fetchConcurrently(request, missing, executor);
+		}
+	}
+
+	/**
+	 * Fetches the attributes needed by the given designators like
+	 * {@link #prefetchAttributes(RequestType, Collection, Executor)}. If the
+	 * {@link PIP} is an {@link AsyncPIP} the calling thread is not blocked and
+	 * the returned {@link CompletionStage} is completed when the attributes
+	 * arrive. Otherwise the attributes are fetched before this method returns.
+	 * 
+	 * @param request
+	 *            The evaluated request.
+	 * @param designators
+	 *            The designators whose attributes shall be fetched.
+	 * @param executor
+	 *            The {@link Executor} that runs the calls of a {@link PIP} that
+	 *            is neither a {@link BulkPIP} nor an {@link AsyncPIP}, may be
+	 *            <code>null</code>.
+	 * @return The {@link CompletionStage} that is completed when the attributes
+	 *         are fetched. It is never completed exceptionally.
+	 */
+	public CompletionStage<Void> prefetchAttributesAsync(RequestType request,
+			Collection<AttributeDesignatorType> designators, Executor executor) {
+		if (!(pip instanceof AsyncPIP)) {
+			prefetchAttributes(request, designators, executor);
+			return CompletableFuture.completedFuture(null);
+		}
+		final List<AttributeDescriptor> missing = getMissingAttributes(request, designators);
+		if (missing.isEmpty()) {
+			return CompletableFuture.completedFuture(null);
+		}
+		CompletionStage<Map<AttributeDescriptor, List<AttributeValueType>>> fetch;
+		try {
+			fetch = ((AsyncPIP) pip).fetchAttributesAsync(request, missing);
+		} catch (RuntimeException e) {
+			logger.debug("The asynchronous fetch of {} attributes failed.", missing.size(), e);
+			return CompletableFuture.completedFuture(null);
+		}
+		return fetch.handle(new BiFunction<Map<AttributeDescriptor, List<AttributeValueType>>, Throwable, Void>() {
+			public Void apply(Map<AttributeDescriptor, List<AttributeValueType>> values, Throwable error) {
+				if (error != null) {
+					logger.debug("The asynchronous fetch of {} attributes failed.", missing.size(), error);
+				} else {
+					for (AttributeDescriptor descriptor : missing) {
+						putFetchedAttributes(descriptor, values != null ? values.get(descriptor) : null);
+					}
+				}
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * Returns the distinct attributes of the given designators that were not
+	 * fetched yet.
+	 */
+	private List<AttributeDescriptor> getMissingAttributes(RequestType request,
+			Collection<AttributeDesignatorType> designators) {
+		if (pip == null) {
+			return Collections.emptyList();
+		}
+		Set<AttributeDescriptor> missing = new LinkedHashSet<AttributeDescriptor>();
+		for (AttributeDesignatorType designator : designators) {
+			AttributeDescriptor descriptor = createAttributeDescriptor(designator);
+			if (descriptor == null || getFetchedAttributes(request, descriptor) != null) {
+				continue;
+			}
+			String sectionKey = getSectionKey(descriptor);
+			List<AttributeValueType> shared = null;
+			if (sectionKey != null) {
+				shared = requestAttributeIndex.getBatchCache().getFetchedAttributes(sectionKey, descriptor);
+			}
+			if (shared != null) {
+				pipAttributes.put(descriptor, shared);
+			} else {
+				missing.add(descriptor);
+			}
+		}
+		return new ArrayList<AttributeDescriptor>(missing);
+	}
+
+	/**
+	 * Fetches the given attributes with one call of the {@link BulkPIP}.
+	 */
+	private void fetchInBulk(RequestType request, List<AttributeDescriptor> descriptors) {
+		Map<AttributeDescriptor, List<AttributeValueType>> values;
+		try {
+			values = ((BulkPIP) pip).fetchAttributes(request, descriptors);
+		} catch (RuntimeException e) {
+			logger.debug("The bulk fetch of {} attributes failed.", descriptors.size(), e);
+			return;
+		}
+		for (AttributeDescriptor descriptor : descriptors) {
+			putFetchedAttributes(descriptor, values != null ? values.get(descriptor) : null);
+		}
+	}
+
+	/**
+	 * Fetches the given attributes concurrently with the given
+	 * {@link Executor}.
+	 */
+	private void fetchConcurrently(final RequestType request, List<AttributeDescriptor> descriptors, Executor executor) {
+		Map<AttributeDescriptor, CompletableFuture<List<AttributeValueType>>> fetches;
+		fetches = new HashMap<AttributeDescriptor, CompletableFuture<List<AttributeValueType>>>();
+		for (final AttributeDescriptor descriptor : descriptors) {
+			fetches.put(descriptor, CompletableFuture.supplyAsync(new Supplier<List<AttributeValueType>>() {
+				public List<AttributeValueType> get() {
+					return fetchFromPIP(request, descriptor);
+				}
+			}, executor));
+		}
+		for (Map.Entry<AttributeDescriptor, CompletableFuture<List<AttributeValueType>>> fetch : fetches.entrySet()) {
+			try {
+				putFetchedAttributes(fetch.getKey(), fetch.getValue().join());
+			} catch (CompletionException e) {
+				logger.debug("The prefetch of the attribute {} failed.", fetch.getKey().getAttributeId(), e.getCause());
+			} catch (CancellationException e) {
+				logger.debug("The prefetch of the attribute {} was cancelled.", fetch.getKey().getAttributeId());
+			}
+		}
+	}
+
+	/**
+	 * Returns the remembered attribute values of the given attribute or fetches
+	 * them from the {@link PIP}.
+	 */
+	private List<AttributeValueType> fetchAttributes(final RequestType request, final AttributeDescriptor descriptor) {
+		List<AttributeValueType> values = getFetchedAttributes(request, descriptor);
+		if (values == null) {
+			String sectionKey = getSectionKey(descriptor);
+			if (sectionKey == null) {
+				values = putFetchedAttributes(descriptor, fetchFromPIP(request, descriptor));
+			} else {
+				values = requestAttributeIndex.getBatchCache().fetchAttributes(sectionKey, descriptor,
+						new Supplier<List<AttributeValueType>>() {
+							public List<AttributeValueType> get() {
+								return toFetchedAttributes(fetchFromPIP(request, descriptor));
+							}
+						});
+				pipAttributes.put(descriptor, values);
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * Returns the key of the request section the given attribute belongs to,
+	 * if the request is evaluated as part of a batch.
+	 * 
+	 * @return The key or <code>null</code> if the fetched values of the
+	 *         attribute are not shared, because the {@link PIP} is no
+	 *         {@link SectionScopedPIP}.
+	 */
+	private String getSectionKey(AttributeDescriptor descriptor) {
+		if (requestAttributeIndex == null || requestAttributeIndex.getBatchCache() == null
+				|| !(pip instanceof SectionScopedPIP)) {
+			return null;
+		}
+		return requestAttributeIndex.getSectionKey(descriptor.getCategory());
+	}
+
+	/**
+	 * Fetches the attribute of the given attribute from the {@link PIP}.
+	 */
+	private List<AttributeValueType> fetchFromPIP(RequestType request, AttributeDescriptor descriptor) {
+		switch (descriptor.getCategory()) {
+		case SUBJECT:
+			return pip.fetchSubjectAttributes(request, descriptor.getAttributeId(), descriptor.getDataType(),
+					descriptor.getIssuer(), descriptor.getSubjectCategory());
+		case RESOURCE:
+			return pip.fetchResourceAttributes(request, descriptor.getAttributeId(), descriptor.getDataType(),
+					descriptor.getIssuer());
+		case ACTION:
+			return pip.fetchActionAttributes(request, descriptor.getAttributeId(), descriptor.getDataType(),
+					descriptor.getIssuer());
+		default:
+			return pip.fetchEnvironmentAttributes(request, descriptor.getAttributeId(), descriptor.getDataType(),
+					descriptor.getIssuer());
+		}
+	}
+
+	/**
+	 * Creates the descriptor of the attribute of the given designator.
+	 * 
+	 * @return The descriptor or <code>null</code> if the designator does not fetch
+	 *         its attribute from the {@link PIP}.
+	 */
+	private static AttributeDescriptor createAttributeDescriptor(AttributeDesignatorType designator) {
+		String dataType = designator.getDataType() != null ? designator.getDataType().toString() : null;
+		if (designator instanceof SubjectAttributeDesignatorType) {
+			return new AttributeDescriptor(Category.SUBJECT, designator.getAttributeId(), dataType,
+					designator.getIssuer(), ((SubjectAttributeDesignatorType) designator).getSubjectCategory());
+		} else if (designator instanceof ResourceAttributeDesignatorType) {
+			return new AttributeDescriptor(Category.RESOURCE, designator.getAttributeId(), dataType,
+					designator.getIssuer(), null);
+		} else if (designator instanceof ActionAttributeDesignatorType) {
+			return new AttributeDescriptor(Category.ACTION, designator.getAttributeId(), dataType,
+					designator.getIssuer(), null);
+		} else if (designator instanceof EnvironmentAttributeDesignatorType) {
+			return new AttributeDescriptor(Category.ENVIRONMENT, designator.getAttributeId(), dataType,
+					designator.getIssuer(), null);
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the remembered attribute values of the given attribute. The
+	 * remembered values are discarded if the context is used for another
+	 * request.
+	 * 
+	 * @return The values, an empty {@link List} if there is no {@link PIP} or
+	 *         <code>null</code> if the attribute was not fetched yet.
+	 */
+	private List<AttributeValueType> getFetchedAttributes(RequestType request, AttributeDescriptor descriptor) {
+		if (pip == null) {
+			return Collections.emptyList();
+		}
+		if (pipAttributes == null || pipRequest != request) {
+			pipRequest = request;
+			pipAttributes = new HashMap<AttributeDescriptor, List<AttributeValueType>>();
+			return null;
+		}
+		return pipAttributes.get(descriptor);
+	}
+
+	/**
+	 * Remembers the attribute values fetched from the {@link PIP}. Empty
+	 * results are remembered as well. If the request is evaluated as part of a
+	 * batch, the values are shared with the other requests of the batch.
+	 * 
+	 * @return The unmodifiable remembered values.
+	 */
+	private List<AttributeValueType> putFetchedAttributes(AttributeDescriptor descriptor, List<AttributeValueType> values) {
+		List<AttributeValueType> fetched = toFetchedAttributes(values);
+		pipAttributes.put(descriptor, fetched);
+		String sectionKey = getSectionKey(descriptor);
+		if (sectionKey != null) {
+			requestAttributeIndex.getBatchCache().putFetchedAttributes(sectionKey, descriptor, fetched);
+		}
+		return fetched;
+	}
+
+	/**
+	 * Creates an unmodifiable copy of the attribute values fetched from the
+	 * {@link PIP}.
+	 */
+	private static List<AttributeValueType> toFetchedAttributes(List<AttributeValueType> values) {
+		if (values == null || values.isEmpty()) {
+			return Collections.emptyList();
+		}
+		return Collections.unmodifiableList(new ArrayList<AttributeValueType>(values));
+	}
+
+	/**
+	 * Returns the remembered value of the given common subexpression (see
+	 * {@link org.herasaf.xacml.core.policy.impl.ApplyType#shareCommonSubexpressions(List)}
+	 * ). The remembered values are discarded if the context is used for
+	 * another request.
+	 * 
+	 * @param request
+	 *            The evaluated request.
+	 * @param subexpression
+	 *            The common subexpression.
+	 * @return The value or <code>null</code> if the subexpression was not
+	 *         evaluated for this request yet.
+	 */
+	public Object getSubexpressionValue(RequestType request, Object subexpression) {
+		if (subexpressionValues == null || subexpressionRequest != request) {
+			subexpressionRequest = request;
+			subexpressionValues = new IdentityHashMap<Object, Object>();
+			return null;
+		}
+		return subexpressionValues.get(subexpression);
+	}
+
+	/**
+	 * Remembers the value of the given common subexpression for the request of
+	 * the last call of {@link #getSubexpressionValue(RequestType, Object)}.
+	 * 
+	 * @param subexpression
+	 *            The common subexpression.
+	 * @param value
+	 *            The value of the subexpression.
+	 */
+	public void putSubexpressionValue(Object subexpression, Object value) {
+		subexpressionValues.put(subexpression, value);
+	}
+
+	/**
+	 * Gets the {@link RequestAttributeIndex} of the evaluated request.
+	 * 
+	 * @return The {@link RequestAttributeIndex} or <code>null</code> if the
+	 *         request is not indexed.
+	 */
+	public RequestAttributeIndex getRequestAttributeIndex() {
+		return requestAttributeIndex;
+	}
+
+	/**
+	 * Sets the {@link RequestAttributeIndex} of the evaluated request.
+	 * 
+	 * @param requestAttributeIndex
+	 *            The {@link RequestAttributeIndex} of the request.
+	 */
+	public void setRequestAttributeIndex(RequestAttributeIndex requestAttributeIndex) {
+		this.requestAttributeIndex = requestAttributeIndex;
+	}
+
+	/**
+	 * Sets the {@link Clock} that supplies the current time of the request.
+	 * The default is the system clock in the default timezone of the JVM.
+	 * 
+	 * @param clock
+	 *            The {@link Clock} of the PDP.
+	 */
+	public void setClock(Clock clock) {
+		this.clock = clock;
+	}
+
+	/**
+	 * Returns true if the UTC timezone of the current time values (see
+	 * {@link #getCurrentDateTime()}) is represented in Zulu ('Z'), false if
+	 * it is represented as +00:00.
+	 * 
+	 * @return The UTC representation of the PDP.
+	 */
+	public boolean isZuluUtcRepresentation() {
+		return zuluUtcRepresentation;
+	}
+
+	/**
+	 * Sets the representation of the UTC timezone of the current time values.
+	 * The default is +00:00.
+	 * 
+	 * @param zuluUtcRepresentation
+	 *            True if the UTC timezone shall be represented in Zulu ('Z'),
+	 *            false if it shall be represented as +00:00.
+	 */
+	public void setZuluUtcRepresentation(boolean zuluUtcRepresentation) {
+		this.zuluUtcRepresentation = zuluUtcRepresentation;
+	}
+
+	/**
+	 * Returns the current time of the request. It is used for the
+	 * current-time, current-date and current-dateTime environment attributes
+	 * if the request does not contain them. The {@link Clock} is read when
+	 * this method is called the first time. If the request belongs to a batch
+	 * (see {@link BatchCache}), the current time of the batch is returned.
+	 * 
+	 * @return The current time of the request.
+	 */
+	public OffsetDateTime getCurrentDateTime() {
+		if (currentDateTime == null) {
+			if (requestAttributeIndex != null && requestAttributeIndex.getBatchCache() != null) {
+				currentDateTime = requestAttributeIndex.getBatchCache().getCurrentDateTime(clock);
+			} else {
+				currentDateTime = OffsetDateTime.now(clock);
+			}
+		}
+		return currentDateTime;
+	}
+
 	/**
 	 * Returns true if abandoned evaluatables should be respected, false
 	 * otherwise.
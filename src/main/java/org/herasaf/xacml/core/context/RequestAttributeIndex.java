@@ -0,0 +1,372 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.herasaf.xacml.core.context;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.herasaf.xacml.core.api.AttributeDescriptor.Category;
+import org.herasaf.xacml.core.context.impl.AttributeType;
+import org.herasaf.xacml.core.context.impl.RequestType;
+import org.herasaf.xacml.core.context.impl.ResourceType;
+import org.herasaf.xacml.core.context.impl.SubjectType;
+import org.herasaf.xacml.core.policy.impl.ActionAttributeDesignatorType;
+import org.herasaf.xacml.core.policy.impl.AttributeDesignatorType;
+import org.herasaf.xacml.core.policy.impl.EnvironmentAttributeDesignatorType;
+import org.herasaf.xacml.core.policy.impl.ResourceAttributeDesignatorType;
+import org.herasaf.xacml.core.policy.impl.SubjectAttributeDesignatorType;
+import org.herasaf.xacml.core.types.Bag;
+
+/**
+ * This index groups the attributes of a single request by category, subject
+ * category, attribute id and data type. It is created once per evaluation so
+ * that an {@link AttributeDesignatorType} can look up its request attributes
+ * directly instead of iterating over all attributes of the category. The
+ * values converted by a designator are stored in the index as well, such that
+ * the same designator in another policy does not need to convert them again.<br />
+ * <br />
+ * A category is not indexed if it contains an attribute without an attribute
+ * id or a data type. Designators of such a category iterate over the request
+ * attributes and report the syntax error as before.<br />
+ * <br />
+ * If the request is evaluated as part of a batch, the converted values are
+ * shared through the {@link BatchCache} of the batch with the other requests
+ * whose section of the designator's category is identical.<br />
+ * <br />
+ * The index reflects the request at the time of its creation. The request must
+ * not be modified during the evaluation. This class is not thread safe.
+ */
+public class RequestAttributeIndex {
+	private static final String SUBJECT = "subject";
+	private static final String RESOURCE = "resource";
+	private static final String ACTION = "action";
+	private static final String ENVIRONMENT = "environment";
+
+	private final Map<AttributeKey, List<AttributeType>> attributes;
+	private final Map<ValuesKey, Bag<Object>> values;
+	private final Set<String> invalidCategories;
+	private final Set<String> invalidSubjectCategories;
+	private final BatchCache batchCache;
+	private final Map<String, String> sectionKeys;
+
+	/**
+	 * Creates the index of the attributes of the given request.
+	 *
+	 * @param request
+	 *            The request to index.
+	 */
+	public RequestAttributeIndex(RequestType request) {
+		this(request, null);
+	}
+
+	/**
+	 * Creates the index of the attributes of the given request, which is
+	 * evaluated as part of a batch.
+	 *
+	 * @param request
+	 *            The request to index.
+	 * @param batchCache
+	 *            The {@link BatchCache} of the batch, may be <code>null</code>
+	 *            if the request is evaluated alone.
+	 */
+	public RequestAttributeIndex(RequestType request, BatchCache batchCache) {
+		this.batchCache = batchCache;
+		sectionKeys = new HashMap<String, String>();
+		if (batchCache != null) {
+			addSectionKeys(request);
+		}
+		attributes = new HashMap<AttributeKey, List<AttributeType>>();
+		values = new HashMap<ValuesKey, Bag<Object>>();
+		invalidCategories = new HashSet<String>();
+		invalidSubjectCategories = new HashSet<String>();
+
+		for (SubjectType subject : request.getSubjects()) {
+			String subjectCategory = subject.getSubjectCategory();
+			if (!add(SUBJECT, subjectCategory, subject.getAttributes())) {
+				invalidSubjectCategories.add(subjectCategory);
+			}
+		}
+		for (ResourceType resource : request.getResources()) {
+			if (!add(RESOURCE, null, resource.getAttributes())) {
+				invalidCategories.add(RESOURCE);
+			}
+		}
+		if (request.getAction() == null || !add(ACTION, null, request.getAction().getAttributes())) {
+			invalidCategories.add(ACTION);
+		}
+		if (request.getEnvironment() == null || !add(ENVIRONMENT, null, request.getEnvironment().getAttributes())) {
+			invalidCategories.add(ENVIRONMENT);
+		}
+	}
+
+	/**
+	 * Returns the request attributes that have the category, subject category,
+	 * attribute id and data type of the given designator. The issuer is not
+	 * considered.
+	 *
+	 * @param designator
+	 *            The designator whose attributes shall be returned.
+	 * @return The attributes in the order of the request or <code>null</code>
+	 *         if the category of the designator is not indexed.
+	 */
+	public List<AttributeType> getAttributes(AttributeDesignatorType designator) {
+		AttributeKey key = createAttributeKey(designator);
+		if (key == null) {
+			return null;
+		}
+		List<AttributeType> attrs = attributes.get(key);
+		if (attrs == null) {
+			return Collections.emptyList();
+		}
+		return Collections.unmodifiableList(attrs);
+	}
+
+	/**
+	 * Returns the values that were converted for a designator with the same
+	 * category, subject category, attribute id, data type and issuer as the
+	 * given designator.
+	 *
+	 * @param designator
+	 *            The designator whose values shall be returned.
+	 * @return The {@link Bag} of converted values or <code>null</code> if no
+	 *         values are stored.
+	 */
+	public Bag<Object> getValues(AttributeDesignatorType designator) {
+		AttributeKey key = createAttributeKey(designator);
+		if (key == null) {
+			return null;
+		}
+		ValuesKey valuesKey = new ValuesKey(key, designator.getIssuer());
+		Bag<Object> convertedValues = values.get(valuesKey);
+		String sectionKey = sectionKeys.get(key.category);
+		if (convertedValues == null && sectionKey != null) {
+			convertedValues = batchCache.getValues(sectionKey, valuesKey);
+		}
+		return convertedValues;
+	}
+
+	/**
+	 * Stores the values converted by the given designator.
+	 *
+	 * @param designator
+	 *            The designator that converted the values.
+	 * @param convertedValues
+	 *            The converted values.
+	 */
+	public void putValues(AttributeDesignatorType designator, List<Object> convertedValues) {
+		AttributeKey key = createAttributeKey(designator);
+		if (key != null) {
+			ValuesKey valuesKey = new ValuesKey(key, designator.getIssuer());
+			Bag<Object> bag = Bag.of(convertedValues);
+			values.put(valuesKey, bag);
+			String sectionKey = sectionKeys.get(key.category);
+			if (sectionKey != null) {
+				batchCache.putValues(sectionKey, valuesKey, bag);
+			}
+		}
+	}
+
+	/**
+	 * Returns the {@link BatchCache} of the batch the request is evaluated in.
+	 *
+	 * @return The {@link BatchCache} or <code>null</code> if the request is
+	 *         evaluated alone.
+	 */
+	public BatchCache getBatchCache() {
+		return batchCache;
+	}
+
+	/**
+	 * Returns the canonical key of the section of the given category of the
+	 * request (see {@link RequestSectionKeys}). The key of the subjects covers
+	 * all subjects of the request.
+	 *
+	 * @param category
+	 *            The category of the section.
+	 * @return The key or <code>null</code> if the request is not evaluated in
+	 *         a batch or the section cannot be shared.
+	 */
+	public String getSectionKey(Category category) {
+		switch (category) {
+		case SUBJECT:
+			return sectionKeys.get(SUBJECT);
+		case RESOURCE:
+			return sectionKeys.get(RESOURCE);
+		case ACTION:
+			return sectionKeys.get(ACTION);
+		default:
+			return sectionKeys.get(ENVIRONMENT);
+		}
+	}
+
+	/**
+	 * Creates the canonical keys of the sections of the given request. A
+	 * section containing XML content has no key.
+	 */
+	private void addSectionKeys(RequestType request) {
+		putSectionKey(SUBJECT, RequestSectionKeys.createSubjectsKey(request.getSubjects()));
+		if (request.getResources().size() == 1 && request.getResources().get(0).getResourceContent() == null) {
+			putSectionKey(RESOURCE, RequestSectionKeys.createAttributesKey(request.getResources().get(0)
+					.getAttributes()));
+		}
+		if (request.getAction() != null) {
+			putSectionKey(ACTION, RequestSectionKeys.createAttributesKey(request.getAction().getAttributes()));
+		}
+		if (request.getEnvironment() != null) {
+			putSectionKey(ENVIRONMENT, RequestSectionKeys.createAttributesKey(request.getEnvironment()
+					.getAttributes()));
+		}
+	}
+
+	/**
+	 * Stores the key of a section. The key is prefixed with the category, such
+	 * that sections of different categories never share a key.
+	 */
+	private void putSectionKey(String category, String sectionKey) {
+		if (sectionKey != null) {
+			sectionKeys.put(category, category + sectionKey);
+		}
+	}
+
+	/**
+	 * Adds the given attributes to the index.
+	 *
+	 * @return <code>false</code> if an attribute has no attribute id or no
+	 *         data type, <code>true</code> otherwise.
+	 */
+	private boolean add(String category, String subjectCategory, List<AttributeType> attrs) {
+		for (AttributeType attr : attrs) {
+			if (attr.getAttributeId() == null || attr.getDataType() == null) {
+				return false;
+			}
+		}
+		for (AttributeType attr : attrs) {
+			AttributeKey key = new AttributeKey(category, subjectCategory, attr.getAttributeId(), attr.getDataType()
+					.toString());
+			List<AttributeType> bucket = attributes.get(key);
+			if (bucket == null) {
+				bucket = new ArrayList<AttributeType>();
+				attributes.put(key, bucket);
+			}
+			bucket.add(attr);
+		}
+		return true;
+	}
+
+	/**
+	 * Creates the key of the given designator.
+	 *
+	 * @return The key or <code>null</code> if the category of the designator
+	 *         is not indexed.
+	 */
+	private AttributeKey createAttributeKey(AttributeDesignatorType designator) {
+		String category;
+		String subjectCategory = null;
+		if (designator instanceof SubjectAttributeDesignatorType) {
+			category = SUBJECT;
+			subjectCategory = ((SubjectAttributeDesignatorType) designator).getSubjectCategory();
+			if (invalidSubjectCategories.contains(subjectCategory)) {
+				return null;
+			}
+		} else if (designator instanceof ResourceAttributeDesignatorType) {
+			category = RESOURCE;
+		} else if (designator instanceof ActionAttributeDesignatorType) {
+			category = ACTION;
+		} else if (designator instanceof EnvironmentAttributeDesignatorType) {
+			category = ENVIRONMENT;
+		} else {
+			return null;
+		}
+		if (invalidCategories.contains(category)) {
+			return null;
+		}
+		return new AttributeKey(category, subjectCategory, designator.getAttributeId(), designator.getDataType()
+				.toString());
+	}
+
+	/**
+	 * The key of a group of request attributes.
+	 */
+	private static final class AttributeKey {
+		private final String category;
+		private final String subjectCategory;
+		private final String attributeId;
+		private final String dataType;
+
+		private AttributeKey(String category, String subjectCategory, String attributeId, String dataType) {
+			this.category = category;
+			this.subjectCategory = subjectCategory;
+			this.attributeId = attributeId;
+			this.dataType = dataType;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(category, subjectCategory, attributeId, dataType);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof AttributeKey)) {
+				return false;
+			}
+			AttributeKey other = (AttributeKey) obj;
+			return category.equals(other.category) && Objects.equals(subjectCategory, other.subjectCategory)
+					&& attributeId.equals(other.attributeId) && dataType.equals(other.dataType);
+		}
+	}
+
+	/**
+	 * The key of the converted values of a designator.
+	 */
+	private static final class ValuesKey {
+		private final AttributeKey attributeKey;
+		private final String issuer;
+
+		private ValuesKey(AttributeKey attributeKey, String issuer) {
+			this.attributeKey = attributeKey;
+			this.issuer = issuer;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(attributeKey, issuer);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof ValuesKey)) {
+				return false;
+			}
+			ValuesKey other = (ValuesKey) obj;
+			return attributeKey.equals(other.attributeKey) && Objects.equals(issuer, other.issuer);
+		}
+	}
+}
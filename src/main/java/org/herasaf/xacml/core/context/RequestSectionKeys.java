@@ -0,0 +1,132 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.herasaf.xacml.core.context;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.herasaf.xacml.core.context.impl.AttributeType;
+import org.herasaf.xacml.core.context.impl.AttributeValueType;
+import org.herasaf.xacml.core.context.impl.SubjectType;
+
+/**
+ * Creates canonical keys of the sections (subjects, resource, action and
+ * environment) of a request. The attributes of a section are sorted, so that
+ * two sections that contain the same attributes in a different order share the
+ * same key. A section that contains attribute values that are not plain text
+ * has no key.
+ */
+public final class RequestSectionKeys {
+
+	private RequestSectionKeys() {
+	}
+
+	/**
+	 * Creates the canonical key of the given subjects. The subjects are sorted
+	 * as well.
+	 *
+	 * @param subjects
+	 *            The subjects of a request.
+	 * @return The key or <code>null</code> if an attribute value is not plain
+	 *         text.
+	 */
+	public static String createSubjectsKey(List<SubjectType> subjects) {
+		List<String> subjectKeys = new ArrayList<String>(subjects.size());
+		for (SubjectType subject : subjects) {
+			StringBuilder subjectKey = new StringBuilder();
+			appendComponent(subjectKey, subject.getSubjectCategory());
+			if (!appendAttributes(subjectKey, subject.getAttributes())) {
+				return null;
+			}
+			subjectKeys.add(subjectKey.toString());
+		}
+		StringBuilder key = new StringBuilder();
+		appendSorted(key, subjectKeys);
+		return key.toString();
+	}
+
+	/**
+	 * Creates the canonical key of the given attributes.
+	 *
+	 * @param attributes
+	 *            The attributes of a section of a request.
+	 * @return The key or <code>null</code> if an attribute value is not plain
+	 *         text.
+	 */
+	public static String createAttributesKey(List<AttributeType> attributes) {
+		StringBuilder key = new StringBuilder();
+		if (!appendAttributes(key, attributes)) {
+			return null;
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Appends the sorted canonical forms of the given attributes.
+	 *
+	 * @return False if an attribute value is not plain text.
+	 */
+	private static boolean appendAttributes(StringBuilder key, List<AttributeType> attributes) {
+		List<String> attributeKeys = new ArrayList<String>(attributes.size());
+		for (AttributeType attribute : attributes) {
+			StringBuilder attributeKey = new StringBuilder();
+			appendComponent(attributeKey, attribute.getAttributeId());
+			appendComponent(attributeKey, attribute.getDataType() != null ? attribute.getDataType().getDatatypeURI()
+					: null);
+			appendComponent(attributeKey, attribute.getIssuer());
+			for (AttributeValueType value : attribute.getAttributeValues()) {
+				StringBuilder text = new StringBuilder();
+				for (Object content : value.getContent()) {
+					if (!(content instanceof String)) {
+						return false;
+					}
+					text.append((String) content);
+				}
+				appendComponent(attributeKey, text.toString());
+			}
+			attributeKeys.add(attributeKey.toString());
+		}
+		appendSorted(key, attributeKeys);
+		return true;
+	}
+
+	/**
+	 * Appends the given parts in their natural order.
+	 */
+	private static void appendSorted(StringBuilder key, List<String> parts) {
+		Collections.sort(parts);
+		key.append(parts.size()).append('[');
+		for (String part : parts) {
+			appendComponent(key, part);
+		}
+		key.append(']');
+	}
+
+	/**
+	 * Appends a component with its length as prefix such that the key is
+	 * unambiguous. A <code>null</code> component is appended as '-'.
+	 */
+	private static void appendComponent(StringBuilder key, String component) {
+		if (component == null) {
+			key.append('-');
+		} else {
+			key.append(component.length()).append(':').append(component);
+		}
+	}
+}
@@ -155,11 +155,34 @@ public class ResponseMarshaller {
 	 */
 	public static ResponseType create(RequestType req, DecisionType decision,
 			EvaluationContext evaluationContext) {
-		ResponseType response = create(req, decision, evaluationContext
-				.getStatusCode());
+		return create(req, decision, evaluationContext.getStatusCode(),
+				evaluationContext.getMissingAttributes(),
+				evaluationContext.getObligations());
+	}
+
+	/**
+	 * Creates a {@link ResponseType} with the given {@link DecisionType}, status
+	 * code, missing attributes and obligations.
+	 * 
+	 * @param req
+	 *            The relating {@link RequestType}.
+	 * @param decision
+	 *            The {@link DecisionType} of the evaluation.
+	 * @param code
+	 *            The {@link StatusCode} of the decision.
+	 * @param missingAttributes
+	 *            The missing attributes of the decision.
+	 * @param obligations
+	 *            The obligations of the decision.
+	 * @return The created {@link ResponseType}.
+	 */
+	public static ResponseType create(RequestType req, DecisionType decision,
+			StatusCode code, List<MissingAttributeDetailType> missingAttributes,
+			ObligationsType obligations) {
+		ResponseType response = create(req, decision, code);
 		// This check is here because only MissingAttributeDetails are
 		// supported in the the StatusDetail
-		if (evaluationContext.getMissingAttributes().size() > 0) {
+		if (missingAttributes.size() > 0) {
 			StatusDetailType statusDetail = OBJECT_FACTORY
 					.createStatusDetailType();
 			/*
@@ -171,8 +194,7 @@ public class ResponseMarshaller {
 			 * unable to marshal the MissingAttributeDetail correctly.
 			 */
 			List<JAXBElement<MissingAttributeDetailType>> missingAttributesJaxb = new ArrayList<JAXBElement<MissingAttributeDetailType>>();
-			for (MissingAttributeDetailType madt : evaluationContext
-					.getMissingAttributes()) {
+			for (MissingAttributeDetailType madt : missingAttributes) {
 				missingAttributesJaxb.add(OBJECT_FACTORY
 						.createMissingAttributeDetail(madt));
 			}
@@ -181,9 +203,8 @@ public class ResponseMarshaller {
 					statusDetail);
 		}
 		// Add the Obligations to the response
-		if (evaluationContext.getObligations().getObligations().size() > 0) {
-			response.getResults().get(0).setObligations(
-					evaluationContext.getObligations());
+		if (obligations.getObligations().size() > 0) {
+			response.getResults().get(0).setObligations(obligations);
 		}
 		return response;
 	}
@@ -146,6 +146,8 @@ public class RequestType implements Serializable {
 	 * > OASIS eXtensible Access Control Markup Langugage (XACML) 2.0, Errata
 	 * 29. January 2008</a> appendix B.8. Environment attributes, requires these attributes to be set on each request.
 	 * With this method a caller is able to add the current date, time and datetime.
+	 * The {@link org.herasaf.xacml.core.simplePDP.SimplePDP} does not need this, it supplies the attributes that are
+	 * missing in the request from its clock when a policy refers to them.
 	 */
 	public void ensureThatCreationTimeIsSet() {
 	    OffsetDateTime dateTime = OffsetDateTime.now();
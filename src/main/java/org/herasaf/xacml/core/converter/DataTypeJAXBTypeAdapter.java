@@ -17,8 +17,10 @@
 
 package org.herasaf.xacml.core.converter;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import jakarta.xml.bind.annotation.adapters.XmlAdapter;
 
@@ -42,7 +44,27 @@ public class DataTypeJAXBTypeAdapter extends
 		XmlAdapter<String, DataTypeAttribute<?>> {
 	private static final Logger logger = LoggerFactory
 			.getLogger(DataTypeJAXBTypeAdapter.class);
-	private static Map<String, DataTypeAttribute<?>> dataTypeAttributes = new HashMap<String, DataTypeAttribute<?>>();
+	private static final Map<String, DataTypeAttribute<?>> dataTypeAttributes = new ConcurrentHashMap<String, DataTypeAttribute<?>>();
+	private final Map<String, DataTypeAttribute<?>> knownDataTypeAttributes;
+
+	/**
+	 * Creates a converter that uses the data types added with the static
+	 * methods of this class.
+	 */
+	public DataTypeJAXBTypeAdapter() {
+		knownDataTypeAttributes = dataTypeAttributes;
+	}
+
+	/**
+	 * Creates a converter that only uses the given data types (e.g. the data types
+	 * of a single PDP). The {@link Map} is copied.
+	 * 
+	 * @param dataTypeAttributes
+	 *            The {@link Map} containing the mapping between ID's and data types.
+	 */
+	public DataTypeJAXBTypeAdapter(final Map<String, ? extends DataTypeAttribute<?>> dataTypeAttributes) {
+		knownDataTypeAttributes = Collections.unmodifiableMap(new HashMap<String, DataTypeAttribute<?>>(dataTypeAttributes));
+	}
 
 	/**
 	 * This method sets the {@link Map} containing the mapping between data
@@ -57,6 +79,16 @@ public class DataTypeJAXBTypeAdapter extends
 		DataTypeJAXBTypeAdapter.dataTypeAttributes.putAll(dataTypes);
 	}
 
+	/**
+	 * Returns a copy of the data types added with the static methods of this
+	 * class.
+	 * 
+	 * @return The {@link Map} containing the mapping between ID's and data types.
+	 */
+	public static Map<String, DataTypeAttribute<?>> getDataTypeAttributes() {
+		return new HashMap<String, DataTypeAttribute<?>>(dataTypeAttributes);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -79,7 +111,7 @@ public class DataTypeJAXBTypeAdapter extends
 	public DataTypeAttribute<?> unmarshal(final String dataTypeId) {
 		DataTypeAttribute<?> dta;
 		try {
-			dta = dataTypeAttributes.get(dataTypeId);
+			dta = knownDataTypeAttributes.get(dataTypeId);
 		} catch (NullPointerException e) {
 			logger.error("DataTypeJAXBTypeAdapter not properly initialized.");
 			throw new NotInitializedException(e);
@@ -17,8 +17,10 @@
 
 package org.herasaf.xacml.core.converter;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import jakarta.xml.bind.annotation.adapters.XmlAdapter;
 
@@ -40,7 +42,27 @@ import org.slf4j.LoggerFactory;
 public class FunctionsJAXBTypeAdapter extends XmlAdapter<String, Function> {
 	private static final Logger logger = LoggerFactory
 			.getLogger(FunctionsJAXBTypeAdapter.class);
-	private static Map<String, Function> functions = new HashMap<String, Function>();
+	private static final Map<String, Function> functions = new ConcurrentHashMap<String, Function>();
+	private final Map<String, Function> knownFunctions;
+
+	/**
+	 * Creates a converter that uses the functions added with the static
+	 * methods of this class.
+	 */
+	public FunctionsJAXBTypeAdapter() {
+		knownFunctions = functions;
+	}
+
+	/**
+	 * Creates a converter that only uses the given functions (e.g. the functions
+	 * of a single PDP). The {@link Map} is copied.
+	 * 
+	 * @param functions
+	 *            The {@link Map} containing the mapping between ID's and functions.
+	 */
+	public FunctionsJAXBTypeAdapter(final Map<String, ? extends Function> functions) {
+		knownFunctions = Collections.unmodifiableMap(new HashMap<String, Function>(functions));
+	}
 
 	/**
 	 * This method sets the {@link Map} containing the mapping between functions
@@ -54,6 +76,16 @@ public class FunctionsJAXBTypeAdapter extends XmlAdapter<String, Function> {
 		FunctionsJAXBTypeAdapter.functions.putAll(functions);
 	}
 
+	/**
+	 * Returns a copy of the functions added with the static methods of this
+	 * class.
+	 * 
+	 * @return The {@link Map} containing the mapping between ID's and functions.
+	 */
+	public static Map<String, Function> getFunctions() {
+		return new HashMap<String, Function>(functions);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -76,7 +108,7 @@ public class FunctionsJAXBTypeAdapter extends XmlAdapter<String, Function> {
 	public Function unmarshal(final String functionId) {
 		Function func;
 		try {
-			func = functions.get(functionId);
+			func = knownFunctions.get(functionId);
 		} catch (NullPointerException e) {
 			logger.error("FunctionsJAXBTypeAdapter not properly initialized.");
 			throw new NotInitializedException(e);
@@ -17,8 +17,10 @@
 
 package org.herasaf.xacml.core.converter;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import jakarta.xml.bind.annotation.adapters.XmlAdapter;
 
@@ -41,7 +43,27 @@ public class PolicyCombiningAlgorithmJAXBTypeAdapter extends
 		XmlAdapter<String, PolicyCombiningAlgorithm> {
 	private static final Logger logger = LoggerFactory
 			.getLogger(PolicyCombiningAlgorithmJAXBTypeAdapter.class);
-	private static Map<String, PolicyCombiningAlgorithm> combiningAlgorithms = new HashMap<String, PolicyCombiningAlgorithm>();
+	private static final Map<String, PolicyCombiningAlgorithm> combiningAlgorithms = new ConcurrentHashMap<String, PolicyCombiningAlgorithm>();
+	private final Map<String, PolicyCombiningAlgorithm> knownCombiningAlgorithms;
+
+	/**
+	 * Creates a converter that uses the policy combining algorithms added with the static
+	 * methods of this class.
+	 */
+	public PolicyCombiningAlgorithmJAXBTypeAdapter() {
+		knownCombiningAlgorithms = combiningAlgorithms;
+	}
+
+	/**
+	 * Creates a converter that only uses the given policy combining algorithms (e.g. the policy combining algorithms
+	 * of a single PDP). The {@link Map} is copied.
+	 * 
+	 * @param combiningAlgorithms
+	 *            The {@link Map} containing the mapping between ID's and policy combining algorithms.
+	 */
+	public PolicyCombiningAlgorithmJAXBTypeAdapter(final Map<String, ? extends PolicyCombiningAlgorithm> combiningAlgorithms) {
+		knownCombiningAlgorithms = Collections.unmodifiableMap(new HashMap<String, PolicyCombiningAlgorithm>(combiningAlgorithms));
+	}
 
 	/**
 	 * This method sets the {@link Map} containing the mapping between policy
@@ -56,6 +78,16 @@ public class PolicyCombiningAlgorithmJAXBTypeAdapter extends
 		combiningAlgorithms.putAll(algorithms);
 	}
 
+	/**
+	 * Returns a copy of the policy combining algorithms added with the static methods of this
+	 * class.
+	 * 
+	 * @return The {@link Map} containing the mapping between ID's and policy combining algorithms.
+	 */
+	public static Map<String, PolicyCombiningAlgorithm> getCombiningAlgorithms() {
+		return new HashMap<String, PolicyCombiningAlgorithm>(combiningAlgorithms);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -78,7 +110,7 @@ public class PolicyCombiningAlgorithmJAXBTypeAdapter extends
 	public PolicyCombiningAlgorithm unmarshal(final String combAlgId) {
 		PolicyCombiningAlgorithm combAlg;
 		try {
-			combAlg = combiningAlgorithms.get(combAlgId);
+			combAlg = knownCombiningAlgorithms.get(combAlgId);
 		} catch (NullPointerException e) {
 			logger
 					.error("PolicyCombiningAlgorithmJAXBTypeAdapter not properly initialized.");
@@ -17,8 +17,10 @@
 
 package org.herasaf.xacml.core.converter;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import jakarta.xml.bind.annotation.adapters.XmlAdapter;
 
@@ -41,7 +43,27 @@ public class RuleCombiningAlgorithmJAXBTypeAdapter extends
 		XmlAdapter<String, RuleCombiningAlgorithm> {
 	private static final Logger logger = LoggerFactory
 			.getLogger(RuleCombiningAlgorithmJAXBTypeAdapter.class);
-	private static Map<String, RuleCombiningAlgorithm> combiningAlgorithms = new HashMap<String, RuleCombiningAlgorithm>();
+	private static final Map<String, RuleCombiningAlgorithm> combiningAlgorithms = new ConcurrentHashMap<String, RuleCombiningAlgorithm>();
+	private final Map<String, RuleCombiningAlgorithm> knownCombiningAlgorithms;
+
+	/**
+	 * Creates a converter that uses the rule combining algorithms added with the static
+	 * methods of this class.
+	 */
+	public RuleCombiningAlgorithmJAXBTypeAdapter() {
+		knownCombiningAlgorithms = combiningAlgorithms;
+	}
+
+	/**
+	 * Creates a converter that only uses the given rule combining algorithms (e.g. the rule combining algorithms
+	 * of a single PDP). The {@link Map} is copied.
+	 * 
+	 * @param combiningAlgorithms
+	 *            The {@link Map} containing the mapping between ID's and rule combining algorithms.
+	 */
+	public RuleCombiningAlgorithmJAXBTypeAdapter(final Map<String, ? extends RuleCombiningAlgorithm> combiningAlgorithms) {
+		knownCombiningAlgorithms = Collections.unmodifiableMap(new HashMap<String, RuleCombiningAlgorithm>(combiningAlgorithms));
+	}
 
 	/**
 	 * This method sets the {@link Map} containing the mapping between rule
@@ -56,6 +78,16 @@ public class RuleCombiningAlgorithmJAXBTypeAdapter extends
 		combiningAlgorithms.putAll(algorithms);
 	}
 
+	/**
+	 * Returns a copy of the rule combining algorithms added with the static methods of this
+	 * class.
+	 * 
+	 * @return The {@link Map} containing the mapping between ID's and rule combining algorithms.
+	 */
+	public static Map<String, RuleCombiningAlgorithm> getCombiningAlgorithms() {
+		return new HashMap<String, RuleCombiningAlgorithm>(combiningAlgorithms);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -78,7 +110,7 @@ public class RuleCombiningAlgorithmJAXBTypeAdapter extends
 	public RuleCombiningAlgorithm unmarshal(final String combAlgId) {
 		RuleCombiningAlgorithm combAlg;
 		try {
-			combAlg = combiningAlgorithms.get(combAlgId);
+			combAlg = knownCombiningAlgorithms.get(combAlgId);
 		} catch (NullPointerException e) {
 			logger
 					.error("RuleCombiningAlgorithmJAXBTypeAdapter not properly initialized.");
@@ -16,6 +16,8 @@
  */
 package org.herasaf.xacml.core.dataTypeAttribute.impl;
 
+import java.time.ZoneId;
+
 import org.herasaf.xacml.core.SyntaxException;
 import org.herasaf.xacml.core.types.Date;
 
@@ -26,6 +28,33 @@ import org.herasaf.xacml.core.types.Date;
 public class DateDataTypeAttribute extends AbstractDataTypeAttribute<Date> {
     public static final String ID = "http://www.w3.org/2001/XMLSchema#date";
     private static final long serialVersionUID = 1L;
+    private final boolean useDefaults;
+    private final ZoneId defaultZoneId;
+    private final boolean useZuluUtcRepresentation;
+
+    /**
+     * Creates a data type that uses the defaults of {@link Date}.
+     */
+    public DateDataTypeAttribute() {
+        useDefaults = true;
+        defaultZoneId = null;
+        useZuluUtcRepresentation = false;
+    }
+
+    /**
+     * Creates a data type that uses the given timezone and representation of the UTC timezone (e.g. the ones of a single
+     * PDP).
+     * 
+     * @param defaultZoneId
+     *            The timezone of a date without timezone.
+     * @param useZuluUtcRepresentation
+     *            Whether the UTC timezone shall be represented in Zulu ('Z') or standard (+00:00).
+     */
+    public DateDataTypeAttribute(ZoneId defaultZoneId, boolean useZuluUtcRepresentation) {
+        useDefaults = false;
+        this.defaultZoneId = defaultZoneId;
+        this.useZuluUtcRepresentation = useZuluUtcRepresentation;
+    }
 
     /** {@inheritDoc} */
     @Override
@@ -36,7 +65,9 @@ public class DateDataTypeAttribute extends AbstractDataTypeAttribute<Date> {
     /** {@inheritDoc} */
     @Override
     public Date convertTo(String jaxbRepresentation) throws SyntaxException {
-        Date date = new Date(jaxbRepresentation);
-        return date;
+        if (useDefaults) {
+            return new Date(jaxbRepresentation);
+        }
+        return new Date(jaxbRepresentation, defaultZoneId, useZuluUtcRepresentation);
     }
 }
\ No newline at end of file
@@ -16,6 +16,8 @@
  */
 package org.herasaf.xacml.core.dataTypeAttribute.impl;
 
+import java.time.ZoneId;
+
 import org.herasaf.xacml.core.SyntaxException;
 import org.herasaf.xacml.core.types.DateTime;
 
@@ -27,6 +29,34 @@ import org.herasaf.xacml.core.types.DateTime;
 public class DateTimeDataTypeAttribute extends AbstractDataTypeAttribute<DateTime> {
 	public static final String ID = "http://www.w3.org/2001/XMLSchema#dateTime";
 	private static final long serialVersionUID = 1L;
+	private final boolean useDefaults;
+	private final ZoneId defaultZoneId;
+	private final boolean useZuluUtcRepresentation;
+
+	/**
+	 * Creates a data type that uses the defaults of {@link DateTime}.
+	 */
+	public DateTimeDataTypeAttribute() {
+		useDefaults = true;
+		defaultZoneId = null;
+		useZuluUtcRepresentation = false;
+	}
+
+	/**
+	 * Creates a data type that uses the given timezone and representation of
+	 * the UTC timezone (e.g. the ones of a single PDP).
+	 * 
+	 * @param defaultZoneId
+	 *            The timezone of a dateTime without timezone.
+	 * @param useZuluUtcRepresentation
+	 *            Whether the UTC timezone shall be represented in Zulu ('Z')
+	 *            or standard (+00:00).
+	 */
+	public DateTimeDataTypeAttribute(ZoneId defaultZoneId, boolean useZuluUtcRepresentation) {
+		useDefaults = false;
+		this.defaultZoneId = defaultZoneId;
+		this.useZuluUtcRepresentation = useZuluUtcRepresentation;
+	}
 
 	/** {@inheritDoc} */
 	@Override
@@ -37,7 +67,9 @@ public class DateTimeDataTypeAttribute extends AbstractDataTypeAttribute<DateTim
 	/** {@inheritDoc} */
 	@Override
 	public DateTime convertTo(String jaxbRepresentation) throws SyntaxException {
-		DateTime dateTime = new DateTime(jaxbRepresentation);
-		return dateTime;
+		if (useDefaults) {
+			return new DateTime(jaxbRepresentation);
+		}
+		return new DateTime(jaxbRepresentation, defaultZoneId, useZuluUtcRepresentation);
 	}
 }
\ No newline at end of file
@@ -20,6 +20,7 @@ package org.herasaf.xacml.core.dataTypeAttribute.impl;
 import java.math.BigInteger;
 
 import org.herasaf.xacml.core.SyntaxException;
+import org.herasaf.xacml.core.types.IntegerValues;
 
 /**
  * This data type represents a http://www.w3.org/2001/XMLSchema#integer. See: <A
@@ -40,8 +41,7 @@ public class IntegerDataTypeAttribute extends AbstractDataTypeAttribute<BigInteg
 	@Override
 	public BigInteger convertTo(String jaxbRepresentation) throws SyntaxException {
 		try {
-			BigInteger bigInteger = new BigInteger(jaxbRepresentation);
-			return bigInteger;
+			return IntegerValues.parse(jaxbRepresentation);
 		} catch (NumberFormatException e) {
 			throw new SyntaxException(e);
 		}
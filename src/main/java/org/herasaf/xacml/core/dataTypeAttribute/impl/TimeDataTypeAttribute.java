@@ -27,6 +27,29 @@ import org.herasaf.xacml.core.types.Time;
 public class TimeDataTypeAttribute extends AbstractDataTypeAttribute<Time> {
 	public static final String ID = "http://www.w3.org/2001/XMLSchema#time";
 	private static final long serialVersionUID = 1L;
+	private final boolean useDefaults;
+	private final boolean useZuluUtcRepresentation;
+
+	/**
+	 * Creates a data type that uses the defaults of {@link Time}.
+	 */
+	public TimeDataTypeAttribute() {
+		useDefaults = true;
+		useZuluUtcRepresentation = false;
+	}
+
+	/**
+	 * Creates a data type that uses the given representation of the UTC
+	 * timezone (e.g. the one of a single PDP).
+	 * 
+	 * @param useZuluUtcRepresentation
+	 *            Whether the UTC timezone shall be represented in Zulu ('Z')
+	 *            or standard (+00:00).
+	 */
+	public TimeDataTypeAttribute(boolean useZuluUtcRepresentation) {
+		useDefaults = false;
+		this.useZuluUtcRepresentation = useZuluUtcRepresentation;
+	}
 
 	/** {@inheritDoc} */
 	@Override
@@ -37,7 +60,9 @@ public class TimeDataTypeAttribute extends AbstractDataTypeAttribute<Time> {
 	/** {@inheritDoc} */
 	@Override
 	public Time convertTo(String jaxbRepresentation) throws SyntaxException {
-		Time time = new Time(jaxbRepresentation);
-		return time;
+		if (useDefaults) {
+			return new Time(jaxbRepresentation);
+		}
+		return new Time(jaxbRepresentation, useZuluUtcRepresentation);
 	}
 }
\ No newline at end of file
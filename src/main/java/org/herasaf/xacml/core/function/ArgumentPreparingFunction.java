@@ -0,0 +1,43 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.herasaf.xacml.core.function;
+
+/**
+ * A function that converts a constant argument into a form that is faster to
+ * apply (e.g. a regular expression into a compiled pattern). When a policy is
+ * compiled, the literal arguments of the function are prepared once and the
+ * function is applied to the prepared form on each evaluation (see
+ * {@link org.herasaf.xacml.core.policy.impl.ApplyType#compile()}). Therefore
+ * {@link #handle(Object...)} must accept both the argument and its prepared
+ * form.
+ */
+public interface ArgumentPreparingFunction extends Function {
+
+	/**
+	 * Returns the prepared form of the given constant argument.
+	 * 
+	 * @param index
+	 *            The position of the argument.
+	 * @param value
+	 *            The value of the argument.
+	 * @return The prepared form or the value itself if it has none (e.g.
+	 *         because it is invalid, such that the error is reported on
+	 *         evaluation).
+	 */
+	Object prepareArgument(int index, Object value);
+}
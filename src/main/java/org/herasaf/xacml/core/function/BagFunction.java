@@ -0,0 +1,30 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.herasaf.xacml.core.function;
+
+import java.util.List;
+
+/**
+ * A {@link UnaryFunction} that takes a bag of values of a known type (e.g.
+ * one-and-only and bag-size). The type of the values of a bag that is
+ * returned by a designator is checked when the policy is deployed.
+ * 
+ * @param <T>
+ *            The type of the values in the bag.
+ */
+public interface BagFunction<T> extends UnaryFunction<List<T>> {
+}
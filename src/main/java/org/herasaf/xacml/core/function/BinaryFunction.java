@@ -0,0 +1,47 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.herasaf.xacml.core.function;
+
+/**
+ * A {@link Function} that takes exactly two arguments of known types. A
+ * compiled apply of such a function invokes {@link #apply(Object, Object)}
+ * instead of {@link #handle(Object...)}, such that neither an argument array is
+ * allocated nor the number of arguments is checked on each call. The types of
+ * the arguments are checked once when the policy is deployed (see
+ * {@link TypedFunctions}).
+ * 
+ * @param <T>
+ *            The type of the first argument.
+ * @param <U>
+ *            The type of the second argument.
+ */
+public interface BinaryFunction<T, U> extends Function {
+
+	/**
+	 * Applies this function to the given arguments. The result must be the
+	 * same as the result of {@link #handle(Object...)} with these arguments.
+	 * 
+	 * @param first
+	 *            The first argument of the function.
+	 * @param second
+	 *            The second argument of the function.
+	 * @return The result of the execution of the function.
+	 * @throws FunctionProcessingException
+	 *             In case an error occurs while processing the function.
+	 */
+	Object apply(T first, U second) throws FunctionProcessingException;
+}
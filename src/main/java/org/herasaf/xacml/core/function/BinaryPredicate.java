@@ -0,0 +1,51 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.herasaf.xacml.core.function;
+
+/**
+ * A {@link BinaryFunction} that returns a boolean (e.g. the equality and
+ * comparison functions). The target matcher invokes the match function of a
+ * match with {@link #test(Object, Object)} if it is such a predicate.
+ * 
+ * @param <T>
+ *            The type of the first argument.
+ * @param <U>
+ *            The type of the second argument.
+ */
+public interface BinaryPredicate<T, U> extends BinaryFunction<T, U> {
+
+	/**
+	 * Tests the given arguments.
+	 * 
+	 * @param first
+	 *            The first argument of the function.
+	 * @param second
+	 *            The second argument of the function.
+	 * @return The result of the execution of the function.
+	 * @throws FunctionProcessingException
+	 *             In case an error occurs while processing the function.
+	 */
+	boolean test(T first, U second) throws FunctionProcessingException;
+
+	/**
+	 * {@inheritDoc} Returns the result of {@link #test(Object, Object)}.
+	 */
+	@Override
+	default Object apply(T first, U second) throws FunctionProcessingException {
+		return test(first, second);
+	}
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.herasaf.xacml.core.function;
+
+import org.herasaf.xacml.core.ProcessingException;
+import org.herasaf.xacml.core.SyntaxException;
+import org.herasaf.xacml.core.policy.MissingAttributeException;
+
+/**
+ * The arguments of a {@link LazyFunction}. An argument is evaluated when it is
+ * requested the first time.
+ */
+public interface LazyArguments {
+
+	/**
+	 * Returns the number of arguments.
+	 * 
+	 * @return The number of arguments.
+	 */
+	int size();
+
+	/**
+	 * Evaluates the argument at the given index.
+	 * 
+	 * @param index
+	 *            The index of the argument.
+	 * @return The value of the argument.
+	 * @throws MissingAttributeException
+	 *             If the argument refers to an attribute that is missing.
+	 * @throws SyntaxException
+	 *             If the argument is syntactically incorrect.
+	 * @throws ProcessingException
+	 *             If the evaluation of the argument fails.
+	 */
+	Object get(int index) throws MissingAttributeException, SyntaxException, ProcessingException;
+}
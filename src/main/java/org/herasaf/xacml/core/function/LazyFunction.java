@@ -0,0 +1,52 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.herasaf.xacml.core.function;
+
+import org.herasaf.xacml.core.ProcessingException;
+import org.herasaf.xacml.core.SyntaxException;
+import org.herasaf.xacml.core.policy.MissingAttributeException;
+
+/**
+ * A function that does not need all its arguments to compute its result (e.g.
+ * the logical functions, whose result may be decided by the first argument).
+ * Its arguments are evaluated on demand, such that attributes of arguments
+ * that are not needed are neither resolved nor reported as missing.
+ */
+public interface LazyFunction extends Function {
+
+	/**
+	 * The handler that evaluates only the arguments it needs. The result must
+	 * be the same as the result of {@link #handle(Object...)} with all
+	 * arguments evaluated.
+	 * 
+	 * @param args
+	 *            The arguments, evaluated on demand.
+	 * @return The result of the execution of the function.
+	 * @throws FunctionProcessingException
+	 *             In case an error occurs while processing the function.
+	 * @throws MissingAttributeException
+	 *             If an evaluated argument refers to an attribute that is
+	 *             missing.
+	 * @throws SyntaxException
+	 *             If an evaluated argument is syntactically incorrect.
+	 * @throws ProcessingException
+	 *             If the evaluation of an argument fails.
+	 */
+	Object handle(LazyArguments args) throws FunctionProcessingException, MissingAttributeException, SyntaxException,
+			ProcessingException;
+}
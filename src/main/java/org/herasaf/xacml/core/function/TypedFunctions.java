@@ -0,0 +1,167 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.herasaf.xacml.core.function;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.herasaf.xacml.core.dataTypeAttribute.DataTypeAttribute;
+
+/**
+ * This utility class determines the declared argument types of the typed
+ * functions ({@link UnaryFunction}, {@link BinaryFunction}, {@link BagFunction}
+ * and {@link BagPredicate}) and the value types of data types from their type
+ * arguments. It is used when a policy is deployed to check the types of the
+ * arguments of applies and matches, such that a typed function can be invoked
+ * without checking its arguments on each call.
+ */
+public final class TypedFunctions {
+
+	private TypedFunctions() {
+	}
+
+	/**
+	 * Returns the declared types of the arguments of the given function.
+	 * 
+	 * @param function
+	 *            The function.
+	 * @return The types of the arguments or <code>null</code> if the function
+	 *         is neither a {@link UnaryFunction} nor a {@link BinaryFunction}.
+	 *         A type that is not declared is {@link Object}.
+	 */
+	public static Class<?>[] getArgumentTypes(Function function) {
+		if (function instanceof BinaryFunction) {
+			return resolve(function.getClass(), BinaryFunction.class);
+		} else if (function instanceof UnaryFunction) {
+			return resolve(function.getClass(), UnaryFunction.class);
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the declared type of the values in the bag argument of the given
+	 * function.
+	 * 
+	 * @param function
+	 *            The function.
+	 * @return The type of the values or <code>null</code> if the function is
+	 *         neither a {@link BagFunction} nor a {@link BagPredicate}.
+	 */
+	public static Class<?> getElementType(Function function) {
+		if (function instanceof BagPredicate) {
+			return resolve(function.getClass(), BagPredicate.class)[0];
+		} else if (function instanceof BagFunction) {
+			return resolve(function.getClass(), BagFunction.class)[0];
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the type of the values of the given data type.
+	 * 
+	 * @param dataType
+	 *            The data type.
+	 * @return The type of the converted values, {@link Object} if it is not
+	 *         declared.
+	 */
+	public static Class<?> getValueType(DataTypeAttribute<?> dataType) {
+		return resolve(dataType.getClass(), DataTypeAttribute.class)[0];
+	}
+
+	/**
+	 * Returns the type arguments of the given generic type as they are bound
+	 * by the given class.
+	 */
+	private static Class<?>[] resolve(Class<?> type, Class<?> genericType) {
+		Type[] arguments = resolve(type, genericType, new HashMap<TypeVariable<?>, Type>());
+		Class<?>[] classes = new Class<?>[arguments.length];
+		for (int i = 0; i < arguments.length; i++) {
+			classes[i] = toClass(arguments[i]);
+		}
+		return classes;
+	}
+
+	/**
+	 * Returns the type arguments of the given generic type as they are bound
+	 * by the given type, or <code>null</code> if the type is no subtype of the
+	 * generic type.
+	 * 
+	 * @param bindings
+	 *            The bound type variables of the subtype of the given type.
+	 */
+	private static Type[] resolve(Type type, Class<?> genericType, Map<TypeVariable<?>, Type> bindings) {
+		Class<?> rawType;
+		Map<TypeVariable<?>, Type> typeBindings = new HashMap<TypeVariable<?>, Type>();
+		if (type instanceof ParameterizedType) {
+			rawType = (Class<?>) ((ParameterizedType) type).getRawType();
+			Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+			TypeVariable<?>[] variables = rawType.getTypeParameters();
+			for (int i = 0; i < variables.length; i++) {
+				Type argument = arguments[i];
+				if (bindings.containsKey(argument)) {
+					argument = bindings.get(argument);
+				}
+				typeBindings.put(variables[i], argument);
+			}
+		} else if (type instanceof Class) {
+			rawType = (Class<?>) type;
+		} else {
+			return null;
+		}
+		if (rawType == genericType) {
+			TypeVariable<?>[] variables = rawType.getTypeParameters();
+			Type[] arguments = new Type[variables.length];
+			for (int i = 0; i < variables.length; i++) {
+				arguments[i] = typeBindings.containsKey(variables[i]) ? typeBindings.get(variables[i]) : variables[i];
+			}
+			return arguments;
+		}
+		if (!genericType.isAssignableFrom(rawType)) {
+			return null;
+		}
+		List<Type> supertypes = new ArrayList<Type>(Arrays.asList(rawType.getGenericInterfaces()));
+		if (rawType.getGenericSuperclass() != null) {
+			supertypes.add(rawType.getGenericSuperclass());
+		}
+		for (Type supertype : supertypes) {
+			Type[] arguments = resolve(supertype, genericType, typeBindings);
+			if (arguments != null) {
+				return arguments;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the class of the given type argument, {@link Object} if it is
+	 * not bound.
+	 */
+	private static Class<?> toClass(Type type) {
+		if (type instanceof Class) {
+			return (Class<?>) type;
+		} else if (type instanceof ParameterizedType) {
+			return (Class<?>) ((ParameterizedType) type).getRawType();
+		}
+		return Object.class;
+	}
+}
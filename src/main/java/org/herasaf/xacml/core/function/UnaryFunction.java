@@ -0,0 +1,43 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.herasaf.xacml.core.function;
+
+/**
+ * A {@link Function} that takes exactly one argument of a known type. A
+ * compiled apply of such a function invokes {@link #apply(Object)} instead of
+ * {@link #handle(Object...)}, such that neither an argument array is allocated
+ * nor the number of arguments is checked on each call. The type of the
+ * argument is checked once when the policy is deployed (see
+ * {@link TypedFunctions}).
+ * 
+ * @param <T>
+ *            The type of the argument.
+ */
+public interface UnaryFunction<T> extends Function {
+
+	/**
+	 * Applies this function to the given argument. The result must be the same
+	 * as the result of {@link #handle(Object...)} with this argument.
+	 * 
+	 * @param argument
+	 *            The argument of the function.
+	 * @return The result of the execution of the function.
+	 * @throws FunctionProcessingException
+	 *             In case an error occurs while processing the function.
+	 */
+	Object apply(T argument) throws FunctionProcessingException;
+}
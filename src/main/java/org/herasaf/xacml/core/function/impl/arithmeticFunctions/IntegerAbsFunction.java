@@ -21,6 +21,8 @@ import java.math.BigInteger;
 
 import org.herasaf.xacml.core.function.AbstractFunction;
 import org.herasaf.xacml.core.function.FunctionProcessingException;
+import org.herasaf.xacml.core.function.UnaryFunction;
+import org.herasaf.xacml.core.types.IntegerValues;
 
 /**
  * <p>
@@ -36,7 +38,7 @@ import org.herasaf.xacml.core.function.FunctionProcessingException;
  * @author Stefan Oberholzer
  * @version 1.0
  */
-public class IntegerAbsFunction extends AbstractFunction {
+public class IntegerAbsFunction extends AbstractFunction implements UnaryFunction<BigInteger> {
 
 	/** XACML function ID. */
 	public static final String ID = "urn:oasis:names:tc:xacml:1.0:function:integer-abs";
@@ -55,7 +57,7 @@ public class IntegerAbsFunction extends AbstractFunction {
 						"Invalid number of parameters.");
 			}
 
-			return ((BigInteger) args[0]).abs();
+			return apply((BigInteger) args[0]);
 		} catch (ClassCastException e) {
 			throw new FunctionProcessingException(
 					"The arguments were of the wrong datatype.", e);
@@ -64,6 +66,16 @@ public class IntegerAbsFunction extends AbstractFunction {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Returns the absolute value of the argument.
+	 */
+	@Override
+	public Object apply(BigInteger argument) {
+		return IntegerValues.abs(argument);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -21,6 +21,7 @@ import java.math.BigInteger;
 
 import org.herasaf.xacml.core.function.AbstractFunction;
 import org.herasaf.xacml.core.function.FunctionProcessingException;
+import org.herasaf.xacml.core.types.IntegerValues;
 
 /**
  * <p>
@@ -58,9 +59,9 @@ public class IntegerAddFunction extends AbstractFunction {
 			for (int i = 0; i < args.length; i++) {
 				integers[i] = (BigInteger) args[i];
 			}
-			BigInteger result = new BigInteger("0");
+			BigInteger result = IntegerValues.valueOf(0);
 			for (BigInteger i : integers) {
-				result = result.add(i);
+				result = IntegerValues.add(result, i);
 			}
 			return result;
 		} catch (ClassCastException e) {
@@ -20,7 +20,9 @@ package org.herasaf.xacml.core.function.impl.arithmeticFunctions;
 import java.math.BigInteger;
 
 import org.herasaf.xacml.core.function.AbstractFunction;
+import org.herasaf.xacml.core.function.BinaryFunction;
 import org.herasaf.xacml.core.function.FunctionProcessingException;
+import org.herasaf.xacml.core.types.IntegerValues;
 
 /**
  * <p>
@@ -36,7 +38,7 @@ import org.herasaf.xacml.core.function.FunctionProcessingException;
  * @author Stefan Oberholzer
  * @version 1.0
  */
-public class IntegerMultiplyFunction extends AbstractFunction {
+public class IntegerMultiplyFunction extends AbstractFunction implements BinaryFunction<BigInteger, BigInteger> {
 
 	/** XACML function ID. */
 	public static final String ID = "urn:oasis:names:tc:xacml:1.0:function:integer-multiply";
@@ -55,7 +57,7 @@ public class IntegerMultiplyFunction extends AbstractFunction {
 						"Invalid number of parameters.");
 			}
 
-			return ((BigInteger) args[0]).multiply((BigInteger) args[1]);
+			return apply((BigInteger) args[0], (BigInteger) args[1]);
 		} catch (ClassCastException e) {
 			throw new FunctionProcessingException(
 					"The arguments were of the wrong datatype.", e);
@@ -64,6 +66,16 @@ public class IntegerMultiplyFunction extends AbstractFunction {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Returns the product of the arguments.
+	 */
+	@Override
+	public Object apply(BigInteger first, BigInteger second) {
+		return IntegerValues.multiply(first, second);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -22,6 +22,7 @@ import java.util.List;
 
 import org.herasaf.xacml.core.function.AbstractFunction;
 import org.herasaf.xacml.core.function.FunctionProcessingException;
+import org.herasaf.xacml.core.types.Bag;
 
 /**
  * <p>
@@ -53,7 +54,8 @@ public abstract class AbstractBagFunction<T> extends AbstractFunction {
 	 * </p>
 	 * <p>
 	 * takes any number of arguments of the type value and returnes a
-	 * {@link List} containing the values.
+	 * {@link List} containing the values. The {@link List} is an immutable
+	 * {@link Bag}.
 	 * </p>
 	 */
 	@Override
@@ -69,7 +71,7 @@ public abstract class AbstractBagFunction<T> extends AbstractFunction {
 			throw new FunctionProcessingException(e);
 		}
 
-		return stringBag;
+		return new Bag<T>(stringBag);
 	}
 
 }
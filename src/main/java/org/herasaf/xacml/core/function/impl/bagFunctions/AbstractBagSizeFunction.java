@@ -17,11 +17,12 @@
 
 package org.herasaf.xacml.core.function.impl.bagFunctions;
 
-import java.math.BigInteger;
 import java.util.List;
 
 import org.herasaf.xacml.core.function.AbstractFunction;
+import org.herasaf.xacml.core.function.BagFunction;
 import org.herasaf.xacml.core.function.FunctionProcessingException;
+import org.herasaf.xacml.core.types.IntegerValues;
 
 /**
  * <p>
@@ -40,7 +41,7 @@ import org.herasaf.xacml.core.function.FunctionProcessingException;
  * @param <T>
  *            Implemented Type.
  */
-public abstract class AbstractBagSizeFunction<T> extends AbstractFunction {
+public abstract class AbstractBagSizeFunction<T> extends AbstractFunction implements BagFunction<T> {
 
 	private static final long serialVersionUID = 1L;
 
@@ -63,11 +64,21 @@ public abstract class AbstractBagSizeFunction<T> extends AbstractFunction {
 				throw new FunctionProcessingException(
 						"Invalid number of parameters");
 			}
-			return new BigInteger(Integer.toString(((List<T>) args[0]).size()));
+			return apply((List<T>) args[0]);
 		} catch (ClassCastException e) {
 			throw new FunctionProcessingException(e);
 		} catch (Exception e) {
 			throw new FunctionProcessingException(e);
 		}
 	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Returns the number of values in the bag.
+	 */
+	@Override
+	public Object apply(List<T> bag) {
+		return IntegerValues.valueOf(bag.size());
+	}
 }
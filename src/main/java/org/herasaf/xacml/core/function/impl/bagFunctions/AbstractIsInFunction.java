@@ -20,7 +20,9 @@ package org.herasaf.xacml.core.function.impl.bagFunctions;
 import java.util.List;
 
 import org.herasaf.xacml.core.function.AbstractFunction;
+import org.herasaf.xacml.core.function.BagPredicate;
 import org.herasaf.xacml.core.function.FunctionProcessingException;
+import org.herasaf.xacml.core.types.Bag;
 
 /**
  * <p>
@@ -39,10 +41,13 @@ import org.herasaf.xacml.core.function.FunctionProcessingException;
  * @param <T>
  *            Implemented Type.
  */
-public abstract class AbstractIsInFunction<T> extends AbstractFunction {
+public abstract class AbstractIsInFunction<T> extends AbstractFunction implements BagPredicate<T> {
 
 	private static final long serialVersionUID = 1L;
 
+	/** Up to this size a {@link Bag} is scanned instead of looked up. */
+	private static final int LINEAR_SCAN_SIZE = 8;
+
 	/**
 	 * {@inheritDoc}
 	 * <p>
@@ -67,17 +72,30 @@ public abstract class AbstractIsInFunction<T> extends AbstractFunction {
 				throw new FunctionProcessingException(
 						"Invalid number of parameters");
 			}
-			List<T> bagValues = ((List<T>) args[1]);
-			for (T val : bagValues) {
-				if (val.equals(args[0])) {
-					return true;
-				}
-			}
-			return false;
+			return test((T) args[0], (List<T>) args[1]);
 		} catch (ClassCastException e) {
 			throw new FunctionProcessingException(e);
 		} catch (Exception e) {
 			throw new FunctionProcessingException(e);
 		}
 	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Returns true if a value of the bag equals the value. A larger
+	 * {@link Bag} is looked up in its hashed view (see {@link Bag#toSet()}).
+	 */
+	@Override
+	public boolean test(T value, List<T> bag) {
+		if (bag instanceof Bag && bag.size() > LINEAR_SCAN_SIZE) {
+			return ((Bag<T>) bag).toSet().contains(value);
+		}
+		for (T val : bag) {
+			if (val.equals(value)) {
+				return true;
+			}
+		}
+		return false;
+	}
 }
@@ -20,6 +20,7 @@ package org.herasaf.xacml.core.function.impl.bagFunctions;
 import java.util.List;
 
 import org.herasaf.xacml.core.function.AbstractFunction;
+import org.herasaf.xacml.core.function.BagFunction;
 import org.herasaf.xacml.core.function.FunctionProcessingException;
 
 /**
@@ -37,7 +38,7 @@ import org.herasaf.xacml.core.function.FunctionProcessingException;
  * @version 1.0
  * 
  */
-public abstract class AbstractOneAndOnlyFunction<T> extends AbstractFunction {
+public abstract class AbstractOneAndOnlyFunction<T> extends AbstractFunction implements BagFunction<T> {
 
 	private static final long serialVersionUID = 1L;
 
@@ -55,20 +56,14 @@ public abstract class AbstractOneAndOnlyFunction<T> extends AbstractFunction {
 	 * </p>
 	 */
 	@Override
+	@SuppressWarnings("unchecked")
 	public Object handle(Object... args) throws FunctionProcessingException {
 		try {
 			if (args.length != 1) {
 				throw new FunctionProcessingException(
 						"Invalid number of parameters");
 			}
-			if (((List<?>) args[0]).size() != 1) {
-				throw new FunctionProcessingException(
-						"Invalid number of elements");
-			}
-			Object returnValue = ((List<?>) args[0]).get(0);
-
-			return returnValue;
-
+			return apply((List<T>) args[0]);
 		} catch (ClassCastException e) {
 			throw new FunctionProcessingException(e);
 		} catch (Exception e) {
@@ -76,4 +71,16 @@ public abstract class AbstractOneAndOnlyFunction<T> extends AbstractFunction {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Returns the only value in the bag.
+	 */
+	@Override
+	public Object apply(List<T> bag) throws FunctionProcessingException {
+		if (bag.size() != 1) {
+			throw new FunctionProcessingException("Invalid number of elements");
+		}
+		return bag.get(0);
+	}
 }
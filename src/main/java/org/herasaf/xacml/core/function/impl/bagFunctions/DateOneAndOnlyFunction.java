@@ -17,7 +17,7 @@
 
 package org.herasaf.xacml.core.function.impl.bagFunctions;
 
-import java.time.OffsetDateTime;
+import org.herasaf.xacml.core.types.Date;
 
 /**
  * <p>
@@ -33,7 +33,7 @@ import java.time.OffsetDateTime;
  * @author Stefan Oberholzer
  * @author Florian Huonder
  */
-public class DateOneAndOnlyFunction extends AbstractOneAndOnlyFunction<OffsetDateTime> {
+public class DateOneAndOnlyFunction extends AbstractOneAndOnlyFunction<Date> {
 
 	/** XACML function ID. */
 	public  static final String ID = "urn:oasis:names:tc:xacml:1.0:function:date-one-and-only";
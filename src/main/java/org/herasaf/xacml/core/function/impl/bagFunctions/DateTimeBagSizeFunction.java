@@ -17,7 +17,7 @@
 
 package org.herasaf.xacml.core.function.impl.bagFunctions;
 
-import java.time.OffsetDateTime;
+import org.herasaf.xacml.core.types.DateTime;
 
 /**
  * <p>
@@ -33,7 +33,7 @@ import java.time.OffsetDateTime;
  * @author Stefan Oberholzer
  * @author Florian Huonder
  */
-public class DateTimeBagSizeFunction extends AbstractBagSizeFunction<OffsetDateTime> {
+public class DateTimeBagSizeFunction extends AbstractBagSizeFunction<DateTime> {
 
 	/** XACML function ID. */
 	public static final String ID = "urn:oasis:names:tc:xacml:1.0:function:dateTime-bag-size";
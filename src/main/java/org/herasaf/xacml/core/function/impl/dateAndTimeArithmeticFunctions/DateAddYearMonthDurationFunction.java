@@ -55,8 +55,9 @@ public class DateAddYearMonthDurationFunction extends AbstractFunction {
 				throw new FunctionProcessingException(
 						"Invalid number of parameters");
 			}
-			((Date) args[0]).add((YearMonthDuration) args[1]);
-			return args[0];
+			Date result = new Date((Date) args[0]);
+			result.add((YearMonthDuration) args[1]);
+			return result;
 		} catch (ClassCastException e) {
 			throw new FunctionProcessingException(e);
 		} catch (Exception e) {
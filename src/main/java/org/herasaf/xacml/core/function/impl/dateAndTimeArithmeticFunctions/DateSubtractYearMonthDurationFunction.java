@@ -57,8 +57,9 @@ public class DateSubtractYearMonthDurationFunction extends AbstractFunction {
 				throw new FunctionProcessingException(
 						"Invalid number of parameters");
 			}
-			((Date) args[0]).subtract((YearMonthDuration) args[1]);
-			return args[0];
+			Date result = new Date((Date) args[0]);
+			result.subtract((YearMonthDuration) args[1]);
+			return result;
 		} catch (ClassCastException e) {
 			throw new FunctionProcessingException(e);
 		} catch (Exception e) {
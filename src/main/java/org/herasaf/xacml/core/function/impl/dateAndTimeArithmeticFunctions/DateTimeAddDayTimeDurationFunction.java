@@ -56,8 +56,9 @@ public class DateTimeAddDayTimeDurationFunction extends AbstractFunction {
 				throw new FunctionProcessingException(
 						"Invalid number of parameters");
 			}
-			((DateTime) args[0]).add((DayTimeDuration) args[1]);
-			return args[0];
+			DateTime result = new DateTime((DateTime) args[0]);
+			result.add((DayTimeDuration) args[1]);
+			return result;
 		} catch (ClassCastException e) {
 			throw new FunctionProcessingException(e);
 		} catch (Exception e) {
@@ -57,8 +57,9 @@ public class DateTimeSubtractDayTimeDurationFunction extends AbstractFunction {
 				throw new FunctionProcessingException(
 						"Invalid number of parameters");
 			}
-			((DateTime) args[0]).subtract((DayTimeDuration) args[1]);
-			return args[0];
+			DateTime result = new DateTime((DateTime) args[0]);
+			result.subtract((DayTimeDuration) args[1]);
+			return result;
 		} catch (ClassCastException e) {
 			throw new FunctionProcessingException(e);
 		} catch (Exception e) {
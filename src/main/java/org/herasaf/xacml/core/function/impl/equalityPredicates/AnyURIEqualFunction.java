@@ -20,6 +20,7 @@ package org.herasaf.xacml.core.function.impl.equalityPredicates;
 import java.net.URI;
 
 import org.herasaf.xacml.core.function.AbstractFunction;
+import org.herasaf.xacml.core.function.BinaryPredicate;
 import org.herasaf.xacml.core.function.FunctionProcessingException;
 
 /**
@@ -30,7 +31,7 @@ import org.herasaf.xacml.core.function.FunctionProcessingException;
  * 
  * @author Florian Huonder
  */
-public class AnyURIEqualFunction extends AbstractFunction {
+public class AnyURIEqualFunction extends AbstractFunction implements BinaryPredicate<URI, URI> {
 
 	/** XACML function ID. */
 	public static final String ID = "urn:oasis:names:tc:xacml:1.0:function:anyURI-equal";
@@ -50,7 +51,7 @@ public class AnyURIEqualFunction extends AbstractFunction {
 				throw new FunctionProcessingException(
 						"Invalid number of parameters");
 			}
-			return ((URI) args[0]).equals(args[1]);
+			return test((URI) args[0], (URI) args[1]);
 		} catch (ClassCastException e) {
 			throw new FunctionProcessingException(
 					"The arguments were of the wrong datatype.", e);
@@ -59,6 +60,16 @@ public class AnyURIEqualFunction extends AbstractFunction {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Returns whether the two {@link URI} objects are equal.
+	 */
+	@Override
+	public boolean test(URI first, URI second) {
+		return first.equals(second);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -18,6 +18,7 @@
 package org.herasaf.xacml.core.function.impl.equalityPredicates;
 
 import org.herasaf.xacml.core.function.AbstractFunction;
+import org.herasaf.xacml.core.function.BinaryPredicate;
 import org.herasaf.xacml.core.function.FunctionProcessingException;
 import org.herasaf.xacml.core.types.Base64Binary;
 
@@ -30,7 +31,7 @@ import org.herasaf.xacml.core.types.Base64Binary;
  * 
  * @author Florian Huonder
  */
-public class Base64BinaryEqualFunction extends AbstractFunction {
+public class Base64BinaryEqualFunction extends AbstractFunction implements BinaryPredicate<Base64Binary, Base64Binary> {
 
 	/** XACML function ID. */
 	public static final String ID = "urn:oasis:names:tc:xacml:1.0:function:base64Binary-equal";
@@ -50,7 +51,7 @@ public class Base64BinaryEqualFunction extends AbstractFunction {
 				throw new FunctionProcessingException(
 						"Invalid number of parameters");
 			}
-			return ((Base64Binary) args[0]).equals(args[1]);
+			return test((Base64Binary) args[0], (Base64Binary) args[1]);
 		} catch (ClassCastException e) {
 			throw new FunctionProcessingException(
 					"The arguments were of the wrong datatype.", e);
@@ -59,6 +60,16 @@ public class Base64BinaryEqualFunction extends AbstractFunction {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Returns whether the two {@link Base64Binary} objects are equal.
+	 */
+	@Override
+	public boolean test(Base64Binary first, Base64Binary second) {
+		return first.equals(second);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
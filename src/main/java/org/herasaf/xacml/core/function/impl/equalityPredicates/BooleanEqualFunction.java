@@ -18,6 +18,7 @@
 package org.herasaf.xacml.core.function.impl.equalityPredicates;
 
 import org.herasaf.xacml.core.function.AbstractFunction;
+import org.herasaf.xacml.core.function.BinaryPredicate;
 import org.herasaf.xacml.core.function.FunctionProcessingException;
 
 /**
@@ -28,7 +29,7 @@ import org.herasaf.xacml.core.function.FunctionProcessingException;
  * 
  * @author Florian Huonder
  */
-public class BooleanEqualFunction extends AbstractFunction {
+public class BooleanEqualFunction extends AbstractFunction implements BinaryPredicate<Boolean, Boolean> {
 
 	/** XACML function ID. */
 	public static final String ID = "urn:oasis:names:tc:xacml:1.0:function:boolean-equal";
@@ -48,7 +49,7 @@ public class BooleanEqualFunction extends AbstractFunction {
 				throw new FunctionProcessingException(
 						"Invalid number of parameters");
 			}
-			return ((Boolean) args[0]).equals(args[1]);
+			return test((Boolean) args[0], (Boolean) args[1]);
 		} catch (ClassCastException e) {
 			throw new FunctionProcessingException(
 					"The arguments were of the wrong datatype.", e);
@@ -57,6 +58,16 @@ public class BooleanEqualFunction extends AbstractFunction {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Returns whether the two {@link Boolean} objects are equal.
+	 */
+	@Override
+	public boolean test(Boolean first, Boolean second) {
+		return first.equals(second);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
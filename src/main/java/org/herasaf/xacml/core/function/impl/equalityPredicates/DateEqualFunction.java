@@ -18,6 +18,7 @@
 package org.herasaf.xacml.core.function.impl.equalityPredicates;
 
 import org.herasaf.xacml.core.function.AbstractFunction;
+import org.herasaf.xacml.core.function.BinaryPredicate;
 import org.herasaf.xacml.core.function.FunctionProcessingException;
 import org.herasaf.xacml.core.types.Date;
 
@@ -29,7 +30,7 @@ import org.herasaf.xacml.core.types.Date;
  * 
  * @author Stefan Oberholzer
  */
-public class DateEqualFunction extends AbstractFunction {
+public class DateEqualFunction extends AbstractFunction implements BinaryPredicate<Date, Date> {
 
 	/** XACML function ID. */
 	public static final String ID = "urn:oasis:names:tc:xacml:1.0:function:date-equal";
@@ -49,7 +50,7 @@ public class DateEqualFunction extends AbstractFunction {
 				throw new FunctionProcessingException(
 						"Invalid number of parameters");
 			}
-			return ((Date) args[0]).equals(args[1]);
+			return test((Date) args[0], (Date) args[1]);
 		} catch (ClassCastException e) {
 			throw new FunctionProcessingException(
 					"The arguments were of the wrong datatype.", e);
@@ -58,6 +59,16 @@ public class DateEqualFunction extends AbstractFunction {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Returns whether the two {@link Date} objects are equal.
+	 */
+	@Override
+	public boolean test(Date first, Date second) {
+		return first.equals(second);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -18,6 +18,7 @@
 package org.herasaf.xacml.core.function.impl.equalityPredicates;
 
 import org.herasaf.xacml.core.function.AbstractFunction;
+import org.herasaf.xacml.core.function.BinaryPredicate;
 import org.herasaf.xacml.core.function.FunctionProcessingException;
 import org.herasaf.xacml.core.types.DateTime;
 
@@ -29,7 +30,7 @@ import org.herasaf.xacml.core.types.DateTime;
  * 
  * @author Stefan Oberholzer
  */
-public class DateTimeEqualFunction extends AbstractFunction {
+public class DateTimeEqualFunction extends AbstractFunction implements BinaryPredicate<DateTime, DateTime> {
 
 	/** XACML function ID. */
 	public static final String ID = "urn:oasis:names:tc:xacml:1.0:function:dateTime-equal";
@@ -49,7 +50,7 @@ public class DateTimeEqualFunction extends AbstractFunction {
 				throw new FunctionProcessingException(
 						"Invalid number of parameters");
 			}
-			return ((DateTime) args[0]).equals(args[1]);
+			return test((DateTime) args[0], (DateTime) args[1]);
 		} catch (ClassCastException e) {
 			throw new FunctionProcessingException(
 					"The arguments were of the wrong datatype.", e);
@@ -58,6 +59,16 @@ public class DateTimeEqualFunction extends AbstractFunction {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Returns whether the two {@link DateTime} objects are equal.
+	 */
+	@Override
+	public boolean test(DateTime first, DateTime second) {
+		return first.equals(second);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -18,6 +18,7 @@
 package org.herasaf.xacml.core.function.impl.equalityPredicates;
 
 import org.herasaf.xacml.core.function.AbstractFunction;
+import org.herasaf.xacml.core.function.BinaryPredicate;
 import org.herasaf.xacml.core.function.FunctionProcessingException;
 import org.herasaf.xacml.core.types.DayTimeDuration;
 
@@ -30,7 +31,7 @@ import org.herasaf.xacml.core.types.DayTimeDuration;
  * 
  * @author Florian Huonder
  */
-public class DayTimeDurationEqualFunction extends AbstractFunction {
+public class DayTimeDurationEqualFunction extends AbstractFunction implements BinaryPredicate<DayTimeDuration, DayTimeDuration> {
 
 	/** XACML function ID. */
 	public static final String ID = "urn:oasis:names:tc:xacml:1.0:function:dayTimeDuration-equal";
@@ -50,7 +51,7 @@ public class DayTimeDurationEqualFunction extends AbstractFunction {
 				throw new FunctionProcessingException(
 						"Invalid number of parameters");
 			}
-			return ((DayTimeDuration) args[0]).equals(args[1]);
+			return test((DayTimeDuration) args[0], (DayTimeDuration) args[1]);
 		} catch (ClassCastException e) {
 			throw new FunctionProcessingException(
 					"The arguments were of the wrong datatype.", e);
@@ -59,6 +60,16 @@ public class DayTimeDurationEqualFunction extends AbstractFunction {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Returns whether the two {@link DayTimeDuration} objects are equal.
+	 */
+	@Override
+	public boolean test(DayTimeDuration first, DayTimeDuration second) {
+		return first.equals(second);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -18,6 +18,7 @@
 package org.herasaf.xacml.core.function.impl.equalityPredicates;
 
 import org.herasaf.xacml.core.function.AbstractFunction;
+import org.herasaf.xacml.core.function.BinaryPredicate;
 import org.herasaf.xacml.core.function.FunctionProcessingException;
 
 /**
@@ -28,7 +29,7 @@ import org.herasaf.xacml.core.function.FunctionProcessingException;
  * 
  * @author Florian Huonder
  */
-public class DoubleEqualFunction extends AbstractFunction {
+public class DoubleEqualFunction extends AbstractFunction implements BinaryPredicate<Double, Double> {
 
 	/** XACML function ID. */
 	public static final String ID = "urn:oasis:names:tc:xacml:1.0:function:double-equal";
@@ -48,7 +49,7 @@ public class DoubleEqualFunction extends AbstractFunction {
 				throw new FunctionProcessingException(
 						"Invalid number of parameters");
 			}
-			return ((Double) args[0]).equals(args[1]);
+			return test((Double) args[0], (Double) args[1]);
 		} catch (ClassCastException e) {
 			throw new FunctionProcessingException(
 					"The arguments were of the wrong datatype.", e);
@@ -57,6 +58,16 @@ public class DoubleEqualFunction extends AbstractFunction {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Returns whether the two {@link Double} objects are equal.
+	 */
+	@Override
+	public boolean test(Double first, Double second) {
+		return first.equals(second);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -18,6 +18,7 @@
 package org.herasaf.xacml.core.function.impl.equalityPredicates;
 
 import org.herasaf.xacml.core.function.AbstractFunction;
+import org.herasaf.xacml.core.function.BinaryPredicate;
 import org.herasaf.xacml.core.function.FunctionProcessingException;
 import org.herasaf.xacml.core.types.HexBinary;
 
@@ -30,7 +31,7 @@ import org.herasaf.xacml.core.types.HexBinary;
  * 
  * @author Florian Huonder
  */
-public class HexBinaryEqualFunction extends AbstractFunction {
+public class HexBinaryEqualFunction extends AbstractFunction implements BinaryPredicate<HexBinary, HexBinary> {
 
 	/** XACML function ID. */
 	public static final String ID = "urn:oasis:names:tc:xacml:1.0:function:hexBinary-equal";
@@ -50,7 +51,7 @@ public class HexBinaryEqualFunction extends AbstractFunction {
 				throw new FunctionProcessingException(
 						"Invalid number of parameters");
 			}
-			return ((HexBinary) args[0]).equals(args[1]);
+			return test((HexBinary) args[0], (HexBinary) args[1]);
 		} catch (ClassCastException e) {
 			throw new FunctionProcessingException(
 					"The arguments were of the wrong datatype.", e);
@@ -59,6 +60,16 @@ public class HexBinaryEqualFunction extends AbstractFunction {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Returns whether the two {@link HexBinary} objects are equal.
+	 */
+	@Override
+	public boolean test(HexBinary first, HexBinary second) {
+		return first.equals(second);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
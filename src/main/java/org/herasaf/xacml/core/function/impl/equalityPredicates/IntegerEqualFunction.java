@@ -20,6 +20,7 @@ package org.herasaf.xacml.core.function.impl.equalityPredicates;
 import java.math.BigInteger;
 
 import org.herasaf.xacml.core.function.AbstractFunction;
+import org.herasaf.xacml.core.function.BinaryPredicate;
 import org.herasaf.xacml.core.function.FunctionProcessingException;
 
 /**
@@ -30,7 +31,7 @@ import org.herasaf.xacml.core.function.FunctionProcessingException;
  * 
  * @author Florian Huonder
  */
-public class IntegerEqualFunction extends AbstractFunction {
+public class IntegerEqualFunction extends AbstractFunction implements BinaryPredicate<BigInteger, BigInteger> {
 
 	/** XACML function ID. */
 	public static final String ID = "urn:oasis:names:tc:xacml:1.0:function:integer-equal";
@@ -50,7 +51,7 @@ public class IntegerEqualFunction extends AbstractFunction {
 				throw new FunctionProcessingException(
 						"Invalid number of parameters");
 			}
-			return (((BigInteger) args[0]).equals(args[1]));
+			return test((BigInteger) args[0], (BigInteger) args[1]);
 		} catch (ClassCastException e) {
 			throw new FunctionProcessingException(
 					"The arguments were of the wrong datatype.", e);
@@ -59,6 +60,16 @@ public class IntegerEqualFunction extends AbstractFunction {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Returns whether the two {@link BigInteger} objects are equal.
+	 */
+	@Override
+	public boolean test(BigInteger first, BigInteger second) {
+		return first.equals(second);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -18,6 +18,7 @@
 package org.herasaf.xacml.core.function.impl.equalityPredicates;
 
 import org.herasaf.xacml.core.function.AbstractFunction;
+import org.herasaf.xacml.core.function.BinaryPredicate;
 import org.herasaf.xacml.core.function.FunctionProcessingException;
 import org.herasaf.xacml.core.types.RFC822Name;
 
@@ -30,7 +31,7 @@ import org.herasaf.xacml.core.types.RFC822Name;
  * 
  * @author Florian Huonder
  */
-public class Rfc822NameEqualFunction extends AbstractFunction {
+public class Rfc822NameEqualFunction extends AbstractFunction implements BinaryPredicate<RFC822Name, RFC822Name> {
 
 	/** XACML function ID. */
 	public static final String ID = "urn:oasis:names:tc:xacml:1.0:function:rfc822Name-equal";
@@ -50,7 +51,7 @@ public class Rfc822NameEqualFunction extends AbstractFunction {
 				throw new FunctionProcessingException(
 						"Invalid number of parameters");
 			}
-			return ((RFC822Name) args[0]).equals(args[1]);
+			return test((RFC822Name) args[0], (RFC822Name) args[1]);
 		} catch (ClassCastException e) {
 			throw new FunctionProcessingException(
 					"The arguments were of the wrong datatype.", e);
@@ -59,6 +60,16 @@ public class Rfc822NameEqualFunction extends AbstractFunction {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Returns whether the two {@link RFC822Name} objects are equal.
+	 */
+	@Override
+	public boolean test(RFC822Name first, RFC822Name second) {
+		return first.equals(second);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
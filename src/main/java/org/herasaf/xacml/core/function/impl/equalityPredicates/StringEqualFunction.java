@@ -18,6 +18,7 @@
 package org.herasaf.xacml.core.function.impl.equalityPredicates;
 
 import org.herasaf.xacml.core.function.AbstractFunction;
+import org.herasaf.xacml.core.function.BinaryPredicate;
 import org.herasaf.xacml.core.function.FunctionProcessingException;
 
 /**
@@ -28,7 +29,7 @@ import org.herasaf.xacml.core.function.FunctionProcessingException;
  * 
  * @author Sacha Dolski
  */
-public class StringEqualFunction extends AbstractFunction {
+public class StringEqualFunction extends AbstractFunction implements BinaryPredicate<String, String> {
 
 	/** XACML function ID. */
 	public static final String ID = "urn:oasis:names:tc:xacml:1.0:function:string-equal";
@@ -48,8 +49,7 @@ public class StringEqualFunction extends AbstractFunction {
 				throw new FunctionProcessingException(
 						"Invalid number of parameters");
 			}
-			String string = (String) args[1];
-			return ((String) args[0]).equals(string);
+			return test((String) args[0], (String) args[1]);
 		} catch (ClassCastException e) {
 			throw new FunctionProcessingException(e);
 		} catch (Exception e) {
@@ -57,6 +57,16 @@ public class StringEqualFunction extends AbstractFunction {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Returns whether the two {@link String} objects are equal.
+	 */
+	@Override
+	public boolean test(String first, String second) {
+		return first.equals(second);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
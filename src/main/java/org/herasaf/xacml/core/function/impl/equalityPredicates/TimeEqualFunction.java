@@ -18,6 +18,7 @@
 package org.herasaf.xacml.core.function.impl.equalityPredicates;
 
 import org.herasaf.xacml.core.function.AbstractFunction;
+import org.herasaf.xacml.core.function.BinaryPredicate;
 import org.herasaf.xacml.core.function.FunctionProcessingException;
 import org.herasaf.xacml.core.types.Time;
 
@@ -29,7 +30,7 @@ import org.herasaf.xacml.core.types.Time;
  * 
  * @author Stefan Oberholzer
  */
-public class TimeEqualFunction extends AbstractFunction {
+public class TimeEqualFunction extends AbstractFunction implements BinaryPredicate<Time, Time> {
 
 	/** XACML function ID. */
 	public static final String ID = "urn:oasis:names:tc:xacml:1.0:function:time-equal";
@@ -49,7 +50,7 @@ public class TimeEqualFunction extends AbstractFunction {
 				throw new FunctionProcessingException(
 						"Invalid number of parameters");
 			}
-			return ((Time) args[0]).equals(args[1]);
+			return test((Time) args[0], (Time) args[1]);
 		} catch (ClassCastException e) {
 			throw new FunctionProcessingException(
 					"The arguments were of the wrong datatype.", e);
@@ -58,6 +59,16 @@ public class TimeEqualFunction extends AbstractFunction {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Returns whether the two {@link Time} objects are equal.
+	 */
+	@Override
+	public boolean test(Time first, Time second) {
+		return first.equals(second);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -20,6 +20,7 @@ package org.herasaf.xacml.core.function.impl.equalityPredicates;
 import javax.security.auth.x500.X500Principal;
 
 import org.herasaf.xacml.core.function.AbstractFunction;
+import org.herasaf.xacml.core.function.BinaryPredicate;
 import org.herasaf.xacml.core.function.FunctionProcessingException;
 
 /**
@@ -31,7 +32,7 @@ import org.herasaf.xacml.core.function.FunctionProcessingException;
  * 
  * @author Florian Huonder
  */
-public class X500NameEqualFunction extends AbstractFunction {
+public class X500NameEqualFunction extends AbstractFunction implements BinaryPredicate<X500Principal, X500Principal> {
 
 	/** XACML function ID. */
 	public static final String ID = "urn:oasis:names:tc:xacml:1.0:function:x500Name-equal";
@@ -51,7 +52,7 @@ public class X500NameEqualFunction extends AbstractFunction {
 				throw new FunctionProcessingException(
 						"Invalid number of parameters");
 			}
-			return ((X500Principal) args[0]).equals(args[1]);
+			return test((X500Principal) args[0], (X500Principal) args[1]);
 		} catch (ClassCastException e) {
 			throw new FunctionProcessingException(
 					"The arguments were of the wrong datatype.", e);
@@ -60,6 +61,16 @@ public class X500NameEqualFunction extends AbstractFunction {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Returns whether the two {@link X500Principal} objects are equal.
+	 */
+	@Override
+	public boolean test(X500Principal first, X500Principal second) {
+		return first.equals(second);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -18,6 +18,7 @@
 package org.herasaf.xacml.core.function.impl.equalityPredicates;
 
 import org.herasaf.xacml.core.function.AbstractFunction;
+import org.herasaf.xacml.core.function.BinaryPredicate;
 import org.herasaf.xacml.core.function.FunctionProcessingException;
 import org.herasaf.xacml.core.types.YearMonthDuration;
 
@@ -31,7 +32,7 @@ import org.herasaf.xacml.core.types.YearMonthDuration;
  * @author Florian Huonder
  * @version 1.0
  */
-public class YearMonthDurationEqualFunction extends AbstractFunction {
+public class YearMonthDurationEqualFunction extends AbstractFunction implements BinaryPredicate<YearMonthDuration, YearMonthDuration> {
 
 	/** XACML function ID. */
 	public static final String ID = "urn:oasis:names:tc:xacml:1.0:function:yearMonthDuration-equal";
@@ -51,7 +52,7 @@ public class YearMonthDurationEqualFunction extends AbstractFunction {
 				throw new FunctionProcessingException(
 						"Invalid number of parameters");
 			}
-			return ((YearMonthDuration) args[0]).equals(args[1]);
+			return test((YearMonthDuration) args[0], (YearMonthDuration) args[1]);
 		} catch (ClassCastException e) {
 			throw new FunctionProcessingException(
 					"The arguments were of the wrong datatype.", e);
@@ -60,6 +61,16 @@ public class YearMonthDurationEqualFunction extends AbstractFunction {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Returns whether the two {@link YearMonthDuration} objects are equal.
+	 */
+	@Override
+	public boolean test(YearMonthDuration first, YearMonthDuration second) {
+		return first.equals(second);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
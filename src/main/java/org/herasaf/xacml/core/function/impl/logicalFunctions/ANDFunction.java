@@ -17,8 +17,13 @@
 
 package org.herasaf.xacml.core.function.impl.logicalFunctions;
 
+import org.herasaf.xacml.core.ProcessingException;
+import org.herasaf.xacml.core.SyntaxException;
 import org.herasaf.xacml.core.function.AbstractFunction;
 import org.herasaf.xacml.core.function.FunctionProcessingException;
+import org.herasaf.xacml.core.function.LazyArguments;
+import org.herasaf.xacml.core.function.LazyFunction;
+import org.herasaf.xacml.core.policy.MissingAttributeException;
 
 /**
  * The implementation of the urn:oasis:names:tc:xacml:1.0:function:and function.
@@ -28,7 +33,7 @@ import org.herasaf.xacml.core.function.FunctionProcessingException;
  * 
  * @author Sacha Dolski
  */
-public class ANDFunction extends AbstractFunction {
+public class ANDFunction extends AbstractFunction implements LazyFunction {
 
 	/** XACML function ID. */
 	public static final String ID = "urn:oasis:names:tc:xacml:1.0:function:and";
@@ -58,6 +63,28 @@ public class ANDFunction extends AbstractFunction {
 		return true;
 	}
 
+	/**
+	 * Evaluates the arguments in their order and returns <code>false</code> as
+	 * soon as an argument is <code>false</code>. The remaining arguments are
+	 * not evaluated.
+	 */
+	@Override
+	public Object handle(LazyArguments args) throws FunctionProcessingException, MissingAttributeException,
+			SyntaxException, ProcessingException {
+		try {
+			for (int i = 0; i < args.size(); i++) {
+				if (!((Boolean) args.get(i))) {
+					return false;
+				}
+			}
+		} catch (ClassCastException e) {
+			throw new FunctionProcessingException(e);
+		} catch (NullPointerException e) {
+			throw new FunctionProcessingException(e);
+		}
+		return true;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
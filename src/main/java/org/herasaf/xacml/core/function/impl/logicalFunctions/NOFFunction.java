@@ -19,8 +19,13 @@ package org.herasaf.xacml.core.function.impl.logicalFunctions;
 
 import java.math.BigInteger;
 
+import org.herasaf.xacml.core.ProcessingException;
+import org.herasaf.xacml.core.SyntaxException;
 import org.herasaf.xacml.core.function.AbstractFunction;
 import org.herasaf.xacml.core.function.FunctionProcessingException;
+import org.herasaf.xacml.core.function.LazyArguments;
+import org.herasaf.xacml.core.function.LazyFunction;
+import org.herasaf.xacml.core.policy.MissingAttributeException;
 
 /**
  * The implementation of the urn:oasis:names:tc:xacml:1.0:function:n-of. See:
@@ -30,7 +35,7 @@ import org.herasaf.xacml.core.function.FunctionProcessingException;
  * 
  * @author Sacha Dolski
  */
-public class NOFFunction extends AbstractFunction {
+public class NOFFunction extends AbstractFunction implements LazyFunction {
 
 	/** XACML function ID. */
 	public static final String ID = "urn:oasis:names:tc:xacml:1.0:function:n-of";
@@ -85,6 +90,45 @@ public class NOFFunction extends AbstractFunction {
 		return false;
 	}
 
+	/**
+	 * Evaluates the first argument and then the boolean arguments in their
+	 * order until the minimum amount of true values is reached or cannot be
+	 * reached anymore. The remaining arguments are not evaluated.
+	 */
+	@Override
+	public Object handle(LazyArguments args) throws FunctionProcessingException, MissingAttributeException,
+			SyntaxException, ProcessingException {
+		try {
+			if (args.size() < 1) {
+				throw new FunctionProcessingException("Invalid number of parameters");
+			}
+
+			long minOccurence = ((BigInteger) args.get(0)).longValue();
+
+			if (minOccurence > args.size() - 1) {
+				throw new FunctionProcessingException(
+						"n-of function has less arguments then required to evaluate to true.");
+			}
+
+			for (int i = 1; i < args.size(); i++) {
+				if (minOccurence <= 0) {
+					return true;
+				}
+				if ((Boolean) args.get(i)) {
+					minOccurence--;
+				}
+				if (minOccurence > args.size() - 1 - i) {
+					return false;
+				}
+			}
+			return minOccurence <= 0;
+		} catch (ClassCastException e) {
+			throw new FunctionProcessingException(e);
+		} catch (NullPointerException e) {
+			throw new FunctionProcessingException(e);
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -18,6 +18,7 @@
 package org.herasaf.xacml.core.function.impl.numericComparisonFunctions;
 
 import org.herasaf.xacml.core.function.AbstractFunction;
+import org.herasaf.xacml.core.function.BinaryPredicate;
 import org.herasaf.xacml.core.function.FunctionProcessingException;
 
 /**
@@ -33,7 +34,7 @@ import org.herasaf.xacml.core.function.FunctionProcessingException;
  * 
  * @author Stefan Oberholzer
  */
-public class DoubleGreaterThanFunction extends AbstractFunction {
+public class DoubleGreaterThanFunction extends AbstractFunction implements BinaryPredicate<Double, Double> {
 
 	/** XACML function ID. */
 	public static final String ID = "urn:oasis:names:tc:xacml:1.0:function:double-greater-than";
@@ -53,10 +54,7 @@ public class DoubleGreaterThanFunction extends AbstractFunction {
 				throw new FunctionProcessingException(
 						"Invalid number of parameters.");
 			}
-			if (((Double) args[0]).compareTo((Double) args[1]) > 0) {
-				return true;
-			}
-			return false;
+			return test((Double) args[0], (Double) args[1]);
 		} catch (ClassCastException e) {
 			throw new FunctionProcessingException(
 					"The arguments were of the wrong datatype.", e);
@@ -67,6 +65,16 @@ public class DoubleGreaterThanFunction extends AbstractFunction {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Returns true if the first argument is greater than the second argument.
+	 */
+	@Override
+	public boolean test(Double first, Double second) {
+		return first.compareTo(second) > 0;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
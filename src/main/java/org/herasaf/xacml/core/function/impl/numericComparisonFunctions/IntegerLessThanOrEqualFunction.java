@@ -20,7 +20,9 @@ package org.herasaf.xacml.core.function.impl.numericComparisonFunctions;
 import java.math.BigInteger;
 
 import org.herasaf.xacml.core.function.AbstractFunction;
+import org.herasaf.xacml.core.function.BinaryPredicate;
 import org.herasaf.xacml.core.function.FunctionProcessingException;
+import org.herasaf.xacml.core.types.IntegerValues;
 
 /**
  * <p>
@@ -35,7 +37,7 @@ import org.herasaf.xacml.core.function.FunctionProcessingException;
  * 
  * @author Stefan Oberholzer
  */
-public class IntegerLessThanOrEqualFunction extends AbstractFunction {
+public class IntegerLessThanOrEqualFunction extends AbstractFunction implements BinaryPredicate<BigInteger, BigInteger> {
 
 	/** XACML function ID. */
 	public static final String ID = "urn:oasis:names:tc:xacml:1.0:function:integer-less-than-or-equal";
@@ -55,10 +57,7 @@ public class IntegerLessThanOrEqualFunction extends AbstractFunction {
 				throw new FunctionProcessingException(
 						"Invalid number of parameters.");
 			}
-			if (((BigInteger) args[0]).compareTo((BigInteger) args[1]) <= 0) {
-				return true;
-			}
-			return false;
+			return test((BigInteger) args[0], (BigInteger) args[1]);
 		} catch (ClassCastException e) {
 			throw new FunctionProcessingException(
 					"The arguments were of the wrong datatype.", e);
@@ -69,6 +68,16 @@ public class IntegerLessThanOrEqualFunction extends AbstractFunction {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Returns true if the first argument is less than or equal to the second argument.
+	 */
+	@Override
+	public boolean test(BigInteger first, BigInteger second) {
+		return IntegerValues.compare(first, second) <= 0;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -17,10 +17,12 @@
 
 package org.herasaf.xacml.core.function.impl.numericDataTypeConversionFunctions;
 
-import java.math.BigInteger;
+import java.math.BigDecimal;
 
 import org.herasaf.xacml.core.function.AbstractFunction;
 import org.herasaf.xacml.core.function.FunctionProcessingException;
+import org.herasaf.xacml.core.function.UnaryFunction;
+import org.herasaf.xacml.core.types.IntegerValues;
 
 /**
  * <p>
@@ -35,12 +37,14 @@ import org.herasaf.xacml.core.function.FunctionProcessingException;
  * 
  * @author Stefan Oberholzer
  */
-public class DoubleToIntegerFunction extends AbstractFunction {
+public class DoubleToIntegerFunction extends AbstractFunction implements UnaryFunction<Double> {
 
 	/** XACML function ID. */
 	public static final String ID = "urn:oasis:names:tc:xacml:1.0:function:double-to-integer";
 
 	private static final long serialVersionUID = 1L;
+	// The doubles below this value fit into a long.
+	private static final double TWO_TO_THE_63 = 0x1p63;
 
 	/**
 	 * {@inheritDoc} <br>
@@ -54,7 +58,7 @@ public class DoubleToIntegerFunction extends AbstractFunction {
 				throw new FunctionProcessingException(
 						"Invalid number of parameters");
 			}
-			return BigInteger.valueOf(((Double) args[0]).longValue());
+			return apply((Double) args[0]);
 		} catch (ClassCastException e) {
 			throw new FunctionProcessingException(
 					"The arguments were of the wrong datatype.", e);
@@ -65,6 +69,19 @@ public class DoubleToIntegerFunction extends AbstractFunction {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Returns the argument truncated towards zero.
+	 */
+	@Override
+	public Object apply(Double argument) {
+		if (Math.abs(argument) < TWO_TO_THE_63) {
+			return IntegerValues.valueOf(argument.longValue());
+		}
+		return new BigDecimal(argument).toBigInteger();
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -21,6 +21,8 @@ import java.math.BigInteger;
 
 import org.herasaf.xacml.core.function.AbstractFunction;
 import org.herasaf.xacml.core.function.FunctionProcessingException;
+import org.herasaf.xacml.core.function.UnaryFunction;
+import org.herasaf.xacml.core.types.IntegerValues;
 
 /**
  * <p>
@@ -35,7 +37,7 @@ import org.herasaf.xacml.core.function.FunctionProcessingException;
  * 
  * @author Stefan Oberholzer
  */
-public class IntegerToDoubleFunction extends AbstractFunction {
+public class IntegerToDoubleFunction extends AbstractFunction implements UnaryFunction<BigInteger> {
 
 	/** XACML function ID. */
 	public static final String ID = "urn:oasis:names:tc:xacml:1.0:function:integer-to-double";
@@ -54,7 +56,7 @@ public class IntegerToDoubleFunction extends AbstractFunction {
 				throw new FunctionProcessingException(
 						"Invalid number of parameters");
 			}
-			return Double.valueOf((((BigInteger) args[0]).longValue()));
+			return apply((BigInteger) args[0]);
 		} catch (ClassCastException e) {
 			throw new FunctionProcessingException(
 					"The arguments were of the wrong datatype.", e);
@@ -65,6 +67,16 @@ public class IntegerToDoubleFunction extends AbstractFunction {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Returns the nearest {@link Double} of the argument.
+	 */
+	@Override
+	public Object apply(BigInteger argument) {
+		return IntegerValues.toDouble(argument);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
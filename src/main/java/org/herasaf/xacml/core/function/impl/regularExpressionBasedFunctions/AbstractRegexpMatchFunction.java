@@ -0,0 +1,117 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.herasaf.xacml.core.function.impl.regularExpressionBasedFunctions;
+
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.herasaf.xacml.core.function.AbstractFunction;
+import org.herasaf.xacml.core.function.ArgumentPreparingFunction;
+import org.herasaf.xacml.core.utils.ConcurrentLruCache;
+
+/**
+ * <p>
+ * The basis of the type-regexp-match functions. The regular expression is
+ * almost always a literal of the policy. It is compiled once when the policy
+ * is compiled (see {@link #prepareArgument(int, Object)}).
+ * </p>
+ * <p>
+ * The regular expressions that are not known before the evaluation are
+ * compiled when they are evaluated the first time and kept in a cache that is
+ * shared by all regexp-match functions. If the cache is full, the least
+ * recently used regular expressions are evicted.
+ * </p>
+ */
+public abstract class AbstractRegexpMatchFunction extends AbstractFunction implements ArgumentPreparingFunction {
+	private static final long serialVersionUID = 1L;
+
+	/** The maximum number of regular expressions in the cache. */
+	static final int MAX_CACHED_PATTERNS = 1024;
+
+	private static final ConcurrentLruCache<String, Pattern> PATTERNS = new ConcurrentLruCache<String, Pattern>(
+			MAX_CACHED_PATTERNS);
+
+	/**
+	 * {@inheritDoc} <br>
+	 * <br>
+	 * Compiles a literal regular expression (the first argument).
+	 */
+	public Object prepareArgument(int index, Object value) {
+		if (index != 0 || !(value instanceof String)) {
+			return value;
+		}
+		try {
+			return Pattern.compile(toRegexp((String) value));
+		} catch (PatternSyntaxException e) {
+			return value;
+		}
+	}
+
+	/**
+	 * Returns the regular expression of the given argument. Subclasses
+	 * override it if the argument needs to be normalized.
+	 *
+	 * @param argument
+	 *            The regular expression argument of the function.
+	 * @return The regular expression.
+	 */
+	protected String toRegexp(String argument) {
+		return argument;
+	}
+
+	/**
+	 * Tells whether the given value matches the given regular expression. This
+	 * has the same semantics as {@link String#matches(String)}.
+	 *
+	 * @param regexp
+	 *            The regular expression or its compiled {@link Pattern} (see
+	 *            {@link #prepareArgument(int, Object)}).
+	 * @param value
+	 *            The value to match.
+	 * @return True if the whole value matches the regular expression.
+	 * @throws ClassCastException
+	 *             If the regular expression is neither a {@link String} nor a
+	 *             {@link Pattern}.
+	 */
+	protected boolean matches(Object regexp, String value) {
+		Pattern pattern;
+		if (regexp instanceof Pattern) {
+			pattern = (Pattern) regexp;
+		} else {
+			pattern = getPattern(toRegexp((String) regexp));
+		}
+		return pattern.matcher(value).matches();
+	}
+
+	/**
+	 * Returns the compiled {@link Pattern} of the given regular expression
+	 * from the cache. Compiles the regular expression if it is not cached.
+	 *
+	 * @param regexp
+	 *            The regular expression.
+	 * @return The compiled {@link Pattern}.
+	 */
+	static Pattern getPattern(String regexp) {
+		Pattern pattern = PATTERNS.get(regexp);
+		if (pattern == null) {
+			pattern = Pattern.compile(regexp);
+			PATTERNS.put(regexp, pattern);
+		}
+		return pattern;
+	}
+}
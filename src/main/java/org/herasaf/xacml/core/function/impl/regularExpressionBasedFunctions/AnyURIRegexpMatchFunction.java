@@ -19,7 +19,6 @@ package org.herasaf.xacml.core.function.impl.regularExpressionBasedFunctions;
 
 import java.net.URI;
 
-import org.herasaf.xacml.core.function.AbstractFunction;
 import org.herasaf.xacml.core.function.FunctionProcessingException;
 
 /**
@@ -35,7 +34,7 @@ import org.herasaf.xacml.core.function.FunctionProcessingException;
  * 
  * @author Stefan Oberholzer
  */
-public class AnyURIRegexpMatchFunction extends AbstractFunction {
+public class AnyURIRegexpMatchFunction extends AbstractRegexpMatchFunction {
 
 	/** XACML function ID. */
 	public static final String ID = "urn:oasis:names:tc:xacml:2.0:function:anyURI-regexp-match";
@@ -56,7 +55,7 @@ public class AnyURIRegexpMatchFunction extends AbstractFunction {
 				throw new FunctionProcessingException(
 						"Invalid number of parameters");
 			}
-			return ((URI) args[1]).toString().matches((String) args[0]);
+			return matches(args[0], ((URI) args[1]).toString());
 		} catch (ClassCastException e) {
 			throw new FunctionProcessingException(
 					"The arguments were of the wrong datatype.", e);
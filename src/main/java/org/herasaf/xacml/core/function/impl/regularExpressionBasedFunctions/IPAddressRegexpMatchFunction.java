@@ -17,7 +17,6 @@
 
 package org.herasaf.xacml.core.function.impl.regularExpressionBasedFunctions;
 
-import org.herasaf.xacml.core.function.AbstractFunction;
 import org.herasaf.xacml.core.function.FunctionProcessingException;
 import org.herasaf.xacml.core.types.IPAddress;
 
@@ -34,7 +33,7 @@ import org.herasaf.xacml.core.types.IPAddress;
  * 
  * @author Stefan Oberholzer
  */
-public class IPAddressRegexpMatchFunction extends AbstractFunction {
+public class IPAddressRegexpMatchFunction extends AbstractRegexpMatchFunction {
 
 	/** XACML function ID. */
 	public static final String ID = "urn:oasis:names:tc:xacml:2.0:function:ipAddress-regexp-match";
@@ -56,7 +55,7 @@ public class IPAddressRegexpMatchFunction extends AbstractFunction {
 				throw new FunctionProcessingException(
 						"Invalid number of parameters");
 			}
-			return ((IPAddress) args[1]).toString().matches((String) args[0]);
+			return matches(args[0], ((IPAddress) args[1]).toString());
 		} catch (ClassCastException e) {
 			throw new FunctionProcessingException(
 					"The arguments were of the wrong datatype.", e);
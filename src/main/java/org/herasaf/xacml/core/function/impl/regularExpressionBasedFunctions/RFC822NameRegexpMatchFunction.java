@@ -17,7 +17,6 @@
 
 package org.herasaf.xacml.core.function.impl.regularExpressionBasedFunctions;
 
-import org.herasaf.xacml.core.function.AbstractFunction;
 import org.herasaf.xacml.core.function.FunctionProcessingException;
 import org.herasaf.xacml.core.types.RFC822Name;
 
@@ -34,7 +33,7 @@ import org.herasaf.xacml.core.types.RFC822Name;
  * 
  * @author Stefan Oberholzer
  */
-public class RFC822NameRegexpMatchFunction extends AbstractFunction {
+public class RFC822NameRegexpMatchFunction extends AbstractRegexpMatchFunction {
 
 	/** XACML function ID. */
 	public static final String ID = "urn:oasis:names:tc:xacml:2.0:function:rfc822Name-regexp-match";
@@ -56,7 +55,7 @@ public class RFC822NameRegexpMatchFunction extends AbstractFunction {
 				throw new FunctionProcessingException(
 						"Invalid number of parameters");
 			}
-			return ((RFC822Name) args[1]).toString().matches((String) args[0]);
+			return matches(args[0], ((RFC822Name) args[1]).toString());
 		} catch (ClassCastException e) {
 			throw new FunctionProcessingException(
 					"The arguments were of the wrong datatype.", e);
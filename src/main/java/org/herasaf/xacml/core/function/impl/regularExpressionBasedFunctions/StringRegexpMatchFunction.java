@@ -17,7 +17,6 @@
 
 package org.herasaf.xacml.core.function.impl.regularExpressionBasedFunctions;
 
-import org.herasaf.xacml.core.function.AbstractFunction;
 import org.herasaf.xacml.core.function.FunctionProcessingException;
 
 /**
@@ -33,7 +32,7 @@ import org.herasaf.xacml.core.function.FunctionProcessingException;
  * 
  * @author Stefan Oberholzer
  */
-public class StringRegexpMatchFunction extends AbstractFunction {
+public class StringRegexpMatchFunction extends AbstractRegexpMatchFunction {
 
 	/** XACML function ID. */
 	public static final String ID = "urn:oasis:names:tc:xacml:1.0:function:string-regexp-match";
@@ -54,7 +53,7 @@ public class StringRegexpMatchFunction extends AbstractFunction {
 				throw new FunctionProcessingException(
 						"Invalid number of parameters");
 			}
-			return ((String) args[1]).trim().matches(((String) args[0]).trim());
+			return matches(args[0], ((String) args[1]).trim());
 		} catch (ClassCastException e) {
 			throw new FunctionProcessingException(
 					"The arguments were of the wrong datatype.", e);
@@ -65,6 +64,17 @@ public class StringRegexpMatchFunction extends AbstractFunction {
 		}
 	}
 
+	/**
+	 * {@inheritDoc} <br>
+	 * <br>
+	 * The leading and trailing whitespace of the regular expression is
+	 * removed.
+	 */
+	@Override
+	protected String toRegexp(String argument) {
+		return argument.trim();
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
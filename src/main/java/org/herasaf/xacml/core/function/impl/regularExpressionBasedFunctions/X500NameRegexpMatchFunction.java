@@ -19,7 +19,6 @@ package org.herasaf.xacml.core.function.impl.regularExpressionBasedFunctions;
 
 import javax.security.auth.x500.X500Principal;
 
-import org.herasaf.xacml.core.function.AbstractFunction;
 import org.herasaf.xacml.core.function.FunctionProcessingException;
 
 /**
@@ -35,7 +34,7 @@ import org.herasaf.xacml.core.function.FunctionProcessingException;
  * 
  * @author Stefan Oberholzer
  */
-public class X500NameRegexpMatchFunction extends AbstractFunction {
+public class X500NameRegexpMatchFunction extends AbstractRegexpMatchFunction {
 
 	/** XACML function ID. */
 	public static final String ID = "urn:oasis:names:tc:xacml:2.0:function:x500Name-regexp-match";
@@ -57,8 +56,7 @@ public class X500NameRegexpMatchFunction extends AbstractFunction {
 				throw new FunctionProcessingException(
 						"Invalid number of parameters");
 			}
-			return ((X500Principal) args[1]).toString().matches(
-					(String) args[0]);
+			return matches(args[0], ((X500Principal) args[1]).toString());
 		} catch (ClassCastException e) {
 			throw new FunctionProcessingException(
 					"The arguments were of the wrong datatype.", e);
@@ -17,12 +17,12 @@
 
 package org.herasaf.xacml.core.function.impl.setFunction;
 
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
 import org.herasaf.xacml.core.function.AbstractFunction;
 import org.herasaf.xacml.core.function.FunctionProcessingException;
+import org.herasaf.xacml.core.types.Bag;
 
 /**
  * <p>
@@ -51,7 +51,7 @@ public abstract class AbstractAtLeastOneMemberOfFunction<T> extends AbstractFunc
 			if (args.length != 2) {
 				throw new FunctionProcessingException("Invalid number of parameters.");
 			}
-			Set<T> arg1 = new HashSet<T>((List<T>) args[1]);
+			Set<T> arg1 = Bag.asSet((List<T>) args[1]);
 			for (Object str : ((List<T>) args[0])) {
 				if (arg1.contains(str)) {
 					return true;
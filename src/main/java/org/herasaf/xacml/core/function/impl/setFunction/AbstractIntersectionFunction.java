@@ -17,13 +17,13 @@
 
 package org.herasaf.xacml.core.function.impl.setFunction;
 
-import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
 import org.herasaf.xacml.core.function.AbstractFunction;
 import org.herasaf.xacml.core.function.FunctionProcessingException;
+import org.herasaf.xacml.core.types.Bag;
 
 /**
  * <p>
@@ -55,16 +55,21 @@ public abstract class AbstractIntersectionFunction<T> extends AbstractFunction {
 				throw new FunctionProcessingException(
 						"Invalid number of parameters.");
 			}
-			List<T> values = new ArrayList<T>();
-			Set<T> arg0 = new HashSet<T>((List<T>) args[0]);
-			Set<T> arg1 = new HashSet<T>((List<T>) args[1]);
+			Set<T> arg0 = Bag.asSet((List<T>) args[0]);
+			Set<T> arg1 = Bag.asSet((List<T>) args[1]);
+			if (arg0.size() > arg1.size()) {
+				Set<T> smaller = arg1;
+				arg1 = arg0;
+				arg0 = smaller;
+			}
 
+			Set<T> values = new HashSet<T>();
 			for (T str : arg0) {
 				if (arg1.contains(str)) {
 					values.add(str);
 				}
 			}
-			return values;
+			return Bag.fromSet(values);
 		} catch (ClassCastException e) {
 			throw new FunctionProcessingException(
 					"The arguments were of the wrong datatype.", e);
@@ -18,9 +18,11 @@
 package org.herasaf.xacml.core.function.impl.setFunction;
 
 import java.util.List;
+import java.util.Set;
 
 import org.herasaf.xacml.core.function.AbstractFunction;
 import org.herasaf.xacml.core.function.FunctionProcessingException;
+import org.herasaf.xacml.core.types.Bag;
 
 /**
  * <p>
@@ -52,12 +54,11 @@ public abstract class AbstractSetEqualsFunction<T> extends AbstractFunction {
 				throw new FunctionProcessingException(
 						"Invalid number of parameters.");
 			}
-			boolean result1 = ((List<T>) args[1])
-					.containsAll((List<T>) args[0]);
-			if (!result1) {
-				return result1;
-			}
-			return ((List<T>) args[0]).containsAll((List<T>) args[1]);
+			// Two sets of distinct values are equal if they have the same size
+			// and one contains the other.
+			Set<T> arg0 = Bag.asSet((List<T>) args[0]);
+			Set<T> arg1 = Bag.asSet((List<T>) args[1]);
+			return arg0.size() == arg1.size() && arg1.containsAll(arg0);
 		} catch (ClassCastException e) {
 			throw new FunctionProcessingException(
 					"The arguments were of the wrong datatype.", e);
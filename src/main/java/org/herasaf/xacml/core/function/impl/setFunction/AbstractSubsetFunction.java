@@ -21,6 +21,7 @@ import java.util.List;
 
 import org.herasaf.xacml.core.function.AbstractFunction;
 import org.herasaf.xacml.core.function.FunctionProcessingException;
+import org.herasaf.xacml.core.types.Bag;
 
 /**
  * <p>
@@ -51,7 +52,7 @@ public abstract class AbstractSubsetFunction<T> extends AbstractFunction {
 				throw new FunctionProcessingException(
 						"Invalid number of parameters.");
 			}
-			return ((List<T>) args[1]).containsAll((List<T>) args[0]);
+			return Bag.asSet((List<T>) args[1]).containsAll((List<T>) args[0]);
 		} catch (ClassCastException e) {
 			throw new FunctionProcessingException(
 					"The arguments were of the wrong datatype.", e);
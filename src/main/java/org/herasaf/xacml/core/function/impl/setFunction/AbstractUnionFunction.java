@@ -17,13 +17,13 @@
 
 package org.herasaf.xacml.core.function.impl.setFunction;
 
-import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
 import org.herasaf.xacml.core.function.AbstractFunction;
 import org.herasaf.xacml.core.function.FunctionProcessingException;
+import org.herasaf.xacml.core.types.Bag;
 
 /**
  * <p>
@@ -56,7 +56,7 @@ public abstract class AbstractUnionFunction<T> extends AbstractFunction {
 			}
 			Set<T> arg0 = new HashSet<T>((List<T>) args[0]);
 			arg0.addAll((List<T>) args[1]);
-			return new ArrayList<T>(arg0);
+			return Bag.fromSet(arg0);
 		} catch (ClassCastException e) {
 			throw new FunctionProcessingException(
 					"The arguments were of the wrong datatype.", e);
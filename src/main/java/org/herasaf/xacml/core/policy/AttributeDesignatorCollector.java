@@ -0,0 +1,216 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.herasaf.xacml.core.policy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import jakarta.xml.bind.JAXBElement;
+
+import org.herasaf.xacml.core.PolicyRepositoryException;
+import org.herasaf.xacml.core.api.PolicyRetrievalPoint;
+import org.herasaf.xacml.core.policy.impl.ActionType;
+import org.herasaf.xacml.core.policy.impl.ApplyType;
+import org.herasaf.xacml.core.policy.impl.AttributeDesignatorType;
+import org.herasaf.xacml.core.policy.impl.EnvironmentType;
+import org.herasaf.xacml.core.policy.impl.IdReferenceType;
+import org.herasaf.xacml.core.policy.impl.Match;
+import org.herasaf.xacml.core.policy.impl.PolicySetType;
+import org.herasaf.xacml.core.policy.impl.PolicyType;
+import org.herasaf.xacml.core.policy.impl.ResourceType;
+import org.herasaf.xacml.core.policy.impl.RuleType;
+import org.herasaf.xacml.core.policy.impl.SubjectType;
+import org.herasaf.xacml.core.policy.impl.TargetType;
+import org.herasaf.xacml.core.policy.impl.Variable;
+import org.herasaf.xacml.core.policy.impl.VariableDefinitionType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This utility class collects all {@link AttributeDesignatorType}s that may be
+ * evaluated when an {@link Evaluatable} is evaluated. These are the
+ * designators of the targets, of the conditions and of the variable
+ * definitions of the {@link Evaluatable} and of all its contained
+ * {@link Evaluatable}s. References are resolved through the given
+ * {@link PolicyRetrievalPoint}. {@link #collectTargets} collects only the
+ * designators of the targets.
+ */
+public final class AttributeDesignatorCollector {
+	private static final Logger logger = LoggerFactory.getLogger(AttributeDesignatorCollector.class);
+
+	private AttributeDesignatorCollector() {
+	}
+
+	/**
+	 * Collects the {@link AttributeDesignatorType}s of the given
+	 * {@link Evaluatable}.
+	 *
+	 * @param evaluatable
+	 *            The {@link Evaluatable} whose designators are collected.
+	 * @param retrievalPoint
+	 *            The {@link PolicyRetrievalPoint} to resolve references, may
+	 *            be <code>null</code> if references shall not be resolved.
+	 * @return The {@link List} of the found {@link AttributeDesignatorType}s.
+	 */
+	public static List<AttributeDesignatorType> collect(Evaluatable evaluatable, PolicyRetrievalPoint retrievalPoint) {
+		return collect(evaluatable, retrievalPoint, false);
+	}
+
+	/**
+	 * Collects the {@link AttributeDesignatorType}s of the targets of the
+	 * given {@link Evaluatable} and its contained {@link Evaluatable}s (and
+	 * rules). The designators of conditions and variable definitions are
+	 * omitted.
+	 *
+	 * @param evaluatable
+	 *            The {@link Evaluatable} whose designators are collected.
+	 * @param retrievalPoint
+	 *            The {@link PolicyRetrievalPoint} to resolve references, may
+	 *            be <code>null</code> if references shall not be resolved.
+	 * @return The {@link List} of the found {@link AttributeDesignatorType}s.
+	 */
+	public static List<AttributeDesignatorType> collectTargets(Evaluatable evaluatable,
+			PolicyRetrievalPoint retrievalPoint) {
+		return collect(evaluatable, retrievalPoint, true);
+	}
+
+	/**
+	 * Collects the {@link AttributeDesignatorType}s of the given
+	 * {@link Evaluatable}, only those of the targets if
+	 * <code>targetsOnly</code> is set.
+	 */
+	private static List<AttributeDesignatorType> collect(Evaluatable evaluatable,
+			PolicyRetrievalPoint retrievalPoint, boolean targetsOnly) {
+		List<AttributeDesignatorType> designators = new ArrayList<AttributeDesignatorType>();
+		Set<Evaluatable> visited = Collections.newSetFromMap(new IdentityHashMap<Evaluatable, Boolean>());
+		collect(evaluatable, retrievalPoint, targetsOnly, visited, designators);
+		return designators;
+	}
+
+	/**
+	 * Collects the {@link AttributeDesignatorType}s of the given
+	 * {@link Evaluatable} and its contained {@link Evaluatable}s. Each
+	 * {@link Evaluatable} is visited only once such that cyclic references
+	 * terminate.
+	 */
+	private static void collect(Evaluatable evaluatable, PolicyRetrievalPoint retrievalPoint, boolean targetsOnly,
+			Set<Evaluatable> visited, List<AttributeDesignatorType> designators) {
+		if (evaluatable == null || !visited.add(evaluatable)) {
+			return;
+		}
+		if (evaluatable instanceof IdReferenceType) {
+			if (retrievalPoint != null) {
+				try {
+					collect(retrievalPoint.getEvaluatable(evaluatable.getId()), retrievalPoint, targetsOnly, visited,
+							designators);
+				} catch (PolicyRepositoryException e) {
+					// The reference is not resolvable. This is reported during
+					// the evaluation.
+					logger.debug("The reference {} cannot be resolved.", evaluatable.getId());
+				}
+			}
+		} else if (evaluatable instanceof PolicySetType) {
+			PolicySetType policySet = (PolicySetType) evaluatable;
+			collect(policySet.getTarget(), designators);
+			for (JAXBElement<?> element : policySet.getAdditionalInformation()) {
+				if (element.getValue() instanceof Evaluatable) {
+					collect((Evaluatable) element.getValue(), retrievalPoint, targetsOnly, visited, designators);
+				}
+			}
+		} else if (evaluatable instanceof PolicyType) {
+			PolicyType policy = (PolicyType) evaluatable;
+			collect(policy.getTarget(), designators);
+			for (RuleType rule : policy.getOrderedRules()) {
+				collect(rule.getTarget(), designators);
+				if (!targetsOnly && rule.getCondition() != null) {
+					collect(rule.getCondition().getExpression(), designators);
+				}
+			}
+			if (targetsOnly) {
+				return;
+			}
+			for (Variable variable : policy.getVariables().values()) {
+				if (variable instanceof VariableDefinitionType) {
+					collect(((VariableDefinitionType) variable).getExpression(), designators);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Collects the {@link AttributeDesignatorType}s of the matches of the given
+	 * target.
+	 */
+	private static void collect(TargetType target, List<AttributeDesignatorType> designators) {
+		if (target == null) {
+			return;
+		}
+		if (target.getSubjects() != null) {
+			for (SubjectType subject : target.getSubjects().getSubjects()) {
+				collectMatches(subject.getSubjectMatches(), designators);
+			}
+		}
+		if (target.getResources() != null) {
+			for (ResourceType resource : target.getResources().getResources()) {
+				collectMatches(resource.getResourceMatches(), designators);
+			}
+		}
+		if (target.getActions() != null) {
+			for (ActionType action : target.getActions().getActions()) {
+				collectMatches(action.getActionMatches(), designators);
+			}
+		}
+		if (target.getEnvironments() != null) {
+			for (EnvironmentType environment : target.getEnvironments().getEnvironments()) {
+				collectMatches(environment.getEnvironmentMatches(), designators);
+			}
+		}
+	}
+
+	/**
+	 * Collects the {@link AttributeDesignatorType}s of the given matches.
+	 */
+	private static void collectMatches(List<? extends Match> matches, List<AttributeDesignatorType> designators) {
+		for (Match match : matches) {
+			if (match.getAttributeDesignator() != null) {
+				designators.add(match.getAttributeDesignator());
+			}
+		}
+	}
+
+	/**
+	 * Collects the {@link AttributeDesignatorType}s of the given expression and
+	 * its arguments.
+	 */
+	private static void collect(JAXBElement<?> expression, List<AttributeDesignatorType> designators) {
+		if (expression == null) {
+			return;
+		}
+		Object value = expression.getValue();
+		if (value instanceof AttributeDesignatorType) {
+			designators.add((AttributeDesignatorType) value);
+		} else if (value instanceof ApplyType) {
+			for (JAXBElement<?> argument : ((ApplyType) value).getExpressions()) {
+				collect(argument, designators);
+			}
+		}
+	}
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.herasaf.xacml.core.policy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.xml.bind.JAXBElement;
+
+import org.herasaf.xacml.core.SyntaxException;
+import org.herasaf.xacml.core.policy.impl.ApplyType;
+import org.herasaf.xacml.core.policy.impl.AttributeValueType;
+import org.herasaf.xacml.core.policy.impl.ExpressionType;
+import org.herasaf.xacml.core.policy.impl.PolicySetType;
+import org.herasaf.xacml.core.policy.impl.PolicyType;
+import org.herasaf.xacml.core.policy.impl.RuleType;
+import org.herasaf.xacml.core.policy.impl.Variable;
+import org.herasaf.xacml.core.policy.impl.VariableDefinitionType;
+
+/**
+ * This utility class compiles a policy tree into its evaluation form. The
+ * compilation is done once when an {@link Evaluatable} is deployed. It resolves
+ * the parts of the JAXB object graph that would otherwise be resolved on each
+ * request: the contained {@link Evaluatable}s of policy sets, the rules and
+ * variable definitions of policies, the expressions of applies and the
+ * converted values of literal attribute values (see
+ * {@link PolicySetType#compile()}, {@link PolicyType#compile()},
+ * {@link ApplyType#compile()} and {@link AttributeValueType#compile()}).
+ * Applies of standard functions with constant arguments are folded into their
+ * values. Compiled applies that are evaluated often are additionally specialized at
+ * runtime (see {@link ApplyType#SPECIALIZATION_THRESHOLD}). Identical applies
+ * in the conditions and variable definitions of the compiled tree are shared
+ * and evaluated once per request (see
+ * {@link ApplyType#shareCommonSubexpressions(List)}).<br />
+ * <br />
+ * {@link Evaluatable}s that are not compiled are evaluated directly on the
+ * JAXB object graph. A compiled {@link Evaluatable} must not be modified.
+ */
+public final class PolicyCompiler {
+
+	private PolicyCompiler() {
+	}
+
+	/**
+	 * Compiles the given {@link Evaluatable} and all its contained
+	 * {@link Evaluatable}s. References are not resolved and thus not compiled.
+	 * 
+	 * @param evaluatable
+	 *            The {@link Evaluatable} to compile.
+	 * @throws SyntaxException
+	 *             If a literal {@link AttributeValueType} cannot be converted
+	 *             into its data type.
+	 */
+	public static void compile(Evaluatable evaluatable) throws SyntaxException {
+		if (evaluatable instanceof PolicySetType) {
+			((PolicySetType) evaluatable).compile();
+		} else if (evaluatable instanceof PolicyType) {
+			((PolicyType) evaluatable).compile();
+		}
+		List<ExpressionType> expressions = new ArrayList<ExpressionType>();
+		collectExpressions(evaluatable, expressions);
+		ApplyType.shareCommonSubexpressions(expressions);
+	}
+
+	/**
+	 * Adds the expressions of the conditions and variable definitions of the
+	 * given {@link Evaluatable} and its contained {@link Evaluatable}s to the
+	 * given {@link List}.
+	 */
+	private static void collectExpressions(Evaluatable evaluatable, List<ExpressionType> expressions) {
+		if (evaluatable instanceof PolicySetType) {
+			for (JAXBElement<?> element : ((PolicySetType) evaluatable).getAdditionalInformation()) {
+				if (element.getValue() instanceof Evaluatable) {
+					collectExpressions((Evaluatable) element.getValue(), expressions);
+				}
+			}
+		} else if (evaluatable instanceof PolicyType) {
+			PolicyType policy = (PolicyType) evaluatable;
+			for (Variable variable : policy.getVariables().values()) {
+				if (variable instanceof VariableDefinitionType) {
+					addExpression(((VariableDefinitionType) variable).getExpression(), expressions);
+				}
+			}
+			for (RuleType rule : policy.getOrderedRules()) {
+				if (rule.getCondition() != null) {
+					addExpression(rule.getCondition().getExpression(), expressions);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds the value of the given element to the given {@link List} if it is
+	 * an {@link ExpressionType}.
+	 */
+	private static void addExpression(JAXBElement<?> element, List<ExpressionType> expressions) {
+		if (element != null && element.getValue() instanceof ExpressionType) {
+			expressions.add((ExpressionType) element.getValue());
+		}
+	}
+}
@@ -65,7 +65,7 @@ public class ActionAttributeDesignatorType extends AttributeDesignatorType {
 	public Object handle(RequestType request, EvaluationContext evaluationContext) throws ExpressionProcessingException,
 			MissingAttributeException, SyntaxException {
 		validateAttributeDesignator();
-		List<Object> returnValues = handle(request);
+		List<Object> returnValues = resolve(request, evaluationContext);
 
 		/*
 		 * If no Attribute could be found, the attribute has to be requested
@@ -76,9 +76,9 @@ public class ActionAttributeDesignatorType extends AttributeDesignatorType {
 		 * further information.
 		 */
 		if (returnValues.size() == 0 && evaluationContext.getPIP() != null) {
-			List<AttributeValueType> attrValues = evaluationContext.getPIP().fetchActionAttributes(request, getAttributeId(),
+			List<AttributeValueType> attrValues = evaluationContext.fetchActionAttributes(request, getAttributeId(),
 					getDataType().toString(), getIssuer());
-			addAndConvertAttrValue(returnValues, attrValues);
+			returnValues = convertAttrValues(attrValues);
 		}
 		if (returnValues.size() == 0 && isMustBePresent()) {
 			throw new MissingAttributeException(getAttributeId(), getDataType(), getIssuer());
@@ -17,14 +17,21 @@
 
 package org.herasaf.xacml.core.policy.impl;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import jakarta.xml.bind.JAXBElement;
 import jakarta.xml.bind.annotation.XmlAttribute;
 import jakarta.xml.bind.annotation.XmlElementRef;
 import jakarta.xml.bind.annotation.XmlRootElement;
 import jakarta.xml.bind.annotation.XmlSchemaType;
+import jakarta.xml.bind.annotation.XmlTransient;
 import jakarta.xml.bind.annotation.XmlType;
 import jakarta.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
 
@@ -33,8 +40,21 @@ import org.herasaf.xacml.core.SyntaxException;
 import org.herasaf.xacml.core.context.EvaluationContext;
 import org.herasaf.xacml.core.context.impl.RequestType;
 import org.herasaf.xacml.core.converter.FunctionsJAXBTypeAdapter;
+import org.herasaf.xacml.core.dataTypeAttribute.DataTypeAttribute;
+import org.herasaf.xacml.core.function.ArgumentPreparingFunction;
+import org.herasaf.xacml.core.function.BinaryFunction;
 import org.herasaf.xacml.core.function.Function;
+import org.herasaf.xacml.core.function.FunctionProcessingException;
+import org.herasaf.xacml.core.function.LazyArguments;
+import org.herasaf.xacml.core.function.LazyFunction;
+import org.herasaf.xacml.core.function.TypedFunctions;
+import org.herasaf.xacml.core.function.UnaryFunction;
+import org.herasaf.xacml.core.function.impl.logicalFunctions.ANDFunction;
+import org.herasaf.xacml.core.function.impl.logicalFunctions.ORFunction;
+import org.herasaf.xacml.core.policy.ExpressionProcessingException;
 import org.herasaf.xacml.core.policy.MissingAttributeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * <p>
@@ -45,15 +65,15 @@ import org.herasaf.xacml.core.policy.MissingAttributeException;
  * this class.
  * 
  * <pre>
- * &lt;complexType name=&quot;ApplyType&quot;&gt;
- *   &lt;complexContent&gt;
- *     &lt;extension base=&quot;{urn:oasis:names:tc:xacml:2.0:policy:schema:os}ExpressionType&quot;&gt;
- *       &lt;sequence&gt;
- *         &lt;element ref=&quot;{urn:oasis:names:tc:xacml:2.0:policy:schema:os}Expression&quot; maxOccurs=&quot;unbounded&quot; minOccurs=&quot;0&quot;/&gt;
- *       &lt;/sequence&gt;
- *       &lt;attribute name=&quot;FunctionId&quot; use=&quot;required&quot; type=&quot;{http://www.w3.org/2001/XMLSchema}anyURI&quot; /&gt;
- *     &lt;/extension&gt;
- *   &lt;/complexContent&gt;
+ * &lt;complexType name=&quot;ApplyType&quot;&gt;
+ *   &lt;complexContent&gt;
+ *     &lt;extension base=&quot;{urn:oasis:names:tc:xacml:2.0:policy:schema:os}ExpressionType&quot;&gt;
+ *       &lt;sequence&gt;
+ *         &lt;element ref=&quot;{urn:oasis:names:tc:xacml:2.0:policy:schema:os}Expression&quot; maxOccurs=&quot;unbounded&quot; minOccurs=&quot;0&quot;/&gt;
+ *       &lt;/sequence&gt;
+ *       &lt;attribute name=&quot;FunctionId&quot; use=&quot;required&quot; type=&quot;{http://www.w3.org/2001/XMLSchema}anyURI&quot; /&gt;
+ *     &lt;/extension&gt;
+ *   &lt;/complexContent&gt;
  * &lt;/complexType&gt;
  * </pre>
  * 
@@ -68,6 +88,44 @@ import org.herasaf.xacml.core.policy.MissingAttributeException;
 @XmlType(name = "ApplyType", propOrder = { "expressions" })
 public class ApplyType extends ExpressionType {
 	private static final long serialVersionUID = 1L;
+	private static final Logger LOGGER = LoggerFactory.getLogger(ApplyType.class);
+
+	/**
+	 * The number of evaluations after which a compiled apply is specialized
+	 * (see {@link #handle(RequestType, EvaluationContext)}).
+	 */
+	public static final int SPECIALIZATION_THRESHOLD = 1000;
+
+	// A specialized apply takes two arguments per expression and a method
+	// handle has at most 255 arguments.
+	private static final int MAX_SPECIALIZED_EXPRESSIONS = 120;
+	// The functions of this package depend on nothing but their arguments.
+	private static final String STANDARD_FUNCTIONS_PACKAGE = "org.herasaf.xacml.core.function.impl.";
+	private static final MethodType HANDLE_TYPE = MethodType.methodType(Object.class, RequestType.class,
+			EvaluationContext.class);
+	private static final MethodHandle FUNCTION_HANDLE;
+	private static final MethodHandle UNARY_FUNCTION_HANDLE;
+	private static final MethodHandle BINARY_FUNCTION_HANDLE;
+	private static final MethodHandle ARGUMENT_ERROR_HANDLE;
+	private static final MethodHandle EXPRESSION_HANDLE;
+
+	static {
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			FUNCTION_HANDLE = lookup.findVirtual(Function.class, "handle",
+					MethodType.methodType(Object.class, Object[].class));
+			UNARY_FUNCTION_HANDLE = lookup.findVirtual(UnaryFunction.class, "apply",
+					MethodType.methodType(Object.class, Object.class));
+			BINARY_FUNCTION_HANDLE = lookup.findVirtual(BinaryFunction.class, "apply",
+					MethodType.methodType(Object.class, Object.class, Object.class));
+			ARGUMENT_ERROR_HANDLE = lookup.findStatic(ApplyType.class, "argumentError",
+					MethodType.methodType(Object.class, RuntimeException.class));
+			EXPRESSION_HANDLE = lookup.findVirtual(ExpressionType.class, "handle", HANDLE_TYPE);
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
 	@XmlElementRef(name = "Expression", namespace = "urn:oasis:names:tc:xacml:2.0:policy:schema:os", type = JAXBElement.class)
 	private List<JAXBElement<?>> expressions;
 	@XmlAttribute(name = "FunctionId", required = true)
@@ -75,6 +133,29 @@ public class ApplyType extends ExpressionType {
 	@XmlSchemaType(name = "anyURI")
 	private Function function;
 
+	// The expressions unwrapped from their JAXBElements. Set by compile(),
+	// null if this apply is not compiled.
+	@XmlTransient
+	private ExpressionType[] compiledExpressions;
+
+	// The value of this apply if it is folded by compile(), null otherwise.
+	private transient Object constantValue;
+
+	// True if the function is a unary or binary function whose argument types
+	// fit the expressions, such that it is invoked without argument array.
+	private transient boolean typedInvocation;
+
+	// The apply that is evaluated instead of this apply and whose value is
+	// remembered per request, null if there is no identical apply.
+	private transient ApplyType commonSubexpression;
+
+	// The number of evaluations of this compiled apply. It is not
+	// synchronized, a lost update only delays the specialization.
+	private transient int evaluationCount;
+
+	// The specialized form of this apply, null until the apply is hot.
+	private transient volatile MethodHandle specializedHandle;
+
 	/**
 	 * Gets the value of the expressions property.
 	 * 
@@ -136,17 +217,399 @@ public class ApplyType extends ExpressionType {
 		this.function = value;
 	}
 
-	/*
-	 * (non-Javadoc)
+	/**
+	 * Compiles this apply and all nested applies. The expressions are unwrapped
+	 * from their {@link JAXBElement}s once, so that the evaluation does not
+	 * need to do it on each request, and the literal
+	 * {@link AttributeValueType}s are converted (see
+	 * {@link AttributeValueType#compile()}). If an expression is not an
+	 * {@link ExpressionType} this apply is left uncompiled and the error is
+	 * reported during evaluation.<br />
+	 * <br />
+	 * The expressions must not be modified after the compilation.<br />
+	 * <br />
+	 * The compilation evaluates an apply of a standard function whose
+	 * arguments are all constant (literal values or constant applies) once
+	 * and the result is used for all requests. The constant operands of the
+	 * logical and/or functions are removed where this does not change the
+	 * result, e.g. and(true, x) is evaluated as and(x) and or(true, x) as the
+	 * constant true. An apply whose function fails with the constant arguments
+	 * is not folded, so that the error is still reported on each request.<br />
+	 * <br />
+	 * The literal arguments of an {@link ArgumentPreparingFunction} (e.g. the
+	 * regular expression of a regexp-match function) are prepared once.
+	 * 
+	 * @throws SyntaxException
+	 *             If a literal {@link AttributeValueType} cannot be converted.
+	 */
+	public void compile() throws SyntaxException {
+		ExpressionType[] expressionTypes = new ExpressionType[getExpressions().size()];
+		for (int i = 0; i < expressionTypes.length; i++) {
+			Object value = getExpressions().get(i).getValue();
+			if (!(value instanceof ExpressionType)) {
+				constantValue = null;
+				commonSubexpression = null;
+				typedInvocation = false;
+				compiledExpressions = null;
+				return;
+			}
+			if (value instanceof ApplyType) {
+				((ApplyType) value).compile();
+			} else if (value instanceof AttributeValueType) {
+				((AttributeValueType) value).compile();
+			}
+			expressionTypes[i] = (ExpressionType) value;
+		}
+		if (getFunction() instanceof ANDFunction) {
+			expressionTypes = simplifyOperands(expressionTypes, Boolean.TRUE);
+		} else if (getFunction() instanceof ORFunction) {
+			expressionTypes = simplifyOperands(expressionTypes, Boolean.FALSE);
+		}
+		if (getFunction() instanceof ArgumentPreparingFunction) {
+			prepareArguments(expressionTypes);
+		}
+		Object folded = fold(expressionTypes);
+		boolean typed = folded == null && checkArgumentTypes(expressionTypes);
+		// Each field is computed first and written once, such that a
+		// concurrent evaluation of an apply that is compiled again never sees
+		// a field cleared in between.
+		commonSubexpression = null;
+		typedInvocation = typed;
+		compiledExpressions = expressionTypes;
+		constantValue = folded;
+	}
+
+	/**
+	 * Returns the value of this apply if it is constant (see
+	 * {@link #compile()}).
+	 * 
+	 * @return The constant value or <code>null</code> if this apply is not
+	 *         constant or not compiled.
+	 */
+	Object getConstantValue() {
+		return constantValue;
+	}
+
+	/**
+	 * Shares the identical applies of the given compiled expressions (e.g. the
+	 * conditions and variable definitions of the policies of a policy set).
+	 * Applies are identical if they apply the same standard function to
+	 * identical expressions: literal values, designators, selectors and
+	 * functions with the same attributes or identical applies. For each group
+	 * of identical applies one apply is evaluated per request and its value is
+	 * used for all of them (see {@link #handle(RequestType, EvaluationContext)}
+	 * ). Applies that contain a variable reference are not shared, because
+	 * variables are defined per policy.<br />
+	 * <br />
+	 * The sharing is reset when an apply is compiled again.
+	 * 
+	 * @param expressions
+	 *            The compiled root expressions.
+	 */
+	public static void shareCommonSubexpressions(List<? extends ExpressionType> expressions) {
+		Map<Object, List<ApplyType>> occurrences = new HashMap<Object, List<ApplyType>>();
+		for (ExpressionType expression : expressions) {
+			collectSubexpressions(expression, occurrences);
+		}
+		for (List<ApplyType> applies : occurrences.values()) {
+			if (applies.size() > 1) {
+				for (ApplyType apply : applies) {
+					apply.commonSubexpression = applies.get(0);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds the shareable applies of the given expression to the occurrences of
+	 * their key.
+	 * 
+	 * @return The key of the expression, identical expressions have equal
+	 *         keys, or <code>null</code> if the expression cannot be shared.
+	 */
+	private static Object collectSubexpressions(ExpressionType expression, Map<Object, List<ApplyType>> occurrences) {
+		if (expression instanceof ApplyType) {
+			return ((ApplyType) expression).collectSubexpressions(occurrences);
+		} else if (expression instanceof PreparedArgument) {
+			return collectSubexpressions(((PreparedArgument) expression).argument, occurrences);
+		}
+		Object constant = getConstantValue(expression);
+		if (constant != null) {
+			return Arrays.asList(AttributeValueType.class, constant);
+		}
+		if (expression instanceof AttributeDesignatorType) {
+			AttributeDesignatorType designator = (AttributeDesignatorType) expression;
+			if (designator.getDataType() == null) {
+				return null;
+			}
+			String subjectCategory = null;
+			if (designator instanceof SubjectAttributeDesignatorType) {
+				subjectCategory = ((SubjectAttributeDesignatorType) designator).getSubjectCategory();
+			}
+			return Arrays.asList(designator.getClass(), designator.getAttributeId(), designator.getDataType()
+					.getDatatypeURI(), designator.getIssuer(), designator.isMustBePresent(), subjectCategory);
+		} else if (expression instanceof AttributeSelectorType) {
+			AttributeSelectorType selector = (AttributeSelectorType) expression;
+			return Arrays.asList(AttributeSelectorType.class, selector.getRequestContextPath(),
+					selector.getDataType(), selector.isMustBePresent());
+		} else if (expression instanceof FunctionType) {
+			return Arrays.asList(FunctionType.class, ((FunctionType) expression).getFunction());
+		}
+		return null;
+	}
+
+	/**
+	 * Adds this apply and its nested applies to the occurrences of their key if
+	 * they can be shared.
 	 * 
-	 * @see
-	 * org.herasaf.xacml.core.policy.impl.ExpressionType#handle(org.herasaf.
-	 * xacml.core.context.impl.RequestType, java.util.Map)
+	 * @return The key of this apply or <code>null</code> if it cannot be
+	 *         shared.
+	 */
+	private Object collectSubexpressions(Map<Object, List<ApplyType>> occurrences) {
+		if (constantValue != null) {
+			return Arrays.asList(AttributeValueType.class, constantValue);
+		}
+		if (compiledExpressions == null) {
+			return null;
+		}
+		boolean shareable = isStandardFunction(getFunction());
+		List<Object> key = new ArrayList<Object>();
+		key.add(ApplyType.class);
+		key.add(getFunction());
+		for (ExpressionType expression : compiledExpressions) {
+			Object expressionKey = collectSubexpressions(expression, occurrences);
+			shareable &= expressionKey != null;
+			key.add(expressionKey);
+		}
+		if (!shareable) {
+			return null;
+		}
+		List<ApplyType> applies = occurrences.get(key);
+		if (applies == null) {
+			applies = new ArrayList<ApplyType>();
+			occurrences.put(key, applies);
+		}
+		applies.add(this);
+		return key;
+	}
+
+	/**
+	 * Returns true if the given function is a standard function.
+	 */
+	private static boolean isStandardFunction(Function function) {
+		return function != null && function.getClass().getName().startsWith(STANDARD_FUNCTIONS_PACKAGE);
+	}
+
+	/**
+	 * Removes the operands of a logical and/or that do not change its result:
+	 * the constants with the neutral value and the operands behind a constant
+	 * with the other value, because the evaluation stops there. If all
+	 * operands before this constant are removed, it is the only operand left
+	 * (and is folded afterwards). The operands that are evaluated stay in their
+	 * order, so that an error of an operand is still reported.
+	 */
+	private static ExpressionType[] simplifyOperands(ExpressionType[] operands, Boolean neutralValue) {
+		List<ExpressionType> simplified = new ArrayList<ExpressionType>();
+		for (ExpressionType operand : operands) {
+			Object constant = getConstantValue(operand);
+			if (neutralValue.equals(constant)) {
+				continue;
+			}
+			simplified.add(operand);
+			if (constant instanceof Boolean) {
+				break;
+			}
+		}
+		return simplified.toArray(new ExpressionType[simplified.size()]);
+	}
+
+	/**
+	 * Replaces the constant expressions that the
+	 * {@link ArgumentPreparingFunction} of this apply prepares by their
+	 * prepared form.
+	 */
+	private void prepareArguments(ExpressionType[] expressionTypes) {
+		ArgumentPreparingFunction preparingFunction = (ArgumentPreparingFunction) getFunction();
+		for (int i = 0; i < expressionTypes.length; i++) {
+			Object value = getConstantValue(expressionTypes[i]);
+			if (value != null) {
+				Object prepared = preparingFunction.prepareArgument(i, value);
+				if (prepared != value) {
+					expressionTypes[i] = new PreparedArgument(expressionTypes[i], prepared);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Evaluates this apply once if its function is a standard function and
+	 * all the given expressions are constant.
+	 * 
+	 * @return The value of this apply or <code>null</code> if it is not
+	 *         constant.
+	 */
+	private Object fold(ExpressionType[] expressionTypes) {
+		if (!isStandardFunction(getFunction())) {
+			return null;
+		}
+		Object[] values = new Object[expressionTypes.length];
+		for (int i = 0; i < expressionTypes.length; i++) {
+			values[i] = getConstantValue(expressionTypes[i]);
+			if (values[i] == null) {
+				return null;
+			}
+		}
+		try {
+			return getFunction().handle(values);
+		} catch (Exception e) {
+			// The error is reported on each evaluation.
+			return null;
+		}
+	}
+
+	/**
+	 * Returns true if the function is a {@link UnaryFunction} or
+	 * {@link BinaryFunction} that takes as many arguments as there are given
+	 * expressions and the known types of the expressions fit the declared
+	 * argument types (see {@link TypedFunctions}). The types of literal values,
+	 * folded applies and the bags of designators are known, the other types
+	 * are checked by the function when it is invoked. If a type does not fit,
+	 * a warning is logged and the function is invoked with
+	 * {@link Function#handle(Object...)}, which reports the error on each
+	 * evaluation.
+	 */
+	private boolean checkArgumentTypes(ExpressionType[] expressionTypes) {
+		Class<?>[] argumentTypes = TypedFunctions.getArgumentTypes(getFunction());
+		if (argumentTypes == null) {
+			return false;
+		}
+		if (argumentTypes.length != expressionTypes.length) {
+			LOGGER.warn("The function {} takes {} arguments but is applied to {}.", getFunction(),
+					argumentTypes.length, expressionTypes.length);
+			return false;
+		}
+		Class<?> elementType = TypedFunctions.getElementType(getFunction());
+		for (int i = 0; i < expressionTypes.length; i++) {
+			Class<?> type = getArgumentType(expressionTypes[i]);
+			if (type != null && !argumentTypes[i].isAssignableFrom(type)) {
+				LOGGER.warn("The argument {} of the function {} is of the type {} instead of {}.", i + 1,
+						getFunction(), type.getName(), argumentTypes[i].getName());
+				return false;
+			}
+			if (elementType != null && argumentTypes[i] == List.class
+					&& expressionTypes[i] instanceof AttributeDesignatorType) {
+				DataTypeAttribute<?> dataType = ((AttributeDesignatorType) expressionTypes[i]).getDataType();
+				if (dataType != null && !elementType.isAssignableFrom(TypedFunctions.getValueType(dataType))) {
+					LOGGER.warn("The argument {} of the function {} is a bag of {} instead of {}.", i + 1,
+							getFunction(), dataType, elementType.getName());
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the type of the value of the given expression if it is known
+	 * before the evaluation, <code>null</code> otherwise.
+	 */
+	private static Class<?> getArgumentType(ExpressionType expression) {
+		Object value = getConstantValue(expression);
+		if (value != null) {
+			return value.getClass();
+		}
+		if (expression instanceof AttributeDesignatorType || expression instanceof AttributeSelectorType) {
+			return List.class;
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the value of the given expression if it is constant, or
+	 * <code>null</code> otherwise.
+	 */
+	private static Object getConstantValue(ExpressionType expression) {
+		if (expression instanceof AttributeValueType) {
+			return ((AttributeValueType) expression).getCompiledContent();
+		} else if (expression instanceof ApplyType) {
+			return ((ApplyType) expression).getConstantValue();
+		} else if (expression instanceof PreparedArgument) {
+			return ((PreparedArgument) expression).value;
+		}
+		return null;
+	}
+
+	/**
+	 * Evaluates the expressions and applies the function to their values. If
+	 * the function is a {@link LazyFunction} (e.g. and, or, n-of) the
+	 * expressions are evaluated only when the function needs them. The
+	 * function of a compiled apply is invoked without an argument array if it
+	 * is a {@link UnaryFunction} or {@link BinaryFunction} whose argument types
+	 * fit the expressions.<br />
+	 * <br />
+	 * A compiled apply that is evaluated {@link #SPECIALIZATION_THRESHOLD}
+	 * times is specialized: it is evaluated by a {@link MethodHandle} tree
+	 * that binds the function, the converted literal values and the nested
+	 * applies of this apply as constants (see {@link #specialize()}). Once such
+	 * a handle is hot, the JIT compiles it into code in which these calls are
+	 * no longer dispatched dynamically and can be inlined. The interpreted form
+	 * remains the fallback for the expressions that cannot be specialized. A
+	 * redeployed policy consists of new applies and starts interpreted again.<br />
+	 * <br />
+	 * An apply that is shared with identical applies (see
+	 * {@link #shareCommonSubexpressions(List)}) is evaluated once per request,
+	 * its value is remembered in the {@link EvaluationContext}.
 	 */
 	@Override
 	public Object handle(RequestType request, EvaluationContext evaluationContext) throws MissingAttributeException,
 			SyntaxException, ProcessingException {
+		if (constantValue != null) {
+			return constantValue;
+		}
+		ApplyType common = commonSubexpression;
+		if (common != null && evaluationContext != null) {
+			Object value = evaluationContext.getSubexpressionValue(request, common);
+			if (value == null) {
+				value = common.evaluate(request, evaluationContext);
+				evaluationContext.putSubexpressionValue(common, value);
+			}
+			return value;
+		}
+		return evaluate(request, evaluationContext);
+	}
+
+	/**
+	 * Evaluates this apply without looking up the value of a common
+	 * subexpression (see {@link #handle(RequestType, EvaluationContext)}).
+	 */
+	private Object evaluate(RequestType request, EvaluationContext evaluationContext)
+			throws MissingAttributeException, SyntaxException, ProcessingException {
 		try {
+			if (getFunction() instanceof LazyFunction) {
+				return ((LazyFunction) getFunction()).handle(new ExpressionArguments(request, evaluationContext));
+			}
+			if (compiledExpressions != null) {
+				MethodHandle specialized = specializedHandle;
+				if (specialized != null) {
+					return invokeSpecialized(specialized, request, evaluationContext);
+				}
+				if (++evaluationCount >= SPECIALIZATION_THRESHOLD && isSpecializable()) {
+					specializedHandle = specialize();
+				}
+				if (typedInvocation) {
+					if (compiledExpressions.length == 1) {
+						return apply(compiledExpressions[0].handle(request, evaluationContext));
+					}
+					return apply(compiledExpressions[0].handle(request, evaluationContext),
+							compiledExpressions[1].handle(request, evaluationContext));
+				}
+				Object[] params = new Object[compiledExpressions.length];
+				for (int i = 0; i < compiledExpressions.length; i++) {
+					params[i] = compiledExpressions[i].handle(request, evaluationContext);
+				}
+				return getFunction().handle(params);
+			}
+
 			List<Object> params = new ArrayList<Object>();
 
 			for (int i = 0; i < getExpressions().size(); i++) {
@@ -164,4 +627,195 @@ public class ApplyType extends ExpressionType {
 			throw new SyntaxException(e);
 		}
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Applies the {@link UnaryFunction} of this apply to the given argument.
+	 * An argument of the wrong type is reported the same way as by
+	 * {@link Function#handle(Object...)}.
+	 */
+	@SuppressWarnings("unchecked")
+	private Object apply(Object argument) throws FunctionProcessingException {
+		try {
+			return ((UnaryFunction<Object>) getFunction()).apply(argument);
+		} catch (RuntimeException e) {
+			throw new FunctionProcessingException(e);
+		}
+	}
+
+	/**
+	 * Applies the {@link BinaryFunction} of this apply to the given arguments
+	 * (see {@link #apply(Object)}).
+	 */
+	@SuppressWarnings("unchecked")
+	private Object apply(Object first, Object second) throws FunctionProcessingException {
+		try {
+			return ((BinaryFunction<Object, Object>) getFunction()).apply(first, second);
+		} catch (RuntimeException e) {
+			throw new FunctionProcessingException(e);
+		}
+	}
+
+	/**
+	 * Reports the error of a typed function in a specialized apply (see
+	 * {@link #apply(Object)}).
+	 */
+	@SuppressWarnings("unused")
+	private static Object argumentError(RuntimeException e) throws FunctionProcessingException {
+		throw new FunctionProcessingException(e);
+	}
+
+	/**
+	 * Returns true if this apply can be specialized (see {@link #specialize()}
+	 * ).
+	 */
+	private boolean isSpecializable() {
+		return compiledExpressions != null && constantValue == null && !(getFunction() instanceof LazyFunction)
+				&& compiledExpressions.length <= MAX_SPECIALIZED_EXPRESSIONS;
+	}
+
+	/**
+	 * Creates the specialized form of this apply: a {@link MethodHandle} of the
+	 * type (RequestType, EvaluationContext)Object that evaluates the
+	 * expressions and applies the function to their values. The converted
+	 * values of compiled literal {@link AttributeValueType}s are constants and
+	 * specializable nested applies are part of the same handle. All other
+	 * expressions are evaluated by their interpreted form.
+	 */
+	private MethodHandle specialize() {
+		MethodHandle handle;
+		if (typedInvocation) {
+			if (compiledExpressions.length == 1) {
+				handle = UNARY_FUNCTION_HANDLE.bindTo(getFunction());
+			} else {
+				handle = BINARY_FUNCTION_HANDLE.bindTo(getFunction());
+			}
+			handle = MethodHandles.catchException(handle, RuntimeException.class, MethodHandles.dropArguments(
+					ARGUMENT_ERROR_HANDLE, 1, handle.type().parameterList()));
+		} else {
+			handle = FUNCTION_HANDLE.bindTo(getFunction()).asCollector(Object[].class, compiledExpressions.length);
+		}
+		// Replaces the argument at the position i by the two arguments of the
+		// expression at i. Going backwards keeps the positions of the
+		// remaining arguments.
+		for (int i = compiledExpressions.length - 1; i >= 0; i--) {
+			handle = MethodHandles.collectArguments(handle, i, specialize(compiledExpressions[i]));
+		}
+		// Passes the request and the evaluation context to all expressions.
+		int[] reorder = new int[compiledExpressions.length * 2];
+		for (int i = 0; i < compiledExpressions.length; i++) {
+			reorder[i * 2] = 0;
+			reorder[i * 2 + 1] = 1;
+		}
+		return MethodHandles.permuteArguments(handle, HANDLE_TYPE, reorder);
+	}
+
+	/**
+	 * Creates the specialized form of the given expression of this apply.
+	 */
+	private static MethodHandle specialize(ExpressionType expression) {
+		Object value = getConstantValue(expression);
+		if (value != null) {
+			return MethodHandles.dropArguments(MethodHandles.constant(Object.class, value), 0,
+					HANDLE_TYPE.parameterList());
+		}
+		if (expression instanceof ApplyType && ((ApplyType) expression).commonSubexpression == null
+				&& ((ApplyType) expression).isSpecializable()) {
+			return ((ApplyType) expression).specialize();
+		}
+		return EXPRESSION_HANDLE.bindTo(expression);
+	}
+
+	/**
+	 * Evaluates the given specialized form of this apply. The errors are
+	 * reported the same way as by the interpreted form.
+	 */
+	private static Object invokeSpecialized(MethodHandle handle, RequestType request,
+			EvaluationContext evaluationContext) throws MissingAttributeException, SyntaxException,
+			ProcessingException {
+		try {
+			return (Object) handle.invokeExact(request, evaluationContext);
+		} catch (MissingAttributeException e) {
+			throw e;
+		} catch (SyntaxException e) {
+			throw e;
+		} catch (ProcessingException e) {
+			throw e;
+		} catch (ClassCastException e) {
+			throw new SyntaxException(e);
+		} catch (NullPointerException e) {
+			throw new SyntaxException(e);
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new ExpressionProcessingException(e);
+		}
+	}
+
+	/**
+	 * The expressions of this apply as {@link LazyArguments} of a
+	 * {@link LazyFunction}. An expression is evaluated when the function
+	 * requests it.
+	 */
+	private final class ExpressionArguments implements LazyArguments {
+		private final RequestType request;
+		private final EvaluationContext evaluationContext;
+
+		private ExpressionArguments(RequestType request, EvaluationContext evaluationContext) {
+			this.request = request;
+			this.evaluationContext = evaluationContext;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int size() {
+			if (compiledExpressions != null) {
+				return compiledExpressions.length;
+			}
+			return getExpressions().size();
+		}
+
+		/**
+		 * {@inheritDoc} The errors that {@link ApplyType#handle} reports as
+		 * {@link SyntaxException} are reported the same way here, such that
+		 * the function does not take them for invalid argument values.
+		 */
+		@Override
+		public Object get(int index) throws MissingAttributeException, SyntaxException, ProcessingException {
+			try {
+				if (compiledExpressions != null) {
+					return compiledExpressions[index].handle(request, evaluationContext);
+				}
+				return ((ExpressionType) getExpressions().get(index).getValue()).handle(request, evaluationContext);
+			} catch (ClassCastException e) {
+				throw new SyntaxException(e);
+			} catch (NullPointerException e) {
+				throw new SyntaxException(e);
+			}
+		}
+	}
+
+	/**
+	 * A literal argument in the form prepared by an
+	 * {@link ArgumentPreparingFunction}. It is only part of the compiled
+	 * expressions.
+	 */
+	private static final class PreparedArgument extends ExpressionType {
+		private static final long serialVersionUID = 1L;
+		private final ExpressionType argument;
+		private final Object value;
+
+		private PreparedArgument(ExpressionType argument, Object value) {
+			this.argument = argument;
+			this.value = value;
+		}
+
+		@Override
+		public Object handle(RequestType request, EvaluationContext evaluationContext) {
+			return value;
+		}
+	}
+}
@@ -29,6 +29,7 @@ import jakarta.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
 
 import org.herasaf.xacml.core.SyntaxException;
 import org.herasaf.xacml.core.context.EvaluationContext;
+import org.herasaf.xacml.core.context.RequestAttributeIndex;
 import org.herasaf.xacml.core.context.impl.AttributeType;
 import org.herasaf.xacml.core.context.impl.AttributeValueType;
 import org.herasaf.xacml.core.context.impl.RequestType;
@@ -36,6 +37,7 @@ import org.herasaf.xacml.core.converter.DataTypeJAXBTypeAdapter;
 import org.herasaf.xacml.core.dataTypeAttribute.DataTypeAttribute;
 import org.herasaf.xacml.core.policy.ExpressionProcessingException;
 import org.herasaf.xacml.core.policy.MissingAttributeException;
+import org.herasaf.xacml.core.types.Bag;
 
 /**
  * <p>
@@ -170,17 +172,32 @@ public abstract class AttributeDesignatorType extends ExpressionType {
 		this.mustBePresent = value;
 	}
 
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see
-	 * org.herasaf.xacml.core.policy.impl.ExpressionType#handle(org.herasaf.
-	 * xacml.core.context.impl.RequestType, java.util.Map)
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The values are returned as an immutable {@link Bag}. Its modifying
+	 * methods throw an {@link UnsupportedOperationException}, because the same
+	 * {@link Bag} is returned each time the designator is evaluated for the
+	 * request. A caller that needs to modify the values must copy them (e.g.
+	 * into an {@link ArrayList}).
+	 * </p>
 	 */
 	@Override
 	public abstract Object handle(RequestType request, EvaluationContext evaluationContext)
 			throws ExpressionProcessingException, MissingAttributeException, SyntaxException;
 
+	/**
+	 * Returns the converted values of all attributes in the given request that
+	 * match this designator. The PIP is not consulted.
+	 * 
+	 * @param request
+	 *            The request containing the attributes.
+	 * @return The {@link List} of converted attribute values, empty if the
+	 *         request does not contain a matching attribute.
+	 */
+	public abstract List<Object> handle(RequestType request) throws ExpressionProcessingException,
+			MissingAttributeException, SyntaxException;
+
 	protected List<Object> handle(List<AttributeType> requestAttributes) throws ExpressionProcessingException,
 			MissingAttributeException, SyntaxException {
 		List<Object> returnValues = new ArrayList<>();
@@ -201,7 +218,62 @@ public abstract class AttributeDesignatorType extends ExpressionType {
 		return returnValues;
 	}
 
-	
+	/**
+	 * Returns the converted values of all attributes in the given request that
+	 * match this designator. If the {@link EvaluationContext} contains a
+	 * {@link RequestAttributeIndex} the attributes are looked up in the index
+	 * and the converted values are stored in it, otherwise the request is
+	 * searched (see {@link #handle(RequestType)}). The PIP is not consulted.
+	 * 
+	 * @param request
+	 *            The request containing the attributes.
+	 * @param evaluationContext
+	 *            The evaluation context of the request.
+	 * @return The {@link Bag} of converted attribute values, empty if the
+	 *         request does not contain a matching attribute.
+	 */
+	protected Bag<Object> resolve(RequestType request, EvaluationContext evaluationContext)
+			throws ExpressionProcessingException, MissingAttributeException, SyntaxException {
+		RequestAttributeIndex index = evaluationContext.getRequestAttributeIndex();
+		if (index == null) {
+			return new Bag<Object>(handle(request));
+		}
+		Bag<Object> values = index.getValues(this);
+		if (values != null) {
+			return values;
+		}
+		List<AttributeType> requestAttributes = index.getAttributes(this);
+		if (requestAttributes == null) {
+			return new Bag<Object>(handle(request));
+		}
+		List<Object> returnValues = new ArrayList<Object>();
+		for (AttributeType attr : requestAttributes) {
+			if (getIssuer() == null || getIssuer().equals(attr.getIssuer())) {
+				addAndConvertAttrValue(returnValues, attr.getAttributeValues());
+			}
+		}
+		values = new Bag<Object>(returnValues);
+		index.putValues(this, values);
+		return values;
+	}
+
+	/**
+	 * Converts the given attribute values (e.g. provided by a PIP) into the
+	 * data type of this designator.
+	 * 
+	 * @param attrValues
+	 *            The attribute values to convert.
+	 * @return The {@link Bag} of converted values.
+	 * @throws ExpressionProcessingException
+	 * @throws SyntaxException
+	 */
+	protected Bag<Object> convertAttrValues(List<AttributeValueType> attrValues) throws ExpressionProcessingException,
+			SyntaxException {
+		List<Object> returnValues = new ArrayList<Object>();
+		addAndConvertAttrValue(returnValues, attrValues);
+		return new Bag<Object>(returnValues);
+	}
+
 	/**
 	 * Receives an AttributeType and a list. Converts containing
 	 * AttributeValueTypes of the AttributeType in the specified dataType and
@@ -29,6 +29,7 @@ import jakarta.xml.bind.annotation.XmlMixed;
 import jakarta.xml.bind.annotation.XmlRootElement;
 import jakarta.xml.bind.annotation.XmlSchemaType;
 import jakarta.xml.bind.annotation.XmlSeeAlso;
+import jakarta.xml.bind.annotation.XmlTransient;
 import jakarta.xml.bind.annotation.XmlType;
 import jakarta.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
 import javax.xml.namespace.QName;
@@ -38,6 +39,7 @@ import org.herasaf.xacml.core.context.EvaluationContext;
 import org.herasaf.xacml.core.context.impl.RequestType;
 import org.herasaf.xacml.core.converter.DataTypeJAXBTypeAdapter;
 import org.herasaf.xacml.core.dataTypeAttribute.DataTypeAttribute;
+import org.herasaf.xacml.core.function.ArgumentPreparingFunction;
 import org.herasaf.xacml.core.policy.ExpressionProcessingException;
 
 /**
@@ -82,6 +84,14 @@ public class AttributeValueType extends ExpressionType {
 	private DataTypeAttribute<?> dataType;
 	@XmlAnyAttribute
 	private Map<QName, String> otherAttributes;
+	// The content converted into the data type. Set by compile(), null if
+	// this attribute value is not compiled.
+	@XmlTransient
+	private Object convertedContent;
+	// The converted content prepared for the function it is passed to. Set by
+	// prepare(), null if this attribute value is not prepared.
+	@XmlTransient
+	private Object preparedContent;
 
 	/**
 	 * Creates a new attribute value type and initializes a {@link Map} that can
@@ -160,6 +170,100 @@ public class AttributeValueType extends ExpressionType {
 		return otherAttributes;
 	}
 
+	/**
+	 * Converts the content into the data type once, so that the evaluation
+	 * does not need to do it on each request. The converted value is returned
+	 * by {@link #getConvertedContent()} and {@link #handle}.<br />
+	 * <br />
+	 * The content and the data type must not be modified after the
+	 * compilation.
+	 * 
+	 * @throws SyntaxException
+	 *             If the content cannot be converted into the data type.
+	 */
+	public void compile() throws SyntaxException {
+		if (dataType == null) {
+			throw new SyntaxException("The AttributeValueType has no data type.");
+		}
+		Object converted;
+		try {
+			converted = dataType.convertTo(getContent());
+		} catch (ClassCastException e) {
+			throw new SyntaxException(e);
+		}
+		// Published with a single write, such that a concurrent evaluation
+		// sees either the previous or the new value. Until it is prepared
+		// again the converted value is used.
+		convertedContent = converted;
+		preparedContent = null;
+	}
+
+	/**
+	 * Returns the value converted by {@link #compile()}.
+	 * 
+	 * @return The converted content or <code>null</code> if this attribute
+	 *         value is not compiled.
+	 */
+	Object getCompiledContent() {
+		return convertedContent;
+	}
+
+	/**
+	 * Returns the content converted into the data type. If this attribute
+	 * value is compiled the value converted by {@link #compile()} is returned,
+	 * otherwise the content is converted on each call.
+	 * 
+	 * @return The converted content.
+	 * @throws SyntaxException
+	 *             If the content cannot be converted into the data type.
+	 */
+	public Object getConvertedContent() throws SyntaxException {
+		if (convertedContent != null) {
+			return convertedContent;
+		}
+		return dataType.convertTo(getContent());
+	}
+
+	/**
+	 * Prepares the value converted by {@link #compile()} as the argument at
+	 * the given position of the given function (see
+	 * {@link ArgumentPreparingFunction#prepareArgument(int, Object)}). The
+	 * prepared form is returned by {@link #getPreparedContent()}.
+	 * 
+	 * @param function
+	 *            The function this attribute value is passed to.
+	 * @param index
+	 *            The position of this attribute value in the arguments of the
+	 *            function.
+	 */
+	public void prepare(ArgumentPreparingFunction function, int index) {
+		if (convertedContent == null) {
+			return;
+		}
+		Object prepared = function.prepareArgument(index, convertedContent);
+		if (prepared != convertedContent) {
+			preparedContent = prepared;
+		}
+	}
+
+	/**
+	 * Returns the content in the form prepared by
+	 * {@link #prepare(ArgumentPreparingFunction, int)} or the converted
+	 * content (see {@link #getConvertedContent()}) if this attribute value is
+	 * not prepared.
+	 * 
+	 * @return The prepared or converted content.
+	 * @throws SyntaxException
+	 *             If the content cannot be converted into the data type.
+	 */
+	public Object getPreparedContent() throws SyntaxException {
+		Object prepared = preparedContent;
+		if (prepared != null) {
+			return prepared;
+		}
+		return getConvertedContent();
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -170,6 +274,9 @@ public class AttributeValueType extends ExpressionType {
 	@Override
 	public Object handle(RequestType request, EvaluationContext evaluationContext) throws ExpressionProcessingException,
 			SyntaxException {
+		if (convertedContent != null) {
+			return convertedContent;
+		}
 		if (content.size() > 1) {
 			throw new ExpressionProcessingException("The content of the AttributeValueType can't be greater than 1");
 		}
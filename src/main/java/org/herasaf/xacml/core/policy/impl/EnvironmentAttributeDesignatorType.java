@@ -17,15 +17,24 @@
 
 package org.herasaf.xacml.core.policy.impl;
 
+import java.time.OffsetDateTime;
+import java.util.Collections;
 import java.util.List;
 import jakarta.xml.bind.annotation.XmlRootElement;
 import jakarta.xml.bind.annotation.XmlType;
 import org.herasaf.xacml.core.SyntaxException;
 import org.herasaf.xacml.core.context.EvaluationContext;
+import org.herasaf.xacml.core.dataTypeAttribute.impl.DateDataTypeAttribute;
+import org.herasaf.xacml.core.dataTypeAttribute.impl.DateTimeDataTypeAttribute;
+import org.herasaf.xacml.core.dataTypeAttribute.impl.TimeDataTypeAttribute;
 import org.herasaf.xacml.core.context.impl.AttributeValueType;
 import org.herasaf.xacml.core.context.impl.RequestType;
 import org.herasaf.xacml.core.policy.ExpressionProcessingException;
 import org.herasaf.xacml.core.policy.MissingAttributeException;
+import org.herasaf.xacml.core.types.Bag;
+import org.herasaf.xacml.core.types.Date;
+import org.herasaf.xacml.core.types.DateTime;
+import org.herasaf.xacml.core.types.Time;
 
 /**
  * <p>
@@ -55,6 +64,9 @@ import org.herasaf.xacml.core.policy.MissingAttributeException;
 @XmlType(name = "EnvironmentAttributeDesignatorType")
 public class EnvironmentAttributeDesignatorType extends AttributeDesignatorType {
 	private static final long serialVersionUID = 1L;
+	private static final String CURRENT_TIME = "urn:oasis:names:tc:xacml:1.0:environment:current-time";
+	private static final String CURRENT_DATE = "urn:oasis:names:tc:xacml:1.0:environment:current-date";
+	private static final String CURRENT_DATETIME = "urn:oasis:names:tc:xacml:1.0:environment:current-dateTime";
 
 	/**
 	 * {@inheritDoc}
@@ -63,7 +75,19 @@ public class EnvironmentAttributeDesignatorType extends AttributeDesignatorType
 	public Object handle(RequestType request, EvaluationContext evaluationContext) throws ExpressionProcessingException,
 			MissingAttributeException, SyntaxException {
 		validateAttributeDesignator();
-		List<Object> returnValues = handle(request);
+		List<Object> returnValues = resolve(request, evaluationContext);
+
+		/*
+		 * If the request does not contain the current time, it is supplied
+		 * by the PDP.
+		 * 
+		 * See: the OASIS eXtensible Access Control Markup Langugage (XACML)
+		 * 2.0, Errata 29 January 2008 appendix B.8, Environment attributes,
+		 * for further information.
+		 */
+		if (returnValues.size() == 0 && isCurrentTime()) {
+			returnValues = new Bag<Object>(Collections.singletonList(createCurrentTime(evaluationContext)));
+		}
 
 		/*
 		 * If no Attribute could be found, the attribute has to be requested
@@ -74,9 +98,9 @@ public class EnvironmentAttributeDesignatorType extends AttributeDesignatorType
 		 * further information.
 		 */
 		if (returnValues.size() == 0 && evaluationContext.getPIP() != null) {
-			List<AttributeValueType> attrValues = evaluationContext.getPIP().fetchEnvironmentAttributes(request, getAttributeId(),
+			List<AttributeValueType> attrValues = evaluationContext.fetchEnvironmentAttributes(request, getAttributeId(),
 					getDataType().toString(), getIssuer());
-			addAndConvertAttrValue(returnValues, attrValues);
+			returnValues = convertAttrValues(attrValues);
 		}
 		if (returnValues.size() == 0 && isMustBePresent()) {
 			throw new MissingAttributeException(getAttributeId(), getDataType(), getIssuer());
@@ -84,6 +108,43 @@ public class EnvironmentAttributeDesignatorType extends AttributeDesignatorType
 		return returnValues;
 	}
 
+	/**
+	 * Returns true if this designator refers to the current-time, current-date
+	 * or current-dateTime environment attribute that the PDP supplies if the
+	 * request does not contain it.
+	 * 
+	 * @return true if this designator refers to the current time.
+	 */
+	public boolean isCurrentTime() {
+		if (getAttributeId() == null || getDataType() == null || getIssuer() != null) {
+			return false;
+		}
+		String dataType = getDataType().toString();
+		if (CURRENT_TIME.equals(getAttributeId())) {
+			return TimeDataTypeAttribute.ID.equals(dataType);
+		} else if (CURRENT_DATE.equals(getAttributeId())) {
+			return DateDataTypeAttribute.ID.equals(dataType);
+		} else if (CURRENT_DATETIME.equals(getAttributeId())) {
+			return DateTimeDataTypeAttribute.ID.equals(dataType);
+		}
+		return false;
+	}
+
+	/**
+	 * Creates the value of the referred current time attribute in the
+	 * timezone of the clock and the UTC representation of the PDP.
+	 */
+	private Object createCurrentTime(EvaluationContext evaluationContext) {
+		OffsetDateTime currentDateTime = evaluationContext.getCurrentDateTime();
+		boolean zulu = evaluationContext.isZuluUtcRepresentation();
+		if (CURRENT_TIME.equals(getAttributeId())) {
+			return new Time(currentDateTime.toOffsetTime(), zulu);
+		} else if (CURRENT_DATE.equals(getAttributeId())) {
+			return new Date(currentDateTime.toLocalDate(), currentDateTime.getOffset(), zulu);
+		}
+		return new DateTime(currentDateTime, zulu);
+	}
+
 	public List<Object> handle(RequestType request) throws ExpressionProcessingException,
 			MissingAttributeException, SyntaxException {
 		List<Object> returnValues = handle(request.getEnvironment().getAttributes());
@@ -19,6 +19,7 @@ package org.herasaf.xacml.core.policy.impl;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import jakarta.xml.bind.JAXBElement;
@@ -32,6 +33,7 @@ import jakarta.xml.bind.annotation.XmlTransient;
 import jakarta.xml.bind.annotation.XmlType;
 import jakarta.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
 
+import org.herasaf.xacml.core.SyntaxException;
 import org.herasaf.xacml.core.combiningAlgorithm.policy.PolicyCombiningAlgorithm;
 import org.herasaf.xacml.core.context.EvaluationContext;
 import org.herasaf.xacml.core.converter.EvaluatableIdJAXBTypeAdapter;
@@ -124,6 +126,11 @@ public class PolicySetType implements Evaluatable, Serializable {
 	@XmlTransient
 	private boolean hasObligations;
 
+	// The child evaluatables. Set by compile(), null if this policy set is not
+	// compiled.
+	@XmlTransient
+	private List<Evaluatable> compiledEvaluatables;
+
 	/**
 	 * Initializes and sets (by default) to true that this policy set (or sub
 	 * policies or policy sets, respectively) contains obligations. This flag is
@@ -335,6 +342,9 @@ public class PolicySetType implements Evaluatable, Serializable {
 	 * @return A {@link List} of ordered {@link Evaluatable}s.
 	 */
 	public List<Evaluatable> getOrderedEvaluatables(EvaluationContext evaluationContext) {
+		if (compiledEvaluatables != null) {
+			return compiledEvaluatables;
+		}
 		List<Evaluatable> evals = new ArrayList<Evaluatable>();
 		// No foreach iterator to ensure thread safety.
 		for (int i = 0; i < getAdditionalInformation().size(); i++) {
@@ -344,6 +354,42 @@ public class PolicySetType implements Evaluatable, Serializable {
 		return evals;
 	}
 
+	/**
+	 * Compiles this policy set and all contained policies and policy sets. The
+	 * contained {@link Evaluatable}s are collected once into an unmodifiable
+	 * {@link List} that is returned by {@link #getOrderedEvaluatables} and
+	 * {@link #getUnorderedEvaluatables}. If an element is not an
+	 * {@link Evaluatable} this policy set is left uncompiled and the error is
+	 * reported during evaluation. The target is compiled as well (see
+	 * {@link TargetType#compile()}).<br />
+	 * <br />
+	 * The policy set must not be modified after the compilation.
+	 * 
+	 * @throws SyntaxException
+	 *             If a literal {@link AttributeValueType} cannot be converted.
+	 */
+	public void compile() throws SyntaxException {
+		if (getTarget() != null) {
+			getTarget().compile();
+		}
+		List<Evaluatable> evals = new ArrayList<Evaluatable>(getAdditionalInformation().size());
+		boolean compilable = true;
+		for (int i = 0; i < getAdditionalInformation().size(); i++) {
+			Object value = getAdditionalInformation().get(i).getValue();
+			if (value instanceof PolicySetType) {
+				((PolicySetType) value).compile();
+			} else if (value instanceof PolicyType) {
+				((PolicyType) value).compile();
+			}
+			if (value instanceof Evaluatable) {
+				evals.add((Evaluatable) value);
+			} else {
+				compilable = false;
+			}
+		}
+		compiledEvaluatables = compilable ? Collections.unmodifiableList(evals) : null;
+	}
+
 	/**
 	 * Returns an unordered {@link List} of the containing {@link Evaluatable}s.
 	 * This {@link List} may contain null-values in case that a remote reference
@@ -19,23 +19,29 @@ package org.herasaf.xacml.core.policy.impl;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import jakarta.xml.bind.JAXBElement;
 import jakarta.xml.bind.annotation.XmlAttribute;
 import jakarta.xml.bind.annotation.XmlElement;
 import jakarta.xml.bind.annotation.XmlElements;
 import jakarta.xml.bind.annotation.XmlRootElement;
 import jakarta.xml.bind.annotation.XmlSchemaType;
+import jakarta.xml.bind.annotation.XmlTransient;
 import jakarta.xml.bind.annotation.XmlType;
 import jakarta.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
 
+import org.herasaf.xacml.core.SyntaxException;
 import org.herasaf.xacml.core.combiningAlgorithm.rule.AbstractRuleCombiningAlgorithm;
 import org.herasaf.xacml.core.converter.EvaluatableIdJAXBTypeAdapter;
 import org.herasaf.xacml.core.converter.RuleCombiningAlgorithmJAXBTypeAdapter;
 import org.herasaf.xacml.core.policy.Evaluatable;
 import org.herasaf.xacml.core.policy.EvaluatableID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * <p>
@@ -87,6 +93,7 @@ import org.herasaf.xacml.core.policy.EvaluatableID;
 		"obligations" })
 public class PolicyType implements Evaluatable, Serializable {
 	private static final long serialVersionUID = 1L;
+	private static final Logger LOGGER = LoggerFactory.getLogger(PolicyType.class);
 	@XmlElement(name = "Description")
 	private String description;
 	@XmlElement(name = "PolicyDefaults")
@@ -111,6 +118,13 @@ public class PolicyType implements Evaluatable, Serializable {
 	@XmlSchemaType(name = "anyURI")
 	private AbstractRuleCombiningAlgorithm ruleCombiningAlg;
 
+	// The rules and variable definitions. Set by compile(), null if this
+	// policy is not compiled.
+	@XmlTransient
+	private List<RuleType> compiledRules;
+	@XmlTransient
+	private Map<String, Variable> compiledVariables;
+
 	/**
 	 * Gets the value of the description property.
 	 * 
@@ -298,6 +312,9 @@ public class PolicyType implements Evaluatable, Serializable {
 	 * @return A {@link List} of ordered {@link RuleType}s.
 	 */
 	public List<RuleType> getOrderedRules() {
+		if (compiledRules != null) {
+			return compiledRules;
+		}
 		List<RuleType> rules = new ArrayList<RuleType>();
 		for (int i = 0; i < getAdditionalInformation().size(); i++) {
 			Object obj = getAdditionalInformation().get(i);
@@ -308,6 +325,85 @@ public class PolicyType implements Evaluatable, Serializable {
 		return rules;
 	}
 
+	/**
+	 * Compiles this policy. The {@link RuleType}s and
+	 * {@link VariableDefinitionType}s are collected once, the targets are
+	 * compiled (see {@link TargetType#compile()}) and the expressions of the
+	 * conditions and variable definitions are compiled (see
+	 * {@link ApplyType#compile()}).<br />
+	 * <br />
+	 * The policy must not be modified after the compilation.
+	 * 
+	 * @throws SyntaxException
+	 *             If a literal {@link AttributeValueType} cannot be converted.
+	 */
+	public void compile() throws SyntaxException {
+		if (getTarget() != null) {
+			getTarget().compile();
+		}
+		List<RuleType> rules = new ArrayList<RuleType>();
+		Map<String, Variable> variables = new HashMap<String, Variable>();
+		for (int i = 0; i < getAdditionalInformation().size(); i++) {
+			Object obj = getAdditionalInformation().get(i);
+			if (obj instanceof RuleType) {
+				RuleType rule = (RuleType) obj;
+				if (rule.getTarget() != null) {
+					rule.getTarget().compile();
+				}
+				if (rule.getCondition() != null) {
+					compileExpression(rule.getCondition().getExpression());
+					if (isAlwaysFalse(rule.getCondition().getExpression())) {
+						LOGGER.warn("The condition of the rule {} of the policy {} is always false, the rule never applies.",
+								rule.getRuleId(), getPolicyId());
+					}
+				}
+				rules.add(rule);
+			} else if (obj instanceof VariableDefinitionType) {
+				VariableDefinitionType variable = (VariableDefinitionType) obj;
+				compileExpression(variable.getExpression());
+				variables.put(variable.getVariableId(), variable);
+			}
+		}
+		compiledRules = Collections.unmodifiableList(rules);
+		compiledVariables = variables;
+	}
+
+	/**
+	 * Returns true if the given compiled expression is the constant false
+	 * (see {@link ApplyType#compile()}).
+	 */
+	private boolean isAlwaysFalse(JAXBElement<?> expression) {
+		if (expression == null) {
+			return false;
+		}
+		if (expression.getValue() instanceof ApplyType) {
+			return Boolean.FALSE.equals(((ApplyType) expression.getValue()).getConstantValue());
+		} else if (expression.getValue() instanceof AttributeValueType) {
+			return Boolean.FALSE.equals(((AttributeValueType) expression.getValue()).getCompiledContent());
+		}
+		return false;
+	}
+
+	/**
+	 * Compiles the expression if it is an {@link ApplyType} or an
+	 * {@link AttributeValueType}.
+	 * 
+	 * @param expression
+	 *            The expression to compile, may be <code>null</code>.
+	 * @throws SyntaxException
+	 *             If a literal {@link AttributeValueType} cannot be converted.
+	 */
+	private void compileExpression(JAXBElement<?> expression) throws SyntaxException {
+		if (expression == null) {
+			return;
+		}
+		if (expression.getValue() instanceof ApplyType) {
+			((ApplyType) expression.getValue()).compile();
+		} else if (expression.getValue() instanceof AttributeValueType) {
+			((AttributeValueType) expression.getValue()).compile();
+		}
+	}
+
 	/**
 	 * Returns an unordered {@link List} of the containing {@link RuleType}s.
 	 * 
@@ -324,6 +420,11 @@ public class PolicyType implements Evaluatable, Serializable {
 	 * @return The {@link Map} contianing the {@link VariableDefinitionType}s.
 	 */
 	public Map<String, Variable> getVariables() {
+		if (compiledVariables != null) {
+			// The returned map is used to store the values of the variables
+			// during the evaluation.
+			return new HashMap<String, Variable>(compiledVariables);
+		}
 		Map<String, Variable> variables = new HashMap<String, Variable>();
 		for (Object obj : getAdditionalInformation()) {
 			if (obj instanceof VariableDefinitionType) {
@@ -94,7 +94,7 @@ public class SubjectAttributeDesignatorType extends AttributeDesignatorType {
 	public Object handle(RequestType request, EvaluationContext evaluationContext) throws ExpressionProcessingException,
 			MissingAttributeException, SyntaxException {
 		validateAttributeDesignator();
-		List<Object> returnValues = handle(request);
+		List<Object> returnValues = resolve(request, evaluationContext);
 
 		/*
 		 * If no Attribute could be found, the attribute has to be requested
@@ -105,9 +105,9 @@ public class SubjectAttributeDesignatorType extends AttributeDesignatorType {
 		 * further information.
 		 */
 		if (returnValues.size() == 0 && evaluationContext.getPIP() != null) {
-			List<AttributeValueType> attrValues = evaluationContext.getPIP().fetchSubjectAttributes(request, getAttributeId(),
+			List<AttributeValueType> attrValues = evaluationContext.fetchSubjectAttributes(request, getAttributeId(),
 					getDataType().toString(), getIssuer(), getSubjectCategory());
-			addAndConvertAttrValue(returnValues, attrValues);
+			returnValues = convertAttrValues(attrValues);
 		}
 		if (returnValues.size() == 0 && isMustBePresent()) {
 			throw new MissingAttributeException(getAttributeId(), getDataType(), getIssuer());
@@ -18,11 +18,19 @@
 package org.herasaf.xacml.core.policy.impl;
 
 import java.io.Serializable;
+import java.util.List;
 
 import jakarta.xml.bind.annotation.XmlElement;
 import jakarta.xml.bind.annotation.XmlRootElement;
 import jakarta.xml.bind.annotation.XmlType;
 
+import org.herasaf.xacml.core.SyntaxException;
+import org.herasaf.xacml.core.function.ArgumentPreparingFunction;
+import org.herasaf.xacml.core.function.BinaryPredicate;
+import org.herasaf.xacml.core.function.TypedFunctions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 /**
  * <p>
  * Java class for TargetType complex type.
@@ -56,6 +64,7 @@ import jakarta.xml.bind.annotation.XmlType;
 @XmlType(name = "TargetType", propOrder = { "subjects", "resources", "actions", "environments" })
 public class TargetType implements Serializable {
 	private static final long serialVersionUID = 1L;
+	private static final Logger LOGGER = LoggerFactory.getLogger(TargetType.class);
 	@XmlElement(name = "Subjects")
 	private SubjectsType subjects;
 	@XmlElement(name = "Resources")
@@ -148,4 +157,81 @@ public class TargetType implements Serializable {
 	public void setEnvironments(EnvironmentsType value) {
 		this.environments = value;
 	}
+
+	/**
+	 * Compiles the {@link AttributeValueType}s of all matches of this target
+	 * (see {@link AttributeValueType#compile()}). If the match function is a
+	 * {@link BinaryPredicate} the types of the value and of the designator are
+	 * checked against its argument types and a warning is logged if they do
+	 * not fit. If the match function is an {@link ArgumentPreparingFunction}
+	 * the value is prepared as its first argument (see
+	 * {@link AttributeValueType#prepare(ArgumentPreparingFunction, int)}).
+	 * 
+	 * @throws SyntaxException
+	 *             If an {@link AttributeValueType} cannot be converted.
+	 */
+	public void compile() throws SyntaxException {
+		if (subjects != null) {
+			for (SubjectType subject : subjects.getSubjects()) {
+				compile(subject.getSubjectMatches());
+			}
+		}
+		if (resources != null) {
+			for (ResourceType resource : resources.getResources()) {
+				compile(resource.getResourceMatches());
+			}
+		}
+		if (actions != null) {
+			for (ActionType action : actions.getActions()) {
+				compile(action.getActionMatches());
+			}
+		}
+		if (environments != null) {
+			for (EnvironmentType environment : environments.getEnvironments()) {
+				compile(environment.getEnvironmentMatches());
+			}
+		}
+	}
+
+	/**
+	 * Compiles the {@link AttributeValueType}s of the given {@link Match}es.
+	 * 
+	 * @param matches
+	 *            The {@link Match}es to compile.
+	 * @throws SyntaxException
+	 *             If an {@link AttributeValueType} cannot be converted.
+	 */
+	private static void compile(List<? extends Match> matches) throws SyntaxException {
+		for (Match match : matches) {
+			if (match.getAttributeValue() != null) {
+				match.getAttributeValue().compile();
+				checkArgumentTypes(match);
+				if (match.getMatchFunction() instanceof ArgumentPreparingFunction) {
+					match.getAttributeValue().prepare((ArgumentPreparingFunction) match.getMatchFunction(), 0);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Logs a warning if the compiled value or the data type of the designator
+	 * of the given {@link Match} does not fit its match function.
+	 */
+	private static void checkArgumentTypes(Match match) {
+		if (!(match.getMatchFunction() instanceof BinaryPredicate)) {
+			return;
+		}
+		Class<?>[] argumentTypes = TypedFunctions.getArgumentTypes(match.getMatchFunction());
+		Object value = match.getAttributeValue().getCompiledContent();
+		if (value != null && !argumentTypes[0].isAssignableFrom(value.getClass())) {
+			LOGGER.warn("The value of the match with the function {} is of the type {} instead of {}.",
+					match.getMatchFunction(), value.getClass().getName(), argumentTypes[0].getName());
+		}
+		AttributeDesignatorType designator = match.getAttributeDesignator();
+		if (designator != null && designator.getDataType() != null
+				&& !argumentTypes[1].isAssignableFrom(TypedFunctions.getValueType(designator.getDataType()))) {
+			LOGGER.warn("The designator of the match with the function {} is of the type {} instead of {}.",
+					match.getMatchFunction(), designator.getDataType(), argumentTypes[1].getName());
+		}
+	}
 }
\ No newline at end of file
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.herasaf.xacml.core.simplePDP;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+import org.herasaf.xacml.core.api.PolicyRetrievalPoint;
+import org.herasaf.xacml.core.context.EvaluationContext;
+import org.herasaf.xacml.core.context.RequestAttributeIndex;
+import org.herasaf.xacml.core.context.impl.AttributeType;
+import org.herasaf.xacml.core.context.impl.RequestType;
+import org.herasaf.xacml.core.policy.AttributeDesignatorCollector;
+import org.herasaf.xacml.core.policy.Evaluatable;
+import org.herasaf.xacml.core.policy.impl.AttributeDesignatorType;
+import org.herasaf.xacml.core.policy.impl.EnvironmentAttributeDesignatorType;
+
+/**
+ * <p>
+ * Fetches the attributes that the applicable {@link Evaluatable}s of a request
+ * may need from the PIP before the evaluation starts. The attributes that are
+ * missing in the request are fetched with one call of a
+ * {@link org.herasaf.xacml.core.api.BulkPIP} or an
+ * {@link org.herasaf.xacml.core.api.AsyncPIP}, or concurrently, instead of one
+ * after the other when the designators are evaluated.
+ * </p>
+ * <p>
+ * The designators of an {@link Evaluatable} (see
+ * {@link AttributeDesignatorCollector}) are collected once per deployment (the
+ * snapshot of the policy repository), because references are resolved through
+ * the deployment. Afterwards they are read without locking.
+ * </p>
+ * <p>
+ * By default only the designators of the targets are prefetched. The
+ * designators of conditions and variable definitions are prefetched as well
+ * if this is configured. This saves the round trips to the PIP during the
+ * evaluation of the conditions, but fetches attributes that the evaluation
+ * may not need, e.g. the operands of an <code>and</code> or <code>or</code>
+ * that are skipped because the result is already known, or the attributes of
+ * rules that are not applicable.
+ * </p>
+ */
+final class AttributePrefetcher {
+	private final Executor executor;
+	private final boolean conditionAttributes;
+	private volatile Deployment deployment = new Deployment(null);
+
+	/**
+	 * Creates a new {@link AttributePrefetcher}.
+	 *
+	 * @param executor
+	 *            The {@link Executor} that runs the calls of the PIP, may be
+	 *            <code>null</code> if the PIP is a
+	 *            {@link org.herasaf.xacml.core.api.BulkPIP} or an
+	 *            {@link org.herasaf.xacml.core.api.AsyncPIP}.
+	 * @param conditionAttributes
+	 *            True if the designators of the conditions and variable
+	 *            definitions are prefetched as well, false if only the
+	 *            designators of the targets are prefetched.
+	 */
+	AttributePrefetcher(Executor executor, boolean conditionAttributes) {
+		this.executor = executor;
+		this.conditionAttributes = conditionAttributes;
+	}
+
+	/**
+	 * Fetches the attributes of the given {@link Evaluatable}s that are
+	 * missing in the request into the {@link EvaluationContext}.
+	 *
+	 * @param request
+	 *            The evaluated request.
+	 * @param evaluatables
+	 *            The applicable {@link Evaluatable}s of the request.
+	 * @param deployment
+	 *            The deployment the request is evaluated against.
+	 * @param evaluationContext
+	 *            The {@link EvaluationContext} of the evaluation. It must
+	 *            contain the {@link RequestAttributeIndex} of the request.
+	 */
+	void prefetch(RequestType request, List<Evaluatable> evaluatables, PolicyRetrievalPoint deployment,
+			EvaluationContext evaluationContext) {
+		List<AttributeDesignatorType> missing = getMissingDesignators(evaluatables, deployment, evaluationContext);
+		if (!missing.isEmpty()) {
+			evaluationContext.prefetchAttributes(request, missing, executor);
+		}
+	}
+
+	/**
+	 * Fetches the attributes of the given {@link Evaluatable}s that are
+	 * missing in the request into the {@link EvaluationContext} without
+	 * blocking the calling thread, if the PIP is an
+	 * {@link org.herasaf.xacml.core.api.AsyncPIP}.
+	 *
+	 * @param request
+	 *            The evaluated request.
+	 * @param evaluatables
+	 *            The applicable {@link Evaluatable}s of the request.
+	 * @param deployment
+	 *            The deployment the request is evaluated against.
+	 * @param evaluationContext
+	 *            The {@link EvaluationContext} of the evaluation. It must
+	 *            contain the {@link RequestAttributeIndex} of the request.
+	 * @return The {@link CompletionStage} that is completed when the attributes
+	 *         are fetched.
+	 */
+	CompletionStage<Void> prefetchAsync(RequestType request, List<Evaluatable> evaluatables,
+			PolicyRetrievalPoint deployment, EvaluationContext evaluationContext) {
+		List<AttributeDesignatorType> missing = getMissingDesignators(evaluatables, deployment, evaluationContext);
+		if (missing.isEmpty()) {
+			return CompletableFuture.completedFuture(null);
+		}
+		return evaluationContext.prefetchAttributesAsync(request, missing, executor);
+	}
+
+	/**
+	 * Returns the designators of the given {@link Evaluatable}s whose
+	 * attributes are not contained in the request. The current time is
+	 * supplied by the PDP and is therefore never missing.
+	 */
+	private List<AttributeDesignatorType> getMissingDesignators(List<Evaluatable> evaluatables,
+			PolicyRetrievalPoint deployment, EvaluationContext evaluationContext) {
+		List<AttributeDesignatorType> missing = new ArrayList<AttributeDesignatorType>();
+		if (evaluationContext.getPIP() == null) {
+			return missing;
+		}
+		RequestAttributeIndex index = evaluationContext.getRequestAttributeIndex();
+		Deployment current = getDeployment(deployment);
+		for (Evaluatable evaluatable : evaluatables) {
+			for (AttributeDesignatorType designator : current.getDesignators(evaluatable)) {
+				if (designator instanceof EnvironmentAttributeDesignatorType
+						&& ((EnvironmentAttributeDesignatorType) designator).isCurrentTime()) {
+					continue;
+				}
+				List<AttributeType> attributes = index.getAttributes(designator);
+				if (attributes != null && attributes.isEmpty()) {
+					missing.add(designator);
+				}
+			}
+		}
+		return missing;
+	}
+
+	/**
+	 * Returns the {@link Deployment} of the given deployment. The designators
+	 * of the previous deployment are discarded if a new deployment is seen.
+	 */
+	private Deployment getDeployment(PolicyRetrievalPoint retrievalPoint) {
+		Deployment current = this.deployment;
+		if (current.retrievalPoint == retrievalPoint) {
+			return current;
+		}
+		synchronized (this) {
+			if (this.deployment.retrievalPoint != retrievalPoint) {
+				this.deployment = new Deployment(retrievalPoint);
+			}
+			return this.deployment;
+		}
+	}
+
+	/**
+	 * A deployment together with the designators of its {@link Evaluatable}s.
+	 */
+	private final class Deployment {
+		private final PolicyRetrievalPoint retrievalPoint;
+		private final ConcurrentHashMap<Evaluatable, List<AttributeDesignatorType>> designators = new ConcurrentHashMap<Evaluatable, List<AttributeDesignatorType>>();
+
+		private Deployment(PolicyRetrievalPoint retrievalPoint) {
+			this.retrievalPoint = retrievalPoint;
+		}
+
+		/**
+		 * Returns the designators of the given {@link Evaluatable}. They are
+		 * collected on the first call.
+		 */
+		private List<AttributeDesignatorType> getDesignators(Evaluatable evaluatable) {
+			List<AttributeDesignatorType> result = designators.get(evaluatable);
+			if (result == null) {
+				if (conditionAttributes) {
+					result = AttributeDesignatorCollector.collect(evaluatable, retrievalPoint);
+				} else {
+					result = AttributeDesignatorCollector.collectTargets(evaluatable, retrievalPoint);
+				}
+				designators.put(evaluatable, result);
+			}
+			return result;
+		}
+	}
+}
@@ -0,0 +1,327 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.herasaf.xacml.core.simplePDP;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.herasaf.xacml.core.PolicyRepositoryException;
+import org.herasaf.xacml.core.SyntaxException;
+import org.herasaf.xacml.core.api.OrderedPolicyRepository;
+import org.herasaf.xacml.core.api.PolicyRepository;
+import org.herasaf.xacml.core.api.PolicyRetrievalPoint;
+import org.herasaf.xacml.core.api.SnapshotPolicyRetrievalPoint;
+import org.herasaf.xacml.core.api.UnorderedPolicyRepository;
+import org.herasaf.xacml.core.context.impl.RequestType;
+import org.herasaf.xacml.core.policy.Evaluatable;
+import org.herasaf.xacml.core.policy.EvaluatableID;
+import org.herasaf.xacml.core.policy.PolicyCompiler;
+import org.herasaf.xacml.core.policy.impl.IdReferenceType;
+import org.herasaf.xacml.core.policy.impl.PolicySetType;
+import org.herasaf.xacml.core.policy.impl.PolicyType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This {@link PolicyRepository} may be used while requests are evaluated
+ * concurrently. Each (un-)deployment creates a new immutable snapshot of the
+ * deployment and publishes it atomically. Reading the deployment never blocks;
+ * (un-)deployments are serialized.<br />
+ * <br />
+ * The {@link SimplePDP} evaluates a request against the snapshot that is
+ * current when the evaluation starts (see {@link #getSnapshot()}). The
+ * deployments of collections of {@link Evaluatable}s are atomic: either all
+ * or none of the {@link Evaluatable}s are visible.<br />
+ * <br />
+ * The repository is ordered and unordered. The unordered deployment appends
+ * the {@link Evaluatable}s at the end. Like the
+ * {@link MapBasedSimplePolicyRepository} it only supports local references
+ * and does neither persist nor index the {@link Evaluatable}s. Deployed
+ * {@link Evaluatable}s must not be modified.
+ */
+public class CopyOnWritePolicyRepository implements UnorderedPolicyRepository, OrderedPolicyRepository,
+		SnapshotPolicyRetrievalPoint {
+	private static final Logger logger = LoggerFactory.getLogger(CopyOnWritePolicyRepository.class);
+	private final AtomicReference<Snapshot> snapshot;
+	private final Object writeLock;
+
+	/**
+	 * Initializes an empty policy repository.
+	 */
+	public CopyOnWritePolicyRepository() {
+		snapshot = new AtomicReference<Snapshot>(new Snapshot(new ArrayList<Evaluatable>(),
+				new HashMap<EvaluatableID, List<Evaluatable>>(), new HashMap<EvaluatableID, List<EvaluatableID>>()));
+		writeLock = new Object();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public PolicyRetrievalPoint getSnapshot() {
+		return snapshot.get();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void deploy(Evaluatable evaluatable) {
+		deploy(Collections.singletonList(evaluatable));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void deploy(Collection<Evaluatable> evaluatables) {
+		synchronized (writeLock) {
+			Deployment deployment = new Deployment(snapshot.get());
+			for (Evaluatable evaluatable : evaluatables) {
+				deployment.deploy(evaluatable, deployment.rootEvaluatables.size());
+			}
+			snapshot.set(deployment.toSnapshot());
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void deploy(Evaluatable evaluatable, int position) {
+		synchronized (writeLock) {
+			Deployment deployment = new Deployment(snapshot.get());
+			deployment.deploy(evaluatable, position);
+			snapshot.set(deployment.toSnapshot());
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void deploy(Map<Integer, Evaluatable> evaluatables) {
+		synchronized (writeLock) {
+			Deployment deployment = new Deployment(snapshot.get());
+			for (Integer key : evaluatables.keySet()) {
+				deployment.deploy(evaluatables.get(key), key);
+			}
+			snapshot.set(deployment.toSnapshot());
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void undeploy(EvaluatableID id) {
+		undeploy(Collections.singletonList(id));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void undeploy(Collection<EvaluatableID> ids) {
+		synchronized (writeLock) {
+			Deployment deployment = new Deployment(snapshot.get());
+			for (EvaluatableID id : ids) {
+				deployment.undeploy(id);
+			}
+			snapshot.set(deployment.toSnapshot());
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<Evaluatable> getDeployment() {
+		return snapshot.get().rootEvaluatables;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Evaluatable getEvaluatable(EvaluatableID id) {
+		return snapshot.get().getEvaluatable(id);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * All root {@link Evaluatable}s of the current snapshot are returned.
+	 */
+	@Override
+	public List<Evaluatable> getEvaluatables(RequestType request) {
+		return snapshot.get().getEvaluatables(request);
+	}
+
+	/**
+	 * An immutable deployment.
+	 */
+	private static final class Snapshot implements PolicyRetrievalPoint {
+		private final List<Evaluatable> rootEvaluatables;
+		// There can be multiple evaluatables for an id in case of references.
+		// A reference has the same id as the evaluatable itself.
+		private final Map<EvaluatableID, List<Evaluatable>> individualEvaluatables;
+		// Tells which ids are under which root.
+		private final Map<EvaluatableID, List<EvaluatableID>> rootEvaluatableMapping;
+
+		private Snapshot(List<Evaluatable> rootEvaluatables,
+				Map<EvaluatableID, List<Evaluatable>> individualEvaluatables,
+				Map<EvaluatableID, List<EvaluatableID>> rootEvaluatableMapping) {
+			this.rootEvaluatables = Collections.unmodifiableList(rootEvaluatables);
+			this.individualEvaluatables = Collections.unmodifiableMap(individualEvaluatables);
+			this.rootEvaluatableMapping = Collections.unmodifiableMap(rootEvaluatableMapping);
+		}
+
+		@Override
+		public Evaluatable getEvaluatable(EvaluatableID id) {
+			List<Evaluatable> evals = individualEvaluatables.get(id);
+			if (evals != null) {
+				for (Evaluatable eval : evals) {
+					if (eval instanceof PolicyType || eval instanceof PolicySetType) {
+						return eval;
+					}
+				}
+			}
+			throw new PolicyRepositoryException("No Evaluatable with ID " + id.toString() + " found.");
+		}
+
+		@Override
+		public List<Evaluatable> getEvaluatables(RequestType request) {
+			return rootEvaluatables;
+		}
+	}
+
+	/**
+	 * The mutable copy of a {@link Snapshot} that is modified by an
+	 * (un-)deployment. The lists of the copied snapshot are not modified, they
+	 * are only replaced.
+	 */
+	private static final class Deployment {
+		private final List<Evaluatable> rootEvaluatables;
+		private final Map<EvaluatableID, List<Evaluatable>> individualEvaluatables;
+		private final Map<EvaluatableID, List<EvaluatableID>> rootEvaluatableMapping;
+
+		private Deployment(Snapshot snapshot) {
+			rootEvaluatables = new ArrayList<Evaluatable>(snapshot.rootEvaluatables);
+			individualEvaluatables = new HashMap<EvaluatableID, List<Evaluatable>>(snapshot.individualEvaluatables);
+			rootEvaluatableMapping = new HashMap<EvaluatableID, List<EvaluatableID>>(
+					snapshot.rootEvaluatableMapping);
+		}
+
+		private void deploy(Evaluatable evaluatable, int position) {
+			Map<EvaluatableID, List<Evaluatable>> newIndividualEvaluatables = new HashMap<EvaluatableID, List<Evaluatable>>();
+			splitIntoIndividuals(evaluatable, newIndividualEvaluatables);
+
+			checkReferenceConsistency(newIndividualEvaluatables);
+			for (EvaluatableID id : newIndividualEvaluatables.keySet()) {
+				if (individualEvaluatables.containsKey(id)) {
+					throw new PolicyRepositoryException("The ID must be unique over all PolicySets and Policies.");
+				}
+			}
+			try {
+				PolicyCompiler.compile(evaluatable);
+			} catch (SyntaxException e) {
+				throw new PolicyRepositoryException("The Evaluatable cannot be compiled.", e);
+			}
+
+			rootEvaluatables.add(position, evaluatable);
+			for (Map.Entry<EvaluatableID, List<Evaluatable>> entry : newIndividualEvaluatables.entrySet()) {
+				individualEvaluatables.put(entry.getKey(), Collections.unmodifiableList(entry.getValue()));
+			}
+			rootEvaluatableMapping.put(evaluatable.getId(),
+					Collections.unmodifiableList(new ArrayList<EvaluatableID>(newIndividualEvaluatables.keySet())));
+		}
+
+		private void undeploy(EvaluatableID id) {
+			boolean foundAtLeastOneMatchingEvaluatable = false;
+			for (int i = rootEvaluatables.size() - 1; i >= 0; i--) {
+				if (rootEvaluatables.get(i).getId().equals(id)) {
+					foundAtLeastOneMatchingEvaluatable = true;
+					rootEvaluatables.remove(i);
+				}
+			}
+			if (!foundAtLeastOneMatchingEvaluatable) {
+				throw new PolicyRepositoryException("No root policy with id: " + id.toString());
+			}
+			List<EvaluatableID> ids = rootEvaluatableMapping.remove(id);
+			if (ids != null) {
+				for (EvaluatableID evalId : ids) {
+					individualEvaluatables.remove(evalId);
+				}
+			}
+		}
+
+		private Snapshot toSnapshot() {
+			return new Snapshot(rootEvaluatables, individualEvaluatables, rootEvaluatableMapping);
+		}
+
+		/**
+		 * Adds the given {@link Evaluatable} and all contained
+		 * {@link Evaluatable}s to the given map. The map contains the
+		 * {@link Evaluatable}s and the references by their id.
+		 */
+		private static void splitIntoIndividuals(Evaluatable evaluatable,
+				Map<EvaluatableID, List<Evaluatable>> individualEvaluatables) {
+			List<Evaluatable> evals = individualEvaluatables.get(evaluatable.getId());
+			if (evals == null) {
+				evals = new ArrayList<Evaluatable>();
+				individualEvaluatables.put(evaluatable.getId(), evals);
+			}
+			evals.add(evaluatable);
+
+			if (evaluatable instanceof PolicySetType) {
+				for (Evaluatable eval : ((PolicySetType) evaluatable).getUnorderedEvaluatables(null)) {
+					splitIntoIndividuals(eval, individualEvaluatables);
+				}
+			}
+		}
+
+		/**
+		 * Checks that the ids are unique and that references are only local
+		 * references.
+		 */
+		private static void checkReferenceConsistency(Map<EvaluatableID, List<Evaluatable>> individualEvaluatables) {
+			for (List<Evaluatable> evals : individualEvaluatables.values()) {
+				if (evals.size() == 1 && evals.get(0) instanceof IdReferenceType) {
+					logger.error("This implementation of the PolicyRepository interface does not support remote references. Further a local reference must be within the same PolicySet.");
+					throw new PolicyRepositoryException("The PolicySet is not consistent.");
+				}
+				int evaluatableCount = 0;
+				for (Evaluatable eval : evals) {
+					if (!(eval instanceof IdReferenceType)) {
+						evaluatableCount++;
+					}
+				}
+				if (evaluatableCount > 1) {
+					logger.error("The ID must be unique over all PolicySets and Policies.");
+					throw new PolicyRepositoryException("The PolicySet is not consistent.");
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,303 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.herasaf.xacml.core.simplePDP;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.herasaf.xacml.core.api.PolicyRetrievalPoint;
+import org.herasaf.xacml.core.context.EvaluationContext;
+import org.herasaf.xacml.core.context.RequestSectionKeys;
+import org.herasaf.xacml.core.context.StatusCode;
+import org.herasaf.xacml.core.context.impl.AttributeType;
+import org.herasaf.xacml.core.context.impl.DecisionType;
+import org.herasaf.xacml.core.context.impl.MissingAttributeDetailType;
+import org.herasaf.xacml.core.context.impl.RequestType;
+import org.herasaf.xacml.core.context.impl.ResourceType;
+import org.herasaf.xacml.core.policy.AttributeDesignatorCollector;
+import org.herasaf.xacml.core.policy.Evaluatable;
+import org.herasaf.xacml.core.policy.impl.AttributeDesignatorType;
+import org.herasaf.xacml.core.policy.impl.EnvironmentAttributeDesignatorType;
+import org.herasaf.xacml.core.policy.impl.ObligationType;
+import org.herasaf.xacml.core.utils.ConcurrentLruCache;
+
+/**
+ * <p>
+ * A bounded cache of the decisions of the {@link SimplePDP}. The key of a
+ * decision is a canonical form of the request: the attributes of each category
+ * are sorted, so that two requests that contain the same attributes in a
+ * different order share the same key. Requests containing resource content or
+ * attribute values that are not plain text are not cached.
+ * </p>
+ * <p>
+ * Each entry belongs to the deployment (the snapshot of the policy repository)
+ * it was evaluated against. An entry is only returned for a request that is
+ * evaluated against the same deployment. If a new deployment is seen, all
+ * entries are discarded. The least recently used entries are evicted if the
+ * cache is full (see {@link ConcurrentLruCache}) and an entry expires after the
+ * configured time to live. An entry only holds an immutable copy of the
+ * result: the decision, the status code, the missing attributes and the
+ * obligations.
+ * </p>
+ * <p>
+ * The current-time, current-date and current-dateTime environment attributes
+ * are not part of the key. Therefore a decision is only cached if none of the
+ * applicable {@link Evaluatable}s refers to these attributes.
+ * </p>
+ */
+final class DecisionCache {
+	private static final Set<String> CURRENT_TIME_ATTRIBUTE_IDS = new HashSet<String>(Arrays.asList(
+			"urn:oasis:names:tc:xacml:1.0:environment:current-time",
+			"urn:oasis:names:tc:xacml:1.0:environment:current-date",
+			"urn:oasis:names:tc:xacml:1.0:environment:current-dateTime"));
+
+	private final long timeToLive;
+	private final ConcurrentLruCache<String, CachedDecision> decisions;
+	private volatile Deployment deployment = new Deployment(null);
+
+	/**
+	 * Creates a new {@link DecisionCache}.
+	 *
+	 * @param maximumSize
+	 *            The maximum number of cached decisions.
+	 * @param timeToLive
+	 *            The time in milliseconds a decision is cached. If it is zero
+	 *            or negative the decisions do not expire.
+	 */
+	DecisionCache(int maximumSize, long timeToLive) {
+		this.timeToLive = timeToLive;
+		this.decisions = new ConcurrentLruCache<String, CachedDecision>(maximumSize);
+	}
+
+	/**
+	 * Returns the cached decision of the given key.
+	 *
+	 * @param key
+	 *            The key of the request (see {@link #createKey(RequestType)}).
+	 * @param deployment
+	 *            The deployment the request is evaluated against.
+	 * @return The cached decision or <code>null</code> if there is none.
+	 */
+	CachedDecision get(String key, PolicyRetrievalPoint deployment) {
+		Deployment current = this.deployment;
+		if (current.retrievalPoint != deployment) {
+			switchDeployment(current, deployment);
+			return null;
+		}
+		CachedDecision decision = decisions.get(key);
+		if (decision == null || decision.deployment != current) {
+			return null;
+		}
+		if (decision.isExpired()) {
+			decisions.remove(key, decision);
+			return null;
+		}
+		return decision;
+	}
+
+	/**
+	 * Caches the decision of the given key. The decision is not cached if the
+	 * deployment changed in the meantime or if one of the applicable
+	 * {@link Evaluatable}s refers to the current time.
+	 *
+	 * @param key
+	 *            The key of the request (see {@link #createKey(RequestType)}).
+	 * @param deployment
+	 *            The deployment the request was evaluated against.
+	 * @param evaluatables
+	 *            The applicable {@link Evaluatable}s of the request.
+	 * @param decision
+	 *            The decision.
+	 * @param evaluationContext
+	 *            The {@link EvaluationContext} of the evaluation. The status,
+	 *            the missing attributes and the obligations are copied from it.
+	 */
+	void put(String key, PolicyRetrievalPoint deployment, List<Evaluatable> evaluatables,
+			DecisionType decision, EvaluationContext evaluationContext) {
+		Deployment current = this.deployment;
+		if (current.retrievalPoint != deployment) {
+			return;
+		}
+		for (Evaluatable evaluatable : evaluatables) {
+			if (current.dependsOnCurrentTime(evaluatable)) {
+				return;
+			}
+		}
+		long expiration = timeToLive > 0 ? System.currentTimeMillis() + timeToLive : Long.MAX_VALUE;
+		decisions.put(key, new CachedDecision(current, decision, evaluationContext, expiration));
+	}
+
+	/**
+	 * Returns the number of cached decisions.
+	 *
+	 * @return The number of cached decisions.
+	 */
+	int size() {
+		return decisions.size();
+	}
+
+	/**
+	 * Discards all cached decisions and remembers the given deployment as the
+	 * current one, unless another thread switched the deployment in the
+	 * meantime. Entries that are still put for the previous deployment are
+	 * never returned, because they refer to another {@link Deployment}.
+	 */
+	private synchronized void switchDeployment(Deployment previous, PolicyRetrievalPoint retrievalPoint) {
+		if (this.deployment == previous) {
+			this.deployment = new Deployment(retrievalPoint);
+			decisions.clear();
+		}
+	}
+
+	/**
+	 * A deployment the decisions are cached for, together with the
+	 * dependencies of its {@link Evaluatable}s on the current time.
+	 */
+	private static final class Deployment {
+		private final PolicyRetrievalPoint retrievalPoint;
+		private final ConcurrentHashMap<Evaluatable, Boolean> currentTimeDependencies = new ConcurrentHashMap<Evaluatable, Boolean>();
+
+		private Deployment(PolicyRetrievalPoint retrievalPoint) {
+			this.retrievalPoint = retrievalPoint;
+		}
+
+		/**
+		 * Tells whether the given {@link Evaluatable} or one of the
+		 * {@link Evaluatable}s it contains or references refers to the
+		 * current-time, current-date or current-dateTime environment
+		 * attribute.
+		 */
+		private boolean dependsOnCurrentTime(Evaluatable evaluatable) {
+			Boolean dependency = currentTimeDependencies.get(evaluatable);
+			if (dependency == null) {
+				dependency = Boolean.FALSE;
+				for (AttributeDesignatorType designator : AttributeDesignatorCollector.collect(evaluatable,
+						retrievalPoint)) {
+					if (designator instanceof EnvironmentAttributeDesignatorType
+							&& CURRENT_TIME_ATTRIBUTE_IDS.contains(designator.getAttributeId())) {
+						dependency = Boolean.TRUE;
+						break;
+					}
+				}
+				currentTimeDependencies.put(evaluatable, dependency);
+			}
+			return dependency;
+		}
+	}
+
+	/**
+	 * Creates the canonical key of the given request.
+	 *
+	 * @param request
+	 *            The request.
+	 * @return The key or <code>null</code> if the request cannot be cached.
+	 */
+	static String createKey(RequestType request) {
+		StringBuilder key = new StringBuilder();
+		String subjectsKey = RequestSectionKeys.createSubjectsKey(request.getSubjects());
+		if (subjectsKey == null) {
+			return null;
+		}
+		key.append('S').append(subjectsKey);
+		for (ResourceType resource : request.getResources()) {
+			if (resource.getResourceContent() != null) {
+				return null;
+			}
+			if (!appendAttributes(key.append('R'), resource.getAttributes())) {
+				return null;
+			}
+		}
+		if (request.getAction() != null && !appendAttributes(key.append('A'), request.getAction().getAttributes())) {
+			return null;
+		}
+		if (request.getEnvironment() != null) {
+			List<AttributeType> environmentAttributes = new ArrayList<AttributeType>();
+			for (AttributeType attribute : request.getEnvironment().getAttributes()) {
+				if (!CURRENT_TIME_ATTRIBUTE_IDS.contains(attribute.getAttributeId())) {
+					environmentAttributes.add(attribute);
+				}
+			}
+			if (!appendAttributes(key.append('E'), environmentAttributes)) {
+				return null;
+			}
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Appends the canonical form of the given attributes.
+	 *
+	 * @return False if an attribute value is not plain text.
+	 */
+	private static boolean appendAttributes(StringBuilder key, List<AttributeType> attributes) {
+		String attributesKey = RequestSectionKeys.createAttributesKey(attributes);
+		if (attributesKey == null) {
+			return false;
+		}
+		key.append(attributesKey);
+		return true;
+	}
+
+	/**
+	 * An immutable copy of a decision together with its status code, missing
+	 * attributes and obligations.
+	 */
+	static final class CachedDecision {
+		private final Deployment deployment;
+		private final DecisionType decision;
+		private final StatusCode statusCode;
+		private final List<MissingAttributeDetailType> missingAttributes;
+		private final List<ObligationType> obligations;
+		private final long expiration;
+
+		private CachedDecision(Deployment deployment, DecisionType decision, EvaluationContext evaluationContext,
+				long expiration) {
+			this.deployment = deployment;
+			this.decision = decision;
+			this.statusCode = evaluationContext.getStatusCode();
+			this.missingAttributes = Collections.unmodifiableList(new ArrayList<MissingAttributeDetailType>(
+					evaluationContext.getMissingAttributes()));
+			this.obligations = Collections.unmodifiableList(new ArrayList<ObligationType>(evaluationContext
+					.getObligations().getObligations()));
+			this.expiration = expiration;
+		}
+
+		DecisionType getDecision() {
+			return decision;
+		}
+
+		/**
+		 * Copies the status code, the missing attributes and the obligations
+		 * of the decision into the given new {@link EvaluationContext}.
+		 */
+		void copyTo(EvaluationContext evaluationContext) {
+			evaluationContext.updateStatusCode(statusCode);
+			evaluationContext.setMissingAttributes(new ArrayList<MissingAttributeDetailType>(missingAttributes));
+			evaluationContext.getObligations().getObligations().addAll(obligations);
+		}
+
+		private boolean isExpired() {
+			return System.currentTimeMillis() >= expiration;
+		}
+	}
+}
@@ -17,6 +17,7 @@
 package org.herasaf.xacml.core.simplePDP;
 
 import org.herasaf.xacml.core.PolicyRepositoryException;
+import org.herasaf.xacml.core.SyntaxException;
 import org.herasaf.xacml.core.api.DeploymentModification;
 import org.herasaf.xacml.core.api.PolicyRepository;
 import org.herasaf.xacml.core.api.PolicyRetrievalPoint;
@@ -24,6 +25,7 @@ import org.herasaf.xacml.core.api.UnorderedPolicyRepository;
 import org.herasaf.xacml.core.context.impl.RequestType;
 import org.herasaf.xacml.core.policy.Evaluatable;
 import org.herasaf.xacml.core.policy.EvaluatableID;
+import org.herasaf.xacml.core.policy.PolicyCompiler;
 import org.herasaf.xacml.core.policy.impl.IdReferenceType;
 import org.herasaf.xacml.core.policy.impl.PolicySetType;
 import org.herasaf.xacml.core.policy.impl.PolicyType;
@@ -140,6 +142,11 @@ public class MapBasedSimplePolicyRepository implements
 				evaluatable, evaluatable.getId());
 
 		checkEvaluatable(newIndividualEvaluatables);
+		try {
+			PolicyCompiler.compile(evaluatable);
+		} catch (SyntaxException e) {
+			throw new PolicyRepositoryException("The Evaluatable cannot be compiled.", e);
+		}
 
 		individualEvaluatables.putAll(newIndividualEvaluatables);
 		rootEvaluatables.add(evaluatable);
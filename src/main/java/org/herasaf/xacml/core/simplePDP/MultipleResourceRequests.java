@@ -0,0 +1,129 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.herasaf.xacml.core.simplePDP;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.herasaf.xacml.core.context.impl.AttributeType;
+import org.herasaf.xacml.core.context.impl.AttributeValueType;
+import org.herasaf.xacml.core.context.impl.RequestType;
+import org.herasaf.xacml.core.context.impl.ResourceType;
+import org.herasaf.xacml.core.context.impl.ResponseType;
+import org.herasaf.xacml.core.context.impl.ResultType;
+
+/**
+ * <p>
+ * Splits a request for multiple resources into individual requests and
+ * combines their responses as described in section 2.3 (multiple
+ * <code>&lt;Resource&gt;</code> elements) of the multiple resource profile of
+ * XACML v2.0 (OASIS Standard, 1 February 2005).
+ * </p>
+ * <p>
+ * Each individual request contains the subjects, the action and the
+ * environment of the original request and one of its resources. The
+ * individual requests share these elements with the original request, which
+ * must therefore not be modified during the evaluation. Requests that ask for a
+ * hierarchy of resources (see section 4 of the profile) are not split, because
+ * the PDP does not know the hierarchy.
+ * </p>
+ */
+final class MultipleResourceRequests {
+	private static final String RESOURCE_ID = "urn:oasis:names:tc:xacml:1.0:resource:resource-id";
+	private static final String RESOURCE_SCOPE = "urn:oasis:names:tc:xacml:2.0:resource:scope";
+
+	private MultipleResourceRequests() {
+	}
+
+	/**
+	 * Splits the given request into one request per resource. The individual
+	 * requests are evaluated as a batch and therefore at the same time.
+	 *
+	 * @param request
+	 *            The request to split.
+	 * @return The individual requests in the order of the resources or
+	 *         <code>null</code> if the request does not contain multiple
+	 *         <code>&lt;Resource&gt;</code> elements or one of them has a
+	 *         scope.
+	 */
+	static List<RequestType> split(RequestType request) {
+		if (request.getResources().size() <= 1) {
+			return null;
+		}
+		for (ResourceType resource : request.getResources()) {
+			for (AttributeType attribute : resource.getAttributes()) {
+				if (RESOURCE_SCOPE.equals(attribute.getAttributeId())) {
+					return null;
+				}
+			}
+		}
+		List<RequestType> individualRequests = new ArrayList<RequestType>(request.getResources().size());
+		for (ResourceType resource : request.getResources()) {
+			RequestType individualRequest = new RequestType();
+			individualRequest.getSubjects().addAll(request.getSubjects());
+			individualRequest.getResources().add(resource);
+			individualRequest.setAction(request.getAction());
+			individualRequest.setEnvironment(request.getEnvironment());
+			individualRequests.add(individualRequest);
+		}
+		return individualRequests;
+	}
+
+	/**
+	 * Combines the responses of the individual requests into one response.
+	 * The <code>ResourceId</code> of each result is set to the resource-id of
+	 * the resource it belongs to.
+	 *
+	 * @param individualRequests
+	 *            The individual requests created by {@link #split(RequestType)}
+	 *            .
+	 * @param responses
+	 *            The responses of the individual requests in the same order.
+	 * @return The combined response.
+	 */
+	static ResponseType combine(List<RequestType> individualRequests, List<ResponseType> responses) {
+		ResponseType combinedResponse = new ResponseType();
+		for (int i = 0; i < responses.size(); i++) {
+			String resourceId = getResourceId(individualRequests.get(i).getResources().get(0));
+			for (ResultType result : responses.get(i).getResults()) {
+				result.setResourceId(resourceId);
+				combinedResponse.getResults().add(result);
+			}
+		}
+		return combinedResponse;
+	}
+
+	/**
+	 * Returns the value of the resource-id attribute of the given resource.
+	 *
+	 * @return The resource-id or <code>null</code> if the resource has none.
+	 */
+	private static String getResourceId(ResourceType resource) {
+		for (AttributeType attribute : resource.getAttributes()) {
+			if (RESOURCE_ID.equals(attribute.getAttributeId()) && !attribute.getAttributeValues().isEmpty()) {
+				AttributeValueType value = attribute.getAttributeValues().get(0);
+				StringBuilder resourceId = new StringBuilder();
+				for (Object content : value.getContent()) {
+					resourceId.append(content);
+				}
+				return resourceId.toString().trim();
+			}
+		}
+		return null;
+	}
+}
@@ -19,9 +19,12 @@ package org.herasaf.xacml.core.simplePDP;
 import java.util.List;
 import java.util.Map;
 
+import org.herasaf.xacml.core.PolicyRepositoryException;
+import org.herasaf.xacml.core.SyntaxException;
 import org.herasaf.xacml.core.api.OrderedPolicyRepository;
 import org.herasaf.xacml.core.policy.Evaluatable;
 import org.herasaf.xacml.core.policy.EvaluatableID;
+import org.herasaf.xacml.core.policy.PolicyCompiler;
 
 /**
  * This is a very simple implementation of the
@@ -51,6 +54,11 @@ public class OrderedMapBasedSimplePolicyRepository extends
 				evaluatable, evaluatable.getId());
 
 		checkEvaluatable(newIndividualEvaluatables);
+		try {
+			PolicyCompiler.compile(evaluatable);
+		} catch (SyntaxException e) {
+			throw new PolicyRepositoryException("The Evaluatable cannot be compiled.", e);
+		}
 
 		individualEvaluatables.putAll(newIndividualEvaluatables);
 		rootEvaluatables.add(position, evaluatable);
@@ -18,29 +18,62 @@
 package org.herasaf.xacml.core.simplePDP;
 
 import org.herasaf.xacml.core.InitializationException;
+import org.herasaf.xacml.core.api.AsyncPIP;
+import org.herasaf.xacml.core.api.BulkPIP;
 import org.herasaf.xacml.core.api.OrderedPolicyRepository;
 import org.herasaf.xacml.core.api.PDP;
 import org.herasaf.xacml.core.api.PIP;
 import org.herasaf.xacml.core.api.PolicyRetrievalPoint;
+import org.herasaf.xacml.core.api.SnapshotPolicyRetrievalPoint;
 import org.herasaf.xacml.core.combiningAlgorithm.policy.PolicyCombiningAlgorithm;
 import org.herasaf.xacml.core.combiningAlgorithm.policy.PolicyOrderedCombiningAlgorithm;
 import org.herasaf.xacml.core.combiningAlgorithm.policy.PolicyUnorderedCombiningAlgorithm;
+import org.herasaf.xacml.core.combiningAlgorithm.rule.AbstractRuleCombiningAlgorithm;
+import org.herasaf.xacml.core.combiningAlgorithm.rule.RuleCombiningAlgorithm;
+import org.herasaf.xacml.core.context.BatchCache;
+import org.herasaf.xacml.core.context.Decision;
 import org.herasaf.xacml.core.context.EvaluationContext;
+import org.herasaf.xacml.core.context.RequestAttributeIndex;
 import org.herasaf.xacml.core.context.ResponseMarshaller;
 import org.herasaf.xacml.core.context.StatusCodeComparator;
+import org.herasaf.xacml.core.context.XACMLDefaultStatusCode;
 import org.herasaf.xacml.core.context.impl.AttributeType;
 import org.herasaf.xacml.core.context.impl.DecisionType;
 import org.herasaf.xacml.core.context.impl.RequestType;
 import org.herasaf.xacml.core.context.impl.ResponseType;
+import org.herasaf.xacml.core.converter.DataTypeJAXBTypeAdapter;
+import org.herasaf.xacml.core.converter.FunctionsJAXBTypeAdapter;
+import org.herasaf.xacml.core.converter.PolicyCombiningAlgorithmJAXBTypeAdapter;
+import org.herasaf.xacml.core.converter.RuleCombiningAlgorithmJAXBTypeAdapter;
+import org.herasaf.xacml.core.dataTypeAttribute.DataTypeAttribute;
+import org.herasaf.xacml.core.dataTypeAttribute.impl.DateDataTypeAttribute;
+import org.herasaf.xacml.core.dataTypeAttribute.impl.DateTimeDataTypeAttribute;
+import org.herasaf.xacml.core.dataTypeAttribute.impl.TimeDataTypeAttribute;
+import org.herasaf.xacml.core.policy.Evaluatable;
+import org.herasaf.xacml.core.simplePDP.initializers.jaxb.JaxbContextInitializer;
 import org.herasaf.xacml.core.targetMatcher.TargetMatcher;
 import org.herasaf.xacml.core.types.Date;
 import org.herasaf.xacml.core.types.DateTime;
 import org.herasaf.xacml.core.types.Time;
+import org.herasaf.xacml.core.utils.XACMLMarshaller;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
+import java.time.Clock;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import jakarta.xml.bind.annotation.adapters.XmlAdapter;
 
 /**
  * This class is a <i>simple</i> (easy to use) implementation of a {@link PDP}.<br />
@@ -61,6 +94,15 @@ public class SimplePDP implements PDP {
             .getLogger(SimplePDP.class);
     private static final String MDC_REQUEST_TIME = "org:herasaf:request:xacml:evaluation:requesttime";
     private final StatusCodeComparator statusCodeComparator;
+    private final DecisionCache decisionCache;
+    private final AttributePrefetcher attributePrefetcher;
+    private final Executor batchEvaluationExecutor;
+    private final Executor asyncEvaluationExecutor;
+    private final Clock clock;
+    private final boolean zuluUtcRepresentation;
+    private final List<Class<?>> jaxbContexts;
+    private final List<XmlAdapter<?, ?>> typeAdapters;
+    private volatile XACMLMarshaller marshaller;
 
     /**
      * Initializes the PDP with the given {@link SimplePDPConfiguration}.
@@ -101,14 +143,127 @@ public class SimplePDP implements PDP {
             logger.warn("No PIP is set. Attributes that are not present in the request cannot be resolved.");
         }
 
-        // Set whether Zulu representation ('Z') or +00:00 shall be used as UTC
-        // timezone representation.
-        boolean useZuluUtcRepresentation = simplePDPConfiguration
+        int decisionCacheSize = simplePDPConfiguration.getDecisionCacheSize();
+        if (decisionCacheSize <= 0) {
+            this.decisionCache = null;
+        } else if (policyRepository instanceof SnapshotPolicyRetrievalPoint) {
+            this.decisionCache = new DecisionCache(decisionCacheSize,
+                    simplePDPConfiguration.getDecisionCacheTimeToLive());
+        } else {
+            logger.warn("The decision cache is disabled. It requires a policy repository that provides snapshots.");
+            this.decisionCache = null;
+        }
+
+        Executor attributePrefetchExecutor = simplePDPConfiguration
+                .getAttributePrefetchExecutor();
+        // A bulk or asynchronous PIP resolves the missing attributes with one
+        // call, an executor fetches them concurrently.
+        if (attributePrefetchExecutor == null && !(pip instanceof BulkPIP)
+                && !(pip instanceof AsyncPIP)) {
+            this.attributePrefetcher = null;
+        } else if (policyRepository instanceof SnapshotPolicyRetrievalPoint) {
+            this.attributePrefetcher = new AttributePrefetcher(
+                    attributePrefetchExecutor,
+                    simplePDPConfiguration.isPrefetchConditionAttributes());
+        } else {
+            logger.warn("The attribute prefetch is disabled. It requires a policy repository that provides snapshots.");
+            this.attributePrefetcher = null;
+        }
+
+        this.batchEvaluationExecutor = simplePDPConfiguration
+                .getBatchEvaluationExecutor();
+        this.asyncEvaluationExecutor = simplePDPConfiguration
+                .getAsyncEvaluationExecutor();
+        this.clock = simplePDPConfiguration.getClock();
+        this.zuluUtcRepresentation = simplePDPConfiguration
                 .isZuluUtcRepresentation();
-        ZoneId defaultZone = simplePDPConfiguration.getTimeZone();
-        DateTime.configureWith(useZuluUtcRepresentation, defaultZone);
-        Date.configureWith(useZuluUtcRepresentation, defaultZone);
-        Time.useZuluUtcRepresentation(useZuluUtcRepresentation);
+        this.jaxbContexts = Collections.unmodifiableList(new ArrayList<Class<?>>(
+                simplePDPConfiguration.getJaxbContexts()));
+        this.typeAdapters = Collections.unmodifiableList(createTypeAdapters(simplePDPConfiguration));
+
+        // The global PolicyMarshaller and RequestMarshaller use the global
+        // date and time defaults. They are only set on request, because they
+        // apply to all PDPs in the JVM.
+        if (simplePDPConfiguration.isConfigureGlobalDefaults()) {
+            boolean useZuluUtcRepresentation = simplePDPConfiguration
+                    .isZuluUtcRepresentation();
+            ZoneId defaultZone = simplePDPConfiguration.getTimeZone();
+            DateTime.configureWith(useZuluUtcRepresentation, defaultZone);
+            Date.configureWith(useZuluUtcRepresentation, defaultZone);
+            Time.useZuluUtcRepresentation(useZuluUtcRepresentation);
+        }
+    }
+
+    /**
+     * Creates the type adapters of the marshaller of this PDP. They contain
+     * a snapshot of the globally initialized functions, data types and
+     * combining algorithms plus the ones of the configuration. The date and
+     * time data types use the timezone and the UTC representation (Zulu ('Z')
+     * or +00:00) of the configuration.
+     */
+    private static List<XmlAdapter<?, ?>> createTypeAdapters(SimplePDPConfiguration configuration) {
+        boolean useZuluUtcRepresentation = configuration.isZuluUtcRepresentation();
+        ZoneId defaultZone = configuration.getTimeZone();
+
+        Map<String, DataTypeAttribute<?>> dataTypeAttributes = DataTypeJAXBTypeAdapter.getDataTypeAttributes();
+        dataTypeAttributes.put(DateTimeDataTypeAttribute.ID, new DateTimeDataTypeAttribute(defaultZone,
+                useZuluUtcRepresentation));
+        dataTypeAttributes.put(DateDataTypeAttribute.ID, new DateDataTypeAttribute(defaultZone,
+                useZuluUtcRepresentation));
+        dataTypeAttributes.put(TimeDataTypeAttribute.ID, new TimeDataTypeAttribute(useZuluUtcRepresentation));
+        for (DataTypeAttribute<?> dataTypeAttribute : configuration.getDataTypeAttributes()) {
+            dataTypeAttributes.put(dataTypeAttribute.getDatatypeURI(), dataTypeAttribute);
+        }
+
+        Map<String, org.herasaf.xacml.core.function.Function> functions = FunctionsJAXBTypeAdapter.getFunctions();
+        for (org.herasaf.xacml.core.function.Function function : configuration.getFunctions()) {
+            functions.put(function.getFunctionId(), function);
+        }
+
+        Map<String, RuleCombiningAlgorithm> ruleCombiningAlgorithms = RuleCombiningAlgorithmJAXBTypeAdapter
+                .getCombiningAlgorithms();
+        for (AbstractRuleCombiningAlgorithm combiningAlgorithm : configuration.getRuleCombiningAlgorithms()) {
+            ruleCombiningAlgorithms.put(combiningAlgorithm.getCombiningAlgorithmId(), combiningAlgorithm);
+        }
+
+        Map<String, PolicyCombiningAlgorithm> policyCombiningAlgorithms = PolicyCombiningAlgorithmJAXBTypeAdapter
+                .getCombiningAlgorithms();
+        for (PolicyCombiningAlgorithm combiningAlgorithm : configuration.getPolicyCombiningAlgorithms()) {
+            policyCombiningAlgorithms.put(combiningAlgorithm.getCombiningAlgorithmId(), combiningAlgorithm);
+        }
+
+        List<XmlAdapter<?, ?>> typeAdapters = new ArrayList<XmlAdapter<?, ?>>();
+        typeAdapters.add(new DataTypeJAXBTypeAdapter(dataTypeAttributes));
+        typeAdapters.add(new FunctionsJAXBTypeAdapter(functions));
+        typeAdapters.add(new RuleCombiningAlgorithmJAXBTypeAdapter(ruleCombiningAlgorithms));
+        typeAdapters.add(new PolicyCombiningAlgorithmJAXBTypeAdapter(policyCombiningAlgorithms));
+        return typeAdapters;
+    }
+
+    /**
+     * Returns the marshaller of this PDP. In contrast to the global
+     * {@link org.herasaf.xacml.core.policy.PolicyMarshaller},
+     * {@link org.herasaf.xacml.core.context.RequestMarshaller} and
+     * {@link ResponseMarshaller} it uses the JAXB contexts, the timezone, the
+     * UTC representation and the additional functions, data types and
+     * combining algorithms of the {@link SimplePDPConfiguration} of this PDP
+     * only. Several PDPs with different configurations can therefore be used
+     * in the same JVM. The marshaller is created on the first call.
+     * 
+     * @return The {@link XACMLMarshaller} of this PDP.
+     */
+    public XACMLMarshaller getMarshaller() {
+        XACMLMarshaller result = marshaller;
+        if (result == null) {
+            synchronized (this) {
+                result = marshaller;
+                if (result == null) {
+                    result = JaxbContextInitializer.createMarshaller(jaxbContexts, typeAdapters);
+                    marshaller = result;
+                }
+            }
+        }
+        return result;
     }
 
     /**
@@ -138,6 +293,14 @@ public class SimplePDP implements PDP {
     /**
      * {@inheritDoc} <br />
      * <br />
+     * <b>Multiple resources:</b><br />
+     * A request with multiple <code>&lt;Resource&gt;</code> elements is split
+     * into one request per resource (see section 2.3 of the XACML multiple
+     * resource profile). The individual requests are evaluated like a batch
+     * (see {@link #evaluateBatch(List)}) and the response contains one result
+     * per resource with its resource-id as <code>ResourceId</code>. A request
+     * for a hierarchy of resources results in <i>Indeterminate</i>.<br />
+     * <br />
      * <b>Logging:</b><br />
      * This section is relevant for all users of the {@link SimplePDP} in a
      * multi-threaded environment. All logging messages during the evaluation
@@ -157,35 +320,301 @@ public class SimplePDP implements PDP {
      */
     @Override
     public ResponseType evaluate(RequestType request) {
+        // A request for multiple resources is evaluated like a batch of
+        // requests for the individual resources. See the XACML multiple
+        // resources profile for further information.
+        List<RequestType> individualRequests = MultipleResourceRequests
+                .split(request);
+        if (individualRequests != null) {
+            return MultipleResourceRequests.combine(individualRequests,
+                    evaluateBatch(individualRequests));
+        }
+        return evaluate(request, getDeployment(), null);
+    }
+
+    /**
+     * {@inheritDoc} <br />
+     * <br />
+     * The requests are evaluated by the configured batch evaluation
+     * {@link Executor} against the same deployment. The converted request
+     * attributes are shared between requests that contain the same subjects,
+     * resource, action or environment. If the {@link PIP} is a
+     * {@link org.herasaf.xacml.core.api.SectionScopedPIP}, the attributes
+     * fetched from it and the results of the target matches are shared as
+     * well (see {@link BatchCache}).
+     */
+    @Override
+    public List<ResponseType> evaluateBatch(List<RequestType> requests) {
+        final PolicyRetrievalPoint retrievalPoint = getDeployment();
+        final BatchCache batchCache = new BatchCache();
+        List<CompletableFuture<ResponseType>> evaluations = new ArrayList<CompletableFuture<ResponseType>>(
+                requests.size());
+        for (final RequestType request : requests) {
+            evaluations.add(CompletableFuture.supplyAsync(
+                    new Supplier<ResponseType>() {
+                        public ResponseType get() {
+                            return evaluate(request, retrievalPoint, batchCache);
+                        }
+                    }, batchEvaluationExecutor));
+        }
+        List<ResponseType> responses = new ArrayList<ResponseType>(
+                requests.size());
+        for (CompletableFuture<ResponseType> evaluation : evaluations) {
+            try {
+                responses.add(evaluation.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                } else if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw e;
+            }
+        }
+        return responses;
+    }
+
+    /**
+     * Evaluates the given request against the given deployment.
+     * 
+     * @param request
+     *            The request to evaluate.
+     * @param retrievalPoint
+     *            The deployment the request is evaluated against.
+     * @param batchCache
+     *            The {@link BatchCache} of the batch the request belongs to,
+     *            <code>null</code> if the request is evaluated alone.
+     * @return The created {@link ResponseType}.
+     */
+    private ResponseType evaluate(RequestType request,
+            PolicyRetrievalPoint retrievalPoint, BatchCache batchCache) {
+        List<RequestType> individualRequests = MultipleResourceRequests
+                .split(request);
+        if (individualRequests != null) {
+            List<ResponseType> responses = new ArrayList<ResponseType>(
+                    individualRequests.size());
+            for (RequestType individualRequest : individualRequests) {
+                responses.add(evaluate(individualRequest, retrievalPoint,
+                        batchCache));
+            }
+            return MultipleResourceRequests.combine(individualRequests,
+                    responses);
+        }
+        Evaluation evaluation = run(request, retrievalPoint, batchCache);
+        return createResponse(request, evaluation.decision,
+                evaluation.evaluationContext);
+    }
+
+    /**
+     * {@inheritDoc} <br />
+     * <br />
+     * The {@link Decision} is taken from the {@link EvaluationContext} of the
+     * evaluation. The {@link ResponseType} is only created if
+     * {@link Decision#toResponse()} is called. It is created with the
+     * {@link ResponseMarshaller} and not with
+     * {@link #createResponse(RequestType, DecisionType, EvaluationContext)}.
+     * A request with multiple resources results in <i>Indeterminate</i>.
+     */
+    @Override
+    public Decision evaluateDecision(RequestType request) {
+        Evaluation evaluation = run(request, getDeployment(), null);
+        return new Decision(request, evaluation.decision,
+                evaluation.evaluationContext);
+    }
+
+    /**
+     * Evaluates the given request against the given deployment.
+     * 
+     * @param request
+     *            The request to evaluate.
+     * @param retrievalPoint
+     *            The deployment the request is evaluated against.
+     * @param batchCache
+     *            The {@link BatchCache} of the batch the request belongs to,
+     *            <code>null</code> if the request is evaluated alone.
+     * @return The decided {@link Evaluation}.
+     */
+    private Evaluation run(RequestType request,
+            PolicyRetrievalPoint retrievalPoint, BatchCache batchCache) {
         MDC.put(MDC_REQUEST_TIME, String.valueOf(System.currentTimeMillis()));
+        Evaluation evaluation = prepare(request, retrievalPoint, batchCache);
+        if (evaluation.decision == null) {
+            if (attributePrefetcher != null) {
+                attributePrefetcher.prefetch(request, evaluation.evaluatables,
+                        evaluation.retrievalPoint,
+                        evaluation.evaluationContext);
+            }
+            decide(evaluation);
+        }
+        MDC.remove(MDC_REQUEST_TIME);
+        return evaluation;
+    }
+
+    /**
+     * {@inheritDoc} <br />
+     * <br />
+     * If the {@link PIP} is an {@link AsyncPIP}, the attributes that the
+     * applicable policies may need and that are missing in the request are
+     * requested before the evaluation starts. When the fetch is completed the
+     * request is evaluated on the executor of the asynchronous evaluation (see
+     * {@link SimplePDPConfiguration#setAsyncEvaluationExecutor(Executor)}),
+     * never on the thread that completes the fetch. Attributes that are needed
+     * later on are requested there with the (blocking) single-attribute
+     * methods of the {@link PIP}.<br />
+     * <br />
+     * If the {@link PIP} is not an {@link AsyncPIP}, or if the request contains
+     * multiple resources, the request is evaluated like
+     * {@link #evaluate(RequestType)} on the executor of the asynchronous
+     * evaluation. In both cases the calling thread is not blocked by the
+     * evaluation.<br />
+     * <br />
+     * An error of the evaluation completes the returned
+     * {@link CompletionStage} exceptionally.
+     */
+    @Override
+    public CompletionStage<ResponseType> evaluateAsync(final RequestType request) {
+        if (attributePrefetcher == null || !(pip instanceof AsyncPIP)
+                || request.getResources().size() > 1) {
+            return CompletableFuture.supplyAsync(new Supplier<ResponseType>() {
+                public ResponseType get() {
+                    return evaluate(request);
+                }
+            }, asyncEvaluationExecutor);
+        }
+        final String requestTime = String.valueOf(System.currentTimeMillis());
+        MDC.put(MDC_REQUEST_TIME, requestTime);
+        final Evaluation evaluation;
+        CompletionStage<Void> prefetch;
+        try {
+            evaluation = prepare(request, getDeployment(), null);
+            if (evaluation.decision != null) {
+                return CompletableFuture.completedFuture(createResponse(
+                        request, evaluation.decision,
+                        evaluation.evaluationContext));
+            }
+            prefetch = attributePrefetcher.prefetchAsync(request,
+                    evaluation.evaluatables, evaluation.retrievalPoint,
+                    evaluation.evaluationContext);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        } finally {
+            MDC.remove(MDC_REQUEST_TIME);
+        }
+        return prefetch.thenApplyAsync(new Function<Void, ResponseType>() {
+            public ResponseType apply(Void ignored) {
+                MDC.put(MDC_REQUEST_TIME, requestTime);
+                try {
+                    decide(evaluation);
+                    return createResponse(evaluation.request,
+                            evaluation.decision, evaluation.evaluationContext);
+                } finally {
+                    MDC.remove(MDC_REQUEST_TIME);
+                }
+            }
+        }, asyncEvaluationExecutor);
+    }
+
+    /**
+     * Returns the deployment a request is evaluated against. The whole request
+     * is evaluated against the same deployment.
+     * 
+     * @return The current snapshot of the policy repository if it provides
+     *         snapshots, the policy repository otherwise.
+     */
+    private PolicyRetrievalPoint getDeployment() {
+        if (policyRepository instanceof SnapshotPolicyRetrievalPoint) {
+            return ((SnapshotPolicyRetrievalPoint) policyRepository)
+                    .getSnapshot();
+        }
+        return policyRepository;
+    }
+
+    /**
+     * Prepares the evaluation of the given request: consults the decision
+     * cache and creates the {@link EvaluationContext}.
+     * 
+     * @param request
+     *            The request to evaluate.
+     * @param retrievalPoint
+     *            The deployment the request is evaluated against.
+     * @param batchCache
+     *            The {@link BatchCache} of the batch the request belongs to,
+     *            <code>null</code> if the request is evaluated alone.
+     * @return The prepared {@link Evaluation}. It contains the decision if the
+     *         request needs no further evaluation.
+     */
+    private Evaluation prepare(RequestType request,
+            PolicyRetrievalPoint retrievalPoint, BatchCache batchCache) {
         logger.debug("Evaluating Request: {}", request);
 
-        request.ensureThatCreationTimeIsSet();
+        Evaluation evaluation = new Evaluation(request);
+        evaluation.retrievalPoint = retrievalPoint;
 
         EvaluationContext evaluationContext = new EvaluationContext(
                 targetMatcher, pip, respectAbandonedEvaluatables,
-                statusCodeComparator, policyRepository);
+                statusCodeComparator, evaluation.retrievalPoint);
+        evaluationContext.setClock(clock);
+        evaluationContext.setZuluUtcRepresentation(zuluUtcRepresentation);
+        evaluation.evaluationContext = evaluationContext;
+
+        if (decisionCache != null) {
+            evaluation.cacheKey = DecisionCache.createKey(request);
+            if (evaluation.cacheKey != null) {
+                DecisionCache.CachedDecision cachedDecision = decisionCache
+                        .get(evaluation.cacheKey, evaluation.retrievalPoint);
+                if (cachedDecision != null) {
+                    logger.debug("Using the cached decision.");
+                    evaluation.decision = cachedDecision.getDecision();
+                    cachedDecision.copyTo(evaluationContext);
+                    return evaluation;
+                }
+            }
+        }
 
         /*
          * Checks whether the request is a valid XACML request concering the
          * number of resources within the request. Standard XACML only allows a
-         * single resource per request. For multiple resource the context
-         * handler is in charge. See the XACML multiple resources profile for
-         * further information.
+         * single resource per request. Requests with multiple <Resource>
+         * elements are split before, but a hierarchy of resources cannot be
+         * resolved. See the XACML multiple resources profile for further
+         * information.
          */
         if (!containsOnlyOneResource(request)) {
             logger.error("The request must not contain multiple resources.");
-            return createResponse(request, DecisionType.INDETERMINATE,
-                    evaluationContext);
+            evaluation.decision = DecisionType.INDETERMINATE;
+            return evaluation;
         }
+        evaluationContext.setRequestAttributeIndex(new RequestAttributeIndex(
+                request, batchCache));
+
+        evaluation.evaluatables = evaluation.retrievalPoint
+                .getEvaluatables(request);
+        return evaluation;
+    }
 
+    /**
+     * Evaluates the prepared request against its applicable
+     * {@link Evaluatable}s and stores the decision in the {@link Evaluation}.
+     * 
+     * @param evaluation
+     *            The prepared {@link Evaluation}.
+     */
+    private void decide(Evaluation evaluation) {
+        EvaluationContext evaluationContext = evaluation.evaluationContext;
         DecisionType decision = rootPolicyCombiningAlgorithm
-                .evaluateEvaluatableList(request,
-                        policyRepository.getEvaluatables(request),
-                        evaluationContext);
+                .evaluateEvaluatableList(evaluation.request,
+                        evaluation.evaluatables, evaluationContext);
 
-        MDC.remove(MDC_REQUEST_TIME);
-        return createResponse(request, decision, evaluationContext);
+        // Only successful decisions are cached. Errors (e.g. of the PIP) may
+        // be temporary.
+        if (evaluation.cacheKey != null
+                && XACMLDefaultStatusCode.OK.equals(evaluationContext
+                        .getStatusCode())) {
+            decisionCache.put(evaluation.cacheKey, evaluation.retrievalPoint,
+                    evaluation.evaluatables, decision, evaluationContext);
+        }
+
+        evaluation.decision = decision;
     }
 
     /**
@@ -262,4 +691,20 @@ public class SimplePDP implements PDP {
         }
     }
 
+    /**
+     * The state of a single evaluation between its preparation and the
+     * decision.
+     */
+    private static final class Evaluation {
+        private final RequestType request;
+        private PolicyRetrievalPoint retrievalPoint;
+        private String cacheKey;
+        private EvaluationContext evaluationContext;
+        private List<Evaluatable> evaluatables;
+        private DecisionType decision;
+
+        private Evaluation(RequestType request) {
+            this.request = request;
+        }
+    }
 }
\ No newline at end of file
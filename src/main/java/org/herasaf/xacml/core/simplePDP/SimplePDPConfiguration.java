@@ -17,14 +17,23 @@
 
 package org.herasaf.xacml.core.simplePDP;
 
+import java.time.Clock;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.herasaf.xacml.core.api.PIP;
 import org.herasaf.xacml.core.api.PolicyRetrievalPoint;
 import org.herasaf.xacml.core.combiningAlgorithm.policy.PolicyCombiningAlgorithm;
 import org.herasaf.xacml.core.combiningAlgorithm.policy.impl.PolicyOnlyOneApplicableAlgorithm;
+import org.herasaf.xacml.core.combiningAlgorithm.rule.AbstractRuleCombiningAlgorithm;
 import org.herasaf.xacml.core.context.StatusCodeComparator;
+import org.herasaf.xacml.core.dataTypeAttribute.DataTypeAttribute;
+import org.herasaf.xacml.core.function.Function;
 import org.herasaf.xacml.core.targetMatcher.TargetMatcher;
 import org.herasaf.xacml.core.targetMatcher.impl.TargetMatcherImpl;
 
@@ -44,6 +53,31 @@ import org.slf4j.LoggerFactory;
 public class SimplePDPConfiguration {
     private static final Logger logger = LoggerFactory.getLogger(SimplePDPConfiguration.class);
 
+    /**
+     * Runs a task in the thread that submits it.
+     */
+    private static final Executor CALLER_THREAD_EXECUTOR = new Executor() {
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    /**
+     * Holds the default {@link Executor} of the asynchronous evaluation, which is only created if it is used.
+     */
+    private static final class DefaultAsyncEvaluationExecutor {
+        private static final ExecutorService INSTANCE = Executors.newFixedThreadPool(Runtime.getRuntime()
+                .availableProcessors(), new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "herasaf-pdp-evaluation-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
     /**
      * The root {@link PolicyCombiningAlgorithm} to be used in the {@link SimplePDP} on which this {@link SimplePDPConfiguration} will be
      * applied. <br>
@@ -88,20 +122,101 @@ public class SimplePDPConfiguration {
     private StatusCodeComparator statusCodeComparator;
 
     /**
-     * The {@link DateTimeZone} to be used in the {@link SimplePDP} on which this {@link SimplePDPConfiguration} will be applied. <b>Default
-     * value is GMT</b>.
+     * The {@link DateTimeZone} to be used in the {@link SimplePDP} on which this {@link SimplePDPConfiguration} will be applied. It is
+     * used by the marshaller of this PDP (see {@link SimplePDP#getMarshaller()}) and by the default clock (see {@link #getClock()}).
+     * <b>Default value is GMT</b> for the marshaller and the default timezone of the JVM for the clock.
      */
     // default value is set in the getter, if needed.
     private ZoneId timeZone;
 
     /**
      * The flag indicating if the UTC timezone representation shall be +00:00 or 'Z' (for Zulu). <b>Default value is:</b> {@code}false
-     * {@code}, means the UTC representation is +00:00.
+     * {@code}, means the UTC representation is +00:00. It is used by the marshaller of the {@link SimplePDP} (see
+     * {@link SimplePDP#getMarshaller()}) and, if {@link #configureGlobalDefaults} is set, by the global marshallers.
      */
     private boolean zuluUtcRepresentation = false;
 
+    /**
+     * The flag indicating if the {@link SimplePDP} applies its timezone and UTC representation to the global defaults of the
+     * date and time data types, which are used by the static {@link org.herasaf.xacml.core.policy.PolicyMarshaller} and
+     * {@link org.herasaf.xacml.core.context.RequestMarshaller}. <b>Default value is:</b> {@code}false{@code}, the PDP
+     * uses its timezone and UTC representation only for its own marshaller (see {@link SimplePDP#getMarshaller()}) and
+     * its current time values. Enable it only for applications that still rely on the static marshallers, because the
+     * last PDP created then changes the defaults of all other PDPs in the same JVM.
+     */
+    private boolean configureGlobalDefaults = false;
+
+    /**
+     * The maximum number of decisions the {@link SimplePDP} caches. The cache is only used if the {@link PolicyRetrievalPoint} is a
+     * {@link org.herasaf.xacml.core.api.SnapshotPolicyRetrievalPoint} (e.g. {@link CopyOnWritePolicyRepository}), because the cached
+     * decisions must be discarded on each (un-)deployment.<br>
+     * <b>Default value is:</b> 0, means no decisions are cached.
+     */
+    private int decisionCacheSize = 0;
+
+    /**
+     * The time in milliseconds a decision is cached. A time of 0 means that the decisions are cached until the next (un-)deployment. <br>
+     * <b>Default value is:</b> 60000 (one minute).
+     */
+    private long decisionCacheTimeToLive = 60000;
+
+    /**
+     * The {@link Executor} that fetches the attributes missing in a request concurrently from the PIP before the evaluation starts. The
+     * prefetch is only used if the {@link PolicyRetrievalPoint} is a {@link org.herasaf.xacml.core.api.SnapshotPolicyRetrievalPoint}
+     * (e.g. {@link CopyOnWritePolicyRepository}), because the analyzed policies must be discarded on each (un-)deployment. The PIP must
+     * be thread-safe. If the PIP is a {@link org.herasaf.xacml.core.api.BulkPIP} or an
+     * {@link org.herasaf.xacml.core.api.AsyncPIP}, the attributes are fetched with a single call and no executor is needed.<br>
+     * <b>Default value is:</b> null, means the attributes are fetched when they are needed (unless the PIP is a bulk or asynchronous
+     * PIP).
+     */
+    private Executor attributePrefetchExecutor;
+
+    /**
+     * Whether the attributes of the conditions and variable definitions are prefetched as well (see
+     * {@link #setAttributePrefetchExecutor(Executor)}). This saves the calls of the PIP during the evaluation of the conditions, but
+     * fetches attributes that the evaluation may not need, e.g. the operands of an <code>and</code> or <code>or</code> that are skipped
+     * because the result is already known.<br>
+     * <b>Default value is:</b> false, only the attributes of the targets are prefetched.
+     */
+    private boolean prefetchConditionAttributes;
+
+    /**
+     * The {@link Executor} that evaluates the requests of a batch (see
+     * {@link org.herasaf.xacml.core.api.PDP#evaluateBatch(List)}) in parallel. The PIP must be thread-safe.<br>
+     * <b>Default value is:</b> none, the requests are evaluated one after the other in the calling thread.
+     */
+    // default value is set in the getter, if needed.
+    private Executor batchEvaluationExecutor;
+
+    /**
+     * The {@link Executor} that evaluates the requests of {@link org.herasaf.xacml.core.api.PDP#evaluateAsync(org.herasaf.xacml.core.context.impl.RequestType)},
+     * such that the evaluation never runs on the calling thread (e.g. an event loop) or on the thread that completes the fetch of an
+     * {@link org.herasaf.xacml.core.api.AsyncPIP}. The PIP must be thread-safe.<br>
+     * <b>Default value is:</b> a fixed pool of daemon threads, one per processor, that is shared by all PDPs.
+     */
+    // default value is set in the getter, if needed.
+    private Executor asyncEvaluationExecutor;
+
+    /**
+     * The {@link Clock} that supplies the current-time, current-date and current-dateTime environment attributes of a request that
+     * does not contain them. The clock is read at most once per request (once per batch, see
+     * {@link org.herasaf.xacml.core.api.PDP#evaluateBatch(List)}) and only if a policy refers to one of these attributes.<br>
+     * <b>Default value is:</b> the system clock in the configured timezone (see {@link #setTimeZone(ZoneOffset)}), or in the
+     * default timezone of the JVM if no timezone is configured, such that the current date and time have the local offset.
+     */
+    // default value is set in the getter, if needed.
+    private Clock clock;
+
     private final List<Class<?>> m_contexts = new ArrayList<Class<?>>();
 
+    private final List<Function> m_functions = new ArrayList<Function>();
+
+    private final List<DataTypeAttribute<?>> m_dataTypeAttributes = new ArrayList<DataTypeAttribute<?>>();
+
+    private final List<AbstractRuleCombiningAlgorithm> m_ruleCombiningAlgorithms = new ArrayList<AbstractRuleCombiningAlgorithm>();
+
+    private final List<PolicyCombiningAlgorithm> m_policyCombiningAlgorithms = new ArrayList<PolicyCombiningAlgorithm>();
+
     /**
      * @return The configured root {@link PolicyCombiningAlgorithm}
      */
@@ -257,6 +372,150 @@ public class SimplePDPConfiguration {
         this.zuluUtcRepresentation = useZuluUtcRepresentation;
     }
 
+    /**
+     * True when the {@link SimplePDP} applies its timezone and UTC representation to the global defaults of the date and
+     * time data types.
+     * <p />
+     * The default value is false.
+     */
+    public boolean isConfigureGlobalDefaults() {
+        return configureGlobalDefaults;
+    }
+
+    /**
+     * Sets whether the {@link SimplePDP} applies its timezone and UTC representation to the global defaults of the date and
+     * time data types. Enable it only if the static marshallers shall use the settings of this PDP. They then apply to
+     * all PDPs in the JVM.
+     */
+    public void setConfigureGlobalDefaults(boolean configureGlobalDefaults) {
+        this.configureGlobalDefaults = configureGlobalDefaults;
+    }
+
+    /**
+     * @return The configured maximum number of cached decisions, 0 if no decisions are cached.
+     */
+    public int getDecisionCacheSize() {
+        return decisionCacheSize;
+    }
+
+    /**
+     * @param decisionCacheSize
+     *            The maximum number of cached decisions. If the setter is not called explicitly no decisions are cached.
+     */
+    public void setDecisionCacheSize(int decisionCacheSize) {
+        this.decisionCacheSize = decisionCacheSize;
+    }
+
+    /**
+     * @return The configured time in milliseconds a decision is cached.
+     */
+    public long getDecisionCacheTimeToLive() {
+        return decisionCacheTimeToLive;
+    }
+
+    /**
+     * @param decisionCacheTimeToLive
+     *            The time in milliseconds a decision is cached. 0 means that the decisions do not expire. If the setter is not called
+     *            explicitly the default configuration will be used.
+     */
+    public void setDecisionCacheTimeToLive(long decisionCacheTimeToLive) {
+        this.decisionCacheTimeToLive = decisionCacheTimeToLive;
+    }
+
+    /**
+     * @return The configured {@link Executor} that prefetches the attributes from the PIP, null if the attributes are not prefetched.
+     */
+    public Executor getAttributePrefetchExecutor() {
+        return attributePrefetchExecutor;
+    }
+
+    /**
+     * @param attributePrefetchExecutor
+     *            The {@link Executor} that prefetches the attributes missing in a request concurrently from the PIP. If the setter is not
+     *            called explicitly the attributes are fetched when they are needed.
+     */
+    public void setAttributePrefetchExecutor(Executor attributePrefetchExecutor) {
+        this.attributePrefetchExecutor = attributePrefetchExecutor;
+    }
+
+    /**
+     * @return True if the attributes of the conditions and variable definitions are prefetched as well, false if only the attributes
+     *         of the targets are prefetched.
+     */
+    public boolean isPrefetchConditionAttributes() {
+        return prefetchConditionAttributes;
+    }
+
+    /**
+     * @param prefetchConditionAttributes
+     *            True if the attributes of the conditions and variable definitions shall be prefetched as well. They may not be needed
+     *            by the evaluation, e.g. if an operand of an <code>and</code> is false. If the setter is not called explicitly only the
+     *            attributes of the targets are prefetched.
+     */
+    public void setPrefetchConditionAttributes(boolean prefetchConditionAttributes) {
+        this.prefetchConditionAttributes = prefetchConditionAttributes;
+    }
+
+    /**
+     * @return The configured {@link Executor} that evaluates the requests of a batch.
+     */
+    public Executor getBatchEvaluationExecutor() {
+        if (batchEvaluationExecutor != null) {
+            return batchEvaluationExecutor;
+        }
+        return CALLER_THREAD_EXECUTOR; // default
+    }
+
+    /**
+     * @param batchEvaluationExecutor
+     *            The {@link Executor} that evaluates the requests of a batch in parallel. If the setter is not called explicitly the
+     *            requests are evaluated in the calling thread.
+     */
+    public void setBatchEvaluationExecutor(Executor batchEvaluationExecutor) {
+        this.batchEvaluationExecutor = batchEvaluationExecutor;
+    }
+
+    /**
+     * @return The configured {@link Executor} that evaluates the requests of an asynchronous evaluation.
+     */
+    public Executor getAsyncEvaluationExecutor() {
+        if (asyncEvaluationExecutor != null) {
+            return asyncEvaluationExecutor;
+        }
+        return DefaultAsyncEvaluationExecutor.INSTANCE; // default
+    }
+
+    /**
+     * @param asyncEvaluationExecutor
+     *            The {@link Executor} that evaluates the requests of an asynchronous evaluation. It must not run the tasks on the
+     *            submitting thread. If the setter is not called explicitly a shared pool with one daemon thread per processor is used.
+     */
+    public void setAsyncEvaluationExecutor(Executor asyncEvaluationExecutor) {
+        this.asyncEvaluationExecutor = asyncEvaluationExecutor;
+    }
+
+    /**
+     * @return The configured {@link Clock} that supplies the current time of a request.
+     */
+    public Clock getClock() {
+        if (clock != null) {
+            return clock;
+        }
+        if (timeZone != null) {
+            return Clock.system(timeZone);
+        }
+        return Clock.systemDefaultZone(); // default
+    }
+
+    /**
+     * @param clock
+     *            The {@link Clock} that supplies the current time of a request. If the setter is not called explicitly the system clock
+     *            in the configured timezone, or in the default timezone of the JVM, is used.
+     */
+    public void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
     public void addJaxbContext(Class<?>... contextClasses) {
         for (Class<?> clazz : contextClasses) {
             m_contexts.add(clazz);
@@ -266,4 +525,72 @@ public class SimplePDPConfiguration {
     public List<Class<?>> getJaxbContexts() {
         return m_contexts;
     }
+
+    /**
+     * Adds functions that only the marshaller of the {@link SimplePDP} knows (see {@link SimplePDP#getMarshaller()}), in addition to
+     * the globally initialized functions.
+     *
+     * @param functions
+     *            The functions to add.
+     */
+    public void addFunctions(Function... functions) {
+        for (Function function : functions) {
+            m_functions.add(function);
+        }
+    }
+
+    public List<Function> getFunctions() {
+        return m_functions;
+    }
+
+    /**
+     * Adds data types that only the marshaller of the {@link SimplePDP} knows (see {@link SimplePDP#getMarshaller()}), in addition to
+     * the globally initialized data types.
+     *
+     * @param dataTypeAttributes
+     *            The data types to add.
+     */
+    public void addDataTypeAttributes(DataTypeAttribute<?>... dataTypeAttributes) {
+        for (DataTypeAttribute<?> dataTypeAttribute : dataTypeAttributes) {
+            m_dataTypeAttributes.add(dataTypeAttribute);
+        }
+    }
+
+    public List<DataTypeAttribute<?>> getDataTypeAttributes() {
+        return m_dataTypeAttributes;
+    }
+
+    /**
+     * Adds rule combining algorithms that only the marshaller of the {@link SimplePDP} knows (see {@link SimplePDP#getMarshaller()}), in
+     * addition to the globally initialized rule combining algorithms.
+     *
+     * @param combiningAlgorithms
+     *            The rule combining algorithms to add.
+     */
+    public void addRuleCombiningAlgorithms(AbstractRuleCombiningAlgorithm... combiningAlgorithms) {
+        for (AbstractRuleCombiningAlgorithm combiningAlgorithm : combiningAlgorithms) {
+            m_ruleCombiningAlgorithms.add(combiningAlgorithm);
+        }
+    }
+
+    public List<AbstractRuleCombiningAlgorithm> getRuleCombiningAlgorithms() {
+        return m_ruleCombiningAlgorithms;
+    }
+
+    /**
+     * Adds policy combining algorithms that only the marshaller of the {@link SimplePDP} knows (see {@link SimplePDP#getMarshaller()}),
+     * in addition to the globally initialized policy combining algorithms.
+     *
+     * @param combiningAlgorithms
+     *            The policy combining algorithms to add.
+     */
+    public void addPolicyCombiningAlgorithms(PolicyCombiningAlgorithm... combiningAlgorithms) {
+        for (PolicyCombiningAlgorithm combiningAlgorithm : combiningAlgorithms) {
+            m_policyCombiningAlgorithms.add(combiningAlgorithm);
+        }
+    }
+
+    public List<PolicyCombiningAlgorithm> getPolicyCombiningAlgorithms() {
+        return m_policyCombiningAlgorithms;
+    }
 }
\ No newline at end of file
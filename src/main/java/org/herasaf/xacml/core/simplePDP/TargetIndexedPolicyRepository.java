@@ -0,0 +1,433 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.herasaf.xacml.core.simplePDP;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.herasaf.xacml.core.SyntaxException;
+import org.herasaf.xacml.core.api.PolicyRetrievalPoint;
+import org.herasaf.xacml.core.context.impl.RequestType;
+import org.herasaf.xacml.core.dataTypeAttribute.impl.AnyURIDataTypeAttribute;
+import org.herasaf.xacml.core.dataTypeAttribute.impl.BooleanDataTypeAttribute;
+import org.herasaf.xacml.core.dataTypeAttribute.impl.IntegerDataTypeAttribute;
+import org.herasaf.xacml.core.dataTypeAttribute.impl.StringDataTypeAttribute;
+import org.herasaf.xacml.core.function.impl.equalityPredicates.AnyURIEqualFunction;
+import org.herasaf.xacml.core.function.impl.equalityPredicates.BooleanEqualFunction;
+import org.herasaf.xacml.core.function.impl.equalityPredicates.IntegerEqualFunction;
+import org.herasaf.xacml.core.function.impl.equalityPredicates.StringEqualFunction;
+import org.herasaf.xacml.core.policy.Evaluatable;
+import org.herasaf.xacml.core.policy.EvaluatableID;
+import org.herasaf.xacml.core.policy.impl.ActionType;
+import org.herasaf.xacml.core.policy.impl.AttributeDesignatorType;
+import org.herasaf.xacml.core.policy.impl.AttributeValueType;
+import org.herasaf.xacml.core.policy.impl.EnvironmentType;
+import org.herasaf.xacml.core.policy.impl.Match;
+import org.herasaf.xacml.core.policy.impl.PolicySetType;
+import org.herasaf.xacml.core.policy.impl.PolicyType;
+import org.herasaf.xacml.core.policy.impl.ResourceType;
+import org.herasaf.xacml.core.policy.impl.SubjectAttributeDesignatorType;
+import org.herasaf.xacml.core.policy.impl.SubjectType;
+import org.herasaf.xacml.core.policy.impl.TargetType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This {@link PolicyRetrievalPoint} extends the
+ * {@link MapBasedSimplePolicyRepository} with an inverted index over the
+ * targets of the root {@link Evaluatable}s. Instead of returning all deployed
+ * root {@link Evaluatable}s only those are returned whose target may match the
+ * request.<br />
+ * <br />
+ * At deployment time the first non-empty category of a target (in the order
+ * the {@link org.herasaf.xacml.core.targetMatcher.TargetMatcher} evaluates
+ * them: subjects, resources, actions, environments) is inspected. If the first
+ * match of every alternative in this category is an equality match
+ * (<code>string-equal</code>, <code>boolean-equal</code>,
+ * <code>integer-equal</code> or <code>anyURI-equal</code>) of a literal
+ * against an attribute designator, the {@link Evaluatable} is indexed by the
+ * designator and the literal value. All other {@link Evaluatable}s are put into
+ * a fallback list that is always returned.<br />
+ * <br />
+ * An indexed {@link Evaluatable} is returned if the request contains the
+ * literal value for the designator, if the request contains no value at all
+ * for the designator (the value may then still be resolved by a PIP) or if the
+ * request values cannot be resolved (the error is then reported by the
+ * evaluation). The returned {@link Evaluatable}s are in the order of their
+ * deployment.<br />
+ * <br />
+ * <b>WARNING: </b>As its super class, this repository is not thread safe.
+ */
+public class TargetIndexedPolicyRepository extends MapBasedSimplePolicyRepository {
+	private static final Logger logger = LoggerFactory.getLogger(TargetIndexedPolicyRepository.class);
+
+	/*
+	 * The match functions that can be indexed, mapped to the data type they
+	 * operate on. The equality of these functions is the equality of the
+	 * converted java objects.
+	 */
+	private static final Map<String, String> INDEXABLE_FUNCTIONS;
+
+	static {
+		Map<String, String> functions = new HashMap<String, String>();
+		functions.put(StringEqualFunction.ID, StringDataTypeAttribute.ID);
+		functions.put(BooleanEqualFunction.ID, BooleanDataTypeAttribute.ID);
+		functions.put(IntegerEqualFunction.ID, IntegerDataTypeAttribute.ID);
+		functions.put(AnyURIEqualFunction.ID, AnyURIDataTypeAttribute.ID);
+		INDEXABLE_FUNCTIONS = Collections.unmodifiableMap(functions);
+	}
+
+	private final Map<DesignatorKey, Postings> index;
+	private final Map<EvaluatableID, List<Posting>> indexedEvaluatables;
+	private final Map<EvaluatableID, Evaluatable> fallbackEvaluatables;
+	private final Map<EvaluatableID, Long> deploymentOrder;
+	private long deploymentCounter;
+
+	/**
+	 * Initializes a new, empty target indexed policy repository.
+	 */
+	public TargetIndexedPolicyRepository() {
+		index = new HashMap<DesignatorKey, Postings>();
+		indexedEvaluatables = new HashMap<EvaluatableID, List<Posting>>();
+		fallbackEvaluatables = new LinkedHashMap<EvaluatableID, Evaluatable>();
+		deploymentOrder = new HashMap<EvaluatableID, Long>();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void deploy(Evaluatable evaluatable) {
+		super.deploy(evaluatable);
+		addToIndex(evaluatable);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void undeploy(EvaluatableID id) {
+		super.undeploy(id);
+		removeFromIndex(id);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Returns the {@link Evaluatable}s of the fallback list and all indexed
+	 * {@link Evaluatable}s whose target may match the request.
+	 */
+	@Override
+	public List<Evaluatable> getEvaluatables(RequestType request) {
+		Set<Evaluatable> candidates = new HashSet<Evaluatable>(fallbackEvaluatables.values());
+
+		for (Postings postings : index.values()) {
+			List<Object> requestValues;
+			try {
+				requestValues = postings.designator.handle(request);
+			} catch (Exception e) {
+				// The error is reported by the evaluation of the target.
+				logger.debug("Unable to resolve the request values of {}.", postings.designator.getAttributeId(), e);
+				candidates.addAll(postings.all);
+				continue;
+			}
+			if (requestValues.isEmpty()) {
+				// The attribute may still be resolved by the PIP.
+				candidates.addAll(postings.all);
+				continue;
+			}
+			for (Object requestValue : requestValues) {
+				Set<Evaluatable> evaluatables = postings.byValue.get(requestValue);
+				if (evaluatables != null) {
+					candidates.addAll(evaluatables);
+				}
+			}
+		}
+
+		List<Evaluatable> result = new ArrayList<Evaluatable>(candidates);
+		Collections.sort(result, new Comparator<Evaluatable>() {
+			@Override
+			public int compare(Evaluatable e1, Evaluatable e2) {
+				return deploymentOrder.get(e1.getId()).compareTo(deploymentOrder.get(e2.getId()));
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Adds the given root {@link Evaluatable} either to the index or to the
+	 * fallback list.
+	 *
+	 * @param evaluatable
+	 *            The deployed root {@link Evaluatable}.
+	 */
+	private void addToIndex(Evaluatable evaluatable) {
+		deploymentOrder.put(evaluatable.getId(), deploymentCounter++);
+
+		List<Posting> postings = createPostings(evaluatable);
+		if (postings == null) {
+			logger.debug("The target of {} cannot be indexed.", evaluatable.getId());
+			fallbackEvaluatables.put(evaluatable.getId(), evaluatable);
+			return;
+		}
+		for (Posting posting : postings) {
+			Postings keyPostings = index.get(posting.key);
+			if (keyPostings == null) {
+				keyPostings = new Postings(posting.designator);
+				index.put(posting.key, keyPostings);
+			}
+			keyPostings.add(posting.value, evaluatable);
+		}
+		indexedEvaluatables.put(evaluatable.getId(), postings);
+	}
+
+	/**
+	 * Removes the root {@link Evaluatable} with the given {@link EvaluatableID}
+	 * from the index and the fallback list.
+	 *
+	 * @param id
+	 *            The {@link EvaluatableID} of the undeployed root
+	 *            {@link Evaluatable}.
+	 */
+	private void removeFromIndex(EvaluatableID id) {
+		deploymentOrder.remove(id);
+		fallbackEvaluatables.remove(id);
+
+		List<Posting> postings = indexedEvaluatables.remove(id);
+		if (postings == null) {
+			return;
+		}
+		for (Posting posting : postings) {
+			Postings keyPostings = index.get(posting.key);
+			if (keyPostings != null && keyPostings.remove(posting.value, posting.evaluatable)) {
+				index.remove(posting.key);
+			}
+		}
+	}
+
+	/**
+	 * Creates the postings of the given root {@link Evaluatable}.
+	 *
+	 * @param evaluatable
+	 *            The root {@link Evaluatable} to index.
+	 * @return The postings or <code>null</code> if the target of the
+	 *         {@link Evaluatable} cannot be indexed.
+	 */
+	private List<Posting> createPostings(Evaluatable evaluatable) {
+		if (!(evaluatable instanceof PolicyType || evaluatable instanceof PolicySetType)) {
+			return null;
+		}
+		List<List<? extends Match>> alternatives = getFirstCategory(evaluatable.getTarget());
+		if (alternatives == null || alternatives.isEmpty()) {
+			return null;
+		}
+
+		List<Posting> postings = new ArrayList<Posting>();
+		for (List<? extends Match> matches : alternatives) {
+			// Only the first match of an alternative is guaranteed to be
+			// evaluated.
+			if (matches.isEmpty()) {
+				return null;
+			}
+			Posting posting = createPosting(matches.get(0), evaluatable);
+			if (posting == null) {
+				return null;
+			}
+			postings.add(posting);
+		}
+		return postings;
+	}
+
+	/**
+	 * Returns the alternatives of the first category of the target that is
+	 * present. Only this category can be indexed because no earlier category
+	 * can cause an indeterminate target match.
+	 *
+	 * @param target
+	 *            The target.
+	 * @return The matches of each alternative of the first present category or
+	 *         <code>null</code> if there is no such category.
+	 */
+	private List<List<? extends Match>> getFirstCategory(TargetType target) {
+		if (target == null) {
+			return null;
+		}
+		List<List<? extends Match>> alternatives = new ArrayList<List<? extends Match>>();
+		if (target.getSubjects() != null) {
+			for (SubjectType subject : target.getSubjects().getSubjects()) {
+				alternatives.add(subject.getSubjectMatches());
+			}
+		} else if (target.getResources() != null) {
+			for (ResourceType resource : target.getResources().getResources()) {
+				alternatives.add(resource.getResourceMatches());
+			}
+		} else if (target.getActions() != null) {
+			for (ActionType action : target.getActions().getActions()) {
+				alternatives.add(action.getActionMatches());
+			}
+		} else if (target.getEnvironments() != null) {
+			for (EnvironmentType environment : target.getEnvironments().getEnvironments()) {
+				alternatives.add(environment.getEnvironmentMatches());
+			}
+		} else {
+			return null;
+		}
+		return alternatives;
+	}
+
+	/**
+	 * Creates the posting of a single match.
+	 *
+	 * @param match
+	 *            The {@link Match} to index.
+	 * @param evaluatable
+	 *            The root {@link Evaluatable} the match belongs to.
+	 * @return The posting or <code>null</code> if the match cannot be indexed.
+	 */
+	private Posting createPosting(Match match, Evaluatable evaluatable) {
+		if (match.getMatchFunction() == null || match.getAttributeDesignator() == null) {
+			return null;
+		}
+		String dataTypeId = INDEXABLE_FUNCTIONS.get(match.getMatchFunction().getFunctionId());
+		AttributeDesignatorType designator = match.getAttributeDesignator();
+		AttributeValueType attributeValue = match.getAttributeValue();
+		if (dataTypeId == null || attributeValue == null || attributeValue.getDataType() == null
+				|| designator.getAttributeId() == null || designator.getDataType() == null
+				|| !dataTypeId.equals(attributeValue.getDataType().toString())
+				|| !dataTypeId.equals(designator.getDataType().toString())) {
+			return null;
+		}
+		try {
+			Object value = attributeValue.getDataType().convertTo(attributeValue.getContent());
+			return new Posting(new DesignatorKey(designator), designator, value, evaluatable);
+		} catch (SyntaxException e) {
+			// The error is reported by the evaluation of the target.
+			return null;
+		}
+	}
+
+	/**
+	 * The identity of an attribute designator: two designators with equal keys
+	 * return the same values for a request.
+	 */
+	private static final class DesignatorKey {
+		private final Class<?> category;
+		private final String subjectCategory;
+		private final String attributeId;
+		private final String dataType;
+		private final String issuer;
+
+		private DesignatorKey(AttributeDesignatorType designator) {
+			this.category = designator.getClass();
+			if (designator instanceof SubjectAttributeDesignatorType) {
+				this.subjectCategory = ((SubjectAttributeDesignatorType) designator).getSubjectCategory();
+			} else {
+				this.subjectCategory = null;
+			}
+			this.attributeId = designator.getAttributeId();
+			this.dataType = designator.getDataType().toString();
+			this.issuer = designator.getIssuer();
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(category, subjectCategory, attributeId, dataType, issuer);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof DesignatorKey)) {
+				return false;
+			}
+			DesignatorKey other = (DesignatorKey) obj;
+			return category.equals(other.category) && Objects.equals(subjectCategory, other.subjectCategory)
+					&& attributeId.equals(other.attributeId) && dataType.equals(other.dataType)
+					&& Objects.equals(issuer, other.issuer);
+		}
+	}
+
+	/**
+	 * A single entry of the index: the root {@link Evaluatable} may match if
+	 * the designator returns the value.
+	 */
+	private static final class Posting {
+		private final DesignatorKey key;
+		private final AttributeDesignatorType designator;
+		private final Object value;
+		private final Evaluatable evaluatable;
+
+		private Posting(DesignatorKey key, AttributeDesignatorType designator, Object value,
+				Evaluatable evaluatable) {
+			this.key = key;
+			this.designator = designator;
+			this.value = value;
+			this.evaluatable = evaluatable;
+		}
+	}
+
+	/**
+	 * All postings of a single designator.
+	 */
+	private static final class Postings {
+		private final AttributeDesignatorType designator;
+		private final Set<Evaluatable> all;
+		private final Map<Object, Set<Evaluatable>> byValue;
+
+		private Postings(AttributeDesignatorType designator) {
+			this.designator = designator;
+			this.all = new LinkedHashSet<Evaluatable>();
+			this.byValue = new HashMap<Object, Set<Evaluatable>>();
+		}
+
+		private void add(Object value, Evaluatable evaluatable) {
+			Set<Evaluatable> evaluatables = byValue.get(value);
+			if (evaluatables == null) {
+				evaluatables = new LinkedHashSet<Evaluatable>();
+				byValue.put(value, evaluatables);
+			}
+			evaluatables.add(evaluatable);
+			all.add(evaluatable);
+		}
+
+		/**
+		 * @return True if there are no more postings for the designator.
+		 */
+		private boolean remove(Object value, Evaluatable evaluatable) {
+			Set<Evaluatable> evaluatables = byValue.get(value);
+			if (evaluatables != null) {
+				evaluatables.remove(evaluatable);
+				if (evaluatables.isEmpty()) {
+					byValue.remove(value);
+				}
+			}
+			all.remove(evaluatable);
+			return all.isEmpty();
+		}
+	}
+}
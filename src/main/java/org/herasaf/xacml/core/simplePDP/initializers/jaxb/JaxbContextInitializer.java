@@ -22,6 +22,7 @@ import java.util.List;
 
 import jakarta.xml.bind.JAXBContext;
 import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.annotation.adapters.XmlAdapter;
 
 import org.herasaf.xacml.core.InitializationException;
 import org.herasaf.xacml.core.context.RequestMarshaller;
@@ -30,6 +31,7 @@ import org.herasaf.xacml.core.policy.PolicyMarshaller;
 import org.herasaf.xacml.core.simplePDP.SimplePDPConfiguration;
 import org.herasaf.xacml.core.simplePDP.initializers.api.Initializer;
 import org.herasaf.xacml.core.utils.JAXBMarshallerConfiguration;
+import org.herasaf.xacml.core.utils.XACMLMarshaller;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xml.sax.SAXException;
@@ -202,12 +204,69 @@ public class JaxbContextInitializer implements Initializer {
         logger.info("ResponseMarshaller is configured with JAXB Marshaller Configuration {}", jmc.toString());
     }
 
+    /**
+     * Creates a {@link XACMLMarshaller} with its own policy and context JAXB contexts and the default configuration of
+     * this initializer. In contrast to {@link #run(SimplePDPConfiguration)} no global state is changed.
+     * 
+     * @param contextClasses
+     *            The additional classes of the JAXB contexts (see {@link SimplePDPConfiguration#getJaxbContexts()}).
+     * @param typeAdapters
+     *            The type adapters that the {@link XACMLMarshaller} sets on each marshaller and unmarshaller.
+     * @return The created {@link XACMLMarshaller}.
+     */
+    public static XACMLMarshaller createMarshaller(List<Class<?>> contextClasses,
+            List<? extends XmlAdapter<?, ?>> typeAdapters) {
+        JAXBContext policyContext = createContext(org.herasaf.xacml.core.policy.impl.ObjectFactory.class, contextClasses);
+        JAXBContext contextContext = createContext(org.herasaf.xacml.core.context.impl.ObjectFactory.class,
+                contextClasses);
+        return new XACMLMarshaller(policyContext, createMarshallerConfiguration(POLICY_SCHEMA_PATH), contextContext,
+                createMarshallerConfiguration(POLICY_SCHEMA_PATH, CONTEXT_SCHEMA_PATH), typeAdapters);
+    }
+
+    /**
+     * Creates a {@link JAXBContext} of the given object factory and the given additional classes.
+     */
+    private static JAXBContext createContext(Class<?> objectFactory, List<Class<?>> contextClasses) {
+        try {
+            List<Class<?>> classes = new ArrayList<Class<?>>();
+            classes.add(objectFactory);
+            classes.addAll(contextClasses);
+            return JAXBContext.newInstance(classes.toArray(new Class[0]));
+        } catch (JAXBException e) {
+            InitializationException ie = new InitializationException("Unable to load JAXBContext for "
+                    + objectFactory.getPackage().getName() + ".", e);
+            logger.error(ie.getMessage());
+            throw ie;
+        }
+    }
+
+    /**
+     * Creates a JAXB default configuration with the schema of the given paths.
+     */
+    private static JAXBMarshallerConfiguration createMarshallerConfiguration(String... schemaPaths) {
+        JAXBMarshallerConfiguration jmc = getCommonMarshallerConfiguration();
+        try {
+            jmc.setSchemaByPath(schemaPaths);
+        } catch (SAXException e) {
+            InitializationException ie = new InitializationException("Unable to load Schema "
+                    + schemaPaths[schemaPaths.length - 1], e);
+            logger.error(ie.getMessage());
+            throw ie;
+        } catch (MalformedURLException e) {
+            InitializationException ie = new InitializationException("Unable to load Schema "
+                    + schemaPaths[schemaPaths.length - 1], e);
+            logger.error(ie.getMessage());
+            throw ie;
+        }
+        return jmc;
+    }
+
     /**
      * Creates a JAXB default configuration that is set on all JAXB components within HERAS-AF by default.
      * 
      * @return The common {@link JAXBMarshallerConfiguration}.
      */
-    private JAXBMarshallerConfiguration getCommonMarshallerConfiguration() {
+    private static JAXBMarshallerConfiguration getCommonMarshallerConfiguration() {
         JAXBMarshallerConfiguration jmc = new JAXBMarshallerConfiguration();
         jmc.setFormattedOutput(JAXB_FORMATTED_OUTPUT);
         jmc.setFragment(JAXB_FRAGMENT);
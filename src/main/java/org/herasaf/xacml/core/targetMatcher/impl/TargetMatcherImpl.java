@@ -21,19 +21,30 @@ import java.util.List;
 
 import org.herasaf.xacml.core.ProcessingException;
 import org.herasaf.xacml.core.SyntaxException;
+import org.herasaf.xacml.core.api.AttributeDescriptor.Category;
+import org.herasaf.xacml.core.api.PIP;
+import org.herasaf.xacml.core.api.SectionScopedPIP;
+import org.herasaf.xacml.core.context.BatchCache;
 import org.herasaf.xacml.core.context.EvaluationContext;
+import org.herasaf.xacml.core.context.RequestAttributeIndex;
 import org.herasaf.xacml.core.context.impl.RequestType;
+import org.herasaf.xacml.core.function.BinaryPredicate;
 import org.herasaf.xacml.core.function.Function;
+import org.herasaf.xacml.core.function.FunctionProcessingException;
 import org.herasaf.xacml.core.policy.MissingAttributeException;
+import org.herasaf.xacml.core.policy.impl.ActionAttributeDesignatorType;
 import org.herasaf.xacml.core.policy.impl.ActionType;
 import org.herasaf.xacml.core.policy.impl.ActionsType;
 import org.herasaf.xacml.core.policy.impl.AttributeDesignatorType;
 import org.herasaf.xacml.core.policy.impl.AttributeValueType;
+import org.herasaf.xacml.core.policy.impl.EnvironmentAttributeDesignatorType;
 import org.herasaf.xacml.core.policy.impl.EnvironmentType;
 import org.herasaf.xacml.core.policy.impl.EnvironmentsType;
 import org.herasaf.xacml.core.policy.impl.Match;
+import org.herasaf.xacml.core.policy.impl.ResourceAttributeDesignatorType;
 import org.herasaf.xacml.core.policy.impl.ResourceType;
 import org.herasaf.xacml.core.policy.impl.ResourcesType;
+import org.herasaf.xacml.core.policy.impl.SubjectAttributeDesignatorType;
 import org.herasaf.xacml.core.policy.impl.SubjectType;
 import org.herasaf.xacml.core.policy.impl.SubjectsType;
 import org.herasaf.xacml.core.policy.impl.TargetType;
@@ -325,6 +336,82 @@ public class TargetMatcherImpl implements TargetMatcher {
 	private boolean match(List<? extends Match> matches, RequestType request,
 			EvaluationContext evaluationContext) throws ProcessingException,
 			SyntaxException, MissingAttributeException {
+		String sectionKey = getSectionKey(matches, evaluationContext);
+		if (sectionKey == null) {
+			return matchAll(matches, request, evaluationContext);
+		}
+		// The result only depends on one section of the request. It is shared
+		// with the other requests of the batch that contain the same section.
+		BatchCache batchCache = evaluationContext.getRequestAttributeIndex()
+				.getBatchCache();
+		Boolean shared = batchCache.getTargetMatch(matches, sectionKey);
+		if (shared != null) {
+			logger.debug("Using the shared match result: {}", shared);
+			return shared;
+		}
+		boolean matchesAll = matchAll(matches, request, evaluationContext);
+		batchCache.putTargetMatch(matches, sectionKey, matchesAll);
+		return matchesAll;
+	}
+
+	/**
+	 * Returns the key of the request section the given matching elements refer
+	 * to, if the request is evaluated as part of a batch.
+	 * 
+	 * @return The key or <code>null</code> if the result of the matching
+	 *         elements is not shared (e.g. because they refer to more than one
+	 *         category or the {@link PIP} may resolve attributes from other
+	 *         sections).
+	 */
+	private String getSectionKey(List<? extends Match> matches,
+			EvaluationContext evaluationContext) {
+		RequestAttributeIndex index = evaluationContext
+				.getRequestAttributeIndex();
+		if (index == null || index.getBatchCache() == null || matches.isEmpty()) {
+			return null;
+		}
+		PIP pip = evaluationContext.getPIP();
+		if (pip != null && !(pip instanceof SectionScopedPIP)) {
+			return null;
+		}
+		Category category = null;
+		for (int i = 0; i < matches.size(); i++) {
+			Category matchCategory = getCategory(matches.get(i)
+					.getAttributeDesignator());
+			if (matchCategory == null
+					|| (category != null && category != matchCategory)) {
+				return null;
+			}
+			category = matchCategory;
+		}
+		return index.getSectionKey(category);
+	}
+
+	/**
+	 * Returns the category of the given designator or <code>null</code> if it
+	 * is unknown.
+	 */
+	private Category getCategory(AttributeDesignatorType designator) {
+		if (designator instanceof SubjectAttributeDesignatorType) {
+			return Category.SUBJECT;
+		} else if (designator instanceof ResourceAttributeDesignatorType) {
+			return Category.RESOURCE;
+		} else if (designator instanceof ActionAttributeDesignatorType) {
+			return Category.ACTION;
+		} else if (designator instanceof EnvironmentAttributeDesignatorType) {
+			return Category.ENVIRONMENT;
+		}
+		return null;
+	}
+
+	/**
+	 * Evaluates all given matching elements against the request (see
+	 * {@link #match(List, RequestType, EvaluationContext)}).
+	 */
+	private boolean matchAll(List<? extends Match> matches,
+			RequestType request, EvaluationContext evaluationContext)
+			throws ProcessingException, SyntaxException,
+			MissingAttributeException {
 		for (int i = 0; i < matches.size(); i++) {
 			Match match = matches.get(i);
 			Function matchFunction = match.getMatchFunction();
@@ -360,6 +447,8 @@ public class TargetMatcherImpl implements TargetMatcher {
 			// Tells if a single match is true for a specific element (element =
 			// subject, resource, action or environment).
 			boolean matchMatches = false;
+			AttributeValueType policyAttributeValue = match.getAttributeValue();
+			Object policyValue = policyAttributeValue.getPreparedContent();
 
 			for (int k = 0; k < requestAttributeValues.size(); k++) {
 				Object requestAttributeValue = requestAttributeValues.get(k);
@@ -370,14 +459,17 @@ public class TargetMatcherImpl implements TargetMatcher {
 				// Langugage (XACML) 2.0, Errata 29 January 2008
 				// (http://www.oasis-open.org/committees/tc_home.php?wg_abbrev=xacml#XACML20)
 				// on page 84 (Match evaluation).
-				AttributeValueType policyAttributeValue = match
-						.getAttributeValue();
-				matchMatches = (Boolean) matchFunction.handle(
-						policyAttributeValue.getDataType().convertTo(
-								policyAttributeValue.getContent()), requestAttributeValue);
-				logger.debug(
-						"Match function resulted in {} with policy attribute datatype:{} value:{} and request attribute value:{}",
-						matchMatches, policyAttributeValue.getDataType(), policyAttributeValue.getContent().get(0), requestAttributeValue);
+				if (matchFunction instanceof BinaryPredicate) {
+					matchMatches = test((BinaryPredicate<?, ?>) matchFunction, policyValue, requestAttributeValue);
+				} else {
+					matchMatches = (Boolean) matchFunction.handle(policyValue,
+							requestAttributeValue);
+				}
+				if (logger.isDebugEnabled()) {
+					logger.debug(
+							"Match function resulted in {} with policy attribute datatype:{} value:{} and request attribute value:{}",
+							matchMatches, policyAttributeValue.getDataType(), policyAttributeValue.getContent().get(0), requestAttributeValue);
+				}
 
 				// If the call of the match function (above) returns true for at
 				// least one attribute value in the request
@@ -410,4 +502,19 @@ public class TargetMatcherImpl implements TargetMatcher {
 		}
 		return true;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Invokes the given match function without allocating an argument array
+	 * (see {@link BinaryPredicate}). Arguments of the wrong type are reported
+	 * the same way as by {@link Function#handle(Object...)}.
+	 */
+	@SuppressWarnings("unchecked")
+	private static boolean test(BinaryPredicate<?, ?> matchFunction, Object policyValue,
+			Object requestAttributeValue) throws FunctionProcessingException {
+		try {
+			return ((BinaryPredicate<Object, Object>) matchFunction).test(policyValue, requestAttributeValue);
+		} catch (RuntimeException e) {
+			throw new FunctionProcessingException(e);
+		}
+	}
+}
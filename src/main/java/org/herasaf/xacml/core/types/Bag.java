@@ -0,0 +1,185 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.herasaf.xacml.core.types;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * An immutable bag of attribute values. Bags are produced by the attribute
+ * designators and the type-bag functions. A bag is a {@link List}, such that
+ * all functions that take a bag as argument accept it.<br />
+ * <br />
+ * The bag creates a hashed view of its values when it is queried the first
+ * time (see {@link #toSet()}). Membership tests ({@link #contains(Object)},
+ * {@link #containsAll(Collection)}) on larger bags use this view and the set
+ * functions share it across calls instead of hashing the values again. The
+ * values must therefore implement {@link Object#hashCode()} consistent with
+ * {@link Object#equals(Object)}.<br />
+ * <br />
+ * See: <a href=
+ * "http://www.oasis-open.org/committees/tc_home.php?wg_abbrev=xacml#XACML20">
+ * OASIS eXtensible Access Control Markup Langugage (XACML) 2.0, Errata, 29 January 2008</a> appendix A.3.10 and A.3.11, for further
+ * information.
+ *
+ * @param <T>
+ *            The type of the values.
+ */
+public final class Bag<T> extends AbstractList<T> implements RandomAccess, Serializable {
+	private static final long serialVersionUID = 1L;
+
+	/** Up to this size membership is tested by a linear scan. */
+	private static final int HASH_THRESHOLD = 8;
+
+	private final Object[] values;
+	// Created on first use. Creating it twice in concurrent calls is harmless.
+	private transient volatile Set<T> set;
+
+	/**
+	 * Creates a bag containing the given values in their iteration order.
+	 *
+	 * @param values
+	 *            The values of the bag.
+	 */
+	public Bag(Collection<? extends T> values) {
+		this.values = values.toArray();
+	}
+
+	/**
+	 * Returns the given values as bag. If the values already are a bag it is
+	 * returned, otherwise a new bag is created.
+	 *
+	 * @param <T>
+	 *            The type of the values.
+	 * @param values
+	 *            The values.
+	 * @return The bag containing the values.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> Bag<T> of(Collection<? extends T> values) {
+		if (values instanceof Bag) {
+			return (Bag<T>) values;
+		}
+		return new Bag<T>(values);
+	}
+
+	/**
+	 * Creates a bag containing the distinct values of the given {@link Set}.
+	 * The set is used as hashed view of the bag and must not be modified
+	 * afterwards.
+	 *
+	 * @param <T>
+	 *            The type of the values.
+	 * @param values
+	 *            The distinct values.
+	 * @return The bag containing the values.
+	 */
+	public static <T> Bag<T> fromSet(Set<T> values) {
+		Bag<T> bag = new Bag<T>(values);
+		bag.set = Collections.unmodifiableSet(values);
+		return bag;
+	}
+
+	/**
+	 * Returns a {@link Set} containing the distinct values of the given
+	 * {@link Collection}. If the collection is a bag its hashed view is
+	 * returned.
+	 *
+	 * @param <T>
+	 *            The type of the values.
+	 * @param values
+	 *            The values.
+	 * @return The {@link Set} of the values. It must not be modified.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> Set<T> asSet(Collection<? extends T> values) {
+		if (values instanceof Bag) {
+			return ((Bag<T>) values).toSet();
+		}
+		return new HashSet<T>(values);
+	}
+
+	/**
+	 * Returns the unmodifiable hashed view of the distinct values of this bag.
+	 *
+	 * @return The {@link Set} of the values.
+	 */
+	@SuppressWarnings("unchecked")
+	public Set<T> toSet() {
+		Set<T> result = set;
+		if (result == null) {
+			Set<T> hashed = new HashSet<T>(values.length * 2);
+			for (Object value : values) {
+				hashed.add((T) value);
+			}
+			result = Collections.unmodifiableSet(hashed);
+			set = result;
+		}
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public T get(int index) {
+		if (index < 0 || index >= values.length) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + values.length);
+		}
+		return (T) values[index];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int size() {
+		return values.length;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean contains(Object o) {
+		if (values.length <= HASH_THRESHOLD && set == null) {
+			return super.contains(o);
+		}
+		return toSet().contains(o);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean containsAll(Collection<?> c) {
+		for (Object value : c) {
+			if (!contains(value)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
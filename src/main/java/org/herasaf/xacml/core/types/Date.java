@@ -24,7 +24,6 @@ import java.time.DateTimeException;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
-import java.util.Objects;
 
 /**
  * This class can parse and print a date of type
@@ -40,12 +39,17 @@ import java.util.Objects;
  * GMT+1 (for Zurich) the date is printed as yyyy-mm-dd-01:00. This is the
  * timezone calculated back to UTC. So a comparison is possible.
  * 
+ * The standard timezone and the representation of the UTC timezone are given
+ * on creation. If they are not given, the defaults set with
+ * {@link #configureWith(boolean, ZoneId)} are used.
+ * 
  * @author Florian Huonder
  */
 public class Date implements Comparable<Date> {
 	private static final Logger logger = LoggerFactory.getLogger(Date.class);
 	private LocalDate date;
 	private ZoneOffset offset;
+	private final boolean zuluUtcRepresentation;
 	private static boolean useZuluRepresentation = false;
 	private static ZoneId defaultZoneId = ZoneOffset.UTC;
 
@@ -68,7 +72,68 @@ public class Date implements Comparable<Date> {
 		Date.defaultZoneId = defaultZoneId;
 	}
 
+	/**
+	 * Creates a copy of the given {@link Date}.
+	 * 
+	 * @param date
+	 *            The {@link Date} to copy.
+	 */
+	public Date(Date date) {
+		this.date = date.date;
+		this.offset = date.offset;
+		this.zuluUtcRepresentation = date.zuluUtcRepresentation;
+	}
+
+	/**
+	 * Creates a {@link Date} representing the given {@link LocalDate} in the
+	 * given timezone. The UTC timezone is represented as set by the defaults.
+	 * 
+	 * @param date
+	 *            The {@link LocalDate} to represent.
+	 * @param offset
+	 *            The timezone of the date.
+	 */
+	public Date(LocalDate date, ZoneOffset offset) {
+		this(date, offset, useZuluRepresentation);
+	}
+
+	/**
+	 * Creates a {@link Date} representing the given {@link LocalDate} in the
+	 * given timezone.
+	 * 
+	 * @param date
+	 *            The {@link LocalDate} to represent.
+	 * @param offset
+	 *            The timezone of the date.
+	 * @param useZuluUtcRepresentation
+	 *            Whether the UTC timezone shall be represented in Zulu ('Z')
+	 *            or standard (+00:00).
+	 */
+	public Date(LocalDate date, ZoneOffset offset, boolean useZuluUtcRepresentation) {
+		this.date = date;
+		this.offset = offset;
+		this.zuluUtcRepresentation = useZuluUtcRepresentation;
+	}
+
 	public Date(String dateString) throws SyntaxException {
+		this(dateString, defaultZoneId, useZuluRepresentation);
+	}
+
+	/**
+	 * Parses the given date.
+	 * 
+	 * @param dateString
+	 *            The date to parse.
+	 * @param defaultZoneId
+	 *            The timezone of the date if it does not contain one.
+	 * @param useZuluUtcRepresentation
+	 *            Whether the UTC timezone shall be represented in Zulu ('Z')
+	 *            or standard (+00:00).
+	 * @throws SyntaxException
+	 *             If the date is not valid.
+	 */
+	public Date(String dateString, ZoneId defaultZoneId, boolean useZuluUtcRepresentation) throws SyntaxException {
+		this.zuluUtcRepresentation = useZuluUtcRepresentation;
 		String trimmedDate = dateString.trim();
 		try {
 			// Java's Time API does not support date's having a zone offset, so manually
@@ -94,7 +159,7 @@ public class Date implements Comparable<Date> {
 	 */
 	@Override
 	public String toString() {
-		String formatOffset = useZuluRepresentation ? offset.toString() : offset.toString().replace("Z", "+00:00");
+		String formatOffset = zuluUtcRepresentation ? offset.toString() : offset.toString().replace("Z", "+00:00");
 		return date.toString() + formatOffset;
 	}
 
@@ -125,7 +190,8 @@ public class Date implements Comparable<Date> {
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(date, offset);
+		// Consistent with equals, which ignores the offset.
+		return date.hashCode();
 	}
 
 	/**
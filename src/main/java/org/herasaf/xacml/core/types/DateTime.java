@@ -29,7 +29,6 @@ import java.time.format.DateTimeFormatterBuilder;
 import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalAccessor;
-import java.util.Objects;
 
 /**
  * This class can parse and print a dateTime of type
@@ -41,16 +40,25 @@ import java.util.Objects;
  * {@link #toString()} method will always print the fractional seconds and the
  * timezone.
  * 
+ * The timezone of a dateTime without timezone and the representation of the
+ * UTC timezone are given on creation. If they are not given, the defaults set
+ * with {@link #configureWith(boolean, ZoneId)} are used.
+ * 
  * @author Florian Huonder
  */
 public class DateTime implements Comparable<DateTime> {
 	private static final Logger logger = LoggerFactory.getLogger(DateTime.class);
-	private static DateTimeFormatter dateTimeFormatter;
+	private static final DateTimeFormatter ZULU_UTC_FORMATTER = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+	private static final DateTimeFormatter STANDARD_UTC_FORMATTER = new DateTimeFormatterBuilder()
+			.parseCaseInsensitive().parseLenient().append(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
+			.appendOffset("+HH:MM", "+00:00").toFormatter();
+	private static boolean defaultZuluUtcRepresentation;
 	private static ZoneId defaultZoneId;
 	private OffsetDateTime dateTime;
+	private final boolean zuluUtcRepresentation;
 
 	/**
-	 * Initializes the formatters when the type is initialized.
+	 * Initializes the defaults when the type is initialized.
 	 */
 	static {
 		configureWith(false, ZoneOffset.UTC);
@@ -61,12 +69,7 @@ public class DateTime implements Comparable<DateTime> {
 	 * standard (+00:00).
 	 */
 	public static void useZuluUtcRepresentation(boolean useZuluUtcRepresentation) {
-		if (useZuluUtcRepresentation) {
-			dateTimeFormatter = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
-		} else {
-			dateTimeFormatter = new DateTimeFormatterBuilder().parseCaseInsensitive().parseLenient()
-					.append(DateTimeFormatter.ISO_LOCAL_DATE_TIME).appendOffset("+HH:MM", "+00:00").toFormatter();
-		}
+		defaultZuluUtcRepresentation = useZuluUtcRepresentation;
 	}
 
 	/**
@@ -80,7 +83,62 @@ public class DateTime implements Comparable<DateTime> {
 		useZuluUtcRepresentation(useZuluUtcRepresentation);
 	}
 
+	/**
+	 * Creates a copy of the given {@link DateTime}.
+	 * 
+	 * @param dateTime
+	 *            The {@link DateTime} to copy.
+	 */
+	public DateTime(DateTime dateTime) {
+		this.dateTime = dateTime.dateTime;
+		this.zuluUtcRepresentation = dateTime.zuluUtcRepresentation;
+	}
+
+	/**
+	 * Creates a {@link DateTime} representing the given {@link OffsetDateTime}.
+	 * The UTC timezone is represented as set by the defaults.
+	 * 
+	 * @param dateTime
+	 *            The {@link OffsetDateTime} to represent.
+	 */
+	public DateTime(OffsetDateTime dateTime) {
+		this(dateTime, defaultZuluUtcRepresentation);
+	}
+
+	/**
+	 * Creates a {@link DateTime} representing the given {@link OffsetDateTime}.
+	 * 
+	 * @param dateTime
+	 *            The {@link OffsetDateTime} to represent.
+	 * @param useZuluUtcRepresentation
+	 *            Whether the UTC timezone shall be represented in Zulu ('Z')
+	 *            or standard (+00:00).
+	 */
+	public DateTime(OffsetDateTime dateTime, boolean useZuluUtcRepresentation) {
+		this.dateTime = dateTime;
+		this.zuluUtcRepresentation = useZuluUtcRepresentation;
+	}
+
 	public DateTime(String dateTimeString) throws SyntaxException {
+		this(dateTimeString, defaultZoneId, defaultZuluUtcRepresentation);
+	}
+
+	/**
+	 * Parses the given dateTime.
+	 * 
+	 * @param dateTimeString
+	 *            The dateTime to parse.
+	 * @param defaultZoneId
+	 *            The timezone of the dateTime if it does not contain one.
+	 * @param useZuluUtcRepresentation
+	 *            Whether the UTC timezone shall be represented in Zulu ('Z')
+	 *            or standard (+00:00).
+	 * @throws SyntaxException
+	 *             If the dateTime is not valid.
+	 */
+	public DateTime(String dateTimeString, ZoneId defaultZoneId, boolean useZuluUtcRepresentation)
+			throws SyntaxException {
+		this.zuluUtcRepresentation = useZuluUtcRepresentation;
 		try {
 			// Java implement strict ISO8601 which does not allow 24:00, but XML-DateTime
 			// does.
@@ -110,7 +168,10 @@ public class DateTime implements Comparable<DateTime> {
 	 */
 	@Override
 	public String toString() {
-		return dateTime.format(dateTimeFormatter);
+		if (zuluUtcRepresentation) {
+			return dateTime.format(ZULU_UTC_FORMATTER);
+		}
+		return dateTime.format(STANDARD_UTC_FORMATTER);
 	}
 
 	/**
@@ -139,7 +200,8 @@ public class DateTime implements Comparable<DateTime> {
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(dateTime);
+		// Consistent with equals, which compares the instants.
+		return dateTime.toInstant().hashCode();
 	}
 
 	/**
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.herasaf.xacml.core.types;
+
+import java.math.BigInteger;
+
+/**
+ * This utility class computes with the values of the data type
+ * http://www.w3.org/2001/XMLSchema#integer. The values are {@link BigInteger}s,
+ * but most of them fit into a long. The operations of this class compute such
+ * values on longs and fall back to {@link BigInteger} arithmetic if a value or
+ * the result does not fit. The values from -128 to 1023 are cached, such that
+ * small parsed values and results are neither allocated nor compared by their
+ * magnitude when they are equal.
+ */
+public final class IntegerValues {
+	private static final int CACHE_LOW = -128;
+	private static final int CACHE_HIGH = 1023;
+	private static final BigInteger[] CACHE = new BigInteger[CACHE_HIGH - CACHE_LOW + 1];
+	// Strings with at most 18 characters are numbers that fit into a long.
+	private static final int MAX_LONG_LENGTH = 18;
+
+	static {
+		for (int i = 0; i < CACHE.length; i++) {
+			CACHE[i] = BigInteger.valueOf(CACHE_LOW + i);
+		}
+	}
+
+	private IntegerValues() {
+	}
+
+	/**
+	 * Returns the {@link BigInteger} of the given value.
+	 * 
+	 * @param value
+	 *            The value.
+	 * @return The cached {@link BigInteger} if the value is small, a new one
+	 *         otherwise.
+	 */
+	public static BigInteger valueOf(long value) {
+		if (value >= CACHE_LOW && value <= CACHE_HIGH) {
+			return CACHE[(int) value - CACHE_LOW];
+		}
+		return BigInteger.valueOf(value);
+	}
+
+	/**
+	 * Parses the given decimal representation of an integer.
+	 * 
+	 * @param value
+	 *            The decimal representation (e.g. "-42").
+	 * @return The parsed value.
+	 * @throws NumberFormatException
+	 *             If the value is not a valid integer.
+	 */
+	public static BigInteger parse(String value) {
+		if (value.length() <= MAX_LONG_LENGTH) {
+			return valueOf(Long.parseLong(value));
+		}
+		return new BigInteger(value);
+	}
+
+	/**
+	 * Returns true if the given value fits into a long.
+	 * 
+	 * @param value
+	 *            The value.
+	 * @return True if {@link BigInteger#longValue()} returns the exact value.
+	 */
+	public static boolean isLong(BigInteger value) {
+		return value.bitLength() < Long.SIZE;
+	}
+
+	/**
+	 * Returns the sum of the given values.
+	 * 
+	 * @param first
+	 *            The first value.
+	 * @param second
+	 *            The second value.
+	 * @return The sum.
+	 */
+	public static BigInteger add(BigInteger first, BigInteger second) {
+		if (isLong(first) && isLong(second)) {
+			long a = first.longValue();
+			long b = second.longValue();
+			long result = a + b;
+			// Overflow if both values have the same sign and the result has
+			// the other sign.
+			if (((a ^ result) & (b ^ result)) >= 0) {
+				return valueOf(result);
+			}
+		}
+		return first.add(second);
+	}
+
+	/**
+	 * Returns the difference of the given values.
+	 * 
+	 * @param first
+	 *            The value to subtract from.
+	 * @param second
+	 *            The value to subtract.
+	 * @return The difference.
+	 */
+	public static BigInteger subtract(BigInteger first, BigInteger second) {
+		if (isLong(first) && isLong(second)) {
+			long a = first.longValue();
+			long b = second.longValue();
+			long result = a - b;
+			// Overflow if the values have different signs and the result has
+			// not the sign of the first value.
+			if (((a ^ b) & (a ^ result)) >= 0) {
+				return valueOf(result);
+			}
+		}
+		return first.subtract(second);
+	}
+
+	/**
+	 * Returns the product of the given values.
+	 * 
+	 * @param first
+	 *            The first value.
+	 * @param second
+	 *            The second value.
+	 * @return The product.
+	 */
+	public static BigInteger multiply(BigInteger first, BigInteger second) {
+		if (isLong(first) && isLong(second)) {
+			long a = first.longValue();
+			long b = second.longValue();
+			long high = Math.multiplyHigh(a, b);
+			long result = a * b;
+			// No overflow if the high part only extends the sign of the
+			// result.
+			if ((high == 0 && result >= 0) || (high == -1 && result < 0)) {
+				return valueOf(result);
+			}
+		}
+		return first.multiply(second);
+	}
+
+	/**
+	 * Returns the quotient of the given values, rounded towards zero.
+	 * 
+	 * @param first
+	 *            The dividend.
+	 * @param second
+	 *            The divisor.
+	 * @return The quotient.
+	 * @throws ArithmeticException
+	 *             If the divisor is zero.
+	 */
+	public static BigInteger divide(BigInteger first, BigInteger second) {
+		if (isLong(first) && isLong(second)) {
+			long a = first.longValue();
+			long b = second.longValue();
+			// The only quotient that overflows.
+			if (a != Long.MIN_VALUE || b != -1) {
+				return valueOf(a / b);
+			}
+		}
+		return first.divide(second);
+	}
+
+	/**
+	 * Returns the first value modulo the second value (see
+	 * {@link BigInteger#mod(BigInteger)}).
+	 * 
+	 * @param first
+	 *            The value.
+	 * @param second
+	 *            The modulus.
+	 * @return The non-negative remainder.
+	 * @throws ArithmeticException
+	 *             If the modulus is not positive.
+	 */
+	public static BigInteger mod(BigInteger first, BigInteger second) {
+		if (isLong(first) && isLong(second) && second.signum() > 0) {
+			return valueOf(Math.floorMod(first.longValue(), second.longValue()));
+		}
+		return first.mod(second);
+	}
+
+	/**
+	 * Returns the absolute value of the given value.
+	 * 
+	 * @param value
+	 *            The value.
+	 * @return The absolute value.
+	 */
+	public static BigInteger abs(BigInteger value) {
+		if (isLong(value) && value.longValue() != Long.MIN_VALUE) {
+			return valueOf(Math.abs(value.longValue()));
+		}
+		return value.abs();
+	}
+
+	/**
+	 * Compares the given values.
+	 * 
+	 * @param first
+	 *            The first value.
+	 * @param second
+	 *            The second value.
+	 * @return A negative number, zero or a positive number if the first value
+	 *         is less than, equal to or greater than the second value.
+	 */
+	public static int compare(BigInteger first, BigInteger second) {
+		if (first == second) {
+			return 0;
+		}
+		if (isLong(first) && isLong(second)) {
+			return Long.compare(first.longValue(), second.longValue());
+		}
+		return first.compareTo(second);
+	}
+
+	/**
+	 * Returns the given value as double.
+	 * 
+	 * @param value
+	 *            The value.
+	 * @return The nearest double.
+	 */
+	public static double toDouble(BigInteger value) {
+		if (isLong(value)) {
+			return value.longValue();
+		}
+		return value.doubleValue();
+	}
+}
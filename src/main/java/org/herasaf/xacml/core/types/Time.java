@@ -27,7 +27,6 @@ import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
 import java.time.format.DateTimeParseException;
 import java.time.temporal.TemporalAccessor;
-import java.util.Objects;
 
 /**
  * This class can parse and print a time of type http://www.w3.org/2001/XMLSchema#time with the pattern
@@ -41,37 +40,73 @@ import java.util.Objects;
  */
 public class Time implements Comparable<Time> {
 	private static final Logger logger = LoggerFactory.getLogger(Time.class);
-	private static DateTimeFormatter timeFormatter;
+	private static final DateTimeFormatter ZULU_UTC_FORMATTER = new DateTimeFormatterBuilder()
+			.parseCaseInsensitive()
+			.append(DateTimeFormatter.ISO_LOCAL_TIME).optionalStart()
+			.appendOffsetId().toFormatter();
+	private static final DateTimeFormatter STANDARD_UTC_FORMATTER = new DateTimeFormatterBuilder()
+			.parseCaseInsensitive()
+			.append(DateTimeFormatter.ISO_LOCAL_TIME).optionalStart()
+			.appendOffset("+HH:MM", "+00:00").toFormatter();
+	private static boolean defaultZuluUtcRepresentation = false;
 	private OffsetTime time;
+	private final boolean zuluUtcRepresentation;
 
 	/**
-	 * Initializes the formatters when the type is initialized.
-	 */
-	static {
-		useZuluUtcRepresentation(false);
-	}
-
-	/**
+	 * Sets the default representation of the UTC timezone, which is used if
+	 * it is not given on creation.
+	 * 
 	 * @param useZuluUtcRepresentation - whether the UTC timezone shall be represented in Zulu ('Z') or standard (+00:00)
 	 */
 	public static void useZuluUtcRepresentation(
 			boolean useZuluUtcRepresentation) {
-		if (useZuluUtcRepresentation) {
-			timeFormatter = new DateTimeFormatterBuilder()
-					.parseCaseInsensitive()
-					.append(DateTimeFormatter.ISO_LOCAL_TIME).optionalStart()
-					.appendOffsetId().toFormatter();
-		} else {
-			timeFormatter = new DateTimeFormatterBuilder()
-					.parseCaseInsensitive()
-					.append(DateTimeFormatter.ISO_LOCAL_TIME).optionalStart()
-					.appendOffset("+HH:MM", "+00:00").toFormatter();
-		}
+		defaultZuluUtcRepresentation = useZuluUtcRepresentation;
 	}
 
+	/**
+	 * Creates a {@link Time} representing the given {@link OffsetTime}. The
+	 * UTC timezone is represented as set by the defaults.
+	 * 
+	 * @param time
+	 *            The {@link OffsetTime} to represent.
+	 */
+	public Time(OffsetTime time) {
+		this(time, defaultZuluUtcRepresentation);
+	}
+
+	/**
+	 * Creates a {@link Time} representing the given {@link OffsetTime}.
+	 * 
+	 * @param time
+	 *            The {@link OffsetTime} to represent.
+	 * @param useZuluUtcRepresentation
+	 *            Whether the UTC timezone shall be represented in Zulu ('Z')
+	 *            or standard (+00:00).
+	 */
+	public Time(OffsetTime time, boolean useZuluUtcRepresentation) {
+		this.time = time;
+		this.zuluUtcRepresentation = useZuluUtcRepresentation;
+	}
+
 	public Time(String timeString) throws SyntaxException {
+		this(timeString, defaultZuluUtcRepresentation);
+	}
+
+	/**
+	 * Parses the given time.
+	 * 
+	 * @param timeString
+	 *            The time to parse.
+	 * @param useZuluUtcRepresentation
+	 *            Whether the UTC timezone shall be represented in Zulu ('Z')
+	 *            or standard (+00:00).
+	 * @throws SyntaxException
+	 *             If the time is not valid.
+	 */
+	public Time(String timeString, boolean useZuluUtcRepresentation) throws SyntaxException {
+		this.zuluUtcRepresentation = useZuluUtcRepresentation;
 		try {
-			TemporalAccessor parsed = timeFormatter.parseBest(
+			TemporalAccessor parsed = getFormatter().parseBest(
 					timeString.trim().replace("Z", "+00:00"), OffsetTime::from, LocalTime::from);
 			if (parsed instanceof LocalTime) {
 				time = ((LocalTime) parsed).atOffset(ZoneOffset.UTC);
@@ -90,7 +125,17 @@ public class Time implements Comparable<Time> {
 	 */
 	@Override
 	public String toString() {
-		return time.format(timeFormatter);
+		return time.format(getFormatter());
+	}
+
+	/**
+	 * Returns the formatter of the representation of this time.
+	 */
+	private DateTimeFormatter getFormatter() {
+		if (zuluUtcRepresentation) {
+			return ZULU_UTC_FORMATTER;
+		}
+		return STANDARD_UTC_FORMATTER;
 	}
 
 	/**
@@ -119,7 +164,8 @@ public class Time implements Comparable<Time> {
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(time);
+		// Consistent with equals, which compares the times in the same offset.
+		return time.withOffsetSameInstant(ZoneOffset.UTC).hashCode();
 	}
 
 	/**
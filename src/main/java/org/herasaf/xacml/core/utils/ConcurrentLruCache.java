@@ -0,0 +1,226 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.herasaf.xacml.core.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded cache that is read and written without a global lock. The entries
+ * are kept in a {@link ConcurrentHashMap} and each entry remembers the time of
+ * its last access. If the cache grows beyond its maximum size, the least
+ * recently used entries are evicted by one thread at a time in a batch, such
+ * that the eviction costs are spread over many insertions. The cache may exceed
+ * its maximum size while another thread evicts.
+ * 
+ * @param <K>
+ *            The type of the keys.
+ * @param <V>
+ *            The type of the values.
+ */
+public class ConcurrentLruCache<K, V> {
+	private final int maximumSize;
+	private final int evictionBatchSize;
+	private final ConcurrentHashMap<K, Node<V>> entries = new ConcurrentHashMap<K, Node<V>>();
+	private final ReentrantLock evictionLock = new ReentrantLock();
+
+	/**
+	 * Creates a new {@link ConcurrentLruCache}.
+	 * 
+	 * @param maximumSize
+	 *            The maximum number of entries.
+	 */
+	public ConcurrentLruCache(int maximumSize) {
+		if (maximumSize <= 0) {
+			throw new IllegalArgumentException("The maximum size must be greater than 0.");
+		}
+		this.maximumSize = maximumSize;
+		this.evictionBatchSize = Math.max(1, maximumSize / 16);
+	}
+
+	/**
+	 * Returns the value of the given key and marks it as recently used.
+	 * 
+	 * @param key
+	 *            The key.
+	 * @return The value or <code>null</code> if the key is not cached.
+	 */
+	public V get(K key) {
+		Node<V> node = entries.get(key);
+		if (node == null) {
+			return null;
+		}
+		node.touch();
+		return node.value;
+	}
+
+	/**
+	 * Caches the given value under the given key.
+	 * 
+	 * @param key
+	 *            The key.
+	 * @param value
+	 *            The value.
+	 */
+	public void put(K key, V value) {
+		entries.put(key, new Node<V>(value));
+		evictIfFull();
+	}
+
+	/**
+	 * Caches the given value if the key is not cached.
+	 * 
+	 * @param key
+	 *            The key.
+	 * @param value
+	 *            The value.
+	 * @return The value that is already cached or <code>null</code> if the
+	 *         given value was cached.
+	 */
+	public V putIfAbsent(K key, V value) {
+		Node<V> existing = entries.putIfAbsent(key, new Node<V>(value));
+		if (existing != null) {
+			existing.touch();
+			return existing.value;
+		}
+		evictIfFull();
+		return null;
+	}
+
+	/**
+	 * Replaces the value of the given key if it is the given old value.
+	 * 
+	 * @param key
+	 *            The key.
+	 * @param oldValue
+	 *            The expected value (compared by identity).
+	 * @param newValue
+	 *            The new value.
+	 * @return True if the value was replaced.
+	 */
+	public boolean replace(K key, V oldValue, V newValue) {
+		Node<V> node = entries.get(key);
+		if (node == null || node.value != oldValue) {
+			return false;
+		}
+		return entries.replace(key, node, new Node<V>(newValue));
+	}
+
+	/**
+	 * Removes the given key if its value is the given value.
+	 * 
+	 * @param key
+	 *            The key.
+	 * @param value
+	 *            The expected value (compared by identity).
+	 * @return True if the entry was removed.
+	 */
+	public boolean remove(K key, V value) {
+		Node<V> node = entries.get(key);
+		if (node == null || node.value != value) {
+			return false;
+		}
+		return entries.remove(key, node);
+	}
+
+	/**
+	 * Returns the number of cached entries.
+	 * 
+	 * @return The number of cached entries.
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Discards all cached entries.
+	 */
+	public void clear() {
+		entries.clear();
+	}
+
+	/**
+	 * Evicts the least recently used entries if the cache is full and no other
+	 * thread evicts.
+	 */
+	private void evictIfFull() {
+		if (entries.size() <= maximumSize || !evictionLock.tryLock()) {
+			return;
+		}
+		try {
+			int excess = entries.size() - maximumSize;
+			if (excess <= 0) {
+				return;
+			}
+			// The access times are copied, such that they do not change while
+			// the candidates are sorted.
+			List<Candidate<K, V>> candidates = new ArrayList<Candidate<K, V>>(entries.size());
+			for (Map.Entry<K, Node<V>> entry : entries.entrySet()) {
+				candidates.add(new Candidate<K, V>(entry.getKey(), entry.getValue()));
+			}
+			Collections.sort(candidates, new Comparator<Candidate<K, V>>() {
+				public int compare(Candidate<K, V> first, Candidate<K, V> second) {
+					return Long.compare(first.lastAccess, second.lastAccess);
+				}
+			});
+			int count = Math.min(candidates.size(), excess + evictionBatchSize - 1);
+			for (int i = 0; i < count; i++) {
+				entries.remove(candidates.get(i).key, candidates.get(i).node);
+			}
+		} finally {
+			evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * An entry that may be evicted, with the time of its last access when the
+	 * eviction started.
+	 */
+	private static final class Candidate<K, V> {
+		private final K key;
+		private final Node<V> node;
+		private final long lastAccess;
+
+		private Candidate(K key, Node<V> node) {
+			this.key = key;
+			this.node = node;
+			this.lastAccess = node.lastAccess;
+		}
+	}
+
+	/**
+	 * A cached value with the time of its last access.
+	 */
+	private static final class Node<V> {
+		private final V value;
+		// Written racily, a lost update only makes the eviction less exact.
+		private volatile long lastAccess = System.nanoTime();
+
+		private Node(V value) {
+			this.value = value;
+		}
+
+		private void touch() {
+			lastAccess = System.nanoTime();
+		}
+	}
+}
@@ -0,0 +1,295 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.herasaf.xacml.core.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBElement;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.Unmarshaller;
+import jakarta.xml.bind.annotation.adapters.XmlAdapter;
+import javax.xml.transform.Result;
+import javax.xml.transform.Source;
+
+import org.herasaf.xacml.core.NotInitializedException;
+import org.herasaf.xacml.core.SyntaxException;
+import org.herasaf.xacml.core.WritingException;
+import org.herasaf.xacml.core.context.impl.RequestType;
+import org.herasaf.xacml.core.context.impl.ResponseType;
+import org.herasaf.xacml.core.policy.Evaluatable;
+import org.herasaf.xacml.core.policy.impl.PolicySetType;
+import org.herasaf.xacml.core.policy.impl.PolicyType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * Marshals and unmarshals policies, requests and responses with its own JAXB
+ * contexts, configurations and type adapters. In contrast to the
+ * {@link org.herasaf.xacml.core.policy.PolicyMarshaller},
+ * {@link org.herasaf.xacml.core.context.RequestMarshaller} and
+ * {@link org.herasaf.xacml.core.context.ResponseMarshaller}, which share one
+ * global state, each {@link XACMLMarshaller} only uses the functions, data
+ * types and combining algorithms of its type adapters. This allows several
+ * differently configured PDPs in the same JVM.
+ * </p>
+ * <p>
+ * The state of this class does not change after its creation, the given
+ * {@link JAXBMarshallerConfiguration}s must therefore not be modified
+ * afterwards. Because the {@link Marshaller} and the {@link Unmarshaller} from
+ * JAXB <b>are not</b> thread safe they are created in each method. This class
+ * is thread-safe.
+ * </p>
+ */
+public final class XACMLMarshaller {
+	private static final Logger LOGGER = LoggerFactory.getLogger(XACMLMarshaller.class);
+	private static final org.herasaf.xacml.core.policy.impl.ObjectFactory POLICY_OBJECT_FACTORY = new org.herasaf.xacml.core.policy.impl.ObjectFactory();
+	private static final org.herasaf.xacml.core.context.impl.ObjectFactory CONTEXT_OBJECT_FACTORY = new org.herasaf.xacml.core.context.impl.ObjectFactory();
+	private final JAXBContext policyContext;
+	private final JAXBMarshallerConfiguration policyConfiguration;
+	private final JAXBContext contextContext;
+	private final JAXBMarshallerConfiguration contextConfiguration;
+	private final List<XmlAdapter<?, ?>> typeAdapters;
+
+	/**
+	 * Creates a {@link XACMLMarshaller}.
+	 * 
+	 * @param policyContext
+	 *            The {@link JAXBContext} of the policies.
+	 * @param policyConfiguration
+	 *            The {@link JAXBMarshallerConfiguration} of the policies.
+	 * @param contextContext
+	 *            The {@link JAXBContext} of the requests and responses.
+	 * @param contextConfiguration
+	 *            The {@link JAXBMarshallerConfiguration} of the requests and
+	 *            responses.
+	 * @param typeAdapters
+	 *            The type adapters that are set on each {@link Marshaller} and
+	 *            {@link Unmarshaller} (e.g. a
+	 *            {@link org.herasaf.xacml.core.converter.FunctionsJAXBTypeAdapter}
+	 *            with the functions of a PDP).
+	 */
+	public XACMLMarshaller(JAXBContext policyContext, JAXBMarshallerConfiguration policyConfiguration,
+			JAXBContext contextContext, JAXBMarshallerConfiguration contextConfiguration,
+			List<? extends XmlAdapter<?, ?>> typeAdapters) {
+		if (policyContext == null || policyConfiguration == null || contextContext == null
+				|| contextConfiguration == null) {
+			throw new NotInitializedException("JAXB Context and/or Configuration not initialized.");
+		}
+		this.policyContext = policyContext;
+		this.policyConfiguration = policyConfiguration;
+		this.contextContext = contextContext;
+		this.contextConfiguration = contextConfiguration;
+		this.typeAdapters = new ArrayList<XmlAdapter<?, ?>>(typeAdapters);
+	}
+
+	/**
+	 * Creates an {@link Evaluatable} from the given {@link Source}.
+	 * 
+	 * @param source
+	 *            The {@link Source} from which the {@link Evaluatable} is
+	 *            created.
+	 * @return The created {@link Evaluatable}.
+	 * @throws SyntaxException
+	 *             In case the XML representation contains a syntax error.
+	 */
+	public Evaluatable unmarshalPolicy(Source source) throws SyntaxException {
+		return unmarshal(policyContext, policyConfiguration, source, Evaluatable.class);
+	}
+
+	/**
+	 * Creates a {@link RequestType} from the given {@link Source}.
+	 * 
+	 * @param source
+	 *            The {@link Source} from which the {@link RequestType} is
+	 *            created.
+	 * @return The created {@link RequestType}.
+	 * @throws SyntaxException
+	 *             In case the XML representation contains a syntax error.
+	 */
+	public RequestType unmarshalRequest(Source source) throws SyntaxException {
+		return unmarshal(contextContext, contextConfiguration, source, RequestType.class);
+	}
+
+	/**
+	 * Creates a {@link ResponseType} from the given {@link Source}.
+	 * 
+	 * @param source
+	 *            The {@link Source} from which the {@link ResponseType} is
+	 *            created.
+	 * @return The created {@link ResponseType}.
+	 * @throws SyntaxException
+	 *             In case the XML representation contains a syntax error.
+	 */
+	public ResponseType unmarshalResponse(Source source) throws SyntaxException {
+		return unmarshal(contextContext, contextConfiguration, source, ResponseType.class);
+	}
+
+	/**
+	 * Marshals the given {@link Evaluatable} to the given {@link Result}.
+	 * 
+	 * @param evaluatable
+	 *            The {@link Evaluatable} to marshal.
+	 * @param result
+	 *            The {@link Result} to use.
+	 * @throws WritingException
+	 *             In case an error occurs.
+	 */
+	public void marshal(Evaluatable evaluatable, Result result) throws WritingException {
+		Object element;
+		if (evaluatable instanceof PolicySetType) {
+			element = POLICY_OBJECT_FACTORY.createPolicySet((PolicySetType) evaluatable);
+		} else if (evaluatable instanceof PolicyType) {
+			element = POLICY_OBJECT_FACTORY.createPolicy((PolicyType) evaluatable);
+		} else {
+			WritingException e = new WritingException("Unable to marshal an object of type: "
+					+ evaluatable.getClass());
+			LOGGER.error(e.getMessage());
+			throw e;
+		}
+		marshal(policyContext, policyConfiguration, element, result);
+	}
+
+	/**
+	 * Marshals the given {@link RequestType} to the given {@link Result}.
+	 * 
+	 * @param request
+	 *            The {@link RequestType} to marshal.
+	 * @param result
+	 *            The {@link Result} to use.
+	 * @throws WritingException
+	 *             In case an error occurs.
+	 */
+	public void marshal(RequestType request, Result result) throws WritingException {
+		marshal(contextContext, contextConfiguration, CONTEXT_OBJECT_FACTORY.createRequest(request), result);
+	}
+
+	/**
+	 * Marshals the given {@link ResponseType} to the given {@link Result}.
+	 * 
+	 * @param response
+	 *            The {@link ResponseType} to marshal.
+	 * @param result
+	 *            The {@link Result} to use.
+	 * @throws WritingException
+	 *             In case an error occurs.
+	 */
+	public void marshal(ResponseType response, Result result) throws WritingException {
+		marshal(contextContext, contextConfiguration, CONTEXT_OBJECT_FACTORY.createResponse(response), result);
+	}
+
+	/**
+	 * Unmarshals the given {@link Source} with a new {@link Unmarshaller}.
+	 */
+	private <T> T unmarshal(JAXBContext context, JAXBMarshallerConfiguration configuration, Source source,
+			Class<T> type) throws SyntaxException {
+		Unmarshaller unmarshaller;
+		try {
+			unmarshaller = createUnmarshaller(context, configuration);
+		} catch (JAXBException e) {
+			SyntaxException se = new SyntaxException("Unable to create a JAXB Unmarshaller.", e);
+			LOGGER.error(se.getMessage());
+			throw se;
+		}
+
+		try {
+			return type.cast(((JAXBElement<?>) unmarshaller.unmarshal(source)).getValue());
+		} catch (JAXBException e) {
+			SyntaxException se = new SyntaxException("Unable to unmarshal the source.", e);
+			LOGGER.error(se.getMessage(), e);
+			throw se;
+		} catch (ClassCastException e) {
+			SyntaxException se = new SyntaxException("Unable to unmarshal the source.", e);
+			LOGGER.error(se.getMessage(), e);
+			throw se;
+		}
+	}
+
+	/**
+	 * Marshals the given JAXB element with a new {@link Marshaller}.
+	 */
+	private void marshal(JAXBContext context, JAXBMarshallerConfiguration configuration, Object element,
+			Result result) throws WritingException {
+		try {
+			createMarshaller(context, configuration).marshal(element, result);
+		} catch (JAXBException e) {
+			WritingException we = new WritingException("Unable to write to the result.", e);
+			LOGGER.error(we.getMessage());
+			throw we;
+		}
+	}
+
+	/**
+	 * This method creates a new JAXB marshaller. For each call a new
+	 * marshaller is created due to the fact that JAXB is not thread-safe.
+	 */
+	private Marshaller createMarshaller(JAXBContext context, JAXBMarshallerConfiguration configuration)
+			throws JAXBException {
+		Marshaller marshaller = context.createMarshaller();
+		marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, configuration.isFormattedOutput());
+		marshaller.setProperty(Marshaller.JAXB_FRAGMENT, configuration.isFragment());
+		if (configuration.isWriteSchemaLocation()) {
+			marshaller.setProperty(Marshaller.JAXB_SCHEMA_LOCATION, configuration.getSchemaLocationAsString());
+		}
+		if (configuration.isValidateWriting()) {
+			if (configuration.getSchema() == null) {
+				LOGGER.error("Schema not initialized.");
+				throw new NotInitializedException("Schema not initialized");
+			}
+			marshaller.setSchema(configuration.getSchema());
+		}
+		if (configuration.getValidationEventHandler() == null) {
+			marshaller.setEventHandler(new DefaultValidationEventHandler());
+		} else {
+			marshaller.setEventHandler(configuration.getValidationEventHandler());
+		}
+		for (XmlAdapter<?, ?> typeAdapter : typeAdapters) {
+			marshaller.setAdapter(typeAdapter);
+		}
+		return marshaller;
+	}
+
+	/**
+	 * This method creates a new JAXB unmarshaller. For each call a new
+	 * unmarshaller is created due to the fact that JAXB is not thread-safe.
+	 */
+	private Unmarshaller createUnmarshaller(JAXBContext context, JAXBMarshallerConfiguration configuration)
+			throws JAXBException {
+		Unmarshaller unmarshaller = context.createUnmarshaller();
+		if (configuration.isValidateParsing()) {
+			if (configuration.getSchema() == null) {
+				LOGGER.error("Schema not initialized.");
+				throw new NotInitializedException("Schema not initialized");
+			}
+			unmarshaller.setSchema(configuration.getSchema());
+		}
+		if (configuration.getValidationEventHandler() == null) {
+			unmarshaller.setEventHandler(new DefaultValidationEventHandler());
+		} else {
+			unmarshaller.setEventHandler(configuration.getValidationEventHandler());
+		}
+		for (XmlAdapter<?, ?> typeAdapter : typeAdapters) {
+			unmarshaller.setAdapter(typeAdapter);
+		}
+		return unmarshaller;
+	}
+}
@@ -0,0 +1,304 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.herasaf.xacml.core.api;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.herasaf.xacml.core.context.impl.AttributeType;
+import org.herasaf.xacml.core.context.impl.AttributeValueType;
+import org.herasaf.xacml.core.context.impl.RequestType;
+import org.herasaf.xacml.core.context.impl.SubjectType;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the {@link CachingPIP}.
+ */
+public class CachingPIPTest {
+	private static final String SUBJECT_ID = "urn:oasis:names:tc:xacml:1.0:subject:subject-id";
+	private static final String STRING = "http://www.w3.org/2001/XMLSchema#string";
+
+	private CountingPIP backend;
+
+	/**
+	 * Creates the underlying {@link PIP}.
+	 */
+	@BeforeMethod
+	public void init() {
+		backend = new CountingPIP();
+	}
+
+	/**
+	 * Tests that the attributes are cached per subject, including empty
+	 * results, and that the counters are updated.
+	 */
+	@Test
+	public void testHitsAndMisses() {
+		CachingPIP pip = new CachingPIP(backend, 10, 0);
+		assertEquals(pip.fetchSubjectAttributes(createRequest("alice"), "role", STRING, null, null).size(), 1);
+		assertEquals(pip.fetchSubjectAttributes(createRequest("alice"), "role", STRING, null, null).size(), 1);
+		assertEquals(pip.fetchSubjectAttributes(createRequest("bob"), "role", STRING, null, null).size(), 1);
+		assertEquals(pip.fetchSubjectAttributes(createRequest("alice"), "unknown", STRING, null, null).size(), 0);
+		assertEquals(pip.fetchSubjectAttributes(createRequest("alice"), "unknown", STRING, null, null).size(), 0);
+
+		assertEquals(backend.calls.get(), 3);
+		assertEquals(pip.getMissCount(), 3);
+		assertEquals(pip.getHitCount(), 2);
+		assertEquals(pip.size(), 3);
+	}
+
+	/**
+	 * Tests the time to live per attribute id and the eviction of the least
+	 * recently used attribute.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test
+	public void testExpirationAndEviction() throws Exception {
+		CachingPIP pip = new CachingPIP(backend, 2, 0);
+		pip.setTimeToLive("role", 1);
+		pip.fetchSubjectAttributes(createRequest("alice"), "role", STRING, null, null);
+		Thread.sleep(5);
+		pip.fetchSubjectAttributes(createRequest("alice"), "role", STRING, null, null);
+		assertEquals(backend.calls.get(), 2);
+
+		pip.fetchSubjectAttributes(createRequest("alice"), "group", STRING, null, null);
+		pip.fetchSubjectAttributes(createRequest("bob"), "group", STRING, null, null);
+		assertEquals(pip.size(), 2);
+		pip.fetchSubjectAttributes(createRequest("bob"), "group", STRING, null, null);
+		assertEquals(backend.calls.get(), 4);
+		pip.fetchSubjectAttributes(createRequest("alice"), "group", STRING, null, null);
+		assertEquals(backend.calls.get(), 4);
+
+		// Evicts the group of bob, which was used least recently.
+		pip.fetchSubjectAttributes(createRequest("alice"), "role", STRING, null, null);
+		pip.fetchSubjectAttributes(createRequest("alice"), "group", STRING, null, null);
+		assertEquals(backend.calls.get(), 5);
+		pip.fetchSubjectAttributes(createRequest("bob"), "group", STRING, null, null);
+		assertEquals(backend.calls.get(), 6);
+	}
+
+	/**
+	 * Tests that concurrent misses of the same attribute cause a single call
+	 * of the underlying {@link PIP}.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test
+	public void testSingleFlight() throws Exception {
+		backend.latch = new CountDownLatch(1);
+		final CachingPIP pip = new CachingPIP(backend, 10, 0);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<List<AttributeValueType>>> results = new ArrayList<Future<List<AttributeValueType>>>();
+			for (int i = 0; i < 4; i++) {
+				results.add(executor.submit(new Callable<List<AttributeValueType>>() {
+					public List<AttributeValueType> call() {
+						return pip.fetchSubjectAttributes(createRequest("alice"), "role", STRING, null, null);
+					}
+				}));
+			}
+			while (pip.getHitCount() + pip.getMissCount() < 4) {
+				Thread.sleep(1);
+			}
+			backend.latch.countDown();
+			for (Future<List<AttributeValueType>> result : results) {
+				assertEquals(result.get(5, TimeUnit.SECONDS).size(), 1);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(backend.calls.get(), 1);
+	}
+
+	/**
+	 * Tests that errors of the underlying {@link PIP} are not cached.
+	 */
+	@Test
+	public void testErrorNotCached() {
+		CachingPIP pip = new CachingPIP(backend, 10, 0);
+		backend.failure = new IllegalStateException("directory not available");
+		try {
+			pip.fetchSubjectAttributes(createRequest("alice"), "role", STRING, null, null);
+			fail("The error was not passed.");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		backend.failure = null;
+		assertEquals(pip.fetchSubjectAttributes(createRequest("alice"), "role", STRING, null, null).size(), 1);
+		assertEquals(backend.calls.get(), 2);
+	}
+
+	/**
+	 * Tests that a caller waiting for a pending fetch gets the {@link Error}
+	 * of the underlying {@link PIP} instead of waiting forever, and that the
+	 * failed entry is not cached.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test
+	public void testErrorReleasesWaitingCallers() throws Exception {
+		backend.latch = new CountDownLatch(1);
+		backend.error = new NoClassDefFoundError("directory client");
+		final CachingPIP pip = new CachingPIP(backend, 10, 0);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			List<Future<List<AttributeValueType>>> results = new ArrayList<Future<List<AttributeValueType>>>();
+			for (int i = 0; i < 2; i++) {
+				results.add(executor.submit(new Callable<List<AttributeValueType>>() {
+					public List<AttributeValueType> call() {
+						return pip.fetchSubjectAttributes(createRequest("alice"), "role", STRING, null, null);
+					}
+				}));
+			}
+			while (pip.getHitCount() + pip.getMissCount() < 2) {
+				Thread.sleep(1);
+			}
+			backend.latch.countDown();
+			for (Future<List<AttributeValueType>> result : results) {
+				try {
+					result.get(5, TimeUnit.SECONDS);
+					fail("The error was not passed.");
+				} catch (ExecutionException e) {
+					assertTrue(e.getCause() instanceof NoClassDefFoundError);
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(backend.calls.get(), 1);
+		assertEquals(pip.size(), 0);
+
+		backend.latch = null;
+		backend.error = null;
+		assertEquals(pip.fetchSubjectAttributes(createRequest("alice"), "role", STRING, null, null).size(), 1);
+	}
+
+	/**
+	 * Tests that attributes of requests without an entity are only cached if
+	 * they are marked as shared.
+	 */
+	@Test
+	public void testUnidentifiedNotCached() {
+		CachingPIP pip = new CachingPIP(backend, 10, 0);
+		pip.fetchSubjectAttributes(new RequestType(), "role", STRING, null, null);
+		pip.fetchSubjectAttributes(new RequestType(), "role", STRING, null, null);
+		pip.fetchEnvironmentAttributes(createRequest("alice"), "time-zone", STRING, null);
+		pip.fetchEnvironmentAttributes(createRequest("bob"), "time-zone", STRING, null);
+		assertEquals(backend.calls.get(), 4);
+		assertEquals(pip.size(), 0);
+		assertEquals(pip.getHitCount() + pip.getMissCount(), 0);
+
+		CachingPIP sharing = new CachingPIP(backend, 10, 0) {
+			@Override
+			protected boolean isShared(String category, String attributeId) {
+				return "environment".equals(category) && "time-zone".equals(attributeId);
+			}
+		};
+		assertEquals(sharing.fetchEnvironmentAttributes(createRequest("alice"), "time-zone", STRING, null).size(), 1);
+		assertEquals(sharing.fetchEnvironmentAttributes(createRequest("bob"), "time-zone", STRING, null).size(), 1);
+		sharing.fetchSubjectAttributes(new RequestType(), "role", STRING, null, null);
+		sharing.fetchSubjectAttributes(new RequestType(), "role", STRING, null, null);
+		assertEquals(backend.calls.get(), 7);
+		assertEquals(sharing.getHitCount(), 1);
+	}
+
+	/**
+	 * Creates a request of the subject with the given id.
+	 */
+	private static RequestType createRequest(String subjectId) {
+		AttributeValueType value = new AttributeValueType();
+		value.getContent().add(subjectId);
+		AttributeType attribute = new AttributeType();
+		attribute.setAttributeId(SUBJECT_ID);
+		attribute.getAttributeValues().add(value);
+		SubjectType subject = new SubjectType();
+		subject.getAttributes().add(attribute);
+		RequestType request = new RequestType();
+		request.getSubjects().add(subject);
+		return request;
+	}
+
+	/**
+	 * A {@link PIP} that knows the roles and groups of all subjects and counts
+	 * its calls.
+	 */
+	private static class CountingPIP implements PIP {
+		private final AtomicInteger calls = new AtomicInteger();
+		private volatile CountDownLatch latch;
+		private volatile RuntimeException failure;
+		private volatile Error error;
+
+		public List<AttributeValueType> fetchSubjectAttributes(RequestType request, String attributeId,
+				String dataType, String issuer, String subjectCategory) {
+			calls.incrementAndGet();
+			if (latch != null) {
+				try {
+					latch.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			if (failure != null) {
+				throw failure;
+			}
+			if (error != null) {
+				throw error;
+			}
+			List<AttributeValueType> values = new ArrayList<AttributeValueType>();
+			if ("role".equals(attributeId) || "group".equals(attributeId)) {
+				values.add(new AttributeValueType());
+			}
+			return values;
+		}
+
+		public List<AttributeValueType> fetchResourceAttributes(RequestType request, String attributeId,
+				String dataType, String issuer) {
+			return null;
+		}
+
+		public List<AttributeValueType> fetchActionAttributes(RequestType request, String attributeId,
+				String dataType, String issuer) {
+			return null;
+		}
+
+		public List<AttributeValueType> fetchEnvironmentAttributes(RequestType request, String attributeId,
+				String dataType, String issuer) {
+			calls.incrementAndGet();
+			List<AttributeValueType> values = new ArrayList<AttributeValueType>();
+			values.add(new AttributeValueType());
+			return values;
+		}
+	}
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.herasaf.xacml.core.context.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.herasaf.xacml.core.context.EvaluationContext;
+import org.herasaf.xacml.core.context.RequestAttributeIndex;
+import org.herasaf.xacml.core.context.RequestMarshaller;
+import org.herasaf.xacml.core.context.StatusCodeComparator;
+import org.herasaf.xacml.core.context.impl.RequestType;
+import org.herasaf.xacml.core.dataTypeAttribute.impl.StringDataTypeAttribute;
+import org.herasaf.xacml.core.policy.impl.ResourceAttributeDesignatorType;
+import org.herasaf.xacml.core.simplePDP.initializers.InitializerExecutor;
+import org.herasaf.xacml.core.targetMatcher.impl.TargetMatcherImpl;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the {@link RequestAttributeIndex}.
+ */
+public class TestRequestAttributeIndex {
+	private static final String TENANT = "urn:herasaf:example:resource:tenant";
+	private RequestType request;
+	private RequestAttributeIndex index;
+	private EvaluationContext evaluationContext;
+
+	/**
+	 * Loads the request and creates its index.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@BeforeMethod
+	public void init() throws Exception {
+		InitializerExecutor.runInitializers();
+		request = RequestMarshaller.unmarshal(TestRequestAttributeIndex.class
+				.getResourceAsStream("/org/herasaf/xacml/core/simplePDP/requests/indexed/TenantRequest-acme.xml"));
+		index = new RequestAttributeIndex(request);
+		evaluationContext = new EvaluationContext(new TargetMatcherImpl(), new StatusCodeComparator(), null);
+		evaluationContext.setRequestAttributeIndex(index);
+	}
+
+	/**
+	 * Tests that a designator resolves its values with the index and that the
+	 * converted values are stored in the index.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test
+	public void testIndexedDesignator() throws Exception {
+		ResourceAttributeDesignatorType designator = createDesignator(TENANT, null);
+
+		assertNull(index.getValues(designator));
+		assertEquals(designator.handle(request, evaluationContext), Arrays.asList("acme"));
+		assertEquals(index.getValues(designator), Arrays.asList("acme"));
+		assertEquals(designator.handle(request, evaluationContext), Arrays.asList("acme"));
+	}
+
+	/**
+	 * Tests that the issuer and the attribute id of the designator are
+	 * respected.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test
+	public void testNotMatchingDesignator() throws Exception {
+		assertEquals(createDesignator(TENANT, "issuer").handle(request, evaluationContext),
+				Collections.emptyList());
+		assertEquals(createDesignator("urn:herasaf:example:resource:owner", null).handle(request,
+				evaluationContext), Collections.emptyList());
+		assertEquals(createDesignator(TENANT, null).handle(request, evaluationContext), Arrays.asList("acme"));
+	}
+
+	/**
+	 * Creates a string {@link ResourceAttributeDesignatorType}.
+	 *
+	 * @param attributeId
+	 *            The attribute id of the designator.
+	 * @param issuer
+	 *            The issuer of the designator.
+	 * @return The created designator.
+	 */
+	private ResourceAttributeDesignatorType createDesignator(String attributeId, String issuer) {
+		ResourceAttributeDesignatorType designator = new ResourceAttributeDesignatorType();
+		designator.setAttributeId(attributeId);
+		designator.setDataType(new StringDataTypeAttribute());
+		designator.setIssuer(issuer);
+		return designator;
+	}
+}
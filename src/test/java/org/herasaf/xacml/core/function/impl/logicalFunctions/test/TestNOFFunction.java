@@ -23,6 +23,8 @@ import java.math.BigInteger;
 
 import org.herasaf.xacml.core.ProcessingException;
 import org.herasaf.xacml.core.function.Function;
+import org.herasaf.xacml.core.function.LazyArguments;
+import org.herasaf.xacml.core.function.LazyFunction;
 import org.herasaf.xacml.core.function.impl.logicalFunctions.NOFFunction;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.DataProvider;
@@ -90,6 +92,31 @@ public class TestNOFFunction {
 		assertEquals(ia.handle(toObjectArray(i1, otherArgs)), result);
 	}
 	
+	/**
+	 * Tests the positive test cases with lazily evaluated arguments.
+	 * 
+	 * @param i1 The integer argument.
+	 * @param otherArgs The list of boolean values.
+	 * @param result The expected result
+	 * @throws Exception If an error occurs.
+	 */
+	@Test(dataProvider="args")
+	public void testLazyArgs(BigInteger i1, Boolean[] otherArgs, Boolean result) throws Exception {
+		final Object[] args = toObjectArray(i1, otherArgs);
+		LazyArguments lazyArgs = new LazyArguments() {
+			@Override
+			public int size() {
+				return args.length;
+			}
+
+			@Override
+			public Object get(int index) {
+				return args[index];
+			}
+		};
+		assertEquals(((LazyFunction) ia).handle(lazyArgs), result);
+	}
+
 	/**
 	 * Tests the negative test cases. If the n-of function behaves properly.
 	 * All test cases should result in an {@link ProcessingException}.
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.herasaf.xacml.core.function.impl.regularExpressionBasedFunctions.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.regex.Pattern;
+
+import org.herasaf.xacml.core.function.ArgumentPreparingFunction;
+import org.herasaf.xacml.core.function.Function;
+import org.herasaf.xacml.core.function.FunctionProcessingException;
+import org.herasaf.xacml.core.function.impl.regularExpressionBasedFunctions.StringRegexpMatchFunction;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * Tests if the StringRegexpMatch function works properly.
+ */
+public class TestStringRegexpMatchFunction {
+	private Function function;
+
+	/**
+	 * Initializes the function.
+	 */
+	@BeforeTest
+	public void beforeTest() {
+		this.function = new StringRegexpMatchFunction();
+	}
+
+	/**
+	 * Creates various test cases.
+	 *
+	 * @return The created test cases.
+	 */
+	@DataProvider(name = "functionTest")
+	public Object[][] createArgs() {
+		return new Object[][] { new Object[] { "a.c", "abc", true }, new Object[] { "a.c", "abcd", false },
+				new Object[] { " a.c ", " abc", true }, new Object[] { "[0-9]+", "123", true },
+				new Object[] { "[0-9]+", "12a", false }, };
+	}
+
+	/**
+	 * Tests if the {@link StringRegexpMatchFunction} works properly. Each case
+	 * is evaluated twice, such that the cached pattern is used as well.
+	 *
+	 * @param regexp
+	 *            The regular expression.
+	 * @param value
+	 *            The value to match.
+	 * @param expectedResult
+	 *            The expected result.
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test(dataProvider = "functionTest")
+	public void testFunction(String regexp, String value, Boolean expectedResult) throws Exception {
+		assertEquals(function.handle(regexp, value), expectedResult);
+		assertEquals(function.handle(regexp, value), expectedResult);
+	}
+
+	/**
+	 * Tests if the function works properly with a prepared regular
+	 * expression.
+	 *
+	 * @param regexp
+	 *            The regular expression.
+	 * @param value
+	 *            The value to match.
+	 * @param expectedResult
+	 *            The expected result.
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test(dataProvider = "functionTest")
+	public void testPreparedFunction(String regexp, String value, Boolean expectedResult) throws Exception {
+		Object prepared = ((ArgumentPreparingFunction) function).prepareArgument(0, regexp);
+		assertTrue(prepared instanceof Pattern);
+		assertEquals(function.handle(prepared, value), expectedResult);
+	}
+
+	/**
+	 * Tests if an invalid regular expression is not prepared, such that the
+	 * error is reported on evaluation.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test(expectedExceptions = FunctionProcessingException.class)
+	public void testInvalidPreparedRegexp() throws Exception {
+		Object prepared = ((ArgumentPreparingFunction) function).prepareArgument(0, "[a-");
+		assertEquals(prepared, "[a-");
+		function.handle(prepared, "a");
+	}
+
+	/**
+	 * Tests if an invalid regular expression causes a
+	 * {@link FunctionProcessingException}.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test(expectedExceptions = FunctionProcessingException.class)
+	public void testInvalidRegexp() throws Exception {
+		function.handle("[a-", "a");
+	}
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.herasaf.xacml.core.function.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+import java.math.BigInteger;
+import java.util.List;
+
+import org.herasaf.xacml.core.dataTypeAttribute.impl.DateDataTypeAttribute;
+import org.herasaf.xacml.core.dataTypeAttribute.impl.StringDataTypeAttribute;
+import org.herasaf.xacml.core.function.Function;
+import org.herasaf.xacml.core.function.TypedFunctions;
+import org.herasaf.xacml.core.function.impl.bagFunctions.IntegerBagSizeFunction;
+import org.herasaf.xacml.core.function.impl.bagFunctions.StringIsInFunction;
+import org.herasaf.xacml.core.function.impl.bagFunctions.StringOneAndOnlyFunction;
+import org.herasaf.xacml.core.function.impl.equalityPredicates.StringEqualFunction;
+import org.herasaf.xacml.core.function.impl.logicalFunctions.ANDFunction;
+import org.herasaf.xacml.core.function.impl.numericComparisonFunctions.IntegerGreaterThanFunction;
+import org.herasaf.xacml.core.types.Date;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * Tests if the argument types of the typed functions are resolved properly.
+ */
+public class TestTypedFunctions {
+
+	/**
+	 * Creates the functions with their argument types and the types of the
+	 * values in their bags.
+	 * 
+	 * @return The test cases.
+	 */
+	@DataProvider(name = "typedFunctions")
+	public Object[][] createTypedFunctions() {
+		return new Object[][] {
+				{ new StringEqualFunction(), new Class<?>[] { String.class, String.class }, null },
+				{ new IntegerGreaterThanFunction(), new Class<?>[] { BigInteger.class, BigInteger.class }, null },
+				{ new StringIsInFunction(), new Class<?>[] { String.class, List.class }, String.class },
+				{ new StringOneAndOnlyFunction(), new Class<?>[] { List.class }, String.class },
+				{ new IntegerBagSizeFunction(), new Class<?>[] { List.class }, BigInteger.class }, };
+	}
+
+	/**
+	 * Tests if the argument types and the types of the values in the bags are
+	 * resolved from the type arguments.
+	 * 
+	 * @param function
+	 *            The typed function.
+	 * @param argumentTypes
+	 *            The expected argument types.
+	 * @param elementType
+	 *            The expected type of the values in the bag.
+	 */
+	@Test(dataProvider = "typedFunctions")
+	public void testArgumentTypes(Function function, Class<?>[] argumentTypes, Class<?> elementType) {
+		assertEquals(TypedFunctions.getArgumentTypes(function), argumentTypes);
+		assertEquals(TypedFunctions.getElementType(function), elementType);
+	}
+
+	/**
+	 * Tests that a function that is not typed has no argument types.
+	 */
+	@Test
+	public void testUntypedFunction() {
+		assertNull(TypedFunctions.getArgumentTypes(new ANDFunction()));
+		assertNull(TypedFunctions.getElementType(new ANDFunction()));
+	}
+
+	/**
+	 * Tests if the value types of the data types are resolved.
+	 */
+	@Test
+	public void testValueTypes() {
+		assertEquals(TypedFunctions.getValueType(new StringDataTypeAttribute()), String.class);
+		assertEquals(TypedFunctions.getValueType(new DateDataTypeAttribute()), Date.class);
+	}
+}
@@ -23,6 +23,7 @@ import java.util.Arrays;
 
 import jakarta.xml.bind.JAXBElement;
 
+import org.herasaf.xacml.core.ProcessingException;
 import org.herasaf.xacml.core.SyntaxException;
 import org.herasaf.xacml.core.context.EvaluationContext;
 import org.herasaf.xacml.core.context.StatusCodeComparator;
@@ -30,12 +31,24 @@ import org.herasaf.xacml.core.context.impl.AttributeType;
 import org.herasaf.xacml.core.context.impl.RequestType;
 import org.herasaf.xacml.core.context.impl.ResourceType;
 import org.herasaf.xacml.core.dataTypeAttribute.DataTypeAttribute;
+import org.herasaf.xacml.core.dataTypeAttribute.impl.BooleanDataTypeAttribute;
+import org.herasaf.xacml.core.dataTypeAttribute.impl.IntegerDataTypeAttribute;
 import org.herasaf.xacml.core.dataTypeAttribute.impl.StringDataTypeAttribute;
 import org.herasaf.xacml.core.function.Function;
+import org.herasaf.xacml.core.function.FunctionProcessingException;
+import org.herasaf.xacml.core.function.impl.arithmeticFunctions.IntegerDivideFunction;
 import org.herasaf.xacml.core.function.impl.bagFunctions.StringBagFunction;
 import org.herasaf.xacml.core.function.impl.bagFunctions.StringOneAndOnlyFunction;
+import org.herasaf.xacml.core.function.impl.equalityPredicates.IntegerEqualFunction;
 import org.herasaf.xacml.core.function.impl.equalityPredicates.StringEqualFunction;
 import org.herasaf.xacml.core.function.impl.higherOrderBagFunctions.AnyOfFunction;
+import org.herasaf.xacml.core.function.impl.logicalFunctions.ANDFunction;
+import org.herasaf.xacml.core.function.impl.logicalFunctions.NOFFunction;
+import org.herasaf.xacml.core.function.impl.logicalFunctions.NotFunction;
+import org.herasaf.xacml.core.function.impl.stringFunctions.StringConcatenateFunction;
+import org.herasaf.xacml.core.function.impl.logicalFunctions.ORFunction;
+import org.herasaf.xacml.core.policy.ExpressionProcessingException;
+import org.herasaf.xacml.core.policy.MissingAttributeException;
 import org.herasaf.xacml.core.policy.impl.ApplyType;
 import org.herasaf.xacml.core.policy.impl.AttributeValueType;
 import org.herasaf.xacml.core.policy.impl.ExpressionType;
@@ -138,6 +151,30 @@ public class TestApplyType {
 				true } };
 	}
 
+	/**
+	 * Creates test cases for the logical functions whose result is decided
+	 * before the missing attribute is reached.
+	 * 
+	 * @return The test cases.
+	 */
+	@DataProvider(name = "shortCircuitApplyType")
+	public Object[][] shortCircuitApplyType() {
+		return new Object[][] {
+				new Object[] {
+						initApply(new ANDFunction(), new JAXBElement<?>[] {
+								initAttributeValue("false", new BooleanDataTypeAttribute()),
+								initMissingAttribute() }), false },
+				new Object[] {
+						initApply(new ORFunction(), new JAXBElement<?>[] {
+								initAttributeValue("true", new BooleanDataTypeAttribute()),
+								initMissingAttribute() }), true },
+				new Object[] {
+						initApply(new NOFFunction(), new JAXBElement<?>[] {
+								initAttributeValue("1", new IntegerDataTypeAttribute()),
+								initAttributeValue("true", new BooleanDataTypeAttribute()),
+								initMissingAttribute() }), true } };
+	}
+
 	/**
 	 * Initializes the {@link ObjectFactory}.
 	 */
@@ -206,6 +243,335 @@ public class TestApplyType {
 
 	}
 
+	/**
+	 * Tests that the logical functions do not evaluate the arguments that are
+	 * not needed for the result.
+	 * 
+	 * @param JaxbElem
+	 *            The jaxb element containing the {@link ApplyType}.
+	 * @param result
+	 *            The expected result.
+	 * @throws Exception
+	 *             In case an error occurs.
+	 */
+	@Test(dataProvider = "shortCircuitApplyType")
+	public void testShortCircuit(JAXBElement<ApplyType> JaxbElem, Object result) throws Exception {
+		ApplyType apply = JaxbElem.getValue();
+		assertEquals(apply.handle(initializeRequest(initializeResource("resource-name",
+				new StringDataTypeAttribute(), "hsr", "test.txt")), new EvaluationContext(targetMatcher,
+				new StatusCodeComparator(), null)), result);
+	}
+
+	/**
+	 * Tests that a missing attribute is reported if the argument is reached.
+	 * 
+	 * @throws Exception
+	 *             In case an error occurs.
+	 */
+	@Test(expectedExceptions = MissingAttributeException.class)
+	public void testShortCircuitMissingAttribute() throws Exception {
+		ApplyType apply = initApply(new ANDFunction(), new JAXBElement<?>[] {
+				initAttributeValue("true", new BooleanDataTypeAttribute()), initMissingAttribute() }).getValue();
+		apply.handle(initializeRequest(initializeResource("resource-name", new StringDataTypeAttribute(), "hsr",
+				"test.txt")), new EvaluationContext(targetMatcher, new StatusCodeComparator(), null));
+	}
+
+	/**
+	 * Tests that a compiled apply returns the same results after it is
+	 * specialized and that the nested applies are part of the specialized
+	 * form.
+	 * 
+	 * @throws Exception
+	 *             In case an error occurs.
+	 */
+	@Test
+	public void testSpecialization() throws Exception {
+		CountingApplyType oneAndOnly = new CountingApplyType();
+		oneAndOnly.setFunction(new StringOneAndOnlyFunction());
+		oneAndOnly.getExpressions().add(initResAttrDesignator("resource-name", new StringDataTypeAttribute(), "hsr",
+				true));
+		ApplyType apply = initApply(new StringEqualFunction(), new JAXBElement<?>[] {
+				factory.createApply(oneAndOnly), initAttributeValue("test.txt", new StringDataTypeAttribute()) })
+				.getValue();
+		apply.compile();
+		RequestType matching = initializeRequest(initializeResource("resource-name", new StringDataTypeAttribute(),
+				"hsr", "test.txt"));
+		RequestType other = initializeRequest(initializeResource("resource-name", new StringDataTypeAttribute(),
+				"hsr", "other.txt"));
+
+		for (int i = 0; i <= ApplyType.SPECIALIZATION_THRESHOLD; i++) {
+			assertEquals(apply.handle(matching, new EvaluationContext(targetMatcher, new StatusCodeComparator(),
+					null)), true);
+		}
+		oneAndOnly.calls = 0;
+		assertEquals(apply.handle(matching, new EvaluationContext(targetMatcher, new StatusCodeComparator(), null)),
+				true);
+		assertEquals(apply.handle(other, new EvaluationContext(targetMatcher, new StatusCodeComparator(), null)),
+				false);
+		assertEquals(oneAndOnly.calls, 0);
+	}
+
+	/**
+	 * Tests that a specialized apply reports a missing attribute.
+	 * 
+	 * @throws Exception
+	 *             In case an error occurs.
+	 */
+	@Test(expectedExceptions = MissingAttributeException.class)
+	public void testSpecializedMissingAttribute() throws Exception {
+		ApplyType apply = initMissingAttribute().getValue();
+		apply.compile();
+		RequestType request = initializeRequest(initializeResource("resource-name", new StringDataTypeAttribute(),
+				"hsr", "test.txt"));
+		for (int i = 0; i <= ApplyType.SPECIALIZATION_THRESHOLD; i++) {
+			try {
+				apply.handle(request, new EvaluationContext(targetMatcher, new StatusCodeComparator(), null));
+			} catch (MissingAttributeException e) {
+				// expected until the apply is specialized
+			}
+		}
+		apply.handle(request, new EvaluationContext(targetMatcher, new StatusCodeComparator(), null));
+	}
+
+	/**
+	 * Tests that an apply with constant arguments is evaluated by the
+	 * compilation. The function of the nested apply is replaced afterwards and
+	 * must not be called.
+	 * 
+	 * @throws Exception
+	 *             In case an error occurs.
+	 */
+	@Test
+	public void testConstantFolding() throws Exception {
+		JAXBElement<ApplyType> concatenate = initApply(new StringConcatenateFunction(), new JAXBElement<?>[] {
+				initAttributeValue("test", new StringDataTypeAttribute()),
+				initAttributeValue(".txt", new StringDataTypeAttribute()) });
+		ApplyType apply = initApply(new StringEqualFunction(), new JAXBElement<?>[] { concatenate,
+				initAttributeValue("test.txt", new StringDataTypeAttribute()) }).getValue();
+		apply.compile();
+		concatenate.getValue().setFunction(new StringBagFunction());
+
+		assertEquals(apply.handle(new RequestType(), new EvaluationContext(targetMatcher,
+				new StatusCodeComparator(), null)), true);
+	}
+
+	/**
+	 * Tests that an apply whose function fails with the constant arguments is
+	 * not folded and the error is reported on evaluation.
+	 * 
+	 * @throws Exception
+	 *             In case an error occurs.
+	 */
+	@Test(expectedExceptions = FunctionProcessingException.class)
+	public void testConstantFoldingError() throws Exception {
+		ApplyType apply = initApply(new IntegerDivideFunction(), new JAXBElement<?>[] {
+				initAttributeValue("1", new IntegerDataTypeAttribute()),
+				initAttributeValue("0", new IntegerDataTypeAttribute()) }).getValue();
+		apply.compile();
+		apply.handle(new RequestType(), new EvaluationContext(targetMatcher, new StatusCodeComparator(), null));
+	}
+
+	/**
+	 * Creates test cases of the logical functions with constant operands.
+	 * 
+	 * @return The test cases.
+	 */
+	@DataProvider(name = "constantLogicalOperands")
+	public Object[][] constantLogicalOperands() {
+		return new Object[][] {
+				new Object[] {
+						initApply(new ANDFunction(), new JAXBElement<?>[] {
+								initAttributeValue("true", new BooleanDataTypeAttribute()),
+								initAttributeValue("false", new BooleanDataTypeAttribute()),
+								initMissingAttribute() }), false },
+				new Object[] {
+						initApply(new ORFunction(), new JAXBElement<?>[] {
+								initApply(new NotFunction(), new JAXBElement<?>[] { initAttributeValue("false",
+										new BooleanDataTypeAttribute()) }), initMissingAttribute() }), true },
+				new Object[] {
+						initApply(new ANDFunction(), new JAXBElement<?>[] {
+								initAttributeValue("true", new BooleanDataTypeAttribute()),
+								initApply(new StringEqualFunction(), new JAXBElement<?>[] {
+										initApply(new StringOneAndOnlyFunction(),
+												new JAXBElement<?>[] { initResAttrDesignator("resource-name",
+														new StringDataTypeAttribute(), "hsr", true) }),
+										initAttributeValue("test.txt", new StringDataTypeAttribute()) }) }), true } };
+	}
+
+	/**
+	 * Tests the compiled logical functions with constant operands.
+	 * 
+	 * @param JaxbElem
+	 *            The jaxb element containing the {@link ApplyType}.
+	 * @param result
+	 *            The expected result.
+	 * @throws Exception
+	 *             In case an error occurs.
+	 */
+	@Test(dataProvider = "constantLogicalOperands")
+	public void testConstantLogicalOperands(JAXBElement<ApplyType> JaxbElem, Object result) throws Exception {
+		ApplyType apply = JaxbElem.getValue();
+		apply.compile();
+		assertEquals(apply.handle(initializeRequest(initializeResource("resource-name",
+				new StringDataTypeAttribute(), "hsr", "test.txt")), new EvaluationContext(targetMatcher,
+				new StatusCodeComparator(), null)), result);
+	}
+
+	/**
+	 * Tests that an operand that is evaluated before a constant false still
+	 * reports its error.
+	 * 
+	 * @throws Exception
+	 *             In case an error occurs.
+	 */
+	@Test(expectedExceptions = MissingAttributeException.class)
+	public void testConstantOperandAfterMissingAttribute() throws Exception {
+		ApplyType apply = initApply(new ANDFunction(), new JAXBElement<?>[] { initMissingAttribute(),
+				initAttributeValue("false", new BooleanDataTypeAttribute()) }).getValue();
+		apply.compile();
+		apply.handle(initializeRequest(initializeResource("resource-name", new StringDataTypeAttribute(), "hsr",
+				"test.txt")), new EvaluationContext(targetMatcher, new StatusCodeComparator(), null));
+	}
+
+	/**
+	 * Tests that a compiled apply of a typed function is evaluated without
+	 * {@link Function#handle(Object...)}, interpreted and specialized.
+	 * 
+	 * @throws Exception
+	 *             In case an error occurs.
+	 */
+	@Test
+	public void testTypedInvocation() throws Exception {
+		StringEqualFunction function = new StringEqualFunction() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public Object handle(Object... args) throws FunctionProcessingException {
+				throw new IllegalStateException("The function is invoked with an argument array.");
+			}
+		};
+		ApplyType apply = initApply(function, new JAXBElement<?>[] {
+				initApply(new StringOneAndOnlyFunction(), new JAXBElement<?>[] { initResAttrDesignator(
+						"resource-name", new StringDataTypeAttribute(), "hsr", true) }),
+				initAttributeValue("test.txt", new StringDataTypeAttribute()) }).getValue();
+		apply.compile();
+		RequestType matching = initializeRequest(initializeResource("resource-name", new StringDataTypeAttribute(),
+				"hsr", "test.txt"));
+		RequestType other = initializeRequest(initializeResource("resource-name", new StringDataTypeAttribute(),
+				"hsr", "other.txt"));
+
+		for (int i = 0; i <= ApplyType.SPECIALIZATION_THRESHOLD; i++) {
+			assertEquals(apply.handle(matching, new EvaluationContext(targetMatcher, new StatusCodeComparator(),
+					null)), true);
+		}
+		assertEquals(apply.handle(other, new EvaluationContext(targetMatcher, new StatusCodeComparator(), null)),
+				false);
+	}
+
+	/**
+	 * Tests that a typed function reports an argument of the wrong type that
+	 * is not known when the apply is compiled.
+	 * 
+	 * @throws Exception
+	 *             In case an error occurs.
+	 */
+	@Test(expectedExceptions = FunctionProcessingException.class)
+	public void testTypedInvocationWrongType() throws Exception {
+		JAXBElement<ApplyType> oneAndOnly = initApply(new StringOneAndOnlyFunction(),
+				new JAXBElement<?>[] { initResAttrDesignator("resource-name", new StringDataTypeAttribute(), "hsr",
+						true) });
+		ApplyType apply = initApply(new IntegerEqualFunction(), new JAXBElement<?>[] { oneAndOnly, oneAndOnly })
+				.getValue();
+		apply.compile();
+		apply.handle(initializeRequest(initializeResource("resource-name", new StringDataTypeAttribute(), "hsr",
+				"test.txt")), new EvaluationContext(targetMatcher, new StatusCodeComparator(), null));
+	}
+
+	/**
+	 * Tests that identical applies of different expressions are evaluated once
+	 * per request after they are shared and that their value is not reused for
+	 * another request.
+	 * 
+	 * @throws Exception
+	 *             In case an error occurs.
+	 */
+	@Test
+	public void testCommonSubexpressions() throws Exception {
+		int[] calls = new int[1];
+		ApplyType first = initSharedApply(calls);
+		ApplyType second = initSharedApply(calls);
+		first.compile();
+		second.compile();
+		ApplyType.shareCommonSubexpressions(Arrays.asList(first, second));
+		RequestType matching = initializeRequest(initializeResource("resource-name", new StringDataTypeAttribute(),
+				"hsr", "test.txt"));
+		RequestType other = initializeRequest(initializeResource("resource-name", new StringDataTypeAttribute(),
+				"hsr", "other.txt"));
+		EvaluationContext evaluationContext = new EvaluationContext(targetMatcher, new StatusCodeComparator(), null);
+
+		assertEquals(first.handle(matching, evaluationContext), true);
+		assertEquals(second.handle(matching, evaluationContext), true);
+		assertEquals(calls[0], 1);
+		assertEquals(first.handle(other, evaluationContext), false);
+		assertEquals(second.handle(other, evaluationContext), false);
+		assertEquals(calls[0], 2);
+	}
+
+	/**
+	 * Creates a boolean expression that compares the resource name with a
+	 * designator that counts its calls in the given array.
+	 * 
+	 * @return The created {@link ApplyType}.
+	 */
+	private ApplyType initSharedApply(final int[] calls) {
+		ResourceAttributeDesignatorType designator = new ResourceAttributeDesignatorType() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public Object handle(RequestType request, EvaluationContext evaluationContext)
+					throws ExpressionProcessingException, MissingAttributeException, SyntaxException {
+				calls[0]++;
+				return super.handle(request, evaluationContext);
+			}
+		};
+		designator.setAttributeId("resource-name");
+		designator.setDataType(new StringDataTypeAttribute());
+		designator.setIssuer("hsr");
+		designator.setMustBePresent(true);
+		return initApply(new StringEqualFunction(), new JAXBElement<?>[] {
+				initApply(new StringOneAndOnlyFunction(), new JAXBElement<?>[] { factory
+						.createResourceAttributeDesignator(designator) }),
+				initAttributeValue("test.txt", new StringDataTypeAttribute()) }).getValue();
+	}
+
+	/**
+	 * Creates a boolean expression that refers to an attribute that is not
+	 * present in the request and must be present.
+	 * 
+	 * @return The created {@link ApplyType} within a {@link JAXBElement}.
+	 */
+	private JAXBElement<ApplyType> initMissingAttribute() {
+		return initApply(new StringEqualFunction(), new JAXBElement<?>[] {
+				initApply(new StringOneAndOnlyFunction(), new JAXBElement<?>[] { initResAttrDesignator(
+						"missing-name", new StringDataTypeAttribute(), "hsr", true) }),
+				initAttributeValue("test.txt", new StringDataTypeAttribute()) });
+	}
+
+	/**
+	 * An {@link ApplyType} that counts the calls of its interpreted form.
+	 */
+	private static class CountingApplyType extends ApplyType {
+		private static final long serialVersionUID = 1L;
+		private int calls;
+
+		@Override
+		public Object handle(RequestType request, EvaluationContext evaluationContext)
+				throws MissingAttributeException, SyntaxException, ProcessingException {
+			calls++;
+			return super.handle(request, evaluationContext);
+		}
+	}
+
 	/**
 	 * Initializes the ApplyType with a {@link Function}.
 	 * 
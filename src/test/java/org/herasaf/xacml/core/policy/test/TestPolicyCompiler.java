@@ -0,0 +1,158 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.herasaf.xacml.core.policy.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.herasaf.xacml.core.SyntaxException;
+import org.herasaf.xacml.core.dataTypeAttribute.impl.IntegerDataTypeAttribute;
+import org.herasaf.xacml.core.dataTypeAttribute.impl.StringDataTypeAttribute;
+import org.herasaf.xacml.core.function.impl.regularExpressionBasedFunctions.StringRegexpMatchFunction;
+import org.herasaf.xacml.core.policy.Evaluatable;
+import org.herasaf.xacml.core.policy.PolicyCompiler;
+import org.herasaf.xacml.core.policy.PolicyMarshaller;
+import org.herasaf.xacml.core.policy.impl.AttributeValueType;
+import org.herasaf.xacml.core.policy.impl.PolicySetType;
+import org.herasaf.xacml.core.policy.impl.PolicyType;
+import org.herasaf.xacml.core.policy.impl.ResourceMatchType;
+import org.herasaf.xacml.core.policy.impl.ResourceType;
+import org.herasaf.xacml.core.policy.impl.ResourcesType;
+import org.herasaf.xacml.core.policy.impl.TargetType;
+import org.herasaf.xacml.core.simplePDP.initializers.InitializerExecutor;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the {@link PolicyCompiler}.
+ */
+public class TestPolicyCompiler {
+	private PolicySetType policySet;
+
+	/**
+	 * Loads and compiles a policy set containing two policies.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@BeforeClass
+	public void init() throws Exception {
+		InitializerExecutor.runInitializers();
+		policySet = (PolicySetType) PolicyMarshaller.unmarshal(TestPolicyCompiler.class
+				.getResourceAsStream("/org/herasaf/xacml/core/simplePDP/policies/PS-deny-overrides.xml"));
+		PolicyCompiler.compile(policySet);
+	}
+
+	/**
+	 * Tests that the compiled policy set returns the same unmodifiable list of
+	 * contained {@link Evaluatable}s on each call.
+	 */
+	@Test
+	public void testCompiledEvaluatables() {
+		List<Evaluatable> evaluatables = policySet.getOrderedEvaluatables(null);
+
+		assertEquals(evaluatables.size(), 2);
+		assertSame(policySet.getOrderedEvaluatables(null), evaluatables);
+	}
+
+	/**
+	 * Tests that the contained policies are compiled as well.
+	 */
+	@Test(expectedExceptions = UnsupportedOperationException.class)
+	public void testCompiledRules() {
+		PolicyType policy = (PolicyType) policySet.getOrderedEvaluatables(null).get(0);
+
+		assertEquals(policy.getOrderedRules().size(), 1);
+		policy.getOrderedRules().clear();
+	}
+
+	/**
+	 * Tests that a compiled {@link AttributeValueType} returns the value that
+	 * was converted during the compilation.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test
+	public void testCompiledAttributeValue() throws Exception {
+		AttributeValueType attributeValue = createAttributeValue(" 42 ");
+		attributeValue.compile();
+
+		Object value = attributeValue.handle(null, null);
+		assertEquals(value, BigInteger.valueOf(42));
+		assertSame(attributeValue.getConvertedContent(), value);
+	}
+
+	/**
+	 * Tests that an {@link AttributeValueType} that cannot be converted fails
+	 * on compilation.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test(expectedExceptions = SyntaxException.class)
+	public void testInvalidAttributeValue() throws Exception {
+		createAttributeValue("forty-two").compile();
+	}
+
+	/**
+	 * Tests that the value of a match with a regular expression function is
+	 * compiled into a {@link Pattern} when the target is compiled.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test
+	public void testPreparedMatchValue() throws Exception {
+		AttributeValueType attributeValue = new AttributeValueType();
+		attributeValue.setDataType(new StringDataTypeAttribute());
+		attributeValue.getContent().add("^doc-[0-9]+$");
+		ResourceMatchType match = new ResourceMatchType();
+		match.setMatchFunction(new StringRegexpMatchFunction());
+		match.setAttributeValue(attributeValue);
+		ResourceType resource = new ResourceType();
+		resource.getResourceMatches().add(match);
+		TargetType target = new TargetType();
+		target.setResources(new ResourcesType());
+		target.getResources().getResources().add(resource);
+
+		target.compile();
+
+		assertEquals(attributeValue.getConvertedContent(), "^doc-[0-9]+$");
+		assertTrue(attributeValue.getPreparedContent() instanceof Pattern);
+	}
+
+	/**
+	 * Creates an integer {@link AttributeValueType} with the given content.
+	 *
+	 * @param content
+	 *            The content of the {@link AttributeValueType}.
+	 * @return The created {@link AttributeValueType}.
+	 */
+	private AttributeValueType createAttributeValue(String content) {
+		AttributeValueType attributeValue = new AttributeValueType();
+		attributeValue.setDataType(new IntegerDataTypeAttribute());
+		attributeValue.getContent().add(content);
+		return attributeValue;
+	}
+}
@@ -374,6 +374,67 @@ public class TestSubjectAttributeDesignator {
 		designator.handle(req, evaluationContext);
 	}
 
+	/**
+	 * Tests that the {@link PIP} is asked at most once per request for the
+	 * same attribute, even if it does not know the attribute.
+	 * 
+	 * @throws Exception
+	 *             In case an error occurs.
+	 */
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testPIPMemoization() throws Exception {
+		final List<String> fetched = new ArrayList<String>();
+		PIP pip = new PIP() {
+			public List<AttributeValueType> fetchSubjectAttributes(RequestType request, String attributeId,
+					String dataType, String issuer, String subjectCategory) {
+				fetched.add(attributeId);
+				List<AttributeValueType> values = new ArrayList<AttributeValueType>();
+				if ("subject-role".equals(attributeId)) {
+					AttributeValueType value = new AttributeValueType();
+					value.getContent().add("Fredi");
+					values.add(value);
+				}
+				return values;
+			}
+
+			public List<AttributeValueType> fetchResourceAttributes(RequestType request, String attributeId,
+					String dataType, String issuer) {
+				return null;
+			}
+
+			public List<AttributeValueType> fetchActionAttributes(RequestType request, String attributeId,
+					String dataType, String issuer) {
+				return null;
+			}
+
+			public List<AttributeValueType> fetchEnvironmentAttributes(RequestType request, String attributeId,
+					String dataType, String issuer) {
+				return null;
+			}
+		};
+		EvaluationContext context = new EvaluationContext(new TargetMatcherImpl(), pip, new StatusCodeComparator(),
+				null);
+		RequestType req = initializeRequest(initializeSubject("test", "other", new StringDataTypeAttribute(), null,
+				"x", false), initializeSubject("test", "other", new StringDataTypeAttribute(), null, "x", false),
+				initializeSubject("test", "other", new StringDataTypeAttribute(), null, "x", false));
+
+		for (int i = 0; i < 3; i++) {
+			List<Object> roles = (List<Object>) initializeDesignator("test", "subject-role",
+					new StringDataTypeAttribute(), null, false).handle(req, context);
+			assertEquals(roles.size(), 1);
+			assertEquals(roles.get(0), "Fredi");
+			List<Object> unknown = (List<Object>) initializeDesignator("test", "subject-unknown",
+					new StringDataTypeAttribute(), null, false).handle(req, context);
+			assertEquals(unknown.size(), 0);
+		}
+		assertEquals(fetched.size(), 2);
+
+		// Another subject category is another attribute.
+		initializeDesignator("other", "subject-role", new StringDataTypeAttribute(), null, false).handle(req, context);
+		assertEquals(fetched.size(), 3);
+	}
+
 	/**
 	 * Checks if a certain {@link String} is contained in a {@link List} of
 	 * {@link Object}s.
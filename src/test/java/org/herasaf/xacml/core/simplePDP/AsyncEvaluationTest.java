@@ -0,0 +1,355 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.herasaf.xacml.core.simplePDP;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.herasaf.xacml.core.api.AsyncPIP;
+import org.herasaf.xacml.core.api.AttributeDescriptor;
+import org.herasaf.xacml.core.api.PDP;
+import org.herasaf.xacml.core.api.PIP;
+import org.herasaf.xacml.core.api.PolicyRetrievalPoint;
+import org.herasaf.xacml.core.context.RequestMarshaller;
+import org.herasaf.xacml.core.context.impl.AttributeValueType;
+import org.herasaf.xacml.core.context.impl.DecisionType;
+import org.herasaf.xacml.core.context.impl.RequestType;
+import org.herasaf.xacml.core.context.impl.ResponseType;
+import org.herasaf.xacml.core.policy.PolicyMarshaller;
+import org.herasaf.xacml.core.simplePDP.initializers.InitializerExecutor;
+import org.slf4j.MDC;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests {@link SimplePDP#evaluateAsync(RequestType)}.
+ */
+public class AsyncEvaluationTest {
+	private static final String MDC_REQUEST_TIME = "org:herasaf:request:xacml:evaluation:requesttime";
+	private static final String EVALUATION_THREAD = "evaluation";
+	private CopyOnWritePolicyRepository repository;
+	private ExecutorService executor;
+
+	/**
+	 * Deploys the policy.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@BeforeMethod
+	public void init() throws Exception {
+		InitializerExecutor.runInitializers();
+		repository = new CopyOnWritePolicyRepository();
+		InputStream is = AsyncEvaluationTest.class
+				.getResourceAsStream("/org/herasaf/xacml/core/simplePDP/policies/prefetch/PrefetchPolicy.xml");
+		repository.deploy(PolicyMarshaller.unmarshal(is));
+		executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			public Thread newThread(Runnable runnable) {
+				return new Thread(runnable, EVALUATION_THREAD);
+			}
+		});
+	}
+
+	/**
+	 * Shuts the executor down.
+	 */
+	@AfterMethod
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Tests that the evaluation waits for the {@link AsyncPIP} without
+	 * blocking the calling thread and that the missing attributes are
+	 * requested with a single call.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test
+	public void testAsyncEvaluation() throws Exception {
+		FutureAsyncPIP pip = new FutureAsyncPIP();
+		SimplePDPConfiguration configuration = new SimplePDPConfiguration();
+		configuration.setPolicyRetrievalPoint(repository);
+		configuration.setPip(pip);
+		configuration.setPrefetchConditionAttributes(true);
+		PDP pdp = SimplePDPFactory.getSimplePDP(configuration);
+
+		CompletableFuture<ResponseType> response = pdp.evaluateAsync(loadRequest()).toCompletableFuture();
+		assertFalse(response.isDone());
+		assertEquals(pip.calls.size(), 1);
+		assertEquals(pip.calls.get(0).size(), 3);
+
+		pip.complete();
+		assertEquals(response.get(5, TimeUnit.SECONDS).getResults().get(0).getDecision(), DecisionType.PERMIT);
+	}
+
+	/**
+	 * Tests that a failed fetch of the {@link AsyncPIP} does not fail the
+	 * evaluation. The attributes are then requested with the single-attribute
+	 * methods.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test
+	public void testFailedFetch() throws Exception {
+		FutureAsyncPIP pip = new FutureAsyncPIP();
+		SimplePDPConfiguration configuration = new SimplePDPConfiguration();
+		configuration.setPolicyRetrievalPoint(repository);
+		configuration.setPip(pip);
+		configuration.setPrefetchConditionAttributes(true);
+		PDP pdp = SimplePDPFactory.getSimplePDP(configuration);
+
+		CompletableFuture<ResponseType> response = pdp.evaluateAsync(loadRequest()).toCompletableFuture();
+		pip.future.completeExceptionally(new IllegalStateException("Backend unavailable."));
+		assertEquals(response.get(5, TimeUnit.SECONDS).getResults().get(0).getDecision(),
+				DecisionType.INDETERMINATE);
+	}
+
+	/**
+	 * Tests that the request is evaluated on the executor of the asynchronous
+	 * evaluation and not on the thread that completes the fetch of the
+	 * {@link AsyncPIP}. The attributes of the condition are fetched with the
+	 * single-attribute methods during the evaluation.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test
+	public void testEvaluationNotOnCompletionThread() throws Exception {
+		FutureAsyncPIP pip = new FutureAsyncPIP();
+		SimplePDPConfiguration configuration = new SimplePDPConfiguration();
+		configuration.setPolicyRetrievalPoint(repository);
+		configuration.setPip(pip);
+		configuration.setAsyncEvaluationExecutor(executor);
+		PDP pdp = SimplePDPFactory.getSimplePDP(configuration);
+
+		RequestType request = loadRequest();
+		request.getResources().get(0).getAttributes().clear();
+		CompletableFuture<ResponseType> response = pdp.evaluateAsync(request).toCompletableFuture();
+		assertEquals(pip.calls.size(), 1);
+		Thread completion = new Thread(new Runnable() {
+			public void run() {
+				pip.complete();
+			}
+		}, "pip-completion");
+		completion.start();
+		completion.join();
+
+		assertEquals(response.get(5, TimeUnit.SECONDS).getResults().get(0).getDecision(), DecisionType.PERMIT);
+		assertEquals(pip.singleFetchThreads.size(), 3);
+		for (String thread : pip.singleFetchThreads) {
+			assertEquals(thread, EVALUATION_THREAD);
+		}
+	}
+
+	/**
+	 * Tests that a request is evaluated on the executor of the asynchronous
+	 * evaluation if the {@link PIP} is not an {@link AsyncPIP}.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test
+	public void testFallbackOnExecutor() throws Exception {
+		final List<String> threads = new ArrayList<String>();
+		SimplePDPConfiguration configuration = new SimplePDPConfiguration();
+		configuration.setPolicyRetrievalPoint(repository);
+		configuration.setPip(new AnsweringPIP(threads));
+		configuration.setAsyncEvaluationExecutor(executor);
+		PDP pdp = SimplePDPFactory.getSimplePDP(configuration);
+
+		ResponseType response = pdp.evaluateAsync(loadRequest()).toCompletableFuture().get(5, TimeUnit.SECONDS);
+		assertEquals(response.getResults().get(0).getDecision(), DecisionType.PERMIT);
+		assertEquals(threads.size(), 3);
+		for (String thread : threads) {
+			assertEquals(thread, EVALUATION_THREAD);
+		}
+	}
+
+	/**
+	 * Tests that an error before the fetch is returned as failed
+	 * {@link CompletionStage} and that the MDC entry is removed.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test
+	public void testFailedPreparation() throws Exception {
+		SimplePDPConfiguration configuration = new SimplePDPConfiguration();
+		configuration.setPolicyRetrievalPoint(new CopyOnWritePolicyRepository() {
+			@Override
+			public PolicyRetrievalPoint getSnapshot() {
+				throw new IllegalStateException("Repository unavailable.");
+			}
+		});
+		configuration.setPip(new FutureAsyncPIP());
+		PDP pdp = SimplePDPFactory.getSimplePDP(configuration);
+
+		CompletionStage<ResponseType> response = pdp.evaluateAsync(loadRequest());
+		assertNull(MDC.get(MDC_REQUEST_TIME));
+		try {
+			response.toCompletableFuture().get(5, TimeUnit.SECONDS);
+			fail("The error was not passed.");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+	}
+
+	/**
+	 * Loads the request for the tenant acme.
+	 */
+	private RequestType loadRequest() throws Exception {
+		InputStream is = AsyncEvaluationTest.class
+				.getResourceAsStream("/org/herasaf/xacml/core/simplePDP/requests/indexed/TenantRequest-acme.xml");
+		return RequestMarshaller.unmarshal(is);
+	}
+
+	/**
+	 * Creates a list containing a value with the given content.
+	 */
+	private static List<AttributeValueType> createValues(String content) {
+		List<AttributeValueType> values = new ArrayList<AttributeValueType>();
+		AttributeValueType value = new AttributeValueType();
+		value.getContent().add(content);
+		values.add(value);
+		return values;
+	}
+
+	/**
+	 * A {@link PIP} that answers the attributes of the condition and records
+	 * the threads it is called on.
+	 */
+	private static class AnsweringPIP implements PIP {
+		private final List<String> threads;
+
+		private AnsweringPIP(List<String> threads) {
+			this.threads = threads;
+		}
+
+		public List<AttributeValueType> fetchSubjectAttributes(RequestType request, String attributeId,
+				String dataType, String issuer, String subjectCategory) {
+			threads.add(Thread.currentThread().getName());
+			return createValues(attributeId.endsWith("role") ? "manager" : "gold");
+		}
+
+		public List<AttributeValueType> fetchResourceAttributes(RequestType request, String attributeId,
+				String dataType, String issuer) {
+			threads.add(Thread.currentThread().getName());
+			return createValues("public");
+		}
+
+		public List<AttributeValueType> fetchActionAttributes(RequestType request, String attributeId,
+				String dataType, String issuer) {
+			return new ArrayList<AttributeValueType>();
+		}
+
+		public List<AttributeValueType> fetchEnvironmentAttributes(RequestType request, String attributeId,
+				String dataType, String issuer) {
+			return new ArrayList<AttributeValueType>();
+		}
+	}
+
+	/**
+	 * An {@link AsyncPIP} that answers when the test completes its future. The
+	 * single-attribute methods answer the attributes of the condition if the
+	 * request was fetched without them and fail otherwise.
+	 */
+	private static class FutureAsyncPIP implements AsyncPIP {
+		private final CompletableFuture<Map<AttributeDescriptor, List<AttributeValueType>>> future;
+		private final List<List<AttributeDescriptor>> calls = new ArrayList<List<AttributeDescriptor>>();
+		private final List<String> singleFetchThreads = new ArrayList<String>();
+
+		private FutureAsyncPIP() {
+			future = new CompletableFuture<Map<AttributeDescriptor, List<AttributeValueType>>>();
+		}
+
+		public CompletionStage<Map<AttributeDescriptor, List<AttributeValueType>>> fetchAttributesAsync(
+				RequestType request, List<AttributeDescriptor> attributes) {
+			calls.add(attributes);
+			return future;
+		}
+
+		private void complete() {
+			Map<AttributeDescriptor, List<AttributeValueType>> values;
+			values = new HashMap<AttributeDescriptor, List<AttributeValueType>>();
+			for (AttributeDescriptor attribute : calls.get(0)) {
+				if (attribute.getAttributeId().endsWith("role")) {
+					values.put(attribute, createValues("manager"));
+				} else if (attribute.getAttributeId().endsWith("clearance")) {
+					values.put(attribute, createValues("gold"));
+				} else if (attribute.getAttributeId().endsWith("tenant")) {
+					values.put(attribute, createValues("acme"));
+				} else if (attribute.getCategory() == AttributeDescriptor.Category.RESOURCE) {
+					values.put(attribute, createValues("public"));
+				}
+			}
+			future.complete(values);
+		}
+
+		/**
+		 * Answers a single fetch if only the tenant was fetched
+		 * asynchronously.
+		 */
+		private List<AttributeValueType> answer(String attributeId, String content) {
+			if (calls.size() != 1 || calls.get(0).size() != 1) {
+				throw new IllegalStateException("Single fetch of " + attributeId);
+			}
+			singleFetchThreads.add(Thread.currentThread().getName());
+			return createValues(content);
+		}
+
+		public List<AttributeValueType> fetchSubjectAttributes(RequestType request, String attributeId,
+				String dataType, String issuer, String subjectCategory) {
+			return answer(attributeId, attributeId.endsWith("role") ? "manager" : "gold");
+		}
+
+		public List<AttributeValueType> fetchResourceAttributes(RequestType request, String attributeId,
+				String dataType, String issuer) {
+			return answer(attributeId, "public");
+		}
+
+		public List<AttributeValueType> fetchActionAttributes(RequestType request, String attributeId,
+				String dataType, String issuer) {
+			throw new IllegalStateException("Single fetch of " + attributeId);
+		}
+
+		public List<AttributeValueType> fetchEnvironmentAttributes(RequestType request, String attributeId,
+				String dataType, String issuer) {
+			throw new IllegalStateException("Single fetch of " + attributeId);
+		}
+	}
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.herasaf.xacml.core.simplePDP;
+
+import static org.testng.Assert.assertEquals;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.herasaf.xacml.core.api.AttributeDescriptor;
+import org.herasaf.xacml.core.api.BulkPIP;
+import org.herasaf.xacml.core.api.PDP;
+import org.herasaf.xacml.core.api.PIP;
+import org.herasaf.xacml.core.context.RequestMarshaller;
+import org.herasaf.xacml.core.context.impl.AttributeValueType;
+import org.herasaf.xacml.core.context.impl.DecisionType;
+import org.herasaf.xacml.core.context.impl.RequestType;
+import org.herasaf.xacml.core.policy.PolicyMarshaller;
+import org.herasaf.xacml.core.simplePDP.initializers.InitializerExecutor;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the prefetch of the attributes from the PIP (see
+ * {@link AttributePrefetcher}).
+ */
+public class AttributePrefetchTest {
+	private CopyOnWritePolicyRepository repository;
+	private ExecutorService executor;
+
+	/**
+	 * Deploys the policy and creates the executor.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@BeforeMethod
+	public void init() throws Exception {
+		InitializerExecutor.runInitializers();
+		repository = new CopyOnWritePolicyRepository();
+		InputStream is = AttributePrefetchTest.class
+				.getResourceAsStream("/org/herasaf/xacml/core/simplePDP/policies/prefetch/PrefetchPolicy.xml");
+		repository.deploy(PolicyMarshaller.unmarshal(is));
+		executor = Executors.newFixedThreadPool(3);
+	}
+
+	/**
+	 * Shuts the executor down.
+	 */
+	@AfterMethod
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Tests that the three attributes missing in the request are fetched
+	 * concurrently, each of them once. The PIP only answers if all three calls
+	 * are running at the same time.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test
+	public void testConcurrentPrefetch() throws Exception {
+		BarrierPIP pip = new BarrierPIP(new CyclicBarrier(3), "manager");
+		SimplePDPConfiguration configuration = new SimplePDPConfiguration();
+		configuration.setPolicyRetrievalPoint(repository);
+		configuration.setPip(pip);
+		configuration.setPrefetchConditionAttributes(true);
+		configuration.setAttributePrefetchExecutor(executor);
+		PDP pdp = SimplePDPFactory.getSimplePDP(configuration);
+
+		assertEquals(pdp.evaluate(loadRequest()).getResults().get(0).getDecision(), DecisionType.PERMIT);
+		assertEquals(pip.calls.get(), 3);
+	}
+
+	/**
+	 * Tests that the attributes are fetched when they are needed if no
+	 * executor is configured.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test
+	public void testWithoutPrefetch() throws Exception {
+		BarrierPIP pip = new BarrierPIP(null, "manager");
+		SimplePDPConfiguration configuration = new SimplePDPConfiguration();
+		configuration.setPolicyRetrievalPoint(repository);
+		configuration.setPip(pip);
+		PDP pdp = SimplePDPFactory.getSimplePDP(configuration);
+
+		assertEquals(pdp.evaluate(loadRequest()).getResults().get(0).getDecision(), DecisionType.PERMIT);
+		assertEquals(pip.calls.get(), 3);
+	}
+
+	/**
+	 * Tests that by default only the attributes of the targets are prefetched,
+	 * such that the attributes of the operands of the <code>and</code> that
+	 * are skipped after the first false operand are not fetched.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test
+	public void testConditionAttributesNotPrefetched() throws Exception {
+		BarrierPIP pip = new BarrierPIP(null, "employee");
+		SimplePDPConfiguration configuration = new SimplePDPConfiguration();
+		configuration.setPolicyRetrievalPoint(repository);
+		configuration.setPip(pip);
+		configuration.setAttributePrefetchExecutor(executor);
+		PDP pdp = SimplePDPFactory.getSimplePDP(configuration);
+
+		assertEquals(pdp.evaluate(loadRequest()).getResults().get(0).getDecision(), DecisionType.NOT_APPLICABLE);
+		assertEquals(pip.calls.get(), 1);
+	}
+
+	/**
+	 * Tests that a {@link BulkPIP} is asked for all missing attributes with a
+	 * single call.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test
+	public void testBulkFetch() throws Exception {
+		final List<List<AttributeDescriptor>> bulkCalls = new ArrayList<List<AttributeDescriptor>>();
+		BulkPIP pip = new BulkPIP() {
+			public Map<AttributeDescriptor, List<AttributeValueType>> fetchAttributes(RequestType request,
+					List<AttributeDescriptor> attributes) {
+				bulkCalls.add(attributes);
+				Map<AttributeDescriptor, List<AttributeValueType>> values;
+				values = new HashMap<AttributeDescriptor, List<AttributeValueType>>();
+				for (AttributeDescriptor attribute : attributes) {
+					if (attribute.getAttributeId().endsWith("role")) {
+						values.put(attribute, createValues("manager"));
+					} else if (attribute.getAttributeId().endsWith("clearance")) {
+						values.put(attribute, createValues("gold"));
+					} else if (attribute.getCategory() == AttributeDescriptor.Category.RESOURCE) {
+						values.put(attribute, createValues("public"));
+					}
+				}
+				return values;
+			}
+
+			public List<AttributeValueType> fetchSubjectAttributes(RequestType request, String attributeId,
+					String dataType, String issuer, String subjectCategory) {
+				throw new IllegalStateException("Single fetch of " + attributeId);
+			}
+
+			public List<AttributeValueType> fetchResourceAttributes(RequestType request, String attributeId,
+					String dataType, String issuer) {
+				throw new IllegalStateException("Single fetch of " + attributeId);
+			}
+
+			public List<AttributeValueType> fetchActionAttributes(RequestType request, String attributeId,
+					String dataType, String issuer) {
+				throw new IllegalStateException("Single fetch of " + attributeId);
+			}
+
+			public List<AttributeValueType> fetchEnvironmentAttributes(RequestType request, String attributeId,
+					String dataType, String issuer) {
+				throw new IllegalStateException("Single fetch of " + attributeId);
+			}
+		};
+		SimplePDPConfiguration configuration = new SimplePDPConfiguration();
+		configuration.setPolicyRetrievalPoint(repository);
+		configuration.setPip(pip);
+		configuration.setPrefetchConditionAttributes(true);
+		PDP pdp = SimplePDPFactory.getSimplePDP(configuration);
+
+		assertEquals(pdp.evaluate(loadRequest()).getResults().get(0).getDecision(), DecisionType.PERMIT);
+		assertEquals(bulkCalls.size(), 1);
+		assertEquals(bulkCalls.get(0).size(), 3);
+	}
+
+	/**
+	 * Creates a list containing a value with the given content.
+	 */
+	private static List<AttributeValueType> createValues(String content) {
+		List<AttributeValueType> values = new ArrayList<AttributeValueType>();
+		AttributeValueType value = new AttributeValueType();
+		value.getContent().add(content);
+		values.add(value);
+		return values;
+	}
+
+	/**
+	 * Loads the request for the tenant acme.
+	 */
+	private RequestType loadRequest() throws Exception {
+		InputStream is = AttributePrefetchTest.class
+				.getResourceAsStream("/org/herasaf/xacml/core/simplePDP/requests/indexed/TenantRequest-acme.xml");
+		return RequestMarshaller.unmarshal(is);
+	}
+
+	/**
+	 * A {@link PIP} that waits at a barrier before it answers.
+	 */
+	private static class BarrierPIP implements PIP {
+		private final CyclicBarrier barrier;
+		private final String role;
+		private final AtomicInteger calls = new AtomicInteger();
+
+		private BarrierPIP(CyclicBarrier barrier, String role) {
+			this.barrier = barrier;
+			this.role = role;
+		}
+
+		public List<AttributeValueType> fetchSubjectAttributes(RequestType request, String attributeId,
+				String dataType, String issuer, String subjectCategory) {
+			if ("urn:herasaf:example:subject:role".equals(attributeId)) {
+				return answer(role);
+			}
+			return answer("gold");
+		}
+
+		public List<AttributeValueType> fetchResourceAttributes(RequestType request, String attributeId,
+				String dataType, String issuer) {
+			return answer("public");
+		}
+
+		public List<AttributeValueType> fetchActionAttributes(RequestType request, String attributeId,
+				String dataType, String issuer) {
+			return new ArrayList<AttributeValueType>();
+		}
+
+		public List<AttributeValueType> fetchEnvironmentAttributes(RequestType request, String attributeId,
+				String dataType, String issuer) {
+			return new ArrayList<AttributeValueType>();
+		}
+
+		private List<AttributeValueType> answer(String content) {
+			calls.incrementAndGet();
+			if (barrier != null) {
+				try {
+					barrier.await(5, TimeUnit.SECONDS);
+				} catch (Exception e) {
+					throw new IllegalStateException("The attributes are not fetched concurrently.", e);
+				}
+			}
+			return createValues(content);
+		}
+	}
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.herasaf.xacml.core.simplePDP;
+
+import static org.testng.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.herasaf.xacml.core.api.PDP;
+import org.herasaf.xacml.core.api.PIP;
+import org.herasaf.xacml.core.api.SectionScopedPIP;
+import org.herasaf.xacml.core.context.RequestMarshaller;
+import org.herasaf.xacml.core.context.impl.AttributeValueType;
+import org.herasaf.xacml.core.context.impl.DecisionType;
+import org.herasaf.xacml.core.context.impl.RequestType;
+import org.herasaf.xacml.core.context.impl.ResponseType;
+import org.herasaf.xacml.core.policy.PolicyMarshaller;
+import org.herasaf.xacml.core.simplePDP.initializers.InitializerExecutor;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests {@link SimplePDP#evaluateBatch(List)}.
+ */
+public class BatchEvaluationTest {
+	private CopyOnWritePolicyRepository repository;
+	private ExecutorService executor;
+
+	/**
+	 * Deploys the policy and creates the executor.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@BeforeMethod
+	public void init() throws Exception {
+		InitializerExecutor.runInitializers();
+		repository = new CopyOnWritePolicyRepository();
+		InputStream is = BatchEvaluationTest.class
+				.getResourceAsStream("/org/herasaf/xacml/core/simplePDP/policies/prefetch/PrefetchPolicy.xml");
+		repository.deploy(PolicyMarshaller.unmarshal(is));
+		executor = Executors.newFixedThreadPool(4);
+	}
+
+	/**
+	 * Shuts the executor down.
+	 */
+	@AfterMethod
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Tests that the responses are returned in the order of the requests and
+	 * that the attributes of the subject, which is the same in all requests,
+	 * are fetched once per batch. The classification is fetched once per
+	 * resource.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test
+	public void testBatch() throws Exception {
+		CountingPIP pip = new SectionScopedCountingPIP();
+		SimplePDPConfiguration configuration = new SimplePDPConfiguration();
+		configuration.setPolicyRetrievalPoint(repository);
+		configuration.setPip(pip);
+		configuration.setBatchEvaluationExecutor(executor);
+		PDP pdp = SimplePDPFactory.getSimplePDP(configuration);
+
+		List<RequestType> requests = new ArrayList<RequestType>();
+		for (int i = 0; i < 40; i++) {
+			requests.add(createRequest("document-" + (i % 4)));
+		}
+		List<ResponseType> responses = pdp.evaluateBatch(requests);
+
+		assertEquals(responses.size(), 40);
+		for (int i = 0; i < 40; i++) {
+			DecisionType expected = i % 4 == 3 ? DecisionType.NOT_APPLICABLE : DecisionType.PERMIT;
+			assertEquals(responses.get(i).getResults().get(0).getDecision(), expected, "Request " + i);
+		}
+		assertEquals(pip.getCalls("urn:herasaf:example:subject:role"), 1);
+		assertEquals(pip.getCalls("urn:herasaf:example:subject:clearance"), 1);
+		assertEquals(pip.getCalls("urn:herasaf:example:resource:classification"), 4);
+	}
+
+	/**
+	 * Tests that the attributes of a {@link PIP} that is not a
+	 * {@link SectionScopedPIP} are fetched for each request, and that the
+	 * requests are evaluated in the calling thread by default.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test
+	public void testBatchWithoutSharedAttributes() throws Exception {
+		CountingPIP pip = new CountingPIP();
+		SimplePDPConfiguration configuration = new SimplePDPConfiguration();
+		configuration.setPolicyRetrievalPoint(repository);
+		configuration.setPip(pip);
+		PDP pdp = SimplePDPFactory.getSimplePDP(configuration);
+
+		List<RequestType> requests = new ArrayList<RequestType>();
+		for (int i = 0; i < 8; i++) {
+			requests.add(createRequest("document-" + (i % 4)));
+		}
+		List<ResponseType> responses = pdp.evaluateBatch(requests);
+
+		for (int i = 0; i < 8; i++) {
+			DecisionType expected = i % 4 == 3 ? DecisionType.NOT_APPLICABLE : DecisionType.PERMIT;
+			assertEquals(responses.get(i).getResults().get(0).getDecision(), expected, "Request " + i);
+		}
+		assertEquals(pip.getCalls("urn:herasaf:example:subject:role"), 8);
+		assertEquals(pip.getCalls("urn:herasaf:example:resource:classification"), 8);
+	}
+
+	/**
+	 * Tests that the requests of a batch are evaluated like single requests.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test
+	public void testBatchEqualsSingleEvaluation() throws Exception {
+		SimplePDPConfiguration configuration = new SimplePDPConfiguration();
+		configuration.setPolicyRetrievalPoint(repository);
+		configuration.setPip(new CountingPIP());
+		configuration.setBatchEvaluationExecutor(executor);
+		PDP pdp = SimplePDPFactory.getSimplePDP(configuration);
+
+		List<RequestType> requests = new ArrayList<RequestType>();
+		for (int i = 0; i < 8; i++) {
+			requests.add(createRequest("document-" + i));
+		}
+		List<ResponseType> responses = pdp.evaluateBatch(requests);
+		for (int i = 0; i < 8; i++) {
+			assertEquals(responses.get(i).getResults().get(0).getDecision(),
+					pdp.evaluate(createRequest("document-" + i)).getResults().get(0).getDecision());
+		}
+	}
+
+	/**
+	 * Tests that a request with multiple resources results in one result per
+	 * resource (see the XACML multiple resource profile) and that the
+	 * attributes of the subject are fetched once.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test
+	public void testMultipleResources() throws Exception {
+		CountingPIP pip = new SectionScopedCountingPIP();
+		SimplePDPConfiguration configuration = new SimplePDPConfiguration();
+		configuration.setPolicyRetrievalPoint(repository);
+		configuration.setPip(pip);
+		configuration.setBatchEvaluationExecutor(executor);
+		PDP pdp = SimplePDPFactory.getSimplePDP(configuration);
+
+		ResponseType response = pdp.evaluate(createRequest("document-0", "document-1", "document-2", "document-3"));
+
+		assertEquals(response.getResults().size(), 4);
+		for (int i = 0; i < 4; i++) {
+			DecisionType expected = i == 3 ? DecisionType.NOT_APPLICABLE : DecisionType.PERMIT;
+			assertEquals(response.getResults().get(i).getResourceId(), "document-" + i);
+			assertEquals(response.getResults().get(i).getDecision(), expected, "Resource " + i);
+		}
+		assertEquals(pip.getCalls("urn:herasaf:example:subject:role"), 1);
+		assertEquals(pip.getCalls("urn:herasaf:example:subject:clearance"), 1);
+	}
+
+	/**
+	 * Creates a request of the tenant acme for the given resources.
+	 */
+	private static RequestType createRequest(String... resourceIds) throws Exception {
+		StringBuilder request = new StringBuilder("<Request xmlns=\"urn:oasis:names:tc:xacml:2.0:context:schema:os\">"
+				+ "<Subject><Attribute AttributeId=\"urn:oasis:names:tc:xacml:1.0:subject:subject-id\""
+				+ " DataType=\"urn:oasis:names:tc:xacml:1.0:data-type:rfc822Name\">"
+				+ "<AttributeValue>hello@med.example.com</AttributeValue></Attribute></Subject>");
+		for (String resourceId : resourceIds) {
+			request.append("<Resource><Attribute AttributeId=\"urn:herasaf:example:resource:tenant\""
+					+ " DataType=\"http://www.w3.org/2001/XMLSchema#string\"><AttributeValue>acme</AttributeValue>"
+					+ "</Attribute><Attribute AttributeId=\"urn:oasis:names:tc:xacml:1.0:resource:resource-id\""
+					+ " DataType=\"http://www.w3.org/2001/XMLSchema#string\"><AttributeValue>" + resourceId
+					+ "</AttributeValue></Attribute></Resource>");
+		}
+		request.append("<Action /><Environment /></Request>");
+		return RequestMarshaller.unmarshal(new ByteArrayInputStream(request.toString().getBytes(
+				StandardCharsets.UTF_8)));
+	}
+
+	/**
+	 * A {@link PIP} that counts its calls per attribute. The resource
+	 * document-3 is confidential, all other resources are public.
+	 */
+	private static class CountingPIP implements PIP {
+		private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<String, AtomicInteger>();
+
+		public List<AttributeValueType> fetchSubjectAttributes(RequestType request, String attributeId,
+				String dataType, String issuer, String subjectCategory) {
+			count(attributeId);
+			if ("urn:herasaf:example:subject:role".equals(attributeId)) {
+				return createValues("manager");
+			}
+			return createValues("gold");
+		}
+
+		public List<AttributeValueType> fetchResourceAttributes(RequestType request, String attributeId,
+				String dataType, String issuer) {
+			count(attributeId);
+			List<AttributeValueType> resourceIds = request.getResources().get(0).getAttributes().get(1)
+					.getAttributeValues();
+			if ("document-3".equals(resourceIds.get(0).getContent().get(0))) {
+				return createValues("confidential");
+			}
+			return createValues("public");
+		}
+
+		public List<AttributeValueType> fetchActionAttributes(RequestType request, String attributeId,
+				String dataType, String issuer) {
+			return new ArrayList<AttributeValueType>();
+		}
+
+		public List<AttributeValueType> fetchEnvironmentAttributes(RequestType request, String attributeId,
+				String dataType, String issuer) {
+			return new ArrayList<AttributeValueType>();
+		}
+
+		private int getCalls(String attributeId) {
+			AtomicInteger count = calls.get(attributeId);
+			return count != null ? count.get() : 0;
+		}
+
+		private void count(String attributeId) {
+			calls.computeIfAbsent(attributeId, k -> new AtomicInteger()).incrementAndGet();
+		}
+
+		private static List<AttributeValueType> createValues(String content) {
+			List<AttributeValueType> values = new ArrayList<AttributeValueType>();
+			AttributeValueType value = new AttributeValueType();
+			value.getContent().add(content);
+			values.add(value);
+			return values;
+		}
+	}
+
+	/**
+	 * A {@link CountingPIP} that resolves the attributes from the section of
+	 * their category only.
+	 */
+	private static class SectionScopedCountingPIP extends CountingPIP implements SectionScopedPIP {
+	}
+}
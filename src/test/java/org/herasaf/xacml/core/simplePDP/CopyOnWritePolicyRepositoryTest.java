@@ -0,0 +1,130 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.herasaf.xacml.core.simplePDP;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.fail;
+
+import java.io.InputStream;
+import java.util.Arrays;
+
+import org.herasaf.xacml.core.PolicyRepositoryException;
+import org.herasaf.xacml.core.SyntaxException;
+import org.herasaf.xacml.core.api.PDP;
+import org.herasaf.xacml.core.api.PolicyRetrievalPoint;
+import org.herasaf.xacml.core.context.RequestMarshaller;
+import org.herasaf.xacml.core.context.impl.DecisionType;
+import org.herasaf.xacml.core.context.impl.RequestType;
+import org.herasaf.xacml.core.policy.Evaluatable;
+import org.herasaf.xacml.core.policy.PolicyMarshaller;
+import org.herasaf.xacml.core.simplePDP.initializers.InitializerExecutor;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the {@link CopyOnWritePolicyRepository}.
+ */
+public class CopyOnWritePolicyRepositoryTest {
+	private CopyOnWritePolicyRepository repository;
+	private Evaluatable acme;
+	private Evaluatable globex;
+
+	/**
+	 * Creates an empty repository and loads two policies.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@BeforeMethod
+	public void init() throws Exception {
+		InitializerExecutor.runInitializers();
+		acme = loadPolicy("/org/herasaf/xacml/core/simplePDP/policies/indexed/TenantPolicy-acme.xml");
+		globex = loadPolicy("/org/herasaf/xacml/core/simplePDP/policies/indexed/TenantPolicy-globex.xml");
+		repository = new CopyOnWritePolicyRepository();
+	}
+
+	/**
+	 * Tests that a snapshot does not change if the repository changes.
+	 */
+	@Test
+	public void testSnapshot() {
+		repository.deploy(acme);
+		PolicyRetrievalPoint snapshot = repository.getSnapshot();
+
+		repository.deploy(globex, 0);
+		repository.undeploy(acme.getId());
+
+		assertEquals(snapshot.getEvaluatables(null), Arrays.asList(acme));
+		assertEquals(snapshot.getEvaluatable(acme.getId()), acme);
+		assertEquals(repository.getDeployment(), Arrays.asList(globex));
+	}
+
+	/**
+	 * Tests that a deployment of several {@link Evaluatable}s is not visible if
+	 * one of them cannot be deployed.
+	 */
+	@Test
+	public void testAtomicDeployment() {
+		repository.deploy(acme);
+		try {
+			repository.deploy(Arrays.asList(globex, acme));
+			fail("The ID of acme is not unique.");
+		} catch (PolicyRepositoryException e) {
+			// expected
+		}
+		assertEquals(repository.getDeployment(), Arrays.asList(acme));
+
+		try {
+			repository.getEvaluatable(globex.getId());
+			fail("globex must not be deployed.");
+		} catch (PolicyRepositoryException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Tests that a {@link SimplePDP} using the repository evaluates the
+	 * request.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test
+	public void testEvaluation() throws Exception {
+		repository.deploy(Arrays.asList(acme, globex));
+		PDP pdp = SimplePDPFactory.getSimplePDP(repository);
+		InputStream is = CopyOnWritePolicyRepositoryTest.class
+				.getResourceAsStream("/org/herasaf/xacml/core/simplePDP/requests/indexed/TenantRequest-acme.xml");
+		RequestType request = RequestMarshaller.unmarshal(is);
+
+		assertEquals(pdp.evaluate(request).getResults().get(0).getDecision(), DecisionType.PERMIT);
+	}
+
+	/**
+	 * Loads an {@link Evaluatable} from the class path.
+	 *
+	 * @param file
+	 *            The path to the resource.
+	 * @return The created {@link Evaluatable}.
+	 * @throws SyntaxException
+	 */
+	private Evaluatable loadPolicy(String file) throws SyntaxException {
+		InputStream is = CopyOnWritePolicyRepositoryTest.class.getResourceAsStream(file);
+		return PolicyMarshaller.unmarshal(is);
+	}
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.herasaf.xacml.core.simplePDP;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.InputStream;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.herasaf.xacml.core.api.PDP;
+import org.herasaf.xacml.core.context.EvaluationContext;
+import org.herasaf.xacml.core.context.RequestMarshaller;
+import org.herasaf.xacml.core.context.impl.AttributeType;
+import org.herasaf.xacml.core.context.impl.AttributeValueType;
+import org.herasaf.xacml.core.context.impl.DecisionType;
+import org.herasaf.xacml.core.context.impl.RequestType;
+import org.herasaf.xacml.core.context.impl.ResponseType;
+import org.herasaf.xacml.core.dataTypeAttribute.impl.TimeDataTypeAttribute;
+import org.herasaf.xacml.core.policy.PolicyMarshaller;
+import org.herasaf.xacml.core.simplePDP.initializers.InitializerExecutor;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the current-time, current-date and current-dateTime environment
+ * attributes supplied by the {@link SimplePDP}.
+ */
+public class CurrentTimeTest {
+	private CopyOnWritePolicyRepository repository;
+
+	/**
+	 * Deploys the policy that permits during office hours on 21 May 2013.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@BeforeMethod
+	public void init() throws Exception {
+		InitializerExecutor.runInitializers();
+		repository = new CopyOnWritePolicyRepository();
+		InputStream is = CurrentTimeTest.class
+				.getResourceAsStream("/org/herasaf/xacml/core/simplePDP/policies/time/OfficeHoursPolicy.xml");
+		repository.deploy(PolicyMarshaller.unmarshal(is));
+	}
+
+	/**
+	 * Tests that the current time is taken from the configured clock and that
+	 * the request is not modified.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test
+	public void testClock() throws Exception {
+		RequestType request = loadRequest();
+		assertEquals(createPDP(new CountingClock("2013-05-21T10:15:30Z")).evaluate(request).getResults().get(0)
+				.getDecision(), DecisionType.PERMIT);
+		assertTrue(request.getEnvironment().getAttributes().isEmpty());
+
+		assertEquals(createPDP(new CountingClock("2013-05-21T20:15:30Z")).evaluate(request).getResults().get(0)
+				.getDecision(), DecisionType.NOT_APPLICABLE);
+		assertEquals(createPDP(new CountingClock("2013-05-22T10:15:30Z")).evaluate(request).getResults().get(0)
+				.getDecision(), DecisionType.NOT_APPLICABLE);
+	}
+
+	/**
+	 * Tests that a current time contained in the request takes precedence over
+	 * the clock.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test
+	public void testCurrentTimeOfRequest() throws Exception {
+		RequestType request = loadRequest();
+		AttributeValueType value = new AttributeValueType();
+		value.getContent().add("20:15:30Z");
+		AttributeType attribute = new AttributeType();
+		attribute.setAttributeId("urn:oasis:names:tc:xacml:1.0:environment:current-time");
+		attribute.setDataType(new TimeDataTypeAttribute());
+		attribute.getAttributeValues().add(value);
+		request.getEnvironment().getAttributes().add(attribute);
+
+		assertEquals(createPDP(new CountingClock("2013-05-21T10:15:30Z")).evaluate(request).getResults().get(0)
+				.getDecision(), DecisionType.NOT_APPLICABLE);
+	}
+
+	/**
+	 * Tests that the requests of a batch are evaluated at the same time.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test
+	public void testBatch() throws Exception {
+		CountingClock clock = new CountingClock("2013-05-21T10:15:30Z");
+		PDP pdp = createPDP(clock);
+		List<RequestType> requests = new ArrayList<RequestType>();
+		for (int i = 0; i < 10; i++) {
+			requests.add(loadRequest());
+		}
+		for (ResponseType response : pdp.evaluateBatch(requests)) {
+			assertEquals(response.getResults().get(0).getDecision(), DecisionType.PERMIT);
+		}
+		assertEquals(clock.reads.get(), 1);
+	}
+
+	/**
+	 * Tests that the default clock uses the default timezone of the JVM, or
+	 * the configured timezone, instead of UTC.
+	 */
+	@Test
+	public void testDefaultClockZone() {
+		TimeZone defaultTimeZone = TimeZone.getDefault();
+		TimeZone.setDefault(TimeZone.getTimeZone("Australia/Sydney"));
+		try {
+			ZoneId sydney = ZoneId.of("Australia/Sydney");
+			Clock clock = new SimplePDPConfiguration().getClock();
+			assertEquals(clock.getZone(), sydney);
+
+			EvaluationContext evaluationContext = new EvaluationContext(null, null, false, null, null);
+			assertEquals(evaluationContext.getCurrentDateTime().getOffset(),
+					sydney.getRules().getOffset(evaluationContext.getCurrentDateTime().toInstant()));
+
+			SimplePDPConfiguration configuration = new SimplePDPConfiguration();
+			configuration.setTimeZone(ZoneOffset.ofHours(-5));
+			assertEquals(configuration.getClock().getZone(), ZoneOffset.ofHours(-5));
+		} finally {
+			TimeZone.setDefault(defaultTimeZone);
+		}
+	}
+
+	/**
+	 * Creates a {@link PDP} with the given {@link Clock}.
+	 */
+	private PDP createPDP(Clock clock) {
+		SimplePDPConfiguration configuration = new SimplePDPConfiguration();
+		configuration.setPolicyRetrievalPoint(repository);
+		configuration.setClock(clock);
+		return SimplePDPFactory.getSimplePDP(configuration);
+	}
+
+	/**
+	 * Loads a request without environment attributes.
+	 */
+	private RequestType loadRequest() throws Exception {
+		InputStream is = CurrentTimeTest.class
+				.getResourceAsStream("/org/herasaf/xacml/core/simplePDP/requests/indexed/TenantRequest-acme.xml");
+		return RequestMarshaller.unmarshal(is);
+	}
+
+	/**
+	 * A fixed {@link Clock} in the UTC timezone that counts how often it is
+	 * read.
+	 */
+	private static class CountingClock extends Clock {
+		private final Instant instant;
+		private final AtomicInteger reads = new AtomicInteger();
+
+		private CountingClock(String instant) {
+			this.instant = Instant.parse(instant);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Instant instant() {
+			reads.incrementAndGet();
+			return instant;
+		}
+	}
+}
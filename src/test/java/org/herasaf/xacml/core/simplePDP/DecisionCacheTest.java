@@ -0,0 +1,221 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.herasaf.xacml.core.simplePDP;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.herasaf.xacml.core.api.PDP;
+import org.herasaf.xacml.core.api.PolicyRetrievalPoint;
+import org.herasaf.xacml.core.context.EvaluationContext;
+import org.herasaf.xacml.core.context.RequestMarshaller;
+import org.herasaf.xacml.core.context.StatusCodeComparator;
+import org.herasaf.xacml.core.context.impl.AttributeType;
+import org.herasaf.xacml.core.context.impl.DecisionType;
+import org.herasaf.xacml.core.context.impl.RequestType;
+import org.herasaf.xacml.core.context.impl.ResourceContentType;
+import org.herasaf.xacml.core.policy.Evaluatable;
+import org.herasaf.xacml.core.policy.PolicyMarshaller;
+import org.herasaf.xacml.core.policy.impl.EffectType;
+import org.herasaf.xacml.core.policy.impl.ObligationType;
+import org.herasaf.xacml.core.simplePDP.initializers.InitializerExecutor;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the {@link DecisionCache} and its use in the {@link SimplePDP}.
+ */
+public class DecisionCacheTest {
+	private CopyOnWritePolicyRepository repository;
+	private Evaluatable acme;
+	private Evaluatable currentTime;
+
+	/**
+	 * Creates an empty repository and loads the policies.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@BeforeMethod
+	public void init() throws Exception {
+		InitializerExecutor.runInitializers();
+		acme = loadPolicy("/org/herasaf/xacml/core/simplePDP/policies/indexed/TenantPolicy-acme.xml");
+		currentTime = loadPolicy("/org/herasaf/xacml/core/simplePDP/policies/cache/CurrentTimePolicy.xml");
+		repository = new CopyOnWritePolicyRepository();
+	}
+
+	/**
+	 * Tests that the key does not depend on the order of the attributes and
+	 * not on the current-time attributes.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test
+	public void testCanonicalKey() throws Exception {
+		RequestType request = loadRequest();
+		String key = DecisionCache.createKey(request);
+		assertNotNull(key);
+
+		request.ensureThatCreationTimeIsSet();
+		assertEquals(DecisionCache.createKey(request), key);
+
+		AttributeType attribute = new AttributeType();
+		attribute.setAttributeId("urn:herasaf:example:subject:role");
+		request.getSubjects().get(0).getAttributes().add(0, attribute);
+		String otherKey = DecisionCache.createKey(request);
+		request.getSubjects().get(0).getAttributes().remove(0);
+		request.getSubjects().get(0).getAttributes().add(attribute);
+		assertEquals(DecisionCache.createKey(request), otherKey);
+
+		request.getResources().get(0).setResourceContent(new ResourceContentType());
+		assertNull(DecisionCache.createKey(request));
+	}
+
+	/**
+	 * Tests that a cached decision is only returned for the deployment it was
+	 * evaluated against.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test
+	public void testDeployment() throws Exception {
+		DecisionCache cache = new DecisionCache(10, 0);
+		repository.deploy(acme);
+		PolicyRetrievalPoint snapshot = repository.getSnapshot();
+
+		assertNull(cache.get("key", snapshot));
+		cache.put("key", snapshot, Arrays.asList(acme), DecisionType.PERMIT, createContext());
+		assertEquals(cache.get("key", snapshot).getDecision(), DecisionType.PERMIT);
+
+		repository.undeploy(acme.getId());
+		assertNull(cache.get("key", repository.getSnapshot()));
+		assertEquals(cache.size(), 0);
+
+		// A late evaluation against the old deployment is not cached.
+		cache.put("key", snapshot, Arrays.asList(acme), DecisionType.PERMIT, createContext());
+		assertEquals(cache.size(), 0);
+	}
+
+	/**
+	 * Tests that the least recently used decision is evicted and that the
+	 * decisions of {@link Evaluatable}s that refer to the current time are not
+	 * cached.
+	 */
+	@Test
+	public void testEvictionAndCurrentTime() {
+		DecisionCache cache = new DecisionCache(2, 0);
+		PolicyRetrievalPoint snapshot = repository.getSnapshot();
+		cache.get("a", snapshot);
+
+		cache.put("a", snapshot, Collections.<Evaluatable> emptyList(), DecisionType.PERMIT, createContext());
+		cache.put("b", snapshot, Collections.<Evaluatable> emptyList(), DecisionType.DENY, createContext());
+		cache.get("a", snapshot);
+		cache.put("c", snapshot, Collections.<Evaluatable> emptyList(), DecisionType.DENY, createContext());
+		assertNotNull(cache.get("a", snapshot));
+		assertNull(cache.get("b", snapshot));
+
+		cache.put("d", snapshot, Arrays.asList(currentTime), DecisionType.PERMIT, createContext());
+		assertNull(cache.get("d", snapshot));
+	}
+
+	/**
+	 * Tests that the cached decision holds a copy of the obligations, which is
+	 * neither changed by the evaluation nor by the users of the decision.
+	 */
+	@Test
+	public void testObligationsCopied() {
+		DecisionCache cache = new DecisionCache(10, 0);
+		PolicyRetrievalPoint snapshot = repository.getSnapshot();
+		cache.get("key", snapshot);
+
+		ObligationType obligation = new ObligationType();
+		obligation.setFulfillOn(EffectType.PERMIT);
+		EvaluationContext evaluationContext = createContext();
+		evaluationContext.addObligations(Arrays.asList(obligation), EffectType.PERMIT);
+		cache.put("key", snapshot, Collections.<Evaluatable> emptyList(), DecisionType.PERMIT, evaluationContext);
+		evaluationContext.clearObligations();
+
+		EvaluationContext first = createContext();
+		cache.get("key", snapshot).copyTo(first);
+		assertEquals(first.getObligations().getObligations(), Arrays.asList(obligation));
+		first.clearObligations();
+
+		EvaluationContext second = createContext();
+		cache.get("key", snapshot).copyTo(second);
+		assertEquals(second.getObligations().getObligations().size(), 1);
+		assertTrue(second.getMissingAttributes().isEmpty());
+	}
+
+	/**
+	 * Tests that a {@link SimplePDP} with a decision cache does not return
+	 * decisions of an undeployed policy.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test
+	public void testEvaluation() throws Exception {
+		SimplePDPConfiguration configuration = new SimplePDPConfiguration();
+		configuration.setPolicyRetrievalPoint(repository);
+		configuration.setDecisionCacheSize(100);
+		PDP pdp = SimplePDPFactory.getSimplePDP(configuration);
+
+		repository.deploy(acme);
+		assertEquals(pdp.evaluate(loadRequest()).getResults().get(0).getDecision(), DecisionType.PERMIT);
+		assertEquals(pdp.evaluate(loadRequest()).getResults().get(0).getDecision(), DecisionType.PERMIT);
+
+		repository.undeploy(acme.getId());
+		assertEquals(pdp.evaluate(loadRequest()).getResults().get(0).getDecision(), DecisionType.NOT_APPLICABLE);
+
+		repository.deploy(currentTime);
+		assertEquals(pdp.evaluate(loadRequest()).getResults().get(0).getDecision(), DecisionType.PERMIT);
+		assertEquals(pdp.evaluate(loadRequest()).getResults().get(0).getDecision(), DecisionType.PERMIT);
+	}
+
+	/**
+	 * Creates the {@link EvaluationContext} of a successful evaluation.
+	 */
+	private EvaluationContext createContext() {
+		return new EvaluationContext(null, null, new StatusCodeComparator(), repository);
+	}
+
+	/**
+	 * Loads the request for the tenant acme.
+	 */
+	private RequestType loadRequest() throws Exception {
+		InputStream is = DecisionCacheTest.class
+				.getResourceAsStream("/org/herasaf/xacml/core/simplePDP/requests/indexed/TenantRequest-acme.xml");
+		return RequestMarshaller.unmarshal(is);
+	}
+
+	/**
+	 * Loads an {@link Evaluatable} from the class path.
+	 */
+	private Evaluatable loadPolicy(String file) throws Exception {
+		InputStream is = DecisionCacheTest.class.getResourceAsStream(file);
+		return PolicyMarshaller.unmarshal(is);
+	}
+}
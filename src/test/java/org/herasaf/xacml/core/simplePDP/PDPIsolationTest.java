@@ -0,0 +1,205 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.herasaf.xacml.core.simplePDP;
+
+import static org.testng.Assert.assertEquals;
+
+import java.io.InputStream;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import javax.xml.transform.stream.StreamSource;
+
+import org.herasaf.xacml.core.SyntaxException;
+import org.herasaf.xacml.core.context.EvaluationContext;
+import org.herasaf.xacml.core.context.impl.DecisionType;
+import org.herasaf.xacml.core.context.impl.EnvironmentType;
+import org.herasaf.xacml.core.context.impl.RequestType;
+import org.herasaf.xacml.core.dataTypeAttribute.impl.DateTimeDataTypeAttribute;
+import org.herasaf.xacml.core.function.AbstractFunction;
+import org.herasaf.xacml.core.policy.impl.EnvironmentAttributeDesignatorType;
+import org.herasaf.xacml.core.simplePDP.initializers.InitializerExecutor;
+import org.herasaf.xacml.core.types.Date;
+import org.herasaf.xacml.core.types.DateTime;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that several differently configured {@link SimplePDP}s coexist in the
+ * same JVM (see {@link SimplePDP#getMarshaller()}).
+ */
+public class PDPIsolationTest {
+	private static final String RESOURCES = "/org/herasaf/xacml/core/simplePDP/";
+
+	/**
+	 * Initializes the global JAXB environment.
+	 */
+	@BeforeMethod
+	public void init() {
+		InitializerExecutor.runInitializers();
+	}
+
+	/**
+	 * Tests that the timezone of a PDP is used for the dateTime values without
+	 * a timezone and that the global default is not changed.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test
+	public void testTimeZone() throws Exception {
+		SimplePDP utcPdp = createPDP(new SimplePDPConfiguration());
+		SimplePDPConfiguration configuration = new SimplePDPConfiguration();
+		configuration.setTimeZone(ZoneOffset.ofHours(2));
+		SimplePDP cestPdp = createPDP(configuration);
+
+		deploy(utcPdp, "policies/isolation/MeetingTimePolicy.xml");
+		deploy(cestPdp, "policies/isolation/MeetingTimePolicy.xml");
+
+		assertEquals(evaluate(utcPdp, "requests/isolation/MeetingTimeRequest.xml"), DecisionType.PERMIT);
+		assertEquals(evaluate(cestPdp, "requests/isolation/MeetingTimeRequest.xml"), DecisionType.NOT_APPLICABLE);
+		assertEquals(new DateTime("2013-05-21T10:00:00").toString(), "2013-05-21T10:00:00+00:00");
+	}
+
+	/**
+	 * Tests that a PDP applies its timezone to the global defaults only if
+	 * this is enabled.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test
+	public void testGlobalDefaults() throws Exception {
+		SimplePDPConfiguration configuration = new SimplePDPConfiguration();
+		configuration.setTimeZone(ZoneOffset.ofHours(2));
+		createPDP(configuration);
+		assertEquals(new DateTime("2013-05-21T10:00:00").toString(), "2013-05-21T10:00:00+00:00");
+
+		configuration.setConfigureGlobalDefaults(true);
+		new SimplePDP(configuration);
+		try {
+			assertEquals(new DateTime("2013-05-21T10:00:00").toString(), "2013-05-21T10:00:00+02:00");
+		} finally {
+			DateTime.configureWith(false, ZoneOffset.UTC);
+			Date.configureWith(false, ZoneOffset.UTC);
+		}
+	}
+
+	/**
+	 * Tests that the current time values use the UTC representation of the
+	 * PDP and not the global default.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test
+	public void testCurrentTimeRepresentation() throws Exception {
+		EnvironmentAttributeDesignatorType designator = new EnvironmentAttributeDesignatorType();
+		designator.setAttributeId("urn:oasis:names:tc:xacml:1.0:environment:current-dateTime");
+		designator.setDataType(new DateTimeDataTypeAttribute());
+		RequestType request = new RequestType();
+		request.setEnvironment(new EnvironmentType());
+		EvaluationContext evaluationContext = new EvaluationContext(null, null, false, null, null);
+		evaluationContext.setClock(Clock.fixed(Instant.parse("2013-05-21T10:00:00Z"), ZoneOffset.UTC));
+		evaluationContext.setZuluUtcRepresentation(true);
+
+		List<?> values = (List<?>) designator.handle(request, evaluationContext);
+		assertEquals(values.get(0).toString(), "2013-05-21T10:00:00Z");
+		assertEquals(new DateTime("2013-05-21T10:00:00").toString(), "2013-05-21T10:00:00+00:00");
+	}
+
+	/**
+	 * Tests that a function of the configuration is only known by the
+	 * marshaller of this PDP.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test
+	public void testCustomFunction() throws Exception {
+		SimplePDPConfiguration configuration = new SimplePDPConfiguration();
+		configuration.addFunctions(new AlwaysTrueFunction());
+		SimplePDP customPdp = createPDP(configuration);
+
+		deploy(customPdp, "policies/isolation/CustomFunctionPolicy.xml");
+		assertEquals(evaluate(customPdp, "requests/isolation/MeetingTimeRequest.xml"), DecisionType.PERMIT);
+	}
+
+	/**
+	 * Tests that a function of the configuration of another PDP is unknown.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test(expectedExceptions = SyntaxException.class)
+	public void testCustomFunctionOfOtherPDP() throws Exception {
+		SimplePDPConfiguration configuration = new SimplePDPConfiguration();
+		configuration.addFunctions(new AlwaysTrueFunction());
+		createPDP(configuration);
+
+		deploy(createPDP(new SimplePDPConfiguration()), "policies/isolation/CustomFunctionPolicy.xml");
+	}
+
+	/**
+	 * Creates a PDP with an own repository.
+	 */
+	private static SimplePDP createPDP(SimplePDPConfiguration configuration) {
+		configuration.setPolicyRetrievalPoint(new CopyOnWritePolicyRepository());
+		return new SimplePDP(configuration);
+	}
+
+	/**
+	 * Unmarshals the given policy with the marshaller of the PDP and deploys
+	 * it.
+	 */
+	private static void deploy(SimplePDP pdp, String policy) throws Exception {
+		InputStream is = PDPIsolationTest.class.getResourceAsStream(RESOURCES + policy);
+		((CopyOnWritePolicyRepository) pdp.getPolicyRepository()).deploy(pdp.getMarshaller().unmarshalPolicy(
+				new StreamSource(is)));
+	}
+
+	/**
+	 * Unmarshals the given request with the marshaller of the PDP and returns
+	 * its decision.
+	 */
+	private static DecisionType evaluate(SimplePDP pdp, String request) throws Exception {
+		InputStream is = PDPIsolationTest.class.getResourceAsStream(RESOURCES + request);
+		RequestType requestType = pdp.getMarshaller().unmarshalRequest(new StreamSource(is));
+		return pdp.evaluate(requestType).getResults().get(0).getDecision();
+	}
+
+	/**
+	 * A function without arguments that always returns true.
+	 */
+	private static class AlwaysTrueFunction extends AbstractFunction {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public Object handle(Object... args) {
+			return Boolean.TRUE;
+		}
+
+		@Override
+		public String getFunctionId() {
+			return "urn:herasaf:example:function:always-true";
+		}
+	}
+}
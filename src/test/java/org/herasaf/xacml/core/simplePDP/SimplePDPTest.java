@@ -34,11 +34,13 @@ import org.herasaf.xacml.core.SyntaxException;
 import org.herasaf.xacml.core.api.PDP;
 import org.herasaf.xacml.core.api.PolicyRetrievalPoint;
 import org.herasaf.xacml.core.api.UnorderedPolicyRepository;
+import org.herasaf.xacml.core.context.Decision;
 import org.herasaf.xacml.core.context.RequestMarshaller;
 import org.herasaf.xacml.core.context.ResponseMarshaller;
 import org.herasaf.xacml.core.context.impl.DecisionType;
 import org.herasaf.xacml.core.context.impl.RequestType;
-import org.herasaf.xacml.core.context.impl.ResponseType;
+import org.herasaf.xacml.core.context.impl.ResponseType;
+import org.herasaf.xacml.core.context.impl.ResultType;
 import org.herasaf.xacml.core.policy.Evaluatable;
 import org.herasaf.xacml.core.policy.EvaluatableID;
 import org.herasaf.xacml.core.policy.PolicyMarshaller;
@@ -136,6 +138,48 @@ public class SimplePDPTest {
 		deploymentRepo.undeploy(policy.getId());
 	}
 
+	/**
+	 * Tests that the {@link Decision} returned by the {@link SimplePDP}
+	 * corresponds to the expected {@link ResponseType}.
+	 * 
+	 * @param policy
+	 *            The policy tree to deploy and test against.
+	 * @param request
+	 *            The {@link RequestType} that shall be evaluated.
+	 * @param expectedResponse
+	 *            The expected {@link ResponseType}.
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test(dataProvider = "policy-request-response-combinations")
+	public void testEvaluateDecision(Evaluatable policy, RequestType request,
+			ResponseType expectedResponse) throws Exception {
+		UnorderedPolicyRepository deploymentRepo = (UnorderedPolicyRepository) simplePDP
+				.getPolicyRepository();
+
+		deploymentRepo.deploy(policy);
+
+		Decision decision = simplePDP.evaluateDecision(request);
+		ResultType expectedResult = expectedResponse.getResults().get(0);
+		assertEquals(decision.getDecision(), expectedResult.getDecision());
+		assertEquals(decision.getStatusCode().getValue(), expectedResult
+				.getStatus().getStatusCode().getValue());
+		assertTrue(decision.getObligations().isEmpty());
+
+		OutputStream responseOS = new ByteArrayOutputStream();
+		ResponseMarshaller.marshal(decision.toResponse(), responseOS);
+
+		OutputStream expectedOS = new ByteArrayOutputStream();
+		ResponseMarshaller.marshal(expectedResponse, expectedOS);
+
+		XMLUnit.setIgnoreWhitespace(true);
+		XMLUnit.setIgnoreAttributeOrder(true);
+		Diff diff = new Diff(expectedOS.toString(), responseOS.toString());
+		assertTrue(diff.similar(), "The created response differs from the expected response.");
+
+		deploymentRepo.undeploy(policy.getId());
+	}
+
 	@Test
 	public void testUnknownFunctionID() throws Exception {
 	        UnorderedPolicyRepository deploymentRepo = (UnorderedPolicyRepository) simplePDP
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.herasaf.xacml.core.simplePDP;
+
+import static org.testng.Assert.assertEquals;
+
+import java.io.InputStream;
+import java.util.Arrays;
+
+import org.herasaf.xacml.core.SyntaxException;
+import org.herasaf.xacml.core.api.PDP;
+import org.herasaf.xacml.core.context.RequestMarshaller;
+import org.herasaf.xacml.core.context.impl.DecisionType;
+import org.herasaf.xacml.core.context.impl.RequestType;
+import org.herasaf.xacml.core.policy.Evaluatable;
+import org.herasaf.xacml.core.policy.PolicyMarshaller;
+import org.herasaf.xacml.core.simplePDP.initializers.InitializerExecutor;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests if the {@link TargetIndexedPolicyRepository} returns the expected
+ * candidate {@link Evaluatable}s.
+ */
+public class TargetIndexedPolicyRepositoryTest {
+	private TargetIndexedPolicyRepository repository;
+	private Evaluatable acme;
+	private Evaluatable globex;
+	private Evaluatable notIndexable;
+
+	/**
+	 * Deploys two indexable policies and one policy that cannot be indexed.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@BeforeMethod
+	public void init() throws Exception {
+		InitializerExecutor.runInitializers();
+		acme = loadPolicy("/org/herasaf/xacml/core/simplePDP/policies/indexed/TenantPolicy-acme.xml");
+		globex = loadPolicy("/org/herasaf/xacml/core/simplePDP/policies/indexed/TenantPolicy-globex.xml");
+		notIndexable = loadPolicy("/org/herasaf/xacml/core/simplePDP/policies/Policy01.xml");
+
+		repository = new TargetIndexedPolicyRepository();
+		repository.deploy(Arrays.asList(acme, notIndexable, globex));
+	}
+
+	/**
+	 * Tests that only the matching indexed policy and the fallback policy are
+	 * returned.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test
+	public void testMatchingValue() throws Exception {
+		RequestType request = loadRequest("/org/herasaf/xacml/core/simplePDP/requests/indexed/TenantRequest-acme.xml");
+
+		assertEquals(repository.getEvaluatables(request), Arrays.asList(acme, notIndexable));
+	}
+
+	/**
+	 * Tests that all policies are returned if the request does not contain the
+	 * indexed attribute (it may be resolved by a PIP).
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test
+	public void testMissingValue() throws Exception {
+		RequestType request = loadRequest("/org/herasaf/xacml/core/simplePDP/requests/indexed/TenantRequest-none.xml");
+
+		assertEquals(repository.getEvaluatables(request), Arrays.asList(acme, notIndexable, globex));
+	}
+
+	/**
+	 * Tests that undeployed policies are removed from the index.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test
+	public void testUndeploy() throws Exception {
+		RequestType request = loadRequest("/org/herasaf/xacml/core/simplePDP/requests/indexed/TenantRequest-acme.xml");
+
+		repository.undeploy(acme.getId());
+		assertEquals(repository.getEvaluatables(request), Arrays.asList(notIndexable));
+
+		repository.undeploy(notIndexable.getId());
+		repository.undeploy(globex.getId());
+		assertEquals(repository.getEvaluatables(request).size(), 0);
+	}
+
+	/**
+	 * Tests that a {@link SimplePDP} using the repository evaluates the
+	 * request.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test
+	public void testEvaluation() throws Exception {
+		repository.undeploy(notIndexable.getId());
+		PDP pdp = SimplePDPFactory.getSimplePDP(repository);
+		RequestType request = loadRequest("/org/herasaf/xacml/core/simplePDP/requests/indexed/TenantRequest-acme.xml");
+
+		assertEquals(pdp.evaluate(request).getResults().get(0).getDecision(), DecisionType.PERMIT);
+	}
+
+	/**
+	 * Loads an {@link Evaluatable} from the class path.
+	 *
+	 * @param file
+	 *            The path to the resource.
+	 * @return The created {@link Evaluatable}.
+	 * @throws SyntaxException
+	 */
+	private Evaluatable loadPolicy(String file) throws SyntaxException {
+		InputStream is = TargetIndexedPolicyRepositoryTest.class.getResourceAsStream(file);
+		return PolicyMarshaller.unmarshal(is);
+	}
+
+	/**
+	 * Loads an {@link RequestType} from the class path.
+	 *
+	 * @param file
+	 *            The path to the resource.
+	 * @return The created {@link RequestType}.
+	 * @throws SyntaxException
+	 */
+	private RequestType loadRequest(String file) throws SyntaxException {
+		InputStream is = TargetIndexedPolicyRepositoryTest.class.getResourceAsStream(file);
+		return RequestMarshaller.unmarshal(is);
+	}
+}
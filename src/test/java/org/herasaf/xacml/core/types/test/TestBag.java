@@ -0,0 +1,109 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.herasaf.xacml.core.types.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.herasaf.xacml.core.types.Bag;
+import org.herasaf.xacml.core.types.DateTime;
+import org.herasaf.xacml.core.types.Time;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the {@link Bag}.
+ */
+public class TestBag {
+
+	/**
+	 * Tests that a bag keeps the order and the duplicates of its values and
+	 * that its hashed view contains the distinct values.
+	 */
+	@Test
+	public void testValues() {
+		List<Integer> values = new ArrayList<Integer>();
+		for (int i = 0; i < 20; i++) {
+			values.add(i % 10);
+		}
+		Bag<Integer> bag = new Bag<Integer>(values);
+		assertEquals(bag, values);
+		assertEquals(bag.toSet(), new HashSet<Integer>(values));
+		assertSame(bag.toSet(), bag.toSet());
+		assertTrue(bag.contains(9));
+		assertFalse(bag.contains(10));
+		assertTrue(bag.containsAll(Arrays.asList(1, 2, 3)));
+		assertFalse(bag.containsAll(Arrays.asList(1, 2, 30)));
+
+		// The bag is not backed by the collection.
+		values.clear();
+		assertEquals(bag.size(), 20);
+	}
+
+	/**
+	 * Tests that a bag cannot be modified.
+	 */
+	@Test(expectedExceptions = UnsupportedOperationException.class)
+	public void testImmutable() {
+		new Bag<String>(Arrays.asList("a", "b")).add("c");
+	}
+
+	/**
+	 * Tests that {@link Bag#of(java.util.Collection)} and
+	 * {@link Bag#asSet(java.util.Collection)} reuse an existing bag and its
+	 * hashed view.
+	 */
+	@Test
+	public void testReuse() {
+		Bag<String> bag = new Bag<String>(Arrays.asList("a", "b"));
+		assertSame(Bag.of(bag), bag);
+		assertSame(Bag.asSet(bag), bag.toSet());
+
+		Set<String> set = new HashSet<String>(Arrays.asList("c", "d"));
+		Bag<String> fromSet = Bag.fromSet(set);
+		assertEquals(fromSet.size(), 2);
+		assertEquals(fromSet.toSet(), set);
+	}
+
+	/**
+	 * Tests that equal date and time values are found in the hashed view even
+	 * if they are written with different time zones.
+	 *
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test
+	public void testTimeZones() throws Exception {
+		List<Object> values = new ArrayList<Object>();
+		for (int i = 10; i < 20; i++) {
+			values.add(new DateTime("2008-01-01T" + i + ":00:00Z"));
+			values.add(new Time(i + ":30:00Z"));
+		}
+		Bag<Object> bag = new Bag<Object>(values);
+		assertTrue(bag.contains(new DateTime("2008-01-01T13:00:00+02:00")));
+		assertTrue(bag.contains(new Time("12:30:00-01:00")));
+		assertFalse(bag.contains(new DateTime("2008-01-01T20:00:00+00:00")));
+	}
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.herasaf.xacml.core.types.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+
+import java.math.BigInteger;
+
+import org.herasaf.xacml.core.types.IntegerValues;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the {@link IntegerValues} compute the same results as the
+ * {@link BigInteger} operations, also at the bounds of a long.
+ */
+public class TestIntegerValues {
+	private static final BigInteger[] VALUES = new BigInteger[] { BigInteger.ZERO, BigInteger.ONE,
+			BigInteger.valueOf(-1), BigInteger.valueOf(7), BigInteger.valueOf(-7), BigInteger.valueOf(1023),
+			BigInteger.valueOf(1024), BigInteger.valueOf(-128), BigInteger.valueOf(-129),
+			BigInteger.valueOf(3037000500L), BigInteger.valueOf(-3037000500L), BigInteger.valueOf(Long.MAX_VALUE),
+			BigInteger.valueOf(Long.MIN_VALUE), BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE),
+			BigInteger.ONE.shiftLeft(100), BigInteger.ONE.shiftLeft(100).negate() };
+
+	/**
+	 * Creates all pairs of the test values.
+	 * 
+	 * @return The pairs.
+	 */
+	@DataProvider(name = "pairs")
+	public Object[][] createPairs() {
+		Object[][] pairs = new Object[VALUES.length * VALUES.length][];
+		for (int i = 0; i < VALUES.length; i++) {
+			for (int j = 0; j < VALUES.length; j++) {
+				pairs[i * VALUES.length + j] = new Object[] { VALUES[i], VALUES[j] };
+			}
+		}
+		return pairs;
+	}
+
+	/**
+	 * Tests the arithmetic operations and the comparison of two values.
+	 * 
+	 * @param first
+	 *            The first value.
+	 * @param second
+	 *            The second value.
+	 */
+	@Test(dataProvider = "pairs")
+	public void testOperations(BigInteger first, BigInteger second) {
+		assertEquals(IntegerValues.add(first, second), first.add(second));
+		assertEquals(IntegerValues.subtract(first, second), first.subtract(second));
+		assertEquals(IntegerValues.multiply(first, second), first.multiply(second));
+		assertEquals(Integer.signum(IntegerValues.compare(first, second)), first.compareTo(second));
+		if (second.signum() != 0) {
+			assertEquals(IntegerValues.divide(first, second), first.divide(second));
+		}
+		if (second.signum() > 0) {
+			assertEquals(IntegerValues.mod(first, second), first.mod(second));
+		}
+		assertEquals(IntegerValues.abs(first), first.abs());
+		assertEquals(IntegerValues.toDouble(first), first.doubleValue());
+	}
+
+	/**
+	 * Tests that the operations report a division by zero and a modulus that
+	 * is not positive like {@link BigInteger}.
+	 */
+	@Test(expectedExceptions = ArithmeticException.class)
+	public void testDivideByZero() {
+		IntegerValues.divide(BigInteger.TEN, BigInteger.ZERO);
+	}
+
+	/**
+	 * Tests that a negative modulus is reported (see {@link #testDivideByZero()}
+	 * ).
+	 */
+	@Test(expectedExceptions = ArithmeticException.class)
+	public void testNegativeModulus() {
+		IntegerValues.mod(BigInteger.TEN, BigInteger.valueOf(-3));
+	}
+
+	/**
+	 * Creates the decimal representations of integers.
+	 * 
+	 * @return The representations.
+	 */
+	@DataProvider(name = "representations")
+	public Object[][] createRepresentations() {
+		return new Object[][] { { "0" }, { "-42" }, { "+42" }, { "007" }, { "999999999999999999" },
+				{ "-99999999999999999" }, { "9223372036854775807" }, { "-9223372036854775808" },
+				{ "9223372036854775808" }, { "123456789012345678901234567890" } };
+	}
+
+	/**
+	 * Tests that the representations are parsed like {@link BigInteger} does.
+	 * 
+	 * @param representation
+	 *            The decimal representation.
+	 */
+	@Test(dataProvider = "representations")
+	public void testParse(String representation) {
+		assertEquals(IntegerValues.parse(representation), new BigInteger(representation));
+	}
+
+	/**
+	 * Tests that an invalid representation is rejected.
+	 */
+	@Test(expectedExceptions = NumberFormatException.class)
+	public void testParseInvalid() {
+		IntegerValues.parse("4.2");
+	}
+
+	/**
+	 * Tests that small values are cached.
+	 */
+	@Test
+	public void testCachedValues() {
+		assertSame(IntegerValues.parse("42"), IntegerValues.valueOf(42));
+		assertSame(IntegerValues.add(BigInteger.valueOf(1000), BigInteger.valueOf(23)), IntegerValues.valueOf(1023));
+		assertEquals(IntegerValues.valueOf(1024), BigInteger.valueOf(1024));
+	}
+}
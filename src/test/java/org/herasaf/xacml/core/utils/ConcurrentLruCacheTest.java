@@ -0,0 +1,77 @@
+/*
+ * Copyright 2008 - 2013 HERAS-AF (www.herasaf.org)
+ * Holistic Enterprise-Ready Application Security Architecture Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.herasaf.xacml.core.utils;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+/**
+ * Tests the {@link ConcurrentLruCache}.
+ */
+public class ConcurrentLruCacheTest {
+
+	/**
+	 * Tests that the least recently used entry is evicted.
+	 * 
+	 * @throws Exception
+	 *             If an error occurs.
+	 */
+	@Test
+	public void testEviction() throws Exception {
+		ConcurrentLruCache<String, Integer> cache = new ConcurrentLruCache<String, Integer>(2);
+		cache.put("a", 1);
+		Thread.sleep(1);
+		cache.put("b", 2);
+		Thread.sleep(1);
+		assertEquals(cache.get("a"), Integer.valueOf(1));
+		Thread.sleep(1);
+		cache.put("c", 3);
+		assertEquals(cache.size(), 2);
+		assertNull(cache.get("b"));
+		assertEquals(cache.get("a"), Integer.valueOf(1));
+		assertEquals(cache.get("c"), Integer.valueOf(3));
+	}
+
+	/**
+	 * Tests the conditional updates.
+	 */
+	@Test
+	public void testConditionalUpdates() {
+		ConcurrentLruCache<String, Integer> cache = new ConcurrentLruCache<String, Integer>(10);
+		Integer one = Integer.valueOf(1);
+		assertNull(cache.putIfAbsent("a", one));
+		assertEquals(cache.putIfAbsent("a", 2), one);
+		assertFalse(cache.replace("a", Integer.valueOf(1000), 3));
+		assertTrue(cache.replace("a", one, 3));
+		assertFalse(cache.remove("a", one));
+		assertTrue(cache.remove("a", cache.get("a")));
+		assertEquals(cache.size(), 0);
+	}
+
+	/**
+	 * Tests that the maximum size must be positive.
+	 */
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testInvalidMaximumSize() {
+		new ConcurrentLruCache<String, Integer>(0);
+	}
+}